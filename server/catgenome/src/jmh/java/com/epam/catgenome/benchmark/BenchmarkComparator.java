@@ -0,0 +1,124 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2016 EPAM Systems
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package com.epam.catgenome.benchmark;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.StringJoiner;
+import java.util.TreeMap;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Compares two JMH result files in JSON format, e.g. results of two commits. Prints a change of a score of each
+ * benchmark, that is present in both files, and marks changes, that exceed a threshold and errors of both scores.
+ * <p>
+ * Usage: {@code BenchmarkComparator <baseline.json> <current.json> [threshold, % (default 10)]}.
+ * Exits with status 2, if any benchmark has regressed.
+ * </p>
+ */
+public final class BenchmarkComparator {
+
+    private static final double DEFAULT_THRESHOLD = 10;
+    private static final double PERCENT = 100;
+    private static final int REGRESSION_STATUS = 2;
+    private static final String THROUGHPUT_MODE = "thrpt";
+
+    private BenchmarkComparator() {
+        // no operations
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("Usage: BenchmarkComparator <baseline.json> <current.json> [threshold, %]");
+            System.exit(1);
+        }
+        double threshold = args.length > 2 ? Double.parseDouble(args[2]) : DEFAULT_THRESHOLD;
+        Map<String, JsonNode> baseline = readResults(new File(args[0]));
+        Map<String, JsonNode> current = readResults(new File(args[1]));
+
+        boolean regressed = false;
+        System.out.println(String.format("%-100s %14s %14s %9s", "Benchmark", "Baseline", "Current", "Change"));
+        for (Map.Entry<String, JsonNode> entry : current.entrySet()) {
+            JsonNode base = baseline.get(entry.getKey());
+            if (base == null) {
+                System.out.println(String.format("%-100s %14s %14.3f %9s", entry.getKey(), "-",
+                        getScore(entry.getValue()), "new"));
+                continue;
+            }
+            double baseScore = getScore(base);
+            double score = getScore(entry.getValue());
+            double change = baseScore == 0 ? 0 : (score - baseScore) / baseScore * PERCENT;
+            // throughput should grow, time should decrease
+            double loss = THROUGHPUT_MODE.equals(entry.getValue().path("mode").asText()) ? -change : change;
+            boolean significant = Math.abs(score - baseScore) > getError(base) + getError(entry.getValue());
+            String mark = "";
+            if (significant && Math.abs(change) >= threshold) {
+                mark = loss > 0 ? " REGRESSION" : " improvement";
+                regressed |= loss > 0;
+            }
+            System.out.println(String.format("%-100s %14.3f %14.3f %+8.1f%%%s", entry.getKey(), baseScore, score,
+                    change, mark));
+        }
+        if (regressed) {
+            System.exit(REGRESSION_STATUS);
+        }
+    }
+
+    private static Map<String, JsonNode> readResults(File file) throws IOException {
+        Map<String, JsonNode> results = new LinkedHashMap<>();
+        for (JsonNode result : new ObjectMapper().readTree(file)) {
+            results.put(getKey(result), result);
+        }
+        return results;
+    }
+
+    private static String getKey(JsonNode result) {
+        StringJoiner key = new StringJoiner(",", result.path("benchmark").asText() + " (" + result.path("mode")
+                .asText() + ") [", "]");
+        Map<String, String> params = new TreeMap<>();
+        Iterator<Map.Entry<String, JsonNode>> fields = result.path("params").fields();
+        while (fields.hasNext()) {
+            Map.Entry<String, JsonNode> field = fields.next();
+            params.put(field.getKey(), field.getValue().asText());
+        }
+        params.forEach((name, value) -> key.add(name + '=' + value));
+        return key.toString();
+    }
+
+    private static double getScore(JsonNode result) {
+        return result.path("primaryMetric").path("score").asDouble();
+    }
+
+    private static double getError(JsonNode result) {
+        double error = result.path("primaryMetric").path("scoreError").asDouble();
+        return Double.isNaN(error) ? 0 : error;
+    }
+}
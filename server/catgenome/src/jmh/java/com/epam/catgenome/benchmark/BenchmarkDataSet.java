@@ -0,0 +1,123 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2016 EPAM Systems
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package com.epam.catgenome.benchmark;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Properties;
+
+/**
+ * Describes files of a benchmark data set, generated by {@link SyntheticDataGenerator}
+ */
+public final class BenchmarkDataSet {
+
+    public static final String DESCRIPTOR = "dataset.properties";
+
+    static final String PRESET = "preset";
+    static final String CHROMOSOME = "chromosome";
+    static final String REGION_START = "region.start";
+    static final String REGION_END = "region.end";
+    static final String REFERENCE = "reference";
+    static final String BAM = "bam";
+    static final String BAM_INDEX = "bam.index";
+    static final String VCF = "vcf";
+    static final String GTF = "gtf";
+    static final String BIGWIG = "bigwig";
+
+    private final Properties properties;
+
+    private BenchmarkDataSet(Properties properties) {
+        this.properties = properties;
+    }
+
+    /**
+     * @param dir a directory with a data set
+     * @return a data set or null, if the directory doesn't contain a data set descriptor
+     * @throws IOException if a descriptor can't be read
+     */
+    public static BenchmarkDataSet load(File dir) throws IOException {
+        File descriptor = new File(dir, DESCRIPTOR);
+        if (!descriptor.exists()) {
+            return null;
+        }
+        Properties properties = new Properties();
+        try (InputStream stream = new FileInputStream(descriptor)) {
+            properties.load(stream);
+        }
+        return new BenchmarkDataSet(properties);
+    }
+
+    public String getPreset() {
+        return properties.getProperty(PRESET);
+    }
+
+    /**
+     * @return a chromosome, that contains all benchmarked data
+     */
+    public String getChromosome() {
+        return properties.getProperty(CHROMOSOME);
+    }
+
+    /**
+     * @return start of a region, covered by reads of a BAM file
+     */
+    public int getRegionStart() {
+        return Integer.parseInt(properties.getProperty(REGION_START));
+    }
+
+    /**
+     * @return end of a region, covered by reads of a BAM file
+     */
+    public int getRegionEnd() {
+        return Integer.parseInt(properties.getProperty(REGION_END));
+    }
+
+    public String getReference() {
+        return properties.getProperty(REFERENCE);
+    }
+
+    public String getBam() {
+        return properties.getProperty(BAM);
+    }
+
+    public String getBamIndex() {
+        return properties.getProperty(BAM_INDEX);
+    }
+
+    public String getVcf() {
+        return properties.getProperty(VCF);
+    }
+
+    public String getGtf() {
+        return properties.getProperty(GTF);
+    }
+
+    public String getBigWig() {
+        return properties.getProperty(BIGWIG);
+    }
+}
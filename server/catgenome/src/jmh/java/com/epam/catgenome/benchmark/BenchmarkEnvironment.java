@@ -0,0 +1,182 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2016 EPAM Systems
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package com.epam.catgenome.benchmark;
+
+import java.io.File;
+import java.io.IOException;
+
+import org.apache.commons.io.FileUtils;
+import org.springframework.context.support.ClassPathXmlApplicationContext;
+
+import com.epam.catgenome.controller.vo.registration.FeatureIndexedFileRegistrationRequest;
+import com.epam.catgenome.controller.vo.registration.FileRegistrationRequest;
+import com.epam.catgenome.controller.vo.registration.IndexedFileRegistrationRequest;
+import com.epam.catgenome.controller.vo.registration.ReferenceRegistrationRequest;
+import com.epam.catgenome.entity.BiologicalDataItemResourceType;
+import com.epam.catgenome.entity.bam.BamFile;
+import com.epam.catgenome.entity.gene.GeneFile;
+import com.epam.catgenome.entity.reference.Chromosome;
+import com.epam.catgenome.entity.reference.Reference;
+import com.epam.catgenome.entity.vcf.VcfFile;
+import com.epam.catgenome.entity.wig.WigFile;
+import com.epam.catgenome.manager.FileManager;
+import com.epam.catgenome.manager.bam.BamManager;
+import com.epam.catgenome.manager.gene.GffManager;
+import com.epam.catgenome.manager.reference.ReferenceManager;
+import com.epam.catgenome.manager.vcf.VcfManager;
+import com.epam.catgenome.manager.wig.FacadeWigManager;
+
+/**
+ * A shared environment of benchmarks: an application context of the test configuration and files of a benchmark
+ * data set, registered on demand. An environment is created once per benchmark JVM, the data set directory is
+ * specified by {@code ngb.benchmark.data} system property. Registered files are removed on JVM exit.
+ */
+public final class BenchmarkEnvironment {
+
+    public static final String DATA_PROPERTY = "ngb.benchmark.data";
+
+    private static final String CONTEXT_CONFIG = "classpath:applicationContext-test.xml";
+
+    private static BenchmarkEnvironment instance;
+
+    private final ClassPathXmlApplicationContext context;
+    private final BenchmarkDataSet dataSet;
+
+    private Reference reference;
+    private Chromosome chromosome;
+    private BamFile bamFile;
+    private VcfFile vcfFile;
+    private GeneFile geneFile;
+    private WigFile wigFile;
+
+    private BenchmarkEnvironment(BenchmarkDataSet dataSet) {
+        this.dataSet = dataSet;
+        this.context = new ClassPathXmlApplicationContext(CONTEXT_CONFIG);
+        Runtime.getRuntime().addShutdownHook(new Thread(this::close));
+    }
+
+    /**
+     * @return an environment of the current JVM
+     * @throws IOException if a data set can't be loaded
+     */
+    public static synchronized BenchmarkEnvironment get() throws IOException {
+        if (instance == null) {
+            String dataDir = System.getProperty(DATA_PROPERTY);
+            if (dataDir == null) {
+                throw new IllegalStateException("A benchmark data set is not specified by -D" + DATA_PROPERTY
+                        + ", generate it by SyntheticDataGenerator");
+            }
+            BenchmarkDataSet dataSet = BenchmarkDataSet.load(new File(dataDir));
+            if (dataSet == null) {
+                throw new IllegalStateException("No benchmark data set found in " + dataDir);
+            }
+            instance = new BenchmarkEnvironment(dataSet);
+        }
+        return instance;
+    }
+
+    public <T> T getBean(Class<T> type) {
+        return context.getBean(type);
+    }
+
+    public BenchmarkDataSet getDataSet() {
+        return dataSet;
+    }
+
+    public synchronized Reference getReference() throws IOException {
+        if (reference == null) {
+            ReferenceRegistrationRequest request = new ReferenceRegistrationRequest();
+            request.setPath(dataSet.getReference());
+            request.setName("benchmark");
+            reference = getBean(ReferenceManager.class).registerGenome(request);
+            chromosome = reference.getChromosomes().stream()
+                    .filter(c -> c.getName().equals(dataSet.getChromosome()))
+                    .findFirst()
+                    .orElseThrow(() -> new IllegalStateException("No chromosome " + dataSet.getChromosome()));
+        }
+        return reference;
+    }
+
+    /**
+     * @return a chromosome of a registered reference, that contains all benchmarked data
+     */
+    public synchronized Chromosome getChromosome() throws IOException {
+        getReference();
+        return chromosome;
+    }
+
+    public synchronized BamFile getBamFile() throws IOException {
+        if (bamFile == null) {
+            IndexedFileRegistrationRequest request = new IndexedFileRegistrationRequest();
+            request.setPath(dataSet.getBam());
+            request.setIndexPath(dataSet.getBamIndex());
+            request.setReferenceId(getReference().getId());
+            request.setType(BiologicalDataItemResourceType.FILE);
+            bamFile = getBean(BamManager.class).registerBam(request);
+        }
+        return bamFile;
+    }
+
+    public synchronized VcfFile getVcfFile() throws IOException {
+        if (vcfFile == null) {
+            FeatureIndexedFileRegistrationRequest request = new FeatureIndexedFileRegistrationRequest();
+            request.setPath(dataSet.getVcf());
+            request.setReferenceId(getReference().getId());
+            vcfFile = getBean(VcfManager.class).registerVcfFile(request);
+        }
+        return vcfFile;
+    }
+
+    public synchronized GeneFile getGeneFile() throws IOException {
+        if (geneFile == null) {
+            FeatureIndexedFileRegistrationRequest request = new FeatureIndexedFileRegistrationRequest();
+            request.setPath(dataSet.getGtf());
+            request.setReferenceId(getReference().getId());
+            geneFile = getBean(GffManager.class).registerGeneFile(request);
+        }
+        return geneFile;
+    }
+
+    public synchronized WigFile getWigFile() throws IOException {
+        if (wigFile == null) {
+            FileRegistrationRequest request = new FileRegistrationRequest();
+            request.setPath(dataSet.getBigWig());
+            request.setReferenceId(getReference().getId());
+            wigFile = getBean(FacadeWigManager.class).registerWigFile(request);
+        }
+        return wigFile;
+    }
+
+    private void close() {
+        try {
+            FileUtils.deleteDirectory(new File(getBean(FileManager.class).getBaseDirPath()));
+        } catch (IOException e) {
+            System.err.println("Failed to remove benchmark files: " + e.getMessage());
+        } finally {
+            context.close();
+        }
+    }
+}
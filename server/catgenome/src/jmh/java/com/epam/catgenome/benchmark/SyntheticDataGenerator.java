@@ -0,0 +1,432 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2016 EPAM Systems
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package com.epam.catgenome.benchmark;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Properties;
+import java.util.Random;
+
+import org.jetbrains.bio.CompressionType;
+import org.jetbrains.bio.big.BigWigFile;
+import org.jetbrains.bio.big.FixedStepSection;
+import org.jetbrains.bio.big.WigSection;
+
+import gnu.trove.list.TFloatList;
+import gnu.trove.list.array.TFloatArrayList;
+import htsjdk.samtools.BAMIndex;
+import htsjdk.samtools.SAMFileHeader;
+import htsjdk.samtools.SAMFileWriter;
+import htsjdk.samtools.SAMFileWriterFactory;
+import htsjdk.samtools.SAMRecord;
+import htsjdk.samtools.SAMSequenceDictionary;
+import htsjdk.samtools.SAMSequenceRecord;
+import htsjdk.samtools.util.IOUtil;
+import kotlin.Pair;
+
+/**
+ * Generates a synthetic data set for benchmarks: a reference genome, a deep BAM file, a multi-sample VCF file,
+ * a GTF file with genes on all chromosomes and a BigWig file. All files are generated from a fixed seed, so the
+ * same preset always produces the same data and benchmark results are comparable across commits.
+ * <p>
+ * Usage: {@code SyntheticDataGenerator <output directory> [small|large]}. Files are described by
+ * {@link BenchmarkDataSet#DESCRIPTOR} file in the output directory. If the directory already contains a data set
+ * of the same preset, nothing is generated.
+ * </p>
+ */
+public final class SyntheticDataGenerator {
+
+    private static final long SEED = 42L;
+    private static final byte[] NUCLEOTIDES = {'A', 'C', 'G', 'T'};
+    private static final int FASTA_LINE_LENGTH = 60;
+    private static final int READ_LENGTH = 100;
+    private static final int MAPPING_QUALITY = 60;
+    private static final byte BASE_QUALITY = 30;
+    private static final double MISMATCH_RATE = 0.01;
+    private static final int MAX_EXONS = 10;
+    private static final int MAX_TRANSCRIPTS = 3;
+    private static final int WIG_STEP = 10;
+
+    /**
+     * Presets of a data set size
+     */
+    public enum Preset {
+        /**
+         * A quick data set, comparable in size to the test resources
+         */
+        SMALL(1, 1_000_000, 50_000, 30, 1_000, 10, 200),
+        /**
+         * A data set of a production scale: a 1000x deep BAM region, a 10k-sample VCF and 20k genes on 24
+         * chromosomes
+         */
+        LARGE(24, 10_000_000, 200_000, 1000, 5_000, 10_000, 20_000);
+
+        private final int chromosomeCount;
+        private final int chromosomeLength;
+        private final int regionLength;
+        private final int depth;
+        private final int variationCount;
+        private final int sampleCount;
+        private final int geneCount;
+
+        Preset(int chromosomeCount, int chromosomeLength, int regionLength, int depth, int variationCount,
+                int sampleCount, int geneCount) {
+            this.chromosomeCount = chromosomeCount;
+            this.chromosomeLength = chromosomeLength;
+            this.regionLength = regionLength;
+            this.depth = depth;
+            this.variationCount = variationCount;
+            this.sampleCount = sampleCount;
+            this.geneCount = geneCount;
+        }
+    }
+
+    private final File outputDir;
+    private final Preset preset;
+    private final Random random = new Random(SEED);
+    private final List<String> chromosomes = new ArrayList<>();
+    private byte[] sequence;
+
+    private SyntheticDataGenerator(File outputDir, Preset preset) {
+        this.outputDir = outputDir;
+        this.preset = preset;
+        for (int i = 1; i <= preset.chromosomeCount; i++) {
+            chromosomes.add("chr" + i);
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length == 0) {
+            System.err.println("Usage: SyntheticDataGenerator <output directory> [small|large]");
+            System.exit(1);
+        }
+        File outputDir = new File(args[0]);
+        Preset preset = args.length > 1 ? Preset.valueOf(args[1].toUpperCase(Locale.ENGLISH)) : Preset.SMALL;
+        BenchmarkDataSet existing = BenchmarkDataSet.load(outputDir);
+        if (existing != null && preset.name().equals(existing.getPreset())) {
+            System.out.println("Benchmark data set '" + preset + "' already exists in " + outputDir);
+            return;
+        }
+        if (!outputDir.exists() && !outputDir.mkdirs()) {
+            throw new IOException("Failed to create directory " + outputDir);
+        }
+        new SyntheticDataGenerator(outputDir, preset).generate();
+    }
+
+    private void generate() throws IOException {
+        String chromosome = chromosomes.get(0);
+        int regionStart = preset.chromosomeLength / 2;
+        int regionEnd = regionStart + preset.regionLength;
+
+        Properties descriptor = new Properties();
+        descriptor.setProperty(BenchmarkDataSet.PRESET, preset.name());
+        descriptor.setProperty(BenchmarkDataSet.CHROMOSOME, chromosome);
+        descriptor.setProperty(BenchmarkDataSet.REGION_START, String.valueOf(regionStart));
+        descriptor.setProperty(BenchmarkDataSet.REGION_END, String.valueOf(regionEnd));
+        descriptor.setProperty(BenchmarkDataSet.REFERENCE, writeReference().getAbsolutePath());
+        File bam = writeBam(chromosome, regionStart, regionEnd);
+        descriptor.setProperty(BenchmarkDataSet.BAM, bam.getAbsolutePath());
+        descriptor.setProperty(BenchmarkDataSet.BAM_INDEX, new File(bam.getParentFile(),
+                IOUtil.basename(bam) + BAMIndex.BAMIndexSuffix).getAbsolutePath());
+        descriptor.setProperty(BenchmarkDataSet.VCF, writeVcf(chromosome).getAbsolutePath());
+        descriptor.setProperty(BenchmarkDataSet.GTF, writeGtf().getAbsolutePath());
+        descriptor.setProperty(BenchmarkDataSet.BIGWIG, writeBigWig(chromosome).getAbsolutePath());
+
+        try (Writer writer = createWriter(new File(outputDir, BenchmarkDataSet.DESCRIPTOR))) {
+            descriptor.store(writer, "Synthetic benchmark data set, preset " + preset);
+        }
+        System.out.println("Benchmark data set '" + preset + "' is generated in " + outputDir);
+    }
+
+    /**
+     * Writes a reference FASTA file, a sequence of the first chromosome is kept to generate reads
+     */
+    private File writeReference() throws IOException {
+        File fasta = new File(outputDir, "reference.fa");
+        try (Writer writer = createWriter(fasta)) {
+            for (String chromosome : chromosomes) {
+                byte[] bases = new byte[preset.chromosomeLength];
+                for (int i = 0; i < bases.length; i++) {
+                    bases[i] = NUCLEOTIDES[random.nextInt(NUCLEOTIDES.length)];
+                }
+                if (sequence == null) {
+                    sequence = bases;
+                }
+                writer.write('>' + chromosome + '\n');
+                for (int i = 0; i < bases.length; i += FASTA_LINE_LENGTH) {
+                    writer.write(new String(bases, i, Math.min(FASTA_LINE_LENGTH, bases.length - i),
+                            StandardCharsets.US_ASCII));
+                    writer.write('\n');
+                }
+            }
+        }
+        return fasta;
+    }
+
+    /**
+     * Writes a coordinate sorted and indexed BAM file with reads of a specified depth in a region of a chromosome.
+     * Reads contain mismatches, soft clips, insertions, deletions and splice junctions.
+     */
+    private File writeBam(String chromosome, int regionStart, int regionEnd) {
+        SAMFileHeader header = new SAMFileHeader();
+        header.setSortOrder(SAMFileHeader.SortOrder.coordinate);
+        SAMSequenceDictionary dictionary = new SAMSequenceDictionary();
+        for (String name : chromosomes) {
+            dictionary.addSequence(new SAMSequenceRecord(name, preset.chromosomeLength));
+        }
+        header.setSequenceDictionary(dictionary);
+
+        File bam = new File(outputDir, "deep.bam");
+        double readsPerBase = (double) preset.depth / READ_LENGTH;
+        long readCount = 0;
+        try (SAMFileWriter writer = new SAMFileWriterFactory().setCreateIndex(true)
+                .makeBAMWriter(header, true, bam)) {
+            for (int position = regionStart; position < regionEnd; position++) {
+                int count = (int) readsPerBase + (random.nextDouble() < readsPerBase % 1 ? 1 : 0);
+                for (int i = 0; i < count; i++) {
+                    writer.addAlignment(createRead(header, chromosome, position, readCount++));
+                }
+            }
+        }
+        return bam;
+    }
+
+    private SAMRecord createRead(SAMFileHeader header, String chromosome, int position, long number) {
+        String cigar;
+        int kind = random.nextInt(100);
+        if (kind < 80) {
+            cigar = READ_LENGTH + "M";
+        } else if (kind < 88) {
+            cigar = "5S" + (READ_LENGTH - 5) + "M";
+        } else if (kind < 93) {
+            cigar = "40M3I" + (READ_LENGTH - 43) + "M";
+        } else if (kind < 97) {
+            cigar = "50M2D" + (READ_LENGTH - 50) + "M";
+        } else {
+            cigar = "50M500N" + (READ_LENGTH - 50) + "M";
+        }
+
+        byte[] bases = new byte[READ_LENGTH];
+        int referencePosition = position - 1;
+        int readPosition = 0;
+        for (String element : cigar.split("(?<=[A-Z])")) {
+            int length = Integer.parseInt(element.substring(0, element.length() - 1));
+            char operator = element.charAt(element.length() - 1);
+            switch (operator) {
+                case 'M':
+                    for (int i = 0; i < length; i++) {
+                        bases[readPosition++] = random.nextDouble() < MISMATCH_RATE
+                                ? NUCLEOTIDES[random.nextInt(NUCLEOTIDES.length)]
+                                : sequence[referencePosition + i];
+                    }
+                    referencePosition += length;
+                    break;
+                case 'S':
+                case 'I':
+                    for (int i = 0; i < length; i++) {
+                        bases[readPosition++] = NUCLEOTIDES[random.nextInt(NUCLEOTIDES.length)];
+                    }
+                    break;
+                default:
+                    referencePosition += length;
+                    break;
+            }
+        }
+
+        byte[] qualities = new byte[READ_LENGTH];
+        Arrays.fill(qualities, BASE_QUALITY);
+
+        SAMRecord record = new SAMRecord(header);
+        record.setReadName("read" + number);
+        record.setReferenceName(chromosome);
+        record.setAlignmentStart(position);
+        record.setCigarString(cigar);
+        record.setReadBases(bases);
+        record.setBaseQualities(qualities);
+        record.setMappingQuality(MAPPING_QUALITY);
+        record.setReadNegativeStrandFlag(random.nextBoolean());
+        return record;
+    }
+
+    /**
+     * Writes a VCF file with SNPs and indels along a chromosome and random genotypes of all samples
+     */
+    private File writeVcf(String chromosome) throws IOException {
+        File vcf = new File(outputDir, "samples.vcf");
+        try (Writer writer = createWriter(vcf)) {
+            writer.write("##fileformat=VCFv4.2\n");
+            for (String name : chromosomes) {
+                writer.write("##contig=<ID=" + name + ",length=" + preset.chromosomeLength + ">\n");
+            }
+            writer.write("##INFO=<ID=DP,Number=1,Type=Integer,Description=\"Total Depth\">\n");
+            writer.write("##INFO=<ID=AF,Number=A,Type=Float,Description=\"Allele Frequency\">\n");
+            writer.write("##FILTER=<ID=q10,Description=\"Quality below 10\">\n");
+            writer.write("##FORMAT=<ID=GT,Number=1,Type=String,Description=\"Genotype\">\n");
+            StringBuilder line = new StringBuilder("#CHROM\tPOS\tID\tREF\tALT\tQUAL\tFILTER\tINFO\tFORMAT");
+            for (int i = 1; i <= preset.sampleCount; i++) {
+                line.append("\tS").append(i);
+            }
+            writer.write(line.append('\n').toString());
+
+            int step = (preset.chromosomeLength - READ_LENGTH) / preset.variationCount;
+            for (int i = 0; i < preset.variationCount; i++) {
+                int position = 1 + i * step + random.nextInt(step);
+                writer.write(createVariation(chromosome, position, i));
+            }
+        }
+        return vcf;
+    }
+
+    private String createVariation(String chromosome, int position, int number) {
+        String ref = String.valueOf((char) sequence[position - 1]);
+        String alt;
+        int kind = random.nextInt(10);
+        if (kind < 8) {
+            // any nucleotide, but the reference one
+            int shift = 1 + random.nextInt(NUCLEOTIDES.length - 1);
+            alt = String.valueOf((char) NUCLEOTIDES[(indexOf(sequence[position - 1]) + shift) % NUCLEOTIDES.length]);
+        } else if (kind < 9) {
+            alt = ref + (char) NUCLEOTIDES[random.nextInt(NUCLEOTIDES.length)];
+        } else {
+            ref = new String(sequence, position - 1, 3, StandardCharsets.US_ASCII);
+            alt = ref.substring(0, 1);
+        }
+        int quality = random.nextInt(100);
+        StringBuilder line = new StringBuilder(preset.sampleCount * 4 + 100);
+        line.append(chromosome).append('\t').append(position).append("\tvar").append(number).append('\t')
+                .append(ref).append('\t').append(alt).append('\t').append(quality).append('\t')
+                .append(quality < 10 ? "q10" : "PASS").append("\tDP=").append(random.nextInt(1000))
+                .append(";AF=").append(random.nextInt(100) / 100.0).append("\tGT");
+        for (int i = 0; i < preset.sampleCount; i++) {
+            int genotype = random.nextInt(10);
+            line.append('\t').append(genotype < 6 ? "0/0" : genotype < 9 ? "0/1" : "1/1");
+        }
+        return line.append('\n').toString();
+    }
+
+    /**
+     * Writes a GTF file with genes evenly distributed along all chromosomes, each gene has several transcripts
+     * with exons and CDS. Features are sorted by start position.
+     */
+    private File writeGtf() throws IOException {
+        File gtf = new File(outputDir, "genes.gtf");
+        int genesPerChromosome = Math.max(1, preset.geneCount / chromosomes.size());
+        int geneSpace = preset.chromosomeLength / genesPerChromosome;
+        int geneNumber = 0;
+        try (Writer writer = createWriter(gtf)) {
+            for (String chromosome : chromosomes) {
+                for (int i = 0; i < genesPerChromosome; i++) {
+                    int start = 1 + i * geneSpace + random.nextInt(geneSpace / 4);
+                    int end = start + geneSpace / 2 + random.nextInt(geneSpace / 4);
+                    for (String[] feature : createGene(chromosome, ++geneNumber, start, end)) {
+                        writer.write(String.join("\t", feature));
+                        writer.write('\n');
+                    }
+                }
+            }
+        }
+        return gtf;
+    }
+
+    private List<String[]> createGene(String chromosome, int number, int start, int end) {
+        String strand = random.nextBoolean() ? "+" : "-";
+        String geneId = "gene_id \"G" + number + "\"; gene_name \"GENE" + number + "\";";
+        List<String[]> features = new ArrayList<>();
+        features.add(createFeature(chromosome, "gene", start, end, strand, geneId));
+        int transcripts = 1 + random.nextInt(MAX_TRANSCRIPTS);
+        for (int t = 1; t <= transcripts; t++) {
+            String attributes = geneId + " transcript_id \"G" + number + '.' + t + "\";";
+            int exons = 2 + random.nextInt(MAX_EXONS - 1);
+            int exonSpace = (end - start) / exons;
+            int transcriptStart = start + random.nextInt(exonSpace / 4 + 1);
+            features.add(createFeature(chromosome, "transcript", transcriptStart, end, strand, attributes));
+            for (int e = 0; e < exons; e++) {
+                int exonStart = e == 0 ? transcriptStart : start + e * exonSpace + random.nextInt(exonSpace / 4 + 1);
+                int exonEnd = Math.min(end, exonStart + exonSpace / 2);
+                String exonAttributes = attributes + " exon_number \"" + (e + 1) + "\";";
+                features.add(createFeature(chromosome, "exon", exonStart, exonEnd, strand, exonAttributes));
+                features.add(createFeature(chromosome, "CDS", exonStart, exonEnd, strand, exonAttributes));
+            }
+        }
+        // a gene feature goes first, as the sort is stable
+        Collections.sort(features, Comparator.comparingInt(feature -> Integer.parseInt(feature[3])));
+        return features;
+    }
+
+    private static String[] createFeature(String chromosome, String type, int start, int end, String strand,
+            String attributes) {
+        return new String[] {chromosome, "benchmark", type, String.valueOf(start), String.valueOf(end), ".",
+            strand, type.equals("CDS") ? "0" : ".", attributes};
+    }
+
+    /**
+     * Writes a BigWig file with coverage-like values along a chromosome
+     */
+    private File writeBigWig(String chromosome) throws IOException {
+        File bigWig = new File(outputDir, "coverage.bw");
+        List<WigSection> sections = new ArrayList<>(preset.chromosomeLength / WIG_STEP);
+        float value = preset.depth;
+        for (int start = 0; start < preset.chromosomeLength; start += WIG_STEP) {
+            value = Math.max(0, value + random.nextInt(11) - 5);
+            TFloatList values = new TFloatArrayList();
+            values.add(value);
+            sections.add(new FixedStepSection(chromosome, start, Math.min(start + WIG_STEP - 1,
+                    preset.chromosomeLength), 1, values));
+        }
+        List<Pair<String, Integer>> chromosomeSizes = new ArrayList<>();
+        for (String name : chromosomes) {
+            chromosomeSizes.add(new Pair<>(name, preset.chromosomeLength));
+        }
+        BigWigFile.write(sections, chromosomeSizes, bigWig.toPath(), 0, CompressionType.DEFLATE,
+                ByteOrder.nativeOrder());
+        return bigWig;
+    }
+
+    private static int indexOf(byte nucleotide) {
+        for (int i = 0; i < NUCLEOTIDES.length; i++) {
+            if (NUCLEOTIDES[i] == nucleotide) {
+                return i;
+            }
+        }
+        return 0;
+    }
+
+    private static Writer createWriter(File file) throws IOException {
+        return new BufferedWriter(new OutputStreamWriter(new FileOutputStream(file), StandardCharsets.US_ASCII));
+    }
+}
@@ -0,0 +1,103 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2016 EPAM Systems
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package com.epam.catgenome.controller;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.epam.catgenome.benchmark.BenchmarkEnvironment;
+import com.epam.catgenome.entity.gene.Gene;
+import com.epam.catgenome.entity.reference.Chromosome;
+import com.epam.catgenome.entity.track.Block;
+import com.epam.catgenome.entity.track.Track;
+import com.epam.catgenome.entity.vcf.Variation;
+import com.epam.catgenome.exception.GeneReadingException;
+import com.epam.catgenome.exception.VcfReadingException;
+import com.epam.catgenome.manager.gene.GffManager;
+import com.epam.catgenome.manager.vcf.VcfManager;
+
+/**
+ * Benchmarks JSON serialization of gene and variation tracks of a whole chromosome by {@link JsonMapper}, as they
+ * are written to a response by REST controllers
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class TrackSerializationBenchmark {
+
+    private final JsonMapper mapper = new JsonMapper();
+
+    private Result<Track<Gene>> geneTrack;
+    private Result<Track<Variation>> variationTrack;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException, GeneReadingException, VcfReadingException {
+        BenchmarkEnvironment environment = BenchmarkEnvironment.get();
+        Chromosome chromosome = environment.getChromosome();
+
+        Track<Gene> genes = createTrack(environment.getGeneFile().getId(), chromosome);
+        geneTrack = Result.success(environment.getBean(GffManager.class).loadGenes(genes, false));
+
+        Track<Variation> variations = createTrack(environment.getVcfFile().getId(), chromosome);
+        variationTrack = Result.success(environment.getBean(VcfManager.class)
+                .loadVariations(variations, null, true, false));
+    }
+
+    @Benchmark
+    public int serializeGenes() throws IOException {
+        return mapper.writeValueAsBytes(geneTrack).length;
+    }
+
+    @Benchmark
+    public int serializeVariations() throws IOException {
+        return mapper.writeValueAsBytes(variationTrack).length;
+    }
+
+    private static <T extends Block> Track<T> createTrack(Long id, Chromosome chromosome) {
+        Track<T> track = new Track<>();
+        track.setId(id);
+        track.setChromosome(chromosome);
+        track.setStartIndex(1);
+        track.setEndIndex(chromosome.getSize());
+        track.setScaleFactor(1.0);
+        return track;
+    }
+}
@@ -0,0 +1,101 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2016 EPAM Systems
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package com.epam.catgenome.dao.index;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.lucene.search.Query;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.epam.catgenome.benchmark.BenchmarkEnvironment;
+import com.epam.catgenome.entity.index.FeatureType;
+import com.epam.catgenome.entity.index.IndexSearchResult;
+import com.epam.catgenome.entity.index.VcfIndexEntry;
+import com.epam.catgenome.entity.vcf.VcfFile;
+import com.epam.catgenome.entity.vcf.VcfFilterForm;
+
+/**
+ * Benchmarks paged search of variations in a feature index by
+ * {@link FeatureIndexDao#searchFileIndexesPaging(List, Query, List, Integer, Integer, List)}: grouping, sorting
+ * and loading of index entries of a page
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class FeatureIndexDaoBenchmark {
+
+    private static final int PAGE_SIZE = 100;
+    private static final String NO_ORDER = "none";
+    private static final List<String> INFO_FIELDS = Arrays.asList("DP", "AF");
+
+    @Param({"1", "10"})
+    private int page;
+
+    @Param({NO_ORDER, "START_INDEX", "QUALITY"})
+    private String orderBy;
+
+    private FeatureIndexDao featureIndexDao;
+    private List<VcfFile> files;
+    private Query query;
+    private List<VcfFilterForm.OrderBy> order;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        BenchmarkEnvironment environment = BenchmarkEnvironment.get();
+        featureIndexDao = environment.getBean(FeatureIndexDao.class);
+        VcfFile vcfFile = environment.getVcfFile();
+        files = Collections.singletonList(vcfFile);
+
+        VcfFilterForm filterForm = new VcfFilterForm();
+        filterForm.setVcfFileIds(Collections.singletonList(vcfFile.getId()));
+        query = filterForm.computeQuery(FeatureType.VARIATION);
+        order = NO_ORDER.equals(orderBy) ? null
+                : Collections.singletonList(new VcfFilterForm.OrderBy(orderBy, false));
+    }
+
+    @Benchmark
+    public IndexSearchResult<VcfIndexEntry> searchFileIndexesPaging() throws IOException {
+        return featureIndexDao.searchFileIndexesPaging(files, query, INFO_FIELDS, page, PAGE_SIZE, order);
+    }
+}
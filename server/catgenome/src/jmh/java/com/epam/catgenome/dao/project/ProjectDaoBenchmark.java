@@ -0,0 +1,160 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2016 EPAM Systems
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package com.epam.catgenome.dao.project;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionCallbackWithoutResult;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.epam.catgenome.benchmark.BenchmarkEnvironment;
+import com.epam.catgenome.dao.BiologicalDataItemDao;
+import com.epam.catgenome.entity.BaseEntity;
+import com.epam.catgenome.entity.BiologicalDataItem;
+import com.epam.catgenome.entity.BiologicalDataItemFormat;
+import com.epam.catgenome.entity.BiologicalDataItemResourceType;
+import com.epam.catgenome.entity.project.Project;
+import com.epam.catgenome.entity.project.ProjectItem;
+
+/**
+ * Benchmarks loading of a large user workspace, as it is done when a project tree is opened: top-level projects
+ * of a user by {@link ProjectDao#loadTopLevelProjectsOrderByLastOpened(long)}, their items and nested projects.
+ * The workspace is created for a separate user and removed after a trial.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class ProjectDaoBenchmark {
+
+    private static final long BENCHMARK_USER_ID = -1L;
+    private static final int TOP_LEVEL_PROJECTS = 2000;
+    private static final int ITEMS_PER_PROJECT = 3;
+
+    private ProjectDao projectDao;
+    private BiologicalDataItemDao biologicalDataItemDao;
+    private TransactionTemplate transactionTemplate;
+
+    private final List<BiologicalDataItem> items = new ArrayList<>();
+    private final List<Project> projects = new ArrayList<>();
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        BenchmarkEnvironment environment = BenchmarkEnvironment.get();
+        projectDao = environment.getBean(ProjectDao.class);
+        biologicalDataItemDao = environment.getBean(BiologicalDataItemDao.class);
+        transactionTemplate = new TransactionTemplate(environment.getBean(PlatformTransactionManager.class));
+
+        transactionTemplate.execute(new TransactionCallbackWithoutResult() {
+            @Override
+            protected void doInTransactionWithoutResult(TransactionStatus status) {
+                for (int i = 0; i < ITEMS_PER_PROJECT; i++) {
+                    items.add(createItem("benchmarkItem" + i));
+                }
+                for (int i = 0; i < TOP_LEVEL_PROJECTS; i++) {
+                    Project project = createProject("benchmark" + i, null);
+                    items.forEach(item -> projectDao.addProjectItem(project.getId(), item.getId()));
+                    createProject("benchmarkNested" + i, project.getId());
+                }
+            }
+        });
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        transactionTemplate.execute(new TransactionCallbackWithoutResult() {
+            @Override
+            protected void doInTransactionWithoutResult(TransactionStatus status) {
+                // nested projects are created after their parents, so remove projects in reverse order
+                for (int i = projects.size() - 1; i >= 0; i--) {
+                    projectDao.deleteProjectItems(projects.get(i).getId());
+                    projectDao.deleteProject(projects.get(i).getId());
+                }
+                items.forEach(item -> biologicalDataItemDao.deleteBiologicalDataItem(item.getId()));
+            }
+        });
+        projects.clear();
+        items.clear();
+    }
+
+    @Benchmark
+    public Map<Long, List<Project>> loadProjectTree() {
+        List<Long> projectIds = projectDao.loadTopLevelProjectsOrderByLastOpened(BENCHMARK_USER_ID).stream()
+                .map(BaseEntity::getId)
+                .collect(Collectors.toList());
+        Map<Long, Set<ProjectItem>> projectItems = projectDao.loadProjectItemsByProjectIds(projectIds);
+        Map<Long, List<Project>> nestedProjects = projectDao.loadNestedProjects(projectIds);
+        if (projectItems.size() != TOP_LEVEL_PROJECTS || nestedProjects.size() != TOP_LEVEL_PROJECTS) {
+            throw new IllegalStateException("Unexpected project tree of " + projectItems.size() + " projects");
+        }
+        return nestedProjects;
+    }
+
+    private Project createProject(String name, Long parentId) {
+        Project project = new Project();
+        project.setName(name);
+        project.setCreatedBy(BENCHMARK_USER_ID);
+        project.setCreatedDate(new Date());
+        projectDao.saveProject(project, parentId);
+        projects.add(project);
+        return project;
+    }
+
+    private BiologicalDataItem createItem(String name) {
+        BiologicalDataItem item = new BiologicalDataItem();
+        item.setName(name);
+        item.setPath(name);
+        item.setCreatedBy(BENCHMARK_USER_ID);
+        item.setFormat(BiologicalDataItemFormat.BED);
+        item.setType(BiologicalDataItemResourceType.FILE);
+        item.setCreatedDate(new Date());
+        biologicalDataItemDao.createBiologicalDataItem(item);
+        return item;
+    }
+}
@@ -0,0 +1,134 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2016 EPAM Systems
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package com.epam.catgenome.dao.reference;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.lang3.tuple.Pair;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionCallbackWithoutResult;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.epam.catgenome.benchmark.BenchmarkEnvironment;
+import com.epam.catgenome.entity.reference.Bookmark;
+import com.epam.catgenome.entity.reference.Chromosome;
+
+/**
+ * Benchmarks search of bookmarks by a name prefix in 100k bookmarks of a user: a single query, that loads a page
+ * of bookmarks and counts all matching ones by
+ * {@link BookmarkDao#searchBookmarksWithCount(String, long, int)}, against a count query alone by
+ * {@link BookmarkDao#searchBookmarkCount(String, long)}. Bookmarks are created for a separate user and removed
+ * after a trial.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class BookmarkDaoBenchmark {
+
+    private static final long BENCHMARK_USER_ID = -1L;
+    private static final int BOOKMARKS_COUNT = 100000;
+    private static final int PREFIX_COUNT = 100;
+    private static final int BOOKMARK_END_INDEX = 10000;
+    private static final int SEARCH_LIMIT = 100;
+    private static final String PREFIX_FORMAT = "bookmark%02d";
+
+    private BookmarkDao bookmarkDao;
+    private TransactionTemplate transactionTemplate;
+
+    private final List<Long> bookmarkIds = new ArrayList<>();
+    private int prefix;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        BenchmarkEnvironment environment = BenchmarkEnvironment.get();
+        bookmarkDao = environment.getBean(BookmarkDao.class);
+        transactionTemplate = new TransactionTemplate(environment.getBean(PlatformTransactionManager.class));
+        Chromosome chromosome = environment.getChromosome();
+
+        transactionTemplate.execute(new TransactionCallbackWithoutResult() {
+            @Override
+            protected void doInTransactionWithoutResult(TransactionStatus status) {
+                for (int i = 0; i < BOOKMARKS_COUNT; i++) {
+                    Bookmark bookmark = new Bookmark();
+                    bookmark.setName(String.format(PREFIX_FORMAT, i % PREFIX_COUNT) + "_" + i);
+                    bookmark.setStartIndex(0);
+                    bookmark.setEndIndex(BOOKMARK_END_INDEX);
+                    bookmark.setChromosome(chromosome);
+                    bookmark.setCreatedBy(BENCHMARK_USER_ID);
+                    bookmark.setCreatedDate(new Date());
+                    bookmarkDao.saveBookmark(bookmark);
+                    bookmarkIds.add(bookmark.getId());
+                }
+            }
+        });
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        transactionTemplate.execute(new TransactionCallbackWithoutResult() {
+            @Override
+            protected void doInTransactionWithoutResult(TransactionStatus status) {
+                bookmarkIds.forEach(bookmarkDao::deleteBookmark);
+            }
+        });
+        bookmarkIds.clear();
+    }
+
+    @Benchmark
+    public int searchBookmarkCount() {
+        return bookmarkDao.searchBookmarkCount(nextPrefix(), BENCHMARK_USER_ID);
+    }
+
+    @Benchmark
+    public Pair<List<Bookmark>, Integer> searchBookmarksWithCount() {
+        return bookmarkDao.searchBookmarksWithCount(nextPrefix(), BENCHMARK_USER_ID, SEARCH_LIMIT);
+    }
+
+    private String nextPrefix() {
+        prefix = (prefix + 1) % PREFIX_COUNT;
+        return String.format(PREFIX_FORMAT, prefix);
+    }
+}
@@ -0,0 +1,120 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2016 EPAM Systems
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package com.epam.catgenome.manager.bam;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.epam.catgenome.benchmark.BenchmarkDataSet;
+import com.epam.catgenome.benchmark.BenchmarkEnvironment;
+import com.epam.catgenome.benchmark.DiscardingEmitter;
+import com.epam.catgenome.entity.bam.BamQueryOption;
+import com.epam.catgenome.entity.bam.BamTrack;
+import com.epam.catgenome.entity.bam.BamTrackMode;
+import com.epam.catgenome.entity.bam.Read;
+import com.epam.catgenome.entity.reference.Chromosome;
+import com.epam.catgenome.entity.track.Track;
+import com.epam.catgenome.manager.bam.handlers.SAMRecordHandler;
+import com.epam.catgenome.manager.reference.ReferenceManager;
+import com.epam.catgenome.util.BamUtil;
+import htsjdk.samtools.SAMRecord;
+import htsjdk.samtools.SAMRecordIterator;
+import htsjdk.samtools.SamReader;
+import htsjdk.samtools.SamReaderFactory;
+
+/**
+ * Benchmarks JSON streaming of reads of a deep BAM region by {@link BamTrackEmitter}: serialization of reads
+ * with mismatches, buffering and sending of a response to an emitter, that discards data
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class BamTrackEmitterBenchmark {
+
+    private final List<Read> reads = new ArrayList<>();
+    private BamTrack<Read> track;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        BenchmarkEnvironment environment = BenchmarkEnvironment.get();
+        BenchmarkDataSet dataSet = environment.getDataSet();
+        Chromosome chromosome = environment.getChromosome();
+
+        Track<Read> query = new Track<>();
+        query.setId(environment.getBamFile().getId());
+        query.setChromosome(chromosome);
+        query.setStartIndex(dataSet.getRegionStart());
+        query.setEndIndex(dataSet.getRegionEnd());
+        query.setScaleFactor(1.0);
+        track = new BamTrack<>(query);
+
+        BamQueryOption options = new BamQueryOption();
+        options.setRefID(chromosome.getReferenceId());
+        options.setChromosomeName(chromosome.getName());
+        options.setMode(BamTrackMode.FULL);
+        SAMRecordHandler handler = new SAMRecordHandler(dataSet.getRegionStart(), dataSet.getRegionEnd(),
+                environment.getBean(ReferenceManager.class), null, options);
+
+        try (SamReader reader = SamReaderFactory.makeDefault().open(new File(dataSet.getBam()));
+             SAMRecordIterator iterator = reader.query(chromosome.getName(), dataSet.getRegionStart(),
+                     dataSet.getRegionEnd(), false)) {
+            while (iterator.hasNext()) {
+                SAMRecord record = iterator.next();
+                reads.add(BamUtil.createReadFromRecord(record, record.getStart(), record.getEnd(),
+                        handler.computeDifferentBase(record), null, null));
+            }
+        }
+    }
+
+    @Benchmark
+    public long writeReads() throws IOException {
+        DiscardingEmitter emitter = new DiscardingEmitter();
+        BamTrackEmitter trackEmitter = new BamTrackEmitter(emitter);
+        for (Read read : reads) {
+            trackEmitter.writeRecord(read);
+        }
+        trackEmitter.writeTrackAndFinish(track);
+        return emitter.getSentLength();
+    }
+}
@@ -0,0 +1,105 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2016 EPAM Systems
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.epam.catgenome.manager.externaldb;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.util.concurrent.TimeUnit;
+
+import javax.xml.bind.JAXBContext;
+import javax.xml.bind.JAXBException;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.core.io.ClassPathResource;
+
+/**
+ * Benchmarks parsing of recorded external DB responses with a new JAXB context per document, as it was done
+ * before, and with shared contexts and pooled unmarshallers of {@link JAXBUnmarshallerPool}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class JAXBUnmarshallerPoolBenchmark {
+
+    private static final String BINDINGS_PACKAGE = "com.epam.catgenome.manager.externaldb.bindings.";
+
+    /**
+     * Recorded responses of UniProt, RCSB PDB and NCBI dbSNP
+     */
+    @Param({"uniprot", "rcsbpbd", "dbsnp"})
+    private String fixture;
+
+    private String bindingsPackage;
+    private String xml;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        bindingsPackage = BINDINGS_PACKAGE + fixture;
+        switch (fixture) {
+            case "uniprot":
+                xml = readFile("uniprot_id_ENST00000319363.xml");
+                break;
+            case "rcsbpbd":
+                xml = readFile("pbd_id_2k8d.xml");
+                break;
+            case "dbsnp":
+                xml = readFile("ncbi_fetch_snp_variations_on_region.xml");
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown fixture " + fixture);
+        }
+    }
+
+    @Benchmark
+    public Object parseWithNewContext() throws JAXBException {
+        return JAXBContext.newInstance(bindingsPackage).createUnmarshaller().unmarshal(new StringReader(xml));
+    }
+
+    @Benchmark
+    public Object parseWithPool() throws JAXBException {
+        return JAXBUnmarshallerPool.forPackage(bindingsPackage).unmarshal(xml, Object.class);
+    }
+
+    private static String readFile(final String filename) throws IOException {
+        return new String(Files.readAllBytes(new ClassPathResource("externaldb/data/" + filename).getFile().toPath()),
+                Charset.defaultCharset());
+    }
+}
@@ -0,0 +1,97 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2016 EPAM Systems
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package com.epam.catgenome.manager.gene.reader;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.epam.catgenome.benchmark.BenchmarkEnvironment;
+import com.epam.catgenome.entity.gene.Gene;
+import com.epam.catgenome.entity.gene.GeneFile;
+import com.epam.catgenome.entity.reference.Chromosome;
+import com.epam.catgenome.entity.track.Track;
+import com.epam.catgenome.exception.GeneReadingException;
+import com.epam.catgenome.manager.FileManager;
+import com.epam.catgenome.manager.parallel.TaskExecutorService;
+
+/**
+ * Benchmarks reading of genes of a whole chromosome from a GTF file by
+ * {@link AbstractGeneReader#readGenesFromGeneFile(Track, Chromosome, boolean, int)}: parallel parsing of features
+ * and building of gene, transcript and exon hierarchy, optionally collapsed
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class GeneReaderBenchmark {
+
+    @Param({"false", "true"})
+    private boolean collapse;
+
+    private TaskExecutorService taskExecutorService;
+    private FileManager fileManager;
+    private GeneFile geneFile;
+    private Chromosome chromosome;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        BenchmarkEnvironment environment = BenchmarkEnvironment.get();
+        taskExecutorService = environment.getBean(TaskExecutorService.class);
+        fileManager = environment.getBean(FileManager.class);
+        geneFile = environment.getGeneFile();
+        chromosome = environment.getChromosome();
+    }
+
+    @Benchmark
+    public List<Gene> readGenesFromGeneFile() throws GeneReadingException {
+        Track<Gene> track = new Track<>();
+        track.setId(geneFile.getId());
+        track.setChromosome(chromosome);
+        track.setStartIndex(1);
+        track.setEndIndex(chromosome.getSize());
+        track.setScaleFactor(1.0);
+        AbstractGeneReader reader = AbstractGeneReader.createGeneReader(taskExecutorService.getExecutorService(),
+                fileManager, geneFile);
+        return reader.readGenesFromGeneFile(track, chromosome, collapse,
+                taskExecutorService.getTaskNumberOfThreads());
+    }
+}
@@ -0,0 +1,128 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2016 EPAM Systems
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package com.epam.catgenome.manager.reference.io;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.epam.catgenome.benchmark.BenchmarkDataSet;
+import com.epam.catgenome.benchmark.BenchmarkEnvironment;
+import com.epam.catgenome.entity.reference.Chromosome;
+import com.epam.catgenome.entity.reference.Sequence;
+import com.epam.catgenome.manager.FileManager;
+import com.epam.catgenome.util.BlockCompressedDataOutputStream;
+import htsjdk.samtools.reference.ReferenceSequence;
+import htsjdk.samtools.reference.ReferenceSequenceFile;
+import htsjdk.samtools.reference.ReferenceSequenceFileFactory;
+
+/**
+ * Benchmarks decoding of reference nucleotides from a Nib file by {@link NibDataReader}. The Nib file and its index
+ * are built once from a chromosome of a generated FASTA reference, each invocation opens fresh streams, as a
+ * reference track request does
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class NibDataReaderBenchmark {
+
+    @Param({"1000", "100000"})
+    private int window;
+
+    private NibDataReader nibDataReader;
+    private FileManager fileManager;
+    private Long referenceId;
+    private String chromosomeName;
+    private int start;
+    private int end;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        BenchmarkEnvironment environment = BenchmarkEnvironment.get();
+        BenchmarkDataSet dataSet = environment.getDataSet();
+        nibDataReader = environment.getBean(NibDataReader.class);
+        fileManager = environment.getBean(FileManager.class);
+        NibDataWriter nibDataWriter = environment.getBean(NibDataWriter.class);
+
+        Chromosome registered = environment.getChromosome();
+        referenceId = registered.getReferenceId();
+        chromosomeName = registered.getName();
+        start = dataSet.getRegionStart();
+        end = Math.min(start + window - 1, registered.getSize());
+
+        byte[] bases = null;
+        try (ReferenceSequenceFile fasta = ReferenceSequenceFileFactory
+                .getReferenceSequenceFile(new File(dataSet.getReference()))) {
+            ReferenceSequence sequence = fasta.nextSequence();
+            while (bases == null && sequence != null) {
+                if (chromosomeName.equals(sequence.getName())) {
+                    bases = sequence.getBases();
+                }
+                sequence = fasta.nextSequence();
+            }
+        }
+        // output streams set a path of a chromosome, so a copy is passed to keep the registered one intact
+        Chromosome chromosome = new Chromosome(chromosomeName, registered.getSize());
+        try (BlockCompressedDataOutputStream stream = fileManager.makeRefOutputStream(referenceId, chromosome)) {
+            nibDataWriter.byteArrayToNibFile(bases, stream);
+        }
+        try (BlockCompressedDataOutputStream stream = fileManager.makeGCOutputStream(referenceId, chromosome)) {
+            nibDataWriter.byteArrayToGCFile(bases, stream);
+        }
+        fileManager.makeNibIndex(referenceId, chromosomeName);
+    }
+
+    @Benchmark
+    public List<Sequence> getNucleotidesFromNibFile() throws IOException {
+        return nibDataReader.getNucleotidesFromNibFile(start, end,
+                fileManager.makeRefInputStream(referenceId, chromosomeName),
+                fileManager.makeRefIndexInputStream(referenceId, chromosomeName));
+    }
+
+    @Benchmark
+    public String getStringFromNibFile() throws IOException {
+        return nibDataReader.getStringFromNibFile(start, end,
+                fileManager.makeRefInputStream(referenceId, chromosomeName),
+                fileManager.makeRefIndexInputStream(referenceId, chromosomeName));
+    }
+}
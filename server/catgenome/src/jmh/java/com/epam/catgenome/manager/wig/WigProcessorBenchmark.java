@@ -0,0 +1,108 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2016 EPAM Systems
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package com.epam.catgenome.manager.wig;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.epam.catgenome.benchmark.BenchmarkDataSet;
+import com.epam.catgenome.benchmark.BenchmarkEnvironment;
+import com.epam.catgenome.entity.reference.Chromosome;
+import com.epam.catgenome.entity.track.Track;
+import com.epam.catgenome.entity.wig.Wig;
+import com.epam.catgenome.entity.wig.WigFile;
+import com.epam.catgenome.manager.BiologicalDataItemManager;
+import com.epam.catgenome.manager.FileManager;
+
+/**
+ * Benchmarks loading of a BigWig track by {@link WigProcessor}: splitting of a track into blocks and filling them
+ * from a file. A {@code REGION} is read from the original file, a whole {@code CHROMOSOME} is read at a screen
+ * scale from a downsampled file, that is made during registration
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class WigProcessorBenchmark {
+
+    private static final int SCREEN_WIDTH = 2000;
+
+    public enum Range {
+        REGION, CHROMOSOME
+    }
+
+    @Param({"REGION", "CHROMOSOME"})
+    private Range range;
+
+    private WigProcessor wigProcessor;
+    private WigFile wigFile;
+    private Chromosome chromosome;
+    private int start;
+    private int end;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        BenchmarkEnvironment environment = BenchmarkEnvironment.get();
+        BenchmarkDataSet dataSet = environment.getDataSet();
+        wigProcessor = new WigProcessor(environment.getBean(BiologicalDataItemManager.class),
+                environment.getBean(FileManager.class));
+        wigFile = environment.getWigFile();
+        chromosome = environment.getChromosome();
+        if (range == Range.REGION) {
+            start = dataSet.getRegionStart();
+            end = dataSet.getRegionEnd();
+        } else {
+            start = 1;
+            end = chromosome.getSize();
+        }
+    }
+
+    @Benchmark
+    public Track<Wig> getWigFromFile() throws IOException {
+        Track<Wig> track = new Track<>();
+        track.setId(wigFile.getId());
+        track.setChromosome(chromosome);
+        track.setStartIndex(start);
+        track.setEndIndex(end);
+        track.setScaleFactor(range == Range.REGION ? 1.0 : (double) SCREEN_WIDTH / (end - start + 1));
+        return wigProcessor.getWigFromFile(wigFile, track, chromosome);
+    }
+}
@@ -22,12 +22,14 @@ import org.springframework.security.oauth2.provider.client.ClientCredentialsToke
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 import org.springframework.web.filter.DelegatingFilterProxy;
 import org.springframework.web.servlet.DispatcherServlet;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
 import org.springframework.web.servlet.config.annotation.PathMatchConfigurer;
 import org.springframework.web.servlet.config.annotation.ResourceHandlerRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurerAdapter;
 
 import com.epam.catgenome.config.SwaggerConfig;
 import com.epam.catgenome.controller.JsonMapper;
+import com.epam.catgenome.controller.metrics.TrackMetricsInterceptor;
 import com.fasterxml.jackson.databind.ObjectMapper;
 /**
  * Class provides MVC Configuration for Spring Boot application
@@ -44,6 +46,9 @@ public class AppMVCConfiguration extends WebMvcConfigurerAdapter {
     @Autowired
     private ApplicationContext applicationContext;
 
+    @Autowired
+    private TrackMetricsInterceptor trackMetricsInterceptor;
+
     @Value("#{catgenome['use.embedded.tomcat']}")
     private String useEmbedded;
 
@@ -88,6 +93,12 @@ public class AppMVCConfiguration extends WebMvcConfigurerAdapter {
         super.configureMessageConverters(converters);
     }
 
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(trackMetricsInterceptor)
+                .addPathPatterns("/*/track/get", "/*/*/track/get", "/*/track/histogram");
+    }
+
     @Override
     public void configurePathMatch(PathMatchConfigurer configurer) {
         super.configurePathMatch(configurer);
@@ -168,6 +168,16 @@ public final class MessagesConstants {
     //S3
     public static final String ERROR_S3_BUCKET = "error.not.s3.bucket";
 
+    //REGISTRATION JOBS
+    public static final String ERROR_REGISTRATION_JOB_NOT_FOUND = "error.registration.job.not.found";
+    public static final String ERROR_REGISTRATION_CANCELLED = "error.registration.cancelled";
+    public static final String ERROR_REGISTRATION_INTERRUPTED = "error.registration.interrupted";
+    public static final String ERROR_REGISTRATION_BATCH_SIZE = "error.registration.batch.size";
+    public static final String INFO_REGISTRATION_BATCH_FAILED = "info.registration.batch.failed";
+
+    //TASKS
+    public static final String ERROR_TASK_QUEUE_FULL = "error.task.queue.full";
+
     //CACHE
     public static final String INFO_RECORD_IN_CACHE = "info.record.in.cache";
 
@@ -215,6 +225,7 @@ public final class MessagesConstants {
     public static final String ERROR_NO_DATA_FOR_URL = "error.no.data.for.url";
     public static final String ERROR_UNEXPECTED_FORMAT = "error.error.unexpected.format";
     public static final String ERROR_NO_RESULT_BY_EXTERNAL_DB = "error.no.result.by.external.db";
+    public static final String ERROR_EXTERNAL_DB_BUSY = "error.external.db.busy";
 
     //BED
     public static final String ERROR_BED_PARSING = "error.bed.parsing.exception";
@@ -33,6 +33,7 @@ import org.slf4j.LoggerFactory;
 import org.springframework.core.Ordered;
 import org.springframework.core.annotation.Order;
 import org.springframework.dao.DataAccessException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.jdbc.BadSqlGrammarException;
@@ -44,6 +45,7 @@ import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.servlet.mvc.method.annotation.ResponseEntityExceptionHandler;
 
 import com.epam.catgenome.component.MessageHelper;
+import com.epam.catgenome.exception.TaskRejectedException;
 
 /**
  * Source:      ExceptionHandlerAdvice.java
@@ -62,6 +64,21 @@ public class ExceptionHandlerAdvice extends ResponseEntityExceptionHandler {
 
     private static final Logger LOG = LoggerFactory.getLogger(ExceptionHandlerAdvice.class);
 
+    /**
+     * Responds with 503 status and {@code Retry-After} header, when a task is rejected, because the server is
+     * overloaded. Such rejections are expected under load and aren't logged as errors.
+     */
+    @ResponseBody
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @ExceptionHandler(TaskRejectedException.class)
+    public final ResponseEntity<Result<String>> handleTaskRejectedException(final TaskRejectedException exception,
+                                                                           final WebRequest request) {
+        LOG.warn("{}: {}", request.getDescription(true), exception.getMessage());
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(HttpHeaders.RETRY_AFTER, String.valueOf(exception.getRetryAfter()));
+        return new ResponseEntity<>(Result.error(exception.getMessage()), headers, HttpStatus.SERVICE_UNAVAILABLE);
+    }
+
     @ResponseBody
     @Order(Ordered.HIGHEST_PRECEDENCE)
     @ExceptionHandler(Throwable.class)
@@ -84,6 +84,36 @@ public class BucketController extends AbstractRESTController {
         return Result.success(bucketManager.saveBucket(bucket));
     }
 
+    @ResponseBody
+    @RequestMapping(value = "/bucket/{bucketId}", method = RequestMethod.PUT)
+    @ApiOperation(
+            value = "Updates a registered bucket.",
+            notes = "Updates a name and credentials of a bucket, specified by ID. Request has the same " +
+                    "properties as a registration request.",
+            produces = MediaType.APPLICATION_JSON_VALUE)
+    @ApiResponses(
+            value = {@ApiResponse(code = HTTP_STATUS_OK, message = API_STATUS_DESCRIPTION)
+            })
+    public Result<Bucket> updateBucket(@PathVariable(value = "bucketId") final Long bucketId,
+                                       @RequestBody Bucket bucket) {
+        bucket.setId(bucketId);
+        return Result.success(bucketManager.updateBucket(bucket));
+    }
+
+    @ResponseBody
+    @RequestMapping(value = "/bucket/{bucketId}", method = RequestMethod.DELETE)
+    @ApiOperation(
+            value = "Deletes a bucket, specified by ID",
+            notes = "Deletes a bucket, that isn't used by registered files",
+            produces = MediaType.APPLICATION_JSON_VALUE)
+    @ApiResponses(
+            value = {@ApiResponse(code = HTTP_STATUS_OK, message = API_STATUS_DESCRIPTION)
+            })
+    public Result<Boolean> deleteBucket(@PathVariable(value = "bucketId") final Long bucketId) {
+        bucketManager.deleteBucket(bucketId);
+        return Result.success(true);
+    }
+
     @ResponseBody
     @RequestMapping(value = "/bucket/loadAll", method = RequestMethod.GET)
     @ApiOperation(
@@ -27,6 +27,8 @@ package com.epam.catgenome.controller.externaldb;
 import static com.epam.catgenome.component.MessageHelper.getMessage;
 
 import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
 import java.util.stream.Collectors;
 
 import org.springframework.beans.factory.annotation.Autowired;
@@ -38,6 +40,7 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestMethod;
 import org.springframework.web.bind.annotation.ResponseBody;
+import org.springframework.web.context.request.async.DeferredResult;
 
 import com.epam.catgenome.constant.MessagesConstants;
 import com.epam.catgenome.controller.AbstractRESTController;
@@ -54,8 +57,8 @@ import com.epam.catgenome.controller.vo.externaldb.UniprotEntryVO;
 import com.epam.catgenome.controller.vo.externaldb.ensemblevo.EnsemblEntryVO;
 import com.epam.catgenome.controller.vo.externaldb.ensemblevo.EnsemblVariationEntryVO;
 import com.epam.catgenome.entity.vcf.Variation;
-import com.epam.catgenome.exception.ExternalDbUnavailableException;
 import com.epam.catgenome.manager.externaldb.EnsemblDataManager;
+import com.epam.catgenome.manager.externaldb.ExternalDbHttpClient;
 import com.epam.catgenome.manager.externaldb.UniprotDataManager;
 import com.epam.catgenome.manager.externaldb.bindings.uniprot.Entry;
 import com.epam.catgenome.manager.externaldb.bindings.uniprot.Uniprot;
@@ -74,6 +77,11 @@ import com.wordnik.swagger.annotations.ApiResponses;
  * {@code ExternalDBController} represents implementation of MVC controller which handles
  * requests to manage External DB.
  * </p>
+ * <p>
+ * Requests are handled asynchronously by {@link ExternalDbHttpClient#handle(Callable)}, so servlet threads
+ * aren't blocked while external databases respond. If a response isn't ready in a configured request timeout,
+ * a client gets 503 status and should repeat a request later, when a response is cached.
+ * </p>
  * */
 @Controller
 @Api(value = "externaldb", description = "External DB Management")
@@ -110,6 +118,9 @@ public class ExternalDBController extends AbstractRESTController {
     @Autowired
     private NCBIAuxiliaryManager ncbiAuxiliaryManager;
 
+    @Autowired(required = false)
+    private ExternalDbHttpClient httpClient;
+
     @ResponseBody
     @RequestMapping(value = "/externaldb/uniprot/{geneId}/get", method = RequestMethod.GET)
     @ApiOperation(value = "UniProt: Retrieves information on protein using geneId.",
@@ -121,15 +132,17 @@ public class ExternalDBController extends AbstractRESTController {
                 "FBgn0000008 -- Fly Base ID<br/>",
             produces = MediaType.APPLICATION_JSON_VALUE)
     @ApiResponses(value = { @ApiResponse(code = HTTP_STATUS_OK, message = API_STATUS_DESCRIPTION) })
-    public Result<List<UniprotEntryVO>> fetchUniprotData(@PathVariable(value = "geneId") final String geneId)
-            throws ExternalDbUnavailableException {
+    public DeferredResult<Result<List<UniprotEntryVO>>> fetchUniprotData(
+            @PathVariable(value = "geneId") final String geneId) {
 
         Assert.notNull(geneId, getMessage(MessagesConstants.ERROR_GENEID_NOT_SPECIFIED));
-        Uniprot jaxbUniprotData = uniprotDataManager.fetchUniprotEntry(geneId);
-        List<Entry> jaxbUniprotEntries = jaxbUniprotData.getEntry();
-        List<UniprotEntryVO> uniprotEntriesVO = jaxbUniprotEntries.stream().map(UniprotConverter::convertTo)
-                .collect(Collectors.toList());
-        return Result.success(uniprotEntriesVO, getMessage(SUCCESS, "UniProt"));
+        return fetchAsync(() -> {
+            Uniprot jaxbUniprotData = uniprotDataManager.fetchUniprotEntry(geneId);
+            List<Entry> jaxbUniprotEntries = jaxbUniprotData.getEntry();
+            List<UniprotEntryVO> uniprotEntriesVO = jaxbUniprotEntries.stream().map(UniprotConverter::convertTo)
+                    .collect(Collectors.toList());
+            return Result.success(uniprotEntriesVO, getMessage(SUCCESS, "UniProt"));
+        });
     }
 
     @ResponseBody
@@ -143,13 +156,12 @@ public class ExternalDBController extends AbstractRESTController {
                     "FBgn0000008 -- Fly Base ID<br/>",
             produces = MediaType.APPLICATION_JSON_VALUE)
     @ApiResponses(value = { @ApiResponse(code = HTTP_STATUS_OK, message = API_STATUS_DESCRIPTION) })
-    public Result<EnsemblEntryVO> fetchEnsemblData(@PathVariable(value = "geneId") final String geneId)
-            throws ExternalDbUnavailableException {
+    public DeferredResult<Result<EnsemblEntryVO>> fetchEnsemblData(
+            @PathVariable(value = "geneId") final String geneId) {
 
         Assert.notNull(geneId, getMessage(MessagesConstants.ERROR_GENEID_NOT_SPECIFIED));
-        EnsemblEntryVO ensemblEntryVO = ensemblDataManager.fetchEnsemblEntry(geneId);
-
-        return Result.success(ensemblEntryVO, getMessage(SUCCESS, ENSEMBL));
+        return fetchAsync(() -> Result.success(ensemblDataManager.fetchEnsemblEntry(geneId),
+                getMessage(SUCCESS, ENSEMBL)));
     }
 
     @ResponseBody
@@ -163,15 +175,13 @@ public class ExternalDBController extends AbstractRESTController {
                     "<b>species</b> - species name: human<br/>",
             produces = MediaType.APPLICATION_JSON_VALUE)
     @ApiResponses(value = { @ApiResponse(code = HTTP_STATUS_OK, message = API_STATUS_DESCRIPTION) })
-    public Result<EnsemblVariationEntryVO> fetchEnsemblVariationData(
+    public DeferredResult<Result<EnsemblVariationEntryVO>> fetchEnsemblVariationData(
             @PathVariable(value = VARIATION_ID_NAME) final String rsId,
-            @PathVariable(value = "species") final String species)
-            throws ExternalDbUnavailableException {
+            @PathVariable(value = "species") final String species) {
 
         Assert.notNull(rsId, getMessage(MessagesConstants.ERROR_VARIATIONID_NOT_SPECIFIED));
-        EnsemblVariationEntryVO ensemblVariationEntryVO = ensemblDataManager.fetchVariationEntry(rsId, species);
-
-        return Result.success(ensemblVariationEntryVO, getMessage(SUCCESS, ENSEMBL));
+        return fetchAsync(() -> Result.success(ensemblDataManager.fetchVariationEntry(rsId, species),
+                getMessage(SUCCESS, ENSEMBL)));
     }
 
     @ResponseBody
@@ -187,9 +197,8 @@ public class ExternalDBController extends AbstractRESTController {
                     "<b>finish</b> - end coordinate in a given chromosome (e.g. 140624564)<br/>",
             produces = MediaType.APPLICATION_JSON_VALUE)
     @ApiResponses(value = { @ApiResponse(code = HTTP_STATUS_OK, message = API_STATUS_DESCRIPTION) })
-    public Result<List<EnsemblEntryVO>> fetchEnsemblVariationOnRegionData(
-            @RequestBody final RegionQuery regionQuery)
-            throws ExternalDbUnavailableException {
+    public DeferredResult<Result<List<EnsemblEntryVO>>> fetchEnsemblVariationOnRegionData(
+            @RequestBody final RegionQuery regionQuery) {
 
         String species = regionQuery.getSpecies();
         String chromosome = regionQuery.getChromosome();
@@ -201,10 +210,9 @@ public class ExternalDBController extends AbstractRESTController {
         Assert.notNull(start, getMessage(MessagesConstants.ERROR_STARTPOSITION_NOT_SPECIFIED));
         Assert.notNull(finish, getMessage(MessagesConstants.ERROR_FINISHPOSITION_NOT_SPECIFIED));
 
-        List<EnsemblEntryVO> variationEntryVOList =
-                ensemblDataManager.fetchVariationsOnRegion(species, chromosome, start, finish);
-
-        return Result.success(variationEntryVOList, getMessage(SUCCESS, ENSEMBL));
+        return fetchAsync(() -> Result.success(
+                ensemblDataManager.fetchVariationsOnRegion(species, chromosome, start, finish),
+                getMessage(SUCCESS, ENSEMBL)));
     }
 
     @ResponseBody
@@ -226,13 +234,10 @@ public class ExternalDBController extends AbstractRESTController {
                     "<b>Interactions</b> -- interactions information<br/>",
             produces = MediaType.APPLICATION_JSON_VALUE)
     @ApiResponses(value = { @ApiResponse(code = HTTP_STATUS_OK, message = API_STATUS_DESCRIPTION) })
-    public Result<NCBIGeneVO> fetchNCBIGene(@PathVariable(value = "geneId") final String geneId)
-            throws ExternalDbUnavailableException {
+    public DeferredResult<Result<NCBIGeneVO>> fetchNCBIGene(@PathVariable(value = "geneId") final String geneId) {
 
         Assert.notNull(geneId, getMessage(MessagesConstants.ERROR_GENEID_NOT_SPECIFIED));
-        NCBIGeneVO gene = ncbiGeneManager.fetchGeneById(geneId);
-
-        return Result.success(gene, getMessage(SUCCESS, NCBI));
+        return fetchAsync(() -> Result.success(ncbiGeneManager.fetchGeneById(geneId), getMessage(SUCCESS, NCBI)));
     }
 
     @ResponseBody
@@ -244,13 +249,13 @@ public class ExternalDBController extends AbstractRESTController {
                     RSID_DESCRIPTION_NOTE,
             produces = MediaType.APPLICATION_JSON_VALUE)
     @ApiResponses(value = { @ApiResponse(code = HTTP_STATUS_OK, message = API_STATUS_DESCRIPTION) })
-    public Result<NCBIShortVarVO> fetchNCBIShortVariation(@PathVariable(value = VARIATION_ID_NAME) final String rsId)
-            throws ExternalDbUnavailableException {
+    public DeferredResult<Result<NCBIShortVarVO>> fetchNCBIShortVariation(
+            @PathVariable(value = VARIATION_ID_NAME) final String rsId) {
 
         Assert.notNull(rsId, getMessage(MessagesConstants.ERROR_VARIATIONID_NOT_SPECIFIED));
         Assert.isTrue(rsId.matches(VARIATION_PATTERN), getMessage(MessagesConstants.ERROR_VARIATIONID_NOT_SPECIFIED));
-        NCBIShortVarVO snp = ncbiShortVarManager.fetchVariationById(rsId.substring(2));
-        return Result.success(snp, getMessage(SUCCESS, NCBI));
+        return fetchAsync(() -> Result.success(ncbiShortVarManager.fetchVariationById(rsId.substring(2)),
+                getMessage(SUCCESS, NCBI)));
     }
 
     @ResponseBody
@@ -261,13 +266,13 @@ public class ExternalDBController extends AbstractRESTController {
                     RSID_DESCRIPTION_NOTE,
             produces = MediaType.APPLICATION_JSON_VALUE)
     @ApiResponses(value = { @ApiResponse(code = HTTP_STATUS_OK, message = API_STATUS_DESCRIPTION) })
-    public Result<NCBIStructVarVO> fetchNCBIStructVariation(@PathVariable(value = VARIATION_ID_NAME) final String rsId)
-            throws ExternalDbUnavailableException {
+    public DeferredResult<Result<NCBIStructVarVO>> fetchNCBIStructVariation(
+            @PathVariable(value = VARIATION_ID_NAME) final String rsId) {
 
         Assert.notNull(rsId, getMessage(MessagesConstants.ERROR_VARIATIONID_NOT_SPECIFIED));
         Assert.isTrue(rsId.matches(VARIATION_PATTERN), getMessage(MessagesConstants.ERROR_VARIATIONID_NOT_SPECIFIED));
-        NCBIStructVarVO var = ncbiStructVarManager.fetchVariationById(rsId.substring(2));
-        return Result.success(var, getMessage(SUCCESS, NCBI));
+        return fetchAsync(() -> Result.success(ncbiStructVarManager.fetchVariationById(rsId.substring(2)),
+                getMessage(SUCCESS, NCBI)));
     }
 
     @ResponseBody
@@ -278,14 +283,14 @@ public class ExternalDBController extends AbstractRESTController {
                     RSID_DESCRIPTION_NOTE,
             produces = MediaType.APPLICATION_JSON_VALUE)
     @ApiResponses(value = { @ApiResponse(code = HTTP_STATUS_OK, message = API_STATUS_DESCRIPTION) })
-    public Result<NCBIClinVarVO> fetchNCBIClinVariation(@PathVariable(value = VARIATION_ID_NAME) final String rsId)
-            throws ExternalDbUnavailableException {
+    public DeferredResult<Result<NCBIClinVarVO>> fetchNCBIClinVariation(
+            @PathVariable(value = VARIATION_ID_NAME) final String rsId) {
 
         Assert.notNull(rsId, getMessage(MessagesConstants.ERROR_VARIATIONID_NOT_SPECIFIED));
         Assert.isTrue(rsId.matches(VARIATION_PATTERN), getMessage(MessagesConstants.ERROR_VARIATIONID_NOT_SPECIFIED));
 
-        NCBIClinVarVO clin = ncbiClinVarManager.fetchVariationById(rsId.substring(2));
-        return Result.success(clin, getMessage(SUCCESS, NCBI));
+        return fetchAsync(() -> Result.success(ncbiClinVarManager.fetchVariationById(rsId.substring(2)),
+                getMessage(SUCCESS, NCBI)));
     }
 
     @ResponseBody
@@ -299,12 +304,12 @@ public class ExternalDBController extends AbstractRESTController {
                     "<b>scientificName</b> - scientific species name (e.g. \"homo sapiens\")<br/>",
                     produces = MediaType.APPLICATION_JSON_VALUE)
     @ApiResponses(value = { @ApiResponse(code = HTTP_STATUS_OK, message = API_STATUS_DESCRIPTION) })
-    public Result<NCBITaxonomyVO> fetchNCBITaxonomyInfo(@PathVariable(value = "taxId") final String taxId)
-            throws ExternalDbUnavailableException {
+    public DeferredResult<Result<NCBITaxonomyVO>> fetchNCBITaxonomyInfo(
+            @PathVariable(value = "taxId") final String taxId) {
 
         Assert.notNull(taxId, getMessage(MessagesConstants.ERROR_VARIATIONID_NOT_SPECIFIED));
-        NCBITaxonomyVO ncbiTaxonomyVO = ncbiAuxiliaryManager.fetchTaxonomyInfoById(taxId);
-        return Result.success(ncbiTaxonomyVO, getMessage(SUCCESS, NCBI));
+        return fetchAsync(() -> Result.success(ncbiAuxiliaryManager.fetchTaxonomyInfoById(taxId),
+                getMessage(SUCCESS, NCBI)));
     }
 
     @ResponseBody
@@ -319,16 +324,15 @@ public class ExternalDBController extends AbstractRESTController {
                     "2) Clin variation db poll<br/>" +
                     "3) Taxonomy db poll<br/>", produces = MediaType.APPLICATION_JSON_VALUE)
     @ApiResponses(value = { @ApiResponse(code = HTTP_STATUS_OK, message = API_STATUS_DESCRIPTION) })
-    public Result<NCBIVariationVO> fetchNCBIAggregatedVariationInfo(@PathVariable(value = VARIATION_ID_NAME)
-                                                                        final String rsId)
-            throws ExternalDbUnavailableException {
+    public DeferredResult<Result<NCBIVariationVO>> fetchNCBIAggregatedVariationInfo(
+            @PathVariable(value = VARIATION_ID_NAME) final String rsId) {
 
         Assert.notNull(rsId, getMessage(MessagesConstants.ERROR_VARIATIONID_NOT_SPECIFIED));
         Assert.isTrue(rsId.matches(VARIATION_PATTERN), getMessage(MessagesConstants.ERROR_VARIATIONID_NOT_SPECIFIED));
 
         String variationId = rsId.substring(2);
-        NCBIVariationVO result = ncbiShortVarManager.fetchAggregatedVariationById(variationId);
-        return Result.success(result, getMessage(SUCCESS, NCBI));
+        return fetchAsync(() -> Result.success(ncbiShortVarManager.fetchAggregatedVariationById(variationId),
+                getMessage(SUCCESS, NCBI)));
     }
 
     @ResponseBody
@@ -345,15 +349,43 @@ public class ExternalDBController extends AbstractRESTController {
                     RSID_DESCRIPTION_NOTE,
             produces = MediaType.APPLICATION_JSON_VALUE)
     @ApiResponses(value = { @ApiResponse(code = HTTP_STATUS_OK, message = API_STATUS_DESCRIPTION) })
-    public Result<List<Variation>> fetchNCBIVariationInfoOnInterval(@RequestBody final RegionQuery regionQuery)
-            throws ExternalDbUnavailableException {
+    public DeferredResult<Result<List<Variation>>> fetchNCBIVariationInfoOnInterval(
+            @RequestBody final RegionQuery regionQuery) {
 
         String chromosome = regionQuery.getChromosome();
         String start = regionQuery.getStart();
         String finish = regionQuery.getFinish();
         String species = regionQuery.getSpecies();
 
-        List<Variation> variations = ncbiShortVarManager.fetchVariationsOnRegion(species, start, finish, chromosome);
-        return Result.success(variations, getMessage(SUCCESS, NCBI));
+        return fetchAsync(() -> Result.success(
+                ncbiShortVarManager.fetchVariationsOnRegion(species, start, finish, chromosome),
+                getMessage(SUCCESS, NCBI)));
+    }
+
+    /**
+     * Runs a request handler, that queries external databases, asynchronously. If a result isn't ready in
+     * a request timeout, a client is asked to repeat a request, while external databases are still queried.
+     */
+    private <T> DeferredResult<Result<T>> fetchAsync(final Callable<Result<T>> handler) {
+        if (httpClient == null) {
+            DeferredResult<Result<T>> deferredResult = new DeferredResult<>();
+            setResult(deferredResult, ExternalDbHttpClient.completed(handler));
+            return deferredResult;
+        }
+        DeferredResult<Result<T>> deferredResult = new DeferredResult<>(httpClient.getRequestTimeout());
+        deferredResult.onTimeout(() -> deferredResult.setErrorResult(httpClient.createBusyException()));
+        setResult(deferredResult, httpClient.handle(handler));
+        return deferredResult;
+    }
+
+    private <T> void setResult(final DeferredResult<Result<T>> deferredResult,
+                               final CompletableFuture<Result<T>> future) {
+        future.whenComplete((result, e) -> {
+            if (e != null) {
+                deferredResult.setErrorResult(e);
+            } else {
+                deferredResult.setResult(result);
+            }
+        });
     }
 }
@@ -0,0 +1,129 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2016 EPAM Systems
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package com.epam.catgenome.controller.metrics;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+import org.springframework.web.servlet.ModelAndView;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+import org.springframework.web.util.UrlPathHelper;
+
+import com.epam.catgenome.manager.metrics.MetricsManager;
+import com.epam.catgenome.manager.metrics.RequestMetrics;
+import com.epam.catgenome.manager.metrics.TrackPhase;
+
+/**
+ * Measures track requests: binds {@link RequestMetrics} to a thread, processing a request, and passes them
+ * to {@link MetricsManager} on completion. JSON serialization of a response body is measured as
+ * {@link TrackPhase#SERIALIZE} phase.
+ */
+@ControllerAdvice
+public class TrackMetricsInterceptor implements AsyncHandlerInterceptor, ResponseBodyAdvice<Object> {
+
+    private static final String METRICS_ATTRIBUTE = TrackMetricsInterceptor.class.getName() + ".metrics";
+    private static final String SERIALIZATION_ATTRIBUTE = TrackMetricsInterceptor.class.getName() + ".serialization";
+    private static final String HISTOGRAM_PATH = "/histogram";
+    private static final String HISTOGRAM_SUFFIX = "_histogram";
+
+    private final UrlPathHelper urlPathHelper = new UrlPathHelper();
+
+    @Autowired
+    private MetricsManager metricsManager;
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        RequestMetrics metrics = (RequestMetrics) request.getAttribute(METRICS_ATTRIBUTE);
+        if (metrics == null) {
+            // a new request, otherwise it is dispatched again to complete an asynchronous processing
+            request.setAttribute(METRICS_ATTRIBUTE, metricsManager.startRequest(getTrackType(request)));
+        } else {
+            RequestMetrics.bind(metrics);
+        }
+        return true;
+    }
+
+    @Override
+    public void postHandle(HttpServletRequest request, HttpServletResponse response, Object handler,
+            ModelAndView modelAndView) {
+        // no operations
+    }
+
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response,
+            Object handler) {
+        RequestMetrics.bind(null);
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+            Exception ex) {
+        RequestMetrics metrics = (RequestMetrics) request.getAttribute(METRICS_ATTRIBUTE);
+        Long serializationTime = (Long) request.getAttribute(SERIALIZATION_ATTRIBUTE);
+        if (metrics != null) {
+            if (serializationTime != null) {
+                metrics.add(TrackPhase.SERIALIZE, System.nanoTime() - serializationTime);
+            }
+            metricsManager.finishRequest(metrics);
+        }
+        RequestMetrics.bind(null);
+    }
+
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return true;
+    }
+
+    @Override
+    public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType selectedContentType,
+            Class<? extends HttpMessageConverter<?>> selectedConverterType, ServerHttpRequest request,
+            ServerHttpResponse response) {
+        if (request instanceof ServletServerHttpRequest) {
+            HttpServletRequest servletRequest = ((ServletServerHttpRequest) request).getServletRequest();
+            if (servletRequest.getAttribute(METRICS_ATTRIBUTE) != null) {
+                servletRequest.setAttribute(SERIALIZATION_ATTRIBUTE, System.nanoTime());
+            }
+        }
+        return body;
+    }
+
+    private String getTrackType(HttpServletRequest request) {
+        String path = urlPathHelper.getLookupPathForRequest(request);
+        int start = path.startsWith("/") ? 1 : 0;
+        int end = path.indexOf('/', start);
+        String type = end > start ? path.substring(start, end) : path.substring(start);
+        return path.endsWith(HISTOGRAM_PATH) ? type + HISTOGRAM_SUFFIX : type;
+    }
+}
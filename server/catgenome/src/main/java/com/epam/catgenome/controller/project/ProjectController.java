@@ -73,6 +73,7 @@ import com.wordnik.swagger.annotations.ApiResponses;
 public class ProjectController extends AbstractRESTController {
     private static final String PROJECT_ID_PARAM = "projectId";
     private static final String BIOLOGICAL_ITEM_ID_PARAM = "biologicalItemId";
+    private static final String BIOLOGICAL_ITEM_IDS_PARAM = "biologicalItemIds";
 
     @Autowired
     private ProjectManager projectManager;
@@ -203,6 +204,38 @@ public class ProjectController extends AbstractRESTController {
                 biologicalItemId)));
     }
 
+    @RequestMapping(value = "/project/{projectId}/add", method = RequestMethod.PUT)
+    @ResponseBody
+    @ApiOperation(
+            value = "Adds several files to project",
+            notes = "Adds files, specified by a list of their biologicalItemIds in a request body, to a project, " +
+                    "specified by its projectId. Files, that are already in a project, are skipped",
+            produces = MediaType.APPLICATION_JSON_VALUE)
+    @ApiResponses(
+            value = {@ApiResponse(code = HTTP_STATUS_OK, message = API_STATUS_DESCRIPTION)
+            })
+    public Result<ProjectVO> addProjectItems(@PathVariable(value = PROJECT_ID_PARAM) final Long projectId,
+                                             @RequestBody final List<Long> biologicalItemIds) {
+        return Result.success(ProjectConverter.convertTo(projectManager.addProjectItems(projectId,
+                biologicalItemIds)));
+    }
+
+    @RequestMapping(value = "/project/{projectId}/remove", method = RequestMethod.DELETE)
+    @ResponseBody
+    @ApiOperation(
+            value = "Removes several files from a project",
+            notes = "Removes files, specified by a list of their biologicalItemIds, from a project, " +
+                    "specified by its projectId",
+            produces = MediaType.APPLICATION_JSON_VALUE)
+    @ApiResponses(
+            value = {@ApiResponse(code = HTTP_STATUS_OK, message = API_STATUS_DESCRIPTION)
+            })
+    public Result<ProjectVO> removeProjectItems(@PathVariable(value = PROJECT_ID_PARAM) final Long projectId,
+            @RequestParam(value = BIOLOGICAL_ITEM_IDS_PARAM) final List<Long> biologicalItemIds) {
+        return Result.success(ProjectConverter.convertTo(projectManager.removeProjectItems(projectId,
+                biologicalItemIds)));
+    }
+
     @RequestMapping(value = "/project/{projectId}/hide/{biologicalItemId}", method = RequestMethod.PUT)
     @ResponseBody
     @ApiOperation(
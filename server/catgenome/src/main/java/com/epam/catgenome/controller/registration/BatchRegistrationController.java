@@ -0,0 +1,100 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2016 EPAM Systems
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package com.epam.catgenome.controller.registration;
+
+import static com.epam.catgenome.component.MessageHelper.getMessage;
+
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseBody;
+
+import com.epam.catgenome.constant.MessagesConstants;
+import com.epam.catgenome.controller.AbstractRESTController;
+import com.epam.catgenome.controller.Result;
+import com.epam.catgenome.controller.vo.registration.BatchFileRegistrationRequest;
+import com.epam.catgenome.controller.vo.registration.FileRegistrationResult;
+import com.epam.catgenome.manager.registration.BatchRegistrationManager;
+import com.wordnik.swagger.annotations.Api;
+import com.wordnik.swagger.annotations.ApiOperation;
+import com.wordnik.swagger.annotations.ApiResponse;
+import com.wordnik.swagger.annotations.ApiResponses;
+
+/**
+ * Controller to provide REST API for registration of several files by a single request
+ */
+@Controller
+@Api(value = "BATCH_REGISTRATION", description = "Batch Registration Management")
+public class BatchRegistrationController extends AbstractRESTController {
+
+    @Autowired
+    private BatchRegistrationManager batchRegistrationManager;
+
+    @ResponseBody
+    @RequestMapping(value = "/registration/batch", method = RequestMethod.POST)
+    @ApiOperation(
+            value = "Queues registration of several files in the system.",
+            notes = "Queues a registration job for each file and returns a result for each file in the order of " +
+                    "requests: a queued job or an error message. Each request has the same properties, as a " +
+                    "request for registration of a single file, and a format: BAM, VCF, GENE, BED, SEG, WIG or " +
+                    "MAF. Jobs of a batch wait for free workers and run in the order of submission. If some " +
+                    "files fail to queue, others are still queued and a WARN status is returned.",
+            produces = MediaType.APPLICATION_JSON_VALUE)
+    @ApiResponses(
+            value = {@ApiResponse(code = HTTP_STATUS_OK, message = API_STATUS_DESCRIPTION)
+            })
+    public Result<List<FileRegistrationResult>> registerFiles(
+            @RequestBody List<BatchFileRegistrationRequest> requests) {
+        return createResult(batchRegistrationManager.registerFiles(requests));
+    }
+
+    @ResponseBody
+    @RequestMapping(value = "/registration/batch", method = RequestMethod.GET)
+    @ApiOperation(
+            value = "Returns results of registration of a batch of files.",
+            notes = "Returns registration jobs, specified by IDs, in their current state in the order of IDs, " +
+                    "along with a registered file for each succeeded job and an error message for each failed " +
+                    "or cancelled one. If some files failed to register, a WARN status is returned.",
+            produces = MediaType.APPLICATION_JSON_VALUE)
+    @ApiResponses(
+            value = {@ApiResponse(code = HTTP_STATUS_OK, message = API_STATUS_DESCRIPTION)
+            })
+    public Result<List<FileRegistrationResult>> loadResults(@RequestParam(value = "jobIds") List<Long> jobIds) {
+        return createResult(batchRegistrationManager.loadResults(jobIds));
+    }
+
+    private Result<List<FileRegistrationResult>> createResult(final List<FileRegistrationResult> results) {
+        final long failed = results.stream().filter(FileRegistrationResult::isFailed).count();
+        return failed == 0 ? Result.success(results) : Result.warn(
+                getMessage(MessagesConstants.INFO_REGISTRATION_BATCH_FAILED, failed, results.size()), results);
+    }
+}
@@ -0,0 +1,155 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2016 EPAM Systems
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package com.epam.catgenome.controller.registration;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.bind.annotation.ResponseBody;
+
+import com.epam.catgenome.controller.AbstractRESTController;
+import com.epam.catgenome.controller.Result;
+import com.epam.catgenome.controller.vo.registration.FeatureIndexedFileRegistrationRequest;
+import com.epam.catgenome.controller.vo.registration.IndexedFileRegistrationRequest;
+import com.epam.catgenome.controller.vo.registration.ReferenceRegistrationRequest;
+import com.epam.catgenome.entity.registration.RegistrationJob;
+import com.epam.catgenome.manager.registration.RegistrationExecutorService;
+import com.wordnik.swagger.annotations.Api;
+import com.wordnik.swagger.annotations.ApiOperation;
+import com.wordnik.swagger.annotations.ApiResponse;
+import com.wordnik.swagger.annotations.ApiResponses;
+
+/**
+ * Controller to provide REST API for asynchronous file registration. Registration requests are the same, as
+ * for synchronous registration methods of file controllers, but a job is returned at once, and it's state and
+ * progress are polled by job ID.
+ */
+@Controller
+@Api(value = "REGISTRATION", description = "Asynchronous Registration Management")
+public class RegistrationJobController extends AbstractRESTController {
+
+    private static final String JOB_NOTES = "Returns a queued registration job. Poll the job by ID to get its " +
+            "status: QUEUED, RUNNING, SUCCEEDED, FAILED or CANCELLED, progress from 0 to 1 and an ID of " +
+            "a registered file, when it succeeds.";
+
+    @Autowired
+    private RegistrationExecutorService registrationExecutorService;
+
+    @ResponseBody
+    @RequestMapping(value = "/registration/reference", method = RequestMethod.POST)
+    @ApiOperation(
+            value = "Queues registration of a reference genome.",
+            notes = JOB_NOTES,
+            produces = MediaType.APPLICATION_JSON_VALUE)
+    @ApiResponses(
+            value = {@ApiResponse(code = HTTP_STATUS_OK, message = API_STATUS_DESCRIPTION)
+            })
+    public Result<RegistrationJob> registerReference(@RequestBody ReferenceRegistrationRequest request) {
+        return Result.success(registrationExecutorService.registerReference(request));
+    }
+
+    @ResponseBody
+    @RequestMapping(value = "/registration/vcf", method = RequestMethod.POST)
+    @ApiOperation(
+            value = "Queues registration of a VCF file.",
+            notes = JOB_NOTES,
+            produces = MediaType.APPLICATION_JSON_VALUE)
+    @ApiResponses(
+            value = {@ApiResponse(code = HTTP_STATUS_OK, message = API_STATUS_DESCRIPTION)
+            })
+    public Result<RegistrationJob> registerVcf(@RequestBody FeatureIndexedFileRegistrationRequest request) {
+        return Result.success(registrationExecutorService.registerVcf(request));
+    }
+
+    @ResponseBody
+    @RequestMapping(value = "/registration/gene", method = RequestMethod.POST)
+    @ApiOperation(
+            value = "Queues registration of a GFF/GTF file.",
+            notes = JOB_NOTES,
+            produces = MediaType.APPLICATION_JSON_VALUE)
+    @ApiResponses(
+            value = {@ApiResponse(code = HTTP_STATUS_OK, message = API_STATUS_DESCRIPTION)
+            })
+    public Result<RegistrationJob> registerGene(@RequestBody FeatureIndexedFileRegistrationRequest request) {
+        return Result.success(registrationExecutorService.registerGene(request));
+    }
+
+    @ResponseBody
+    @RequestMapping(value = "/registration/bed", method = RequestMethod.POST)
+    @ApiOperation(
+            value = "Queues registration of a BED file.",
+            notes = JOB_NOTES,
+            produces = MediaType.APPLICATION_JSON_VALUE)
+    @ApiResponses(
+            value = {@ApiResponse(code = HTTP_STATUS_OK, message = API_STATUS_DESCRIPTION)
+            })
+    public Result<RegistrationJob> registerBed(@RequestBody IndexedFileRegistrationRequest request) {
+        return Result.success(registrationExecutorService.registerBed(request));
+    }
+
+    @ResponseBody
+    @RequestMapping(value = "/registration/seg", method = RequestMethod.POST)
+    @ApiOperation(
+            value = "Queues registration of a SEG file.",
+            notes = JOB_NOTES,
+            produces = MediaType.APPLICATION_JSON_VALUE)
+    @ApiResponses(
+            value = {@ApiResponse(code = HTTP_STATUS_OK, message = API_STATUS_DESCRIPTION)
+            })
+    public Result<RegistrationJob> registerSeg(@RequestBody IndexedFileRegistrationRequest request) {
+        return Result.success(registrationExecutorService.registerSeg(request));
+    }
+
+    @ResponseBody
+    @RequestMapping(value = "/registration/job/{jobId}", method = RequestMethod.GET)
+    @ApiOperation(
+            value = "Returns a registration job by given ID",
+            notes = "Provides a status, progress and result of a registration job",
+            produces = MediaType.APPLICATION_JSON_VALUE)
+    @ApiResponses(
+            value = {@ApiResponse(code = HTTP_STATUS_OK, message = API_STATUS_DESCRIPTION)
+            })
+    public Result<RegistrationJob> loadJob(@PathVariable(value = "jobId") final Long jobId) {
+        return Result.success(registrationExecutorService.loadJob(jobId));
+    }
+
+    @ResponseBody
+    @RequestMapping(value = "/registration/job/{jobId}", method = RequestMethod.DELETE)
+    @ApiOperation(
+            value = "Cancels a registration job, specified by ID",
+            notes = "A queued job is cancelled at once, a running job stops and removes registered data",
+            produces = MediaType.APPLICATION_JSON_VALUE)
+    @ApiResponses(
+            value = {@ApiResponse(code = HTTP_STATUS_OK, message = API_STATUS_DESCRIPTION)
+            })
+    public Result<RegistrationJob> cancelJob(@PathVariable(value = "jobId") final Long jobId) {
+        return Result.success(registrationExecutorService.cancelJob(jobId));
+    }
+}
@@ -127,7 +127,9 @@ public class SegController extends AbstractRESTController {
                     "chromosome always has got position  = 1;<br/>" +
                     "4) <b>endIndex</b> is the last base position for a requested window. <br/>" +
                     "5) <b>scaleFactor</b> specifies an inverse value to number of bases per one visible element on a" +
-                    " track (e.g., pixel) - IS IGNORED FOR NOW",
+                    " track (e.g., pixel);<br/>" +
+                    "6) <b>samples</b> optionally specifies names of samples to load, all samples are loaded " +
+                    "if it is not set.",
             produces = MediaType.APPLICATION_JSON_VALUE)
     @ApiResponses(
             value = {@ApiResponse(code = HTTP_STATUS_OK, message = API_STATUS_DESCRIPTION)
@@ -135,6 +137,6 @@ public class SegController extends AbstractRESTController {
     public Result<SampledTrack<SegRecord>> loadTrack(@RequestBody final TrackQuery trackQuery)
             throws IOException {
         final SampledTrack<SegRecord> track = convertToSampledTrack(trackQuery);
-        return Result.success(segManager.loadFeatures(track));
+        return Result.success(segManager.loadFeatures(track, trackQuery.getSamples()));
     }
 }
@@ -24,6 +24,8 @@
 
 package com.epam.catgenome.controller.vo;
 
+import java.util.List;
+
 import com.epam.catgenome.entity.bam.BamQueryOption;
 
 /**
@@ -69,6 +71,11 @@ public class TrackQuery {
 
     private Boolean collapsed;
 
+    /**
+     * {@code List} of sample names to load for sampled tracks, e.g. SEG. All samples are loaded if not set
+     */
+    private List<String> samples;
+
     public BamQueryOption getOption() {
         return option;
     }
@@ -124,4 +131,12 @@ public class TrackQuery {
     public void setCollapsed(Boolean collapsed) {
         this.collapsed = collapsed;
     }
+
+    public List<String> getSamples() {
+        return samples;
+    }
+
+    public void setSamples(List<String> samples) {
+        this.samples = samples;
+    }
 }
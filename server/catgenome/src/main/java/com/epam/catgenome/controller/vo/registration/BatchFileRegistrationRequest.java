@@ -0,0 +1,45 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2016 EPAM Systems
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package com.epam.catgenome.controller.vo.registration;
+
+import com.epam.catgenome.entity.BiologicalDataItemFormat;
+
+/**
+ * A view representation for registration of a file as a part of a batch: a usual file registration request
+ * with a format of a file, that specifies how a file should be registered. Properties, that don't apply to
+ * a format, e.g. {@code doIndex} for BAM files, are ignored.
+ */
+public class BatchFileRegistrationRequest extends FeatureIndexedFileRegistrationRequest {
+    private BiologicalDataItemFormat format;
+
+    public BiologicalDataItemFormat getFormat() {
+        return format;
+    }
+
+    public void setFormat(BiologicalDataItemFormat format) {
+        this.format = format;
+    }
+}
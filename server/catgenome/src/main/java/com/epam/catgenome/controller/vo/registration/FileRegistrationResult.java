@@ -0,0 +1,99 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2016 EPAM Systems
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package com.epam.catgenome.controller.vo.registration;
+
+import com.epam.catgenome.entity.BiologicalDataItem;
+import com.epam.catgenome.entity.BiologicalDataItemFormat;
+import com.epam.catgenome.entity.registration.RegistrationJob;
+
+/**
+ * A view representation of a result of registration of a single file from a batch: a registration job of a file,
+ * a registered file, when a job succeeds, and an error message, if a file failed to queue or to register
+ */
+public class FileRegistrationResult {
+    private String path;
+    private BiologicalDataItemFormat format;
+    private RegistrationJob job;
+    private BiologicalDataItem item;
+    private String errorMessage;
+
+    public FileRegistrationResult() {
+        // no operations
+    }
+
+    public FileRegistrationResult(String path, BiologicalDataItemFormat format) {
+        this.path = path;
+        this.format = format;
+    }
+
+    public boolean isSucceeded() {
+        return item != null;
+    }
+
+    public boolean isFailed() {
+        return errorMessage != null;
+    }
+
+    public String getPath() {
+        return path;
+    }
+
+    public void setPath(String path) {
+        this.path = path;
+    }
+
+    public BiologicalDataItemFormat getFormat() {
+        return format;
+    }
+
+    public void setFormat(BiologicalDataItemFormat format) {
+        this.format = format;
+    }
+
+    public RegistrationJob getJob() {
+        return job;
+    }
+
+    public void setJob(RegistrationJob job) {
+        this.job = job;
+    }
+
+    public BiologicalDataItem getItem() {
+        return item;
+    }
+
+    public void setItem(BiologicalDataItem item) {
+        this.item = item;
+    }
+
+    public String getErrorMessage() {
+        return errorMessage;
+    }
+
+    public void setErrorMessage(String errorMessage) {
+        this.errorMessage = errorMessage;
+    }
+}
@@ -124,23 +124,14 @@ public class BiologicalDataItemDao extends NamedParameterJdbcDaoSupport {
      * @param ids List of IDs of BiologicalDataItem instances
      * @return List of BiologicalDataItem, matching specified IDs
      */
-    @Transactional(propagation = Propagation.MANDATORY)
+    @Transactional(propagation = Propagation.SUPPORTS)
     public List<BiologicalDataItem> loadBiologicalDataItemsByIds(List<Long> ids) {
         if (ids == null || ids.isEmpty()) {
             return Collections.emptyList();
         }
 
-        Long listId = daoHelper.createTempLongList(ids);
-
-        final MapSqlParameterSource params = new MapSqlParameterSource();
-        params.addValue(BiologicalDataItemParameters.BIO_DATA_ITEM_ID.name(), listId);
-
-        List<BiologicalDataItem> items = getNamedParameterJdbcTemplate().query(loadBiologicalDataItemsByIdsQuery,
-                params, getRowMapper());
-
-        daoHelper.clearTempList(listId);
-
-        return items;
+        return daoHelper.queryByIds(loadBiologicalDataItemsByIdsQuery,
+                BiologicalDataItemParameters.BIO_DATA_ITEM_ID.name(), ids, null, getRowMapper());
     }
 
     @Transactional(propagation = Propagation.MANDATORY)
@@ -181,19 +172,14 @@ public class BiologicalDataItemDao extends NamedParameterJdbcDaoSupport {
                 params, getRowMapper());
     }
 
-    @Transactional(propagation = Propagation.MANDATORY)
+    @Transactional(propagation = Propagation.SUPPORTS)
     public List<BiologicalDataItem> loadFilesByNamesStrict(final List<String> names) {
         if (CollectionUtils.isEmpty(names)) {
             return Collections.emptyList();
         }
 
-        long listId = daoHelper.createTempStringList(names);
-
-        List<BiologicalDataItem> items = getJdbcTemplate().query(loadBiologicalDataItemsByNamesStrictQuery,
-                                                     getRowMapper(), listId);
-
-        daoHelper.clearTempStringList(listId);
-        return items;
+        return daoHelper.queryByIds(loadBiologicalDataItemsByNamesStrictQuery,
+                BiologicalDataItemParameters.NAME.name(), names, null, getRowMapper());
     }
 
     /**
@@ -24,9 +24,11 @@
 
 package com.epam.catgenome.dao;
 
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.stream.LongStream;
@@ -34,6 +36,8 @@ import java.util.stream.LongStream;
 import org.apache.commons.collections4.CollectionUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.springframework.beans.factory.annotation.Required;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.RowMapper;
 import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
 import org.springframework.jdbc.core.namedparam.NamedParameterJdbcDaoSupport;
 import org.springframework.transaction.annotation.Propagation;
@@ -56,6 +60,8 @@ import com.epam.catgenome.entity.BaseEntity;
  */
 public class DaoHelper extends NamedParameterJdbcDaoSupport {
 
+    private static final int DEFAULT_MAX_IN_LIST_SIZE = 1000;
+
     private String createIdQuery;
 
     private String createIdsQuery;
@@ -74,6 +80,8 @@ public class DaoHelper extends NamedParameterJdbcDaoSupport {
 
     private String clearTemporaryStringListQuery;
 
+    private int maxInListSize = DEFAULT_MAX_IN_LIST_SIZE;
+
     @Required
     public void setCreateIdQuery(final String createIdQuery) {
         this.createIdQuery = createIdQuery;
@@ -143,6 +151,74 @@ public class DaoHelper extends NamedParameterJdbcDaoSupport {
         return list;
     }
 
+    public void setMaxInListSize(final int maxInListSize) {
+        Assert.isTrue(maxInListSize > 0);
+        this.maxInListSize = maxInListSize;
+    }
+
+    /**
+     * Executes a query, which selects rows by a collection of values bound to an {@code IN (:paramName)}
+     * clause, and maps each row with the given {@code RowMapper}. Unlike temporary lists, this call
+     * doesn't modify the database and doesn't require an active transaction.
+     *
+     * @param query     {@code String} a query containing {@code IN (:paramName)} clause
+     * @param paramName {@code String} a name of a parameter to bind the values to
+     * @param values    {@code Collection} of values to select rows by
+     * @param params    {@code MapSqlParameterSource} additional query parameters, may be <tt>null</tt>
+     * @param rowMapper {@code RowMapper} to map rows with
+     * @return {@code List} of mapped rows, empty if no values are provided
+     */
+    public <T> List<T> queryByIds(final String query, final String paramName, final Collection<?> values,
+                                  final MapSqlParameterSource params, final RowMapper<T> rowMapper) {
+        final List<T> result = new ArrayList<>();
+        queryByIds(query, paramName, values, params, (RowCallbackHandler) rs -> result.add(rowMapper.mapRow(rs, 0)));
+        return result;
+    }
+
+    /**
+     * Executes a query, which selects rows by a collection of values bound to an {@code IN (:paramName)}
+     * clause, and passes each row to the given {@code RowCallbackHandler}.
+     * <p>
+     * Duplicate values are dropped and the rest are split into chunks of at most {@code maxInListSize}
+     * values, so that large collections don't exceed the database limits on the number of bind
+     * variables. Each chunk is padded up to the next power of two by repeating its last value, which
+     * keeps the number of distinct statements, prepared and cached by the database, logarithmic.
+     *
+     * @param query     {@code String} a query containing {@code IN (:paramName)} clause
+     * @param paramName {@code String} a name of a parameter to bind the values to
+     * @param values    {@code Collection} of values to select rows by
+     * @param params    {@code MapSqlParameterSource} additional query parameters, may be <tt>null</tt>
+     * @param handler   {@code RowCallbackHandler} to process rows with
+     */
+    public void queryByIds(final String query, final String paramName, final Collection<?> values,
+                           final MapSqlParameterSource params, final RowCallbackHandler handler) {
+        Assert.isTrue(StringUtils.isNotBlank(paramName));
+        if (CollectionUtils.isEmpty(values)) {
+            return;
+        }
+        final List<?> distinct = new ArrayList<>(new LinkedHashSet<>(values));
+        final MapSqlParameterSource chunkParams = new MapSqlParameterSource();
+        if (params != null) {
+            chunkParams.addValues(params.getValues());
+        }
+        for (int from = 0; from < distinct.size(); from += maxInListSize) {
+            final List<?> chunk = distinct.subList(from, Math.min(from + maxInListSize, distinct.size()));
+            chunkParams.addValue(paramName, padChunk(chunk));
+            getNamedParameterJdbcTemplate().query(query, chunkParams, handler);
+        }
+    }
+
+    private List<Object> padChunk(final List<?> chunk) {
+        final int size = Math.min(Integer.highestOneBit(chunk.size() - 1) << 1, maxInListSize);
+        final List<Object> padded = new ArrayList<>(Math.max(size, chunk.size()));
+        padded.addAll(chunk);
+        final Object last = chunk.get(chunk.size() - 1);
+        while (padded.size() < size) {
+            padded.add(last);
+        }
+        return padded;
+    }
+
     /**
      * Creates a new temporary list of {@code Long} values and generates unique ID for a
      * created temporary list.
@@ -50,6 +50,8 @@ public class BucketDao extends NamedParameterJdbcDaoSupport {
     private String createBucketQuery;
     private String loadBucketByIdQuery;
     private String loadAllBucketQuery;
+    private String updateBucketQuery;
+    private String deleteBucketQuery;
 
     /**
      * Creates a new ID for a {@code Bucket} instance
@@ -71,6 +73,24 @@ public class BucketDao extends NamedParameterJdbcDaoSupport {
         getNamedParameterJdbcTemplate().update(createBucketQuery, BucketParameters.getParameters(bucket));
     }
 
+    /**
+     * Updates a name and credentials of a persisted {@code Bucket} record
+     * @param bucket a {@code Bucket} instance to be updated
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void updateBucket(Bucket bucket) {
+        getNamedParameterJdbcTemplate().update(updateBucketQuery, BucketParameters.getParameters(bucket));
+    }
+
+    /**
+     * Deletes a persisted {@code Bucket} record, specified by it's ID
+     * @param bucketId a Bucket ID
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void deleteBucket(final Long bucketId) {
+        getJdbcTemplate().update(deleteBucketQuery, bucketId);
+    }
+
     /**
      * Loads all {@code Bucket} records saved in the database
      * @return a {@code List} of {@code Bucket} instances
@@ -154,4 +174,14 @@ public class BucketDao extends NamedParameterJdbcDaoSupport {
     public void setLoadAllBucketQuery(String loadAllBucketQuery) {
         this.loadAllBucketQuery = loadAllBucketQuery;
     }
+
+    @Required
+    public void setUpdateBucketQuery(String updateBucketQuery) {
+        this.updateBucketQuery = updateBucketQuery;
+    }
+
+    @Required
+    public void setDeleteBucketQuery(String deleteBucketQuery) {
+        this.deleteBucketQuery = deleteBucketQuery;
+    }
 }
@@ -102,17 +102,15 @@ public class GeneFileDao extends NamedParameterJdbcDaoSupport{
         return !files.isEmpty() ? (GeneFile) files.get(0) : null;
     }
 
-    @Transactional(propagation = Propagation.MANDATORY)
+    @Transactional(propagation = Propagation.SUPPORTS)
     public List<GeneFile> loadGeneFiles(Collection<Long> ids) {
         if (CollectionUtils.isEmpty(ids)) {
             return Collections.emptyList();
         }
 
-        long listId = daoHelper.createTempLongList(ids);
-        List<BiologicalDataItem> files = getJdbcTemplate().query(loadGeneFilesQuery, BiologicalDataItemDao
-                .BiologicalDataItemParameters.getRowMapper(), listId);
-
-        daoHelper.clearTempList(listId);
+        List<BiologicalDataItem> files = daoHelper.queryByIds(loadGeneFilesQuery,
+                GeneParameters.GENE_ITEM_ID.name(), ids, null, BiologicalDataItemDao
+                .BiologicalDataItemParameters.getRowMapper());
         return files.stream().map(f -> (GeneFile) f).collect(Collectors.toList());
     }
 
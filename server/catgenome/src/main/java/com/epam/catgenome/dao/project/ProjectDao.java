@@ -81,6 +81,7 @@ public class ProjectDao extends NamedParameterJdbcDaoSupport {
     private String loadAllProjectsQuery;
     private String loadProjectByIdQuery;
     private String updateLastOpenedDateQuery;
+    private String updateLastOpenedDatesQuery;
     private String deleteProjectQuery;
     private String loadProjectsByParentIdQuery;
     private String loadProjectsByParentIdsQuery;
@@ -154,16 +155,15 @@ public class ProjectDao extends NamedParameterJdbcDaoSupport {
         return getJdbcTemplate().query(loadProjectsByParentIdQuery, ProjectParameters.getRowMapper(), parentId);
     }
 
-    @Transactional(propagation = Propagation.MANDATORY)
+    @Transactional(propagation = Propagation.SUPPORTS)
     public Map<Long, List<Project>> loadNestedProjects(List<Long> parentIds) {
         if (CollectionUtils.isEmpty(parentIds)) {
             return Collections.emptyMap();
         }
-        long listId = daoHelper.createTempLongList(parentIds);
 
         Map<Long, List<Project>> map = new HashMap<>();
         RowMapper<Project> rowMapper = ProjectParameters.getRowMapper();
-        getJdbcTemplate().query(loadProjectsByParentIdsQuery, rs -> {
+        daoHelper.queryByIds(loadProjectsByParentIdsQuery, ProjectParameters.PARENT_ID.name(), parentIds, null, rs -> {
             Project project = rowMapper.mapRow(rs, 0);
 
             long parentId = rs.getLong(ProjectParameters.PARENT_ID.name());
@@ -172,9 +172,8 @@ public class ProjectDao extends NamedParameterJdbcDaoSupport {
             }
 
             map.get(parentId).add(project);
-        }, listId);
+        });
 
-        daoHelper.clearTempList(listId);
         return map;
     }
 
@@ -213,16 +212,14 @@ public class ProjectDao extends NamedParameterJdbcDaoSupport {
      * @param bioDataItemIds a {@link List} of IDs of {@link BiologicalDataItem}
      * @return a {@link Map} of {@link String} BioDataItem names to Project names
      */
-    @Transactional(propagation = Propagation.MANDATORY)
+    @Transactional(propagation = Propagation.SUPPORTS)
     public Map<String, String> loadProjectNamesByBioDataItemIds(List<Long> bioDataItemIds) {
-        long listId = daoHelper.createTempLongList(bioDataItemIds);
-
         Map<String, String> bioIdToProjectIdMap = new HashMap<>();
-        getJdbcTemplate().query(loadProjectIdsByBioDataItemIdsQuery, rs -> {
+        daoHelper.queryByIds(loadProjectIdsByBioDataItemIdsQuery, ProjectItemParameters.BIO_DATA_ITEM_ID.name(),
+                             bioDataItemIds, null, rs -> {
             bioIdToProjectIdMap.put(rs.getString(ProjectItemParameters.NAME.name()),
                                     rs.getString(ProjectParameters.PROJECT_NAME.name()));
-        }, listId);
-        daoHelper.clearTempList(listId);
+        });
 
         return bioIdToProjectIdMap;
     }
@@ -236,6 +233,27 @@ public class ProjectDao extends NamedParameterJdbcDaoSupport {
         getJdbcTemplate().update(updateLastOpenedDateQuery, projectId);
     }
 
+    /**
+     * Updates last opened date field for several {@code Project}s in a single batch. A date is only moved
+     * forward, so a stale value never overwrites a later one.
+     * @param lastOpenedDates a {@code Map} of project IDs to the dates, when projects were opened
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void updateLastOpenedDates(Map<Long, Date> lastOpenedDates) {
+        if (lastOpenedDates.isEmpty()) {
+            return;
+        }
+
+        MapSqlParameterSource[] batchArgs = lastOpenedDates.entrySet().stream().map(entry -> {
+            MapSqlParameterSource params = new MapSqlParameterSource();
+            params.addValue(ProjectParameters.PROJECT_ID.name(), entry.getKey());
+            params.addValue(ProjectParameters.LAST_OPENED_DATE.name(), entry.getValue());
+            return params;
+        }).toArray(MapSqlParameterSource[]::new);
+
+        getNamedParameterJdbcTemplate().batchUpdate(updateLastOpenedDatesQuery, batchArgs);
+    }
+
     /**
      * Moves a Project, specified by projectId to a parent project, specified by parentId
      * @param projectId an ID of a project, to move
@@ -279,14 +297,13 @@ public class ProjectDao extends NamedParameterJdbcDaoSupport {
      * @param projectIds a List of Ids of projects to load ProjectItems
      * @return a Map of ProjectItems to project IDs
      */
-    @Transactional(propagation = Propagation.MANDATORY)
+    @Transactional(propagation = Propagation.SUPPORTS)
     public Map<Long, Set<ProjectItem>> loadProjectItemsByProjectIds(List<Long> projectIds) {
         if (projectIds.isEmpty()) {
             return Collections.emptyMap();
         }
 
-        Long listId = daoHelper.createTempLongList(projectIds);
-        return loadProjectItemsByList(listId);
+        return loadProjectItemsByIds(projectIds);
     }
 
     @Transactional(propagation = Propagation.SUPPORTS)
@@ -306,20 +323,20 @@ public class ProjectDao extends NamedParameterJdbcDaoSupport {
         return itemsMap;
     }
 
-    @Transactional(propagation = Propagation.MANDATORY)
+    @Transactional(propagation = Propagation.SUPPORTS)
     public Map<Long, Set<ProjectItem>> loadProjectItemsByProjects(List<Project> projects) {
         if (projects.isEmpty()) {
             return Collections.emptyMap();
         }
 
-        Long listId = daoHelper.createTempList(projects);
-        return loadProjectItemsByList(listId);
+        return loadProjectItemsByIds(projects.stream().map(Project::getId).collect(Collectors.toList()));
     }
 
-    private Map<Long, Set<ProjectItem>> loadProjectItemsByList(Long listId) {
+    private Map<Long, Set<ProjectItem>> loadProjectItemsByIds(List<Long> projectIds) {
         Map<Long, Set<ProjectItem>> itemsMap = new HashMap<>();
         final RowMapper<ProjectItem> projectItemRowMapper = ProjectItemParameters.getSimpleItemMapper();
-        getJdbcTemplate().query(loadProjectItemsByProjectIdsQuery, rs -> {
+        daoHelper.queryByIds(loadProjectItemsByProjectIdsQuery, ProjectItemParameters.PROJECT_ID.name(), projectIds,
+                             null, rs -> {
             ProjectItem item = projectItemRowMapper.mapRow(rs, 0);
 
             Long projectId = rs.getLong(ProjectItemParameters.REFERRED_PROJECT_ID.name());
@@ -328,9 +345,7 @@ public class ProjectDao extends NamedParameterJdbcDaoSupport {
             }
 
             itemsMap.get(projectId).add(item);
-        }, listId);
-
-        daoHelper.clearTempList(listId);
+        });
 
         return itemsMap;
     }
@@ -392,7 +407,7 @@ public class ProjectDao extends NamedParameterJdbcDaoSupport {
             param.addValue(ProjectItemParameters.PROJECT_ID.name(), projectId);
             param.addValue(ProjectItemParameters.BIO_DATA_ITEM_ID.name(),
                     getBioDataItemId(items.get(i).getBioDataItem()));
-            param.addValue(ProjectItemParameters.ORDINAL_NUMBER.name(), count);
+            param.addValue(ProjectItemParameters.ORDINAL_NUMBER.name(), count + i);
             param.addValue(ProjectItemParameters.HIDDEN.name(), items.get(i).getHidden() != null &&
                     items.get(i).getHidden());
 
@@ -718,6 +733,11 @@ public class ProjectDao extends NamedParameterJdbcDaoSupport {
         this.updateLastOpenedDateQuery = updateLastOpenedDateQuery;
     }
 
+    @Required
+    public void setUpdateLastOpenedDatesQuery(String updateLastOpenedDatesQuery) {
+        this.updateLastOpenedDatesQuery = updateLastOpenedDatesQuery;
+    }
+
     @Required
     public void setAddProjectItemQuery(String addProjectItemQuery) {
         this.addProjectItemQuery = addProjectItemQuery;
@@ -32,6 +32,8 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
+import org.apache.commons.lang3.tuple.ImmutablePair;
+import org.apache.commons.lang3.tuple.Pair;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Required;
 import org.springframework.jdbc.core.RowMapper;
@@ -58,8 +60,8 @@ public class BookmarkDao extends NamedParameterJdbcDaoSupport {
     private String insertBookmarkQuery;
     private String updateBookmarkQuery;
     private String loadAllBookmarksQuery;
-    private String searchBookmarksQuery;
     private String searchBookmarkCountQuery;
+    private String searchBookmarksWithCountQuery;
     private String loadBookmarkByIdQuery;
     private String loadBookmarksByIdsQuery;
     private String deleteBookmarkQuery;
@@ -95,22 +97,41 @@ public class BookmarkDao extends NamedParameterJdbcDaoSupport {
     }
 
     @Transactional(propagation = Propagation.SUPPORTS)
-    public List<Bookmark> searchBookmarks(String searchStr, long userId, int limit) {
+    public int searchBookmarkCount(String searchStr, long userId) {
         MapSqlParameterSource params = new MapSqlParameterSource();
         params.addValue(BookmarkParameters.BOOKMARK_NAME.name(), searchStr + '%');
         params.addValue(BookmarkParameters.CREATED_BY.name(), userId);
-        params.addValue("SEARCH_LIMIT", limit);
 
-        return getNamedParameterJdbcTemplate().query(searchBookmarksQuery, params, BookmarkParameters.getRowMapper());
+        return getNamedParameterJdbcTemplate().queryForObject(searchBookmarkCountQuery, params, Integer.class);
     }
 
+    /**
+     * Searches {@code Bookmark}s by a name prefix and counts all matching bookmarks in a single query
+     * @param searchStr a bookmark's name prefix to search for
+     * @param userId an ID of a user, whose bookmarks to search
+     * @param limit maximum number of bookmarks to load
+     * @return a {@code Pair} of found bookmarks, limited by {@code limit}, and a total number of matching bookmarks
+     */
     @Transactional(propagation = Propagation.SUPPORTS)
-    public int searchBookmarkCount(String searchStr, long userId) {
+    public Pair<List<Bookmark>, Integer> searchBookmarksWithCount(String searchStr, long userId, int limit) {
+        if (limit <= 0) {
+            return new ImmutablePair<>(Collections.emptyList(), searchBookmarkCount(searchStr, userId));
+        }
+
         MapSqlParameterSource params = new MapSqlParameterSource();
         params.addValue(BookmarkParameters.BOOKMARK_NAME.name(), searchStr + '%');
         params.addValue(BookmarkParameters.CREATED_BY.name(), userId);
+        params.addValue("SEARCH_LIMIT", limit);
 
-        return getNamedParameterJdbcTemplate().queryForObject(searchBookmarkCountQuery, params, Integer.class);
+        List<Bookmark> bookmarks = new ArrayList<>();
+        int[] totalCount = new int[1];
+        RowMapper<Bookmark> rowMapper = BookmarkParameters.getRowMapper();
+        getNamedParameterJdbcTemplate().query(searchBookmarksWithCountQuery, params, rs -> {
+            bookmarks.add(rowMapper.mapRow(rs, 0));
+            totalCount[0] = rs.getInt(BookmarkParameters.TOTAL_COUNT.name());
+        });
+
+        return new ImmutablePair<>(bookmarks, totalCount[0]);
     }
 
     /**
@@ -130,18 +151,14 @@ public class BookmarkDao extends NamedParameterJdbcDaoSupport {
      * @param bookmarkIds {@code List} of {@code Bookmark} IDs to load
      * @return {@code Bookmark}
      */
-    @Transactional(propagation = Propagation.MANDATORY)
+    @Transactional(propagation = Propagation.SUPPORTS)
     public List<Bookmark> loadBookmarksByIds(final Collection<Long> bookmarkIds) {
         if (bookmarkIds == null || bookmarkIds.isEmpty()) {
             return Collections.emptyList();
         }
 
-        Long listId = daoHelper.createTempLongList(bookmarkIds);
-        List<Bookmark> bookmarks = getJdbcTemplate().query(loadBookmarksByIdsQuery, BookmarkParameters.getRowMapper(),
-                listId);
-        daoHelper.clearTempList(listId);
-
-        return bookmarks;
+        return daoHelper.queryByIds(loadBookmarksByIdsQuery, BookmarkParameters.BOOKMARK_ID.name(), bookmarkIds,
+                null, BookmarkParameters.getRowMapper());
     }
 
     /**
@@ -181,16 +198,16 @@ public class BookmarkDao extends NamedParameterJdbcDaoSupport {
      * @param bookmarkIds a {@code List&lt;Long&gt;} of bookmarks IDs to load items for
      * @return a {@code Map} of {@code List}s of {@code ProjectItem}, mapped to their bookmark's IDs
      */
-    @Transactional(propagation = Propagation.MANDATORY)
+    @Transactional(propagation = Propagation.SUPPORTS)
     public Map<Long, List<BiologicalDataItem>> loadBookmarkItemsByBookmarkIds(Collection<Long> bookmarkIds) {
         if (bookmarkIds == null || bookmarkIds.isEmpty()) {
             return Collections.emptyMap();
         }
 
-        Long listId = daoHelper.createTempLongList(bookmarkIds);
         Map<Long, List<BiologicalDataItem>> itemsMap = new HashMap<>();
 
-        getJdbcTemplate().query(loadBookmarksItemsQuery, rs -> {
+        daoHelper.queryByIds(loadBookmarksItemsQuery, BookmarkItemParameters.BOOKMARK_ID.name(), bookmarkIds, null,
+            rs -> {
             BiologicalDataItem dataItem = BiologicalDataItemDao.BiologicalDataItemParameters.getRowMapper()
                 .mapRow(rs, 0);
             long bookmarkId = rs.getLong(BookmarkItemParameters.BOOKMARK_ID.name());
@@ -198,9 +215,8 @@ public class BookmarkDao extends NamedParameterJdbcDaoSupport {
                 itemsMap.put(bookmarkId, new ArrayList<>());
             }
             itemsMap.get(bookmarkId).add(dataItem);
-        }, listId);
+        });
 
-        daoHelper.clearTempList(listId);
         return itemsMap;
     }
 
@@ -212,7 +228,8 @@ public class BookmarkDao extends NamedParameterJdbcDaoSupport {
         REFERRED_CHROMOSOME_ID,
         CHROMOSOME_NAME,
         CREATED_BY,
-        CREATED_DATE;
+        CREATED_DATE,
+        TOTAL_COUNT;
 
         private static MapSqlParameterSource getParameters(Bookmark bookmark) {
             MapSqlParameterSource params = new MapSqlParameterSource();
@@ -328,12 +345,12 @@ public class BookmarkDao extends NamedParameterJdbcDaoSupport {
     }
 
     @Required
-    public void setSearchBookmarksQuery(String searchBookmarksQuery) {
-        this.searchBookmarksQuery = searchBookmarksQuery;
+    public void setSearchBookmarkCountQuery(String searchBookmarkCountQuery) {
+        this.searchBookmarkCountQuery = searchBookmarkCountQuery;
     }
 
     @Required
-    public void setSearchBookmarkCountQuery(String searchBookmarkCountQuery) {
-        this.searchBookmarkCountQuery = searchBookmarkCountQuery;
+    public void setSearchBookmarksWithCountQuery(String searchBookmarksWithCountQuery) {
+        this.searchBookmarksWithCountQuery = searchBookmarksWithCountQuery;
     }
 }
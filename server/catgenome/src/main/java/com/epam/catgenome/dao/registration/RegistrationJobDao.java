@@ -0,0 +1,212 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2016 EPAM Systems
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package com.epam.catgenome.dao.registration;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.Date;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Required;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcDaoSupport;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.epam.catgenome.dao.DaoHelper;
+import com.epam.catgenome.entity.BiologicalDataItemFormat;
+import com.epam.catgenome.entity.registration.RegistrationJob;
+import com.epam.catgenome.entity.registration.RegistrationJobStatus;
+
+/**
+ * {@code RegistrationJobDao} is a DAO component, that handles database interaction with asynchronous
+ * registration jobs.
+ */
+public class RegistrationJobDao extends NamedParameterJdbcDaoSupport {
+
+    @Autowired
+    private DaoHelper daoHelper;
+
+    private String registrationJobSequenceName;
+    private String createRegistrationJobQuery;
+    private String updateRegistrationJobQuery;
+    private String loadRegistrationJobByIdQuery;
+    private String loadRegistrationJobsByStatusQuery;
+    private String loadQueuedRegistrationJobsQuery;
+
+    /**
+     * Persists a new {@code RegistrationJob} record to the database
+     * @param job a {@code RegistrationJob} instance to be persisted
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void createRegistrationJob(final RegistrationJob job) {
+        job.setId(daoHelper.createId(registrationJobSequenceName));
+        getNamedParameterJdbcTemplate().update(createRegistrationJobQuery, JobParameters.getParameters(job));
+    }
+
+    /**
+     * Updates a state, progress and result of a persisted {@code RegistrationJob} record
+     * @param job a {@code RegistrationJob} instance to be updated
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void updateRegistrationJob(final RegistrationJob job) {
+        getNamedParameterJdbcTemplate().update(updateRegistrationJobQuery, JobParameters.getParameters(job));
+    }
+
+    /**
+     * Loads a persisted {@code RegistrationJob} record by it's ID
+     * @param jobId a job ID
+     * @return a {@code RegistrationJob} instance or null if it doesn't exist
+     */
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public RegistrationJob loadRegistrationJob(final Long jobId) {
+        List<RegistrationJob> jobs = getJdbcTemplate().query(loadRegistrationJobByIdQuery,
+                JobParameters.getRowMapper(), jobId);
+        return jobs.isEmpty() ? null : jobs.get(0);
+    }
+
+    /**
+     * Loads persisted {@code RegistrationJob} records in a specified state, ordered by ID
+     * @param status a state of jobs
+     * @return a {@code List} of {@code RegistrationJob} instances
+     */
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public List<RegistrationJob> loadRegistrationJobs(final RegistrationJobStatus status) {
+        return getJdbcTemplate().query(loadRegistrationJobsByStatusQuery, JobParameters.getRowMapper(),
+                status.getId());
+    }
+
+    /**
+     * Loads the first persisted {@code RegistrationJob} records, that wait for a worker, ordered by ID
+     * @param batch whether jobs of batches or single jobs should be loaded
+     * @param limit maximum number of jobs to load
+     * @return a {@code List} of {@code RegistrationJob} instances
+     */
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public List<RegistrationJob> loadQueuedRegistrationJobs(final boolean batch, final int limit) {
+        MapSqlParameterSource params = new MapSqlParameterSource();
+        params.addValue(JobParameters.STATUS.name(), RegistrationJobStatus.QUEUED.getId());
+        params.addValue(JobParameters.BATCH.name(), batch);
+        params.addValue("LIMIT", limit);
+        return getNamedParameterJdbcTemplate().query(loadQueuedRegistrationJobsQuery, params,
+                JobParameters.getRowMapper());
+    }
+
+    enum JobParameters {
+        JOB_ID,
+        FORMAT,
+        STATUS,
+        PROGRESS,
+        REQUEST,
+        RESULT_ID,
+        ERROR_MESSAGE,
+        CREATED_BY,
+        CREATED_DATE,
+        STARTED_DATE,
+        FINISHED_DATE,
+        BATCH;
+
+        static MapSqlParameterSource getParameters(final RegistrationJob job) {
+            MapSqlParameterSource params = new MapSqlParameterSource();
+
+            params.addValue(JOB_ID.name(), job.getId());
+            params.addValue(FORMAT.name(), job.getFormat().getId());
+            params.addValue(STATUS.name(), job.getStatus().getId());
+            params.addValue(PROGRESS.name(), job.getProgress());
+            params.addValue(REQUEST.name(), job.getRequest());
+            params.addValue(RESULT_ID.name(), job.getResultId());
+            params.addValue(ERROR_MESSAGE.name(), job.getErrorMessage());
+            params.addValue(CREATED_BY.name(), job.getCreatedBy());
+            params.addValue(CREATED_DATE.name(), job.getCreatedDate());
+            params.addValue(STARTED_DATE.name(), job.getStartedDate());
+            params.addValue(FINISHED_DATE.name(), job.getFinishedDate());
+            params.addValue(BATCH.name(), job.isBatch());
+
+            return params;
+        }
+
+        static RowMapper<RegistrationJob> getRowMapper() {
+            return (rs, rowNum) -> {
+                RegistrationJob job = new RegistrationJob();
+
+                job.setId(rs.getLong(JOB_ID.name()));
+                job.setFormat(BiologicalDataItemFormat.getById(rs.getLong(FORMAT.name())));
+                job.setStatus(RegistrationJobStatus.getById(rs.getLong(STATUS.name())));
+                double progress = rs.getDouble(PROGRESS.name());
+                job.setProgress(rs.wasNull() ? null : progress);
+                job.setRequest(rs.getString(REQUEST.name()));
+                long resultId = rs.getLong(RESULT_ID.name());
+                job.setResultId(rs.wasNull() ? null : resultId);
+                job.setErrorMessage(rs.getString(ERROR_MESSAGE.name()));
+                job.setCreatedBy(rs.getLong(CREATED_BY.name()));
+                job.setCreatedDate(getDate(rs, CREATED_DATE));
+                job.setStartedDate(getDate(rs, STARTED_DATE));
+                job.setFinishedDate(getDate(rs, FINISHED_DATE));
+                job.setBatch(rs.getBoolean(BATCH.name()));
+
+                return job;
+            };
+        }
+
+        private static Date getDate(final ResultSet rs, final JobParameters column) throws SQLException {
+            Timestamp timestamp = rs.getTimestamp(column.name());
+            return timestamp != null ? new Date(timestamp.getTime()) : null;
+        }
+    }
+
+    @Required
+    public void setRegistrationJobSequenceName(String registrationJobSequenceName) {
+        this.registrationJobSequenceName = registrationJobSequenceName;
+    }
+
+    @Required
+    public void setCreateRegistrationJobQuery(String createRegistrationJobQuery) {
+        this.createRegistrationJobQuery = createRegistrationJobQuery;
+    }
+
+    @Required
+    public void setUpdateRegistrationJobQuery(String updateRegistrationJobQuery) {
+        this.updateRegistrationJobQuery = updateRegistrationJobQuery;
+    }
+
+    @Required
+    public void setLoadRegistrationJobByIdQuery(String loadRegistrationJobByIdQuery) {
+        this.loadRegistrationJobByIdQuery = loadRegistrationJobByIdQuery;
+    }
+
+    @Required
+    public void setLoadRegistrationJobsByStatusQuery(String loadRegistrationJobsByStatusQuery) {
+        this.loadRegistrationJobsByStatusQuery = loadRegistrationJobsByStatusQuery;
+    }
+
+    @Required
+    public void setLoadQueuedRegistrationJobsQuery(String loadQueuedRegistrationJobsQuery) {
+        this.loadQueuedRegistrationJobsQuery = loadQueuedRegistrationJobsQuery;
+    }
+}
@@ -181,7 +181,7 @@ public class SegFileDao extends NamedParameterJdbcDaoSupport {
      * @param fileIds {@code List&lt;Long&gt;} of file IDs to load samples for
      * @return a map of {@code SegFile} IDs to lists of their samples
      */
-    @Transactional(propagation = Propagation.MANDATORY)
+    @Transactional(propagation = Propagation.SUPPORTS)
     public Map<Long, List<SegSample>> loadSamplesByFileIds(Collection<Long> fileIds) {
         if (fileIds == null || fileIds.isEmpty()) {
             return Collections.emptyMap();
@@ -189,19 +189,17 @@ public class SegFileDao extends NamedParameterJdbcDaoSupport {
 
         Map<Long, List<SegSample>> map = new HashMap<>();
 
-        long listId = daoHelper.createTempLongList(fileIds);
         RowMapper<SegSample> sampleMapper = SegSampleParameters.getSegSampleMapper();
 
-        getJdbcTemplate().query(loadSamplesByFileIdsQuery, rs -> {
+        daoHelper.queryByIds(loadSamplesByFileIdsQuery, SegSampleParameters.SEG_ID.name(), fileIds, null, rs -> {
             SegSample sample = sampleMapper.mapRow(rs, 0);
             long vcfId = rs.getLong(SegSampleParameters.SEG_ID.name());
             if (!map.containsKey(vcfId)) {
                 map.put(vcfId, new ArrayList<>());
             }
             map.get(vcfId).add(sample);
-        }, listId);
+        });
 
-        daoHelper.clearTempList(listId);
         return map;
     }
 
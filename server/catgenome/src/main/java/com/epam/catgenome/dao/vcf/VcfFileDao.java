@@ -123,16 +123,14 @@ public class VcfFileDao extends NamedParameterJdbcDaoSupport {
         return !files.isEmpty() ? (VcfFile) files.get(0) : null;
     }
 
-    @Transactional(propagation = Propagation.MANDATORY)
+    @Transactional(propagation = Propagation.SUPPORTS)
     public List<VcfFile> loadVcfFiles(List<Long> ids) {
         if (CollectionUtils.isEmpty(ids)) {
             return Collections.emptyList();
         }
 
-        long listId = daoHelper.createTempLongList(ids);
-        List<BiologicalDataItem> files = getJdbcTemplate().query(loadVcfFilesQuery, BiologicalDataItemDao
-            .BiologicalDataItemParameters.getRowMapper(), listId);
-        daoHelper.clearTempList(listId);
+        List<BiologicalDataItem> files = daoHelper.queryByIds(loadVcfFilesQuery, VcfParameters.VCF_ID.name(), ids,
+            null, BiologicalDataItemDao.BiologicalDataItemParameters.getRowMapper());
 
         return files.stream().map(i -> (VcfFile) i).collect(Collectors.toList());
     }
@@ -205,7 +203,7 @@ public class VcfFileDao extends NamedParameterJdbcDaoSupport {
      * @param fileIds {@code List&lt;Long&gt;} of file IDs to load samples for
      * @return a map of {@code VcfFile} IDs to lists of their samples
      */
-    @Transactional(propagation = Propagation.MANDATORY)
+    @Transactional(propagation = Propagation.SUPPORTS)
     public Map<Long, List<VcfSample>> loadSamplesByFileIds(Collection<Long> fileIds) {
         if (fileIds == null || fileIds.isEmpty()) {
             return Collections.emptyMap();
@@ -213,18 +211,15 @@ public class VcfFileDao extends NamedParameterJdbcDaoSupport {
 
         Map<Long, List<VcfSample>> map = new HashMap<>();
 
-        long listId = daoHelper.createTempLongList(fileIds);
-
-        getJdbcTemplate().query(loadSamplesByFileIdsQuery, rs -> {
+        daoHelper.queryByIds(loadSamplesByFileIdsQuery, VcfParameters.VCF_ID.name(), fileIds, null, rs -> {
             VcfSample sample = SampleParameters.getVcfSampleMapper().mapRow(rs, 0);
             long vcfId = rs.getLong(VcfParameters.VCF_ID.name());
             if (!map.containsKey(vcfId)) {
                 map.put(vcfId, new ArrayList<>());
             }
             map.get(vcfId).add(sample);
-        }, listId);
+        });
 
-        daoHelper.clearTempList(listId);
         return map;
     }
 
@@ -0,0 +1,93 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2016 EPAM Systems
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package com.epam.catgenome.entity.registration;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Represents a state of an asynchronous file registration job
+ */
+public enum RegistrationJobStatus {
+    /**
+     * A job waits for a free worker
+     */
+    QUEUED(1),
+
+    /**
+     * A file is being registered
+     */
+    RUNNING(2),
+
+    /**
+     * A file is registered, {@code resultId} of a job is set
+     */
+    SUCCEEDED(3),
+
+    /**
+     * Registration failed, {@code errorMessage} of a job is set
+     */
+    FAILED(4),
+
+    /**
+     * A job was cancelled by a user, all registered data is removed
+     */
+    CANCELLED(5);
+
+    private long id;
+    private static Map<Long, RegistrationJobStatus> idMap = new HashMap<>();
+
+    static {
+        for (RegistrationJobStatus status : values()) {
+            idMap.put(status.id, status);
+        }
+    }
+
+    RegistrationJobStatus(long id) {
+        this.id = id;
+    }
+
+    public long getId() {
+        return id;
+    }
+
+    public boolean isFinished() {
+        return this == SUCCEEDED || this == FAILED || this == CANCELLED;
+    }
+
+    /**
+     * Returns instance of RegistrationJobStatus by it's ID from the database
+     * @param id ID of RegistrationJobStatus from the database
+     * @return RegistrationJobStatus instance
+     */
+    public static RegistrationJobStatus getById(Long id) {
+        if (id == null) {
+            return null;
+        }
+
+        return idMap.get(id);
+    }
+}
@@ -47,6 +47,20 @@ public class SegRecord extends Block {
         segMean = segFeature.getSegMean();
     }
 
+    /**
+     * Creates a {@code SegRecord}, summarizing segments of a sample in a region
+     * @param id a sample name
+     * @param startIndex a start of the region
+     * @param endIndex an end of the region
+     * @param segMean mean value of the segments in the region
+     */
+    public SegRecord(String id, Integer startIndex, Integer endIndex, Float segMean) {
+        setStartIndex(startIndex);
+        setEndIndex(endIndex);
+        this.id = id;
+        this.segMean = segMean;
+    }
+
     public String getId() {
         return id;
     }
@@ -27,7 +27,6 @@ package com.epam.catgenome.entity.track;
 import java.util.ArrayList;
 import java.util.List;
 
-import org.apache.commons.lang3.StringUtils;
 
 import com.epam.catgenome.component.MessageHelper;
 
@@ -96,12 +95,4 @@ public class Track<T extends Block> extends AbstractTrack {
                 .append(getEndIndex());
         return sb.toString();
     }
-
-    public String proteinCacheKey(final Long referenceId) {
-        String myCacheKey = myCacheKey();
-        if (StringUtils.isEmpty(myCacheKey) || referenceId == null) {
-            return null;
-        }
-        return myCacheKey + referenceId.toString();
-    }
 }
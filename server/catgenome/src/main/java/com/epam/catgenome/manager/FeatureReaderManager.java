@@ -0,0 +1,272 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2016 EPAM Systems
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.epam.catgenome.manager;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.apache.commons.lang3.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Service;
+
+import com.epam.catgenome.entity.FeatureFile;
+import com.epam.catgenome.manager.metrics.RequestMetrics;
+import com.epam.catgenome.manager.metrics.TrackPhase;
+import com.epam.catgenome.util.Utils;
+import htsjdk.samtools.util.CloseableIterator;
+import htsjdk.tribble.AbstractFeatureReader;
+import htsjdk.tribble.Feature;
+import htsjdk.tribble.FeatureCodec;
+import htsjdk.tribble.index.Index;
+import htsjdk.tribble.index.IndexFactory;
+import htsjdk.tribble.readers.LineIterator;
+
+/**
+ * <p>
+ * A service, that shares feature readers' state between requests to indexed feature files (BED, SEG, MAF).
+ * Parsed Tribble and Tabix indexes are kept in {@code featureIndex} cache, keyed by index file, so that opening
+ * a reader does not reload an index from disk. Decoded features are kept in {@code featureTile} LRU cache by
+ * fixed size tiles, so that repeated track and histogram requests to hot regions are served without decoding.
+ * Tiles of dense regions, that contain more than {@code feature.tile.max.features} features, are not cached, as
+ * each of them may take tens of megabytes of heap.
+ * </p>
+ * <p>
+ * Only local files are cached. If no {@link CacheManager} is configured, all requests go straight to the files.
+ * </p>
+ */
+@Service
+public class FeatureReaderManager {
+
+    public static final String FEATURE_INDEX_CACHE = "featureIndex";
+    public static final String FEATURE_TILE_CACHE = "featureTile";
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(FeatureReaderManager.class);
+    private static final int DEFAULT_TILE_SIZE = 100000;
+    private static final int DEFAULT_MAX_TILES_PER_QUERY = 20;
+    private static final int DEFAULT_MAX_TILE_FEATURES = 20000;
+
+    @Autowired(required = false)
+    private CacheManager cacheManager;
+
+    @Value("#{catgenome['feature.tile.size'] ?: " + DEFAULT_TILE_SIZE + "}")
+    private int tileSize = DEFAULT_TILE_SIZE;
+
+    @Value("#{catgenome['feature.tile.max.per.query'] ?: " + DEFAULT_MAX_TILES_PER_QUERY + "}")
+    private int maxTilesPerQuery = DEFAULT_MAX_TILES_PER_QUERY;
+
+    @Value("#{catgenome['feature.tile.max.features'] ?: " + DEFAULT_MAX_TILE_FEATURES + "}")
+    private int maxTileFeatures = DEFAULT_MAX_TILE_FEATURES;
+
+    /**
+     * Provides a reader for a feature file of a certain type
+     * @param <T> type of features
+     */
+    @FunctionalInterface
+    public interface FeatureReaderProvider<T extends Feature> {
+        AbstractFeatureReader<T, LineIterator> makeReader() throws IOException;
+    }
+
+    /**
+     * Creates an indexed reader for a feature file. For uncompressed local files a parsed index is taken from
+     * the cache, block compressed files are opened with {@code TabixFeatureReader}, that loads its index itself.
+     *
+     * @param path a path to a feature file
+     * @param indexPath a path to an index of a feature file
+     * @param codec a codec to decode features
+     * @return an {@code AbstractFeatureReader} for the file
+     */
+    public <T extends Feature, S> AbstractFeatureReader<T, S> getFeatureReader(final String path,
+            final String indexPath, final FeatureCodec<T, S> codec) {
+        final Index index = loadIndex(path, indexPath);
+        if (index != null) {
+            return AbstractFeatureReader.getFeatureReader(path, codec, index);
+        }
+        return AbstractFeatureReader.getFeatureReader(path, indexPath, codec, true);
+    }
+
+    /**
+     * Loads features of a file, overlapping a specified region. Chromosome naming variations ('chr1' vs '1') are
+     * taken into account. Narrow regions of local files are served from the tile cache, wide regions are read
+     * from the file directly.
+     *
+     * @param featureFile a file to read features from
+     * @param chromosomeName a name of chromosome to query
+     * @param start start of the region, inclusive
+     * @param end end of the region, inclusive
+     * @param readerProvider a provider of readers for the file
+     * @return a list of features, sorted by start position. Features are shared between requests and must not be
+     *         modified
+     * @throws IOException if file reading fails
+     */
+    public <T extends Feature> List<T> loadFeatures(final FeatureFile featureFile, final String chromosomeName,
+            final int start, final int end, final FeatureReaderProvider<T> readerProvider) throws IOException {
+        final Cache tileCache = getCache(FEATURE_TILE_CACHE);
+        final File file = new File(featureFile.getPath());
+        final int firstTile = (start - 1) / tileSize;
+        final int lastTile = (Math.max(end, start) - 1) / tileSize;
+        if (tileCache == null || !file.exists() || lastTile - firstTile >= maxTilesPerQuery) {
+            return readFeatures(chromosomeName, start, end, readerProvider);
+        }
+
+        final String fileKey = file.getAbsolutePath() + ':' + file.lastModified();
+        List<T> features = loadFromTiles(tileCache, fileKey, chromosomeName, start, end, readerProvider);
+        if (features.isEmpty()) {
+            features = loadFromTiles(tileCache, fileKey, Utils.changeChromosomeName(chromosomeName), start, end,
+                    readerProvider);
+        }
+        return features;
+    }
+
+    /**
+     * Removes cached index of a feature file. Cached tiles of the file are no longer accessible after the file
+     * is changed or deleted and are evicted by LRU policy
+     * @param featureFile a file to clear cache for
+     */
+    public void evict(final FeatureFile featureFile) {
+        final Cache indexCache = getCache(FEATURE_INDEX_CACHE);
+        if (indexCache != null && featureFile.getIndex() != null
+                && StringUtils.isNotBlank(featureFile.getIndex().getPath())) {
+            indexCache.evict(new File(featureFile.getIndex().getPath()).getAbsolutePath());
+        }
+    }
+
+    private <T extends Feature> List<T> loadFromTiles(final Cache tileCache, final String fileKey,
+            final String chromosomeName, final int start, final int end,
+            final FeatureReaderProvider<T> readerProvider) throws IOException {
+        final int firstTile = (start - 1) / tileSize;
+        final int lastTile = (Math.max(end, start) - 1) / tileSize;
+        final List<T> result = new ArrayList<>();
+        for (int tile = firstTile; tile <= lastTile; tile++) {
+            final List<T> tileFeatures = loadTile(tileCache, fileKey, chromosomeName, tile, readerProvider);
+            final int tileStart = tile * tileSize + 1;
+            for (T feature : tileFeatures) {
+                // features, overlapping several tiles, are taken only from the first tile of a query
+                boolean firstOccurrence = tile == firstTile || feature.getStart() >= tileStart;
+                if (firstOccurrence && feature.getStart() <= end && feature.getEnd() >= start) {
+                    result.add(feature);
+                }
+            }
+        }
+        return result;
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T extends Feature> List<T> loadTile(final Cache tileCache, final String fileKey,
+            final String chromosomeName, final int tile, final FeatureReaderProvider<T> readerProvider)
+            throws IOException {
+        final String tileKey = fileKey + ':' + chromosomeName + ':' + tile;
+        final Cache.ValueWrapper cached = tileCache.get(tileKey);
+        if (cached != null) {
+            return (List<T>) cached.get();
+        }
+
+        final int tileStart = tile * tileSize + 1;
+        final List<T> tileFeatures = Collections.unmodifiableList(
+                queryReader(chromosomeName, tileStart, tileStart + tileSize - 1, readerProvider));
+        if (tileFeatures.size() <= maxTileFeatures) {
+            tileCache.put(tileKey, tileFeatures);
+        } else {
+            LOGGER.debug("Tile {} contains {} features and is not cached", tileKey, tileFeatures.size());
+        }
+        return tileFeatures;
+    }
+
+    private <T extends Feature> List<T> readFeatures(final String chromosomeName, final int start, final int end,
+            final FeatureReaderProvider<T> readerProvider) throws IOException {
+        List<T> features = queryReader(chromosomeName, start, end, readerProvider);
+        if (features.isEmpty()) {
+            features = queryReader(Utils.changeChromosomeName(chromosomeName), start, end, readerProvider);
+        }
+        return features;
+    }
+
+    private <T extends Feature> List<T> queryReader(final String chromosomeName, final int start, final int end,
+            final FeatureReaderProvider<T> readerProvider) throws IOException {
+        final long openTime = System.nanoTime();
+        try (AbstractFeatureReader<T, LineIterator> reader = readerProvider.makeReader()) {
+            RequestMetrics.record(TrackPhase.OPEN, openTime);
+            final long queryTime = System.nanoTime();
+            try (CloseableIterator<T> iterator = reader.query(chromosomeName, start, end)) {
+                RequestMetrics.record(TrackPhase.QUERY, queryTime);
+                final long decodeTime = System.nanoTime();
+                final List<T> features = new ArrayList<>();
+                iterator.forEachRemaining(features::add);
+                RequestMetrics.record(TrackPhase.DECODE, decodeTime);
+                return features;
+            }
+        }
+    }
+
+    private Index loadIndex(final String path, final String indexPath) {
+        final Cache indexCache = getCache(FEATURE_INDEX_CACHE);
+        if (indexCache == null || StringUtils.isBlank(indexPath)
+                || AbstractFeatureReader.hasBlockCompressedExtension(path)) {
+            return null;
+        }
+
+        final File indexFile = new File(indexPath);
+        if (!indexFile.exists()) {
+            return null;
+        }
+
+        final String indexKey = indexFile.getAbsolutePath();
+        final Cache.ValueWrapper cached = indexCache.get(indexKey);
+        if (cached != null) {
+            final CachedIndex cachedIndex = (CachedIndex) cached.get();
+            if (cachedIndex.lastModified == indexFile.lastModified()) {
+                return cachedIndex.index;
+            }
+        }
+
+        final double time1 = Utils.getSystemTimeMilliseconds();
+        final Index index = IndexFactory.loadIndex(indexKey);
+        final double time2 = Utils.getSystemTimeMilliseconds();
+        LOGGER.debug("Loading index {} took {} ms", indexKey, time2 - time1);
+        indexCache.put(indexKey, new CachedIndex(index, indexFile.lastModified()));
+        return index;
+    }
+
+    private Cache getCache(final String name) {
+        return cacheManager != null ? cacheManager.getCache(name) : null;
+    }
+
+    private static final class CachedIndex {
+        private final Index index;
+        private final long lastModified;
+
+        private CachedIndex(final Index index, final long lastModified) {
+            this.index = index;
+            this.lastModified = lastModified;
+        }
+    }
+}
@@ -132,6 +132,7 @@ import org.jetbrains.bio.big.BigWigFile;
 import org.jetbrains.bio.big.WigSection;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.DependsOn;
 import org.springframework.stereotype.Service;
@@ -190,6 +191,7 @@ public class FileManager {
         // think to do it in other way?
 
         REF_CYTOBANDS_FILE("/references/${DIR_ID}/cytobands/bands.txt"),
+        REF_CYTOBANDS_BINARY_FILE("/references/${DIR_ID}/cytobands/bands.bin"),
 
         VCF_DIR("/${USER_ID}/VCF/${DIR_ID}"),
         VCF_FILE("/${USER_ID}/VCF/${DIR_ID}/${FILE_NAME}"),
@@ -225,6 +227,7 @@ public class FileManager {
         SEG_INDEX("/${USER_ID}/seg/${DIR_ID}/seg.tbi"),
         SEG_SAMPLE_FILE("/${USER_ID}/seg/${DIR_ID}/${SAMPLE_NAME}.seg"),
         SEG_FILE("/${USER_ID}/seg/${DIR_ID}/segments.seg"),
+        SEG_SUMMARY("/${USER_ID}/seg/${DIR_ID}/segments.summary"),
         SEG_SAMPLE_COMPRESSED_FILE("/${USER_ID}/seg/${DIR_ID}/${SAMPLE_NAME}.seg.gz"),
         SEG_SAMPLE_INDEX("/${USER_ID}/seg/${DIR_ID}/${SAMPLE_NAME}.tbi"),
 
@@ -237,6 +240,7 @@ public class FileManager {
         MAF_TEMP_DIR("/${USER_ID}/maf/${DIR_ID}/tmp"),
         MAF_INDEX("/${USER_ID}/maf/${DIR_ID}/maf.tbi"),
         MAF_TEMP_INDEX("/${USER_ID}/maf/${DIR_ID}/tmp/${FILE_NAME}.tbi"),
+        MAF_TEMP_FILE("/${USER_ID}/maf/${DIR_ID}/tmp/${FILE_NAME}"),
         MAF_FILE("/${USER_ID}/maf/${DIR_ID}/maf.bmaf.gz"),
 
         WIG_DIR("/${USER_ID}/wig/${DIR_ID}/downsampled"),
@@ -302,6 +306,12 @@ public class FileManager {
     @Value("${config.path:}")
     private String defaultTrackSettingsDirPath;
 
+    @Autowired
+    private FeatureReaderManager featureReaderManager;
+
+    @Autowired
+    private RemoteIndexManager remoteIndexManager;
+
     /**
      * Returns the real path of a directory used as the content root to store uploaded content
      * files and any immediate post-processing file resources related to them.
@@ -658,6 +668,20 @@ public class FileManager {
         return new File(toRealPath(substitute(REF_CHROMOSOME_CYTOBAND_FILE, params)));
     }
 
+    /**
+     * Returns a reference on {@code File}, used to store cytobands of all chromosomes of the
+     * given reference genome in a binary format.
+     *
+     * @param referenceId {@code Long} specifies ID of a reference genome
+     * @return {@code File} represents a reference on a file used to manage cytobands for a reference
+     */
+    public File makeCytobandsBinaryFile(final Long referenceId) {
+        Assert.notNull(referenceId, getMessage(MessageCode.NO_SUCH_REFERENCE));
+        final Map<String, Object> params = new HashMap<>();
+        params.put(DIR_ID.name(), referenceId);
+        return new File(toRealPath(substitute(REF_CYTOBANDS_BINARY_FILE, params)));
+    }
+
     public String createReferenceIndex(Reference reference) {
         Assert.notNull(reference.getId(), getMessage(MessageCode.NO_SUCH_REFERENCE));
         File fasta = new File(reference.getPath());
@@ -1198,7 +1222,7 @@ public class FileManager {
 
 
         if (geneFile.getType() == BiologicalDataItemResourceType.URL) {
-            return makeGeneReader(geneFile.getPath(), geneFile.getIndex().getPath(), true);
+            return makeGeneReader(geneFile.getPath(), getIndexPath(geneFile.getIndex()), true);
         }
 
         File file;
@@ -1549,6 +1573,16 @@ public class FileManager {
         return indexFile;
     }
 
+    /**
+     * Returns a path to open an index of a data file with: remote indexes (URL, S3, HDFS) are replaced with their
+     * local copies, that are downloaded once and validated against remote files
+     * @param index an index of a data file
+     * @return a path to a local copy of a remote index or an original path
+     */
+    public String getIndexPath(final BiologicalDataItem index) {
+        return remoteIndexManager.getIndexPath(index);
+    }
+
     /**
      * Creates a reader of specified BedFile
      * @param bedFile a BedFile, from which reader to create
@@ -1556,8 +1590,8 @@ public class FileManager {
      */
     public AbstractFeatureReader<NggbBedFeature, LineIterator> makeBedReader(final BedFile bedFile) {
         NggbBedCodec nggbBedCodec = new NggbBedCodec();
-        return AbstractFeatureReader.getFeatureReader(bedFile.getPath(), bedFile.getIndex().getPath(),
-                nggbBedCodec, true);
+        return featureReaderManager.getFeatureReader(bedFile.getPath(), getIndexPath(bedFile.getIndex()),
+                nggbBedCodec);
     }
 
     /**
@@ -1595,8 +1629,7 @@ public class FileManager {
     public AbstractFeatureReader<SegFeature, LineIterator> makeSegReader(final SegFile segFile) {
         SegCodec segCodec = new SegCodec();
         if (segFile.getIndex() != null) {
-            return AbstractFeatureReader.getFeatureReader(segFile.getPath(), segFile.getIndex().getPath(), segCodec,
-                    true);
+            return featureReaderManager.getFeatureReader(segFile.getPath(), getIndexPath(segFile.getIndex()), segCodec);
         } else {
             return AbstractFeatureReader.getFeatureReader(segFile.getPath(), segCodec, false);
         }
@@ -1689,6 +1722,20 @@ public class FileManager {
         return new BufferedWriter(new OutputStreamWriter(new FileOutputStream(file), Charset.defaultCharset()));
     }
 
+    /**
+     * Gets a file, containing a multi-resolution summary of a specified SegFile
+     *
+     * @param segFile a SegFile to get summary for
+     * @return a summary file, it may not exist for files, registered without a summary
+     */
+    public File getSegSummaryFile(SegFile segFile) {
+        final Map<String, Object> params = new HashMap<>();
+        params.put(DIR_ID.name(), segFile.getId());
+        params.put(USER_ID.name(), segFile.getCreatedBy());
+
+        return new File(toRealPath(substitute(SEG_SUMMARY, params)));
+    }
+
     /**
      * Creates a reader for specified MafFile
      * @param mafFile a MafFile to read
@@ -1697,8 +1744,7 @@ public class FileManager {
     public AbstractFeatureReader<MafFeature, LineIterator> makeMafReader(final MafFile mafFile) {
         MafCodec mafCodec = new MafCodec(mafFile.getPath());
         if (mafFile.getIndex() != null) {
-            return AbstractFeatureReader.getFeatureReader(mafFile.getPath(), mafFile.getIndex().getPath(), mafCodec,
-                    true);
+            return featureReaderManager.getFeatureReader(mafFile.getPath(), getIndexPath(mafFile.getIndex()), mafCodec);
         } else {
             return AbstractFeatureReader.getFeatureReader(mafFile.getPath(), mafCodec, false);
         }
@@ -1744,6 +1790,28 @@ public class FileManager {
         }
     }
 
+    /**
+     * Gets a file in the temporary MAF directory, used to store intermediate data during MAF files merging.
+     * Creates the temporary directory, if it doesn't exist yet
+     *
+     * @param fileName a name of the temporary file
+     * @param mafFile a MafFile object form database. This one will represent merged MAF file after registration
+     * @return temporary MAF file
+     */
+    public File getMafTempFile(String fileName, MafFile mafFile) {
+        final Map<String, Object> params = new HashMap<>();
+        params.put(DIR_ID.name(), mafFile.getId());
+        params.put(USER_ID.name(), mafFile.getCreatedBy());
+
+        File tempDir = new File(toRealPath(substitute(MAF_TEMP_DIR, params)));
+        if (!tempDir.exists()) {
+            makeMafTempDir(mafFile.getId(), mafFile.getCreatedBy());
+        }
+
+        params.put(FILE_NAME.name(), fileName);
+        return new File(toRealPath(substitute(MAF_TEMP_FILE, params)));
+    }
+
     /**
      * Gets temporary MAF index file
      * @param file original MAF file
@@ -0,0 +1,120 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2016 EPAM Systems
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package com.epam.catgenome.manager;
+
+import java.io.IOException;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import javax.annotation.PreDestroy;
+
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.FileSystem;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+/**
+ * A registry of shared Hadoop {@link FileSystem}s, one per scheme and authority of a URI, e.g. per HDFS name
+ * node. A {@link Configuration} is created once instead of parsing configuration resources for each opened
+ * file. File systems are closed on shutdown or on an explicit {@link #close(URI)}.
+ */
+@Service
+public class HdfsFileSystemManager {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(HdfsFileSystemManager.class);
+
+    private final Configuration configuration = new Configuration();
+    private final ConcurrentMap<String, FileSystem> fileSystems = new ConcurrentHashMap<>();
+
+    /**
+     * Returns a shared file system for a URI
+     *
+     * @param uri a URI of a file
+     * @return a file system
+     * @throws IOException if a file system can't be created
+     */
+    public FileSystem getFileSystem(final URI uri) throws IOException {
+        final String key = getKey(uri);
+        final FileSystem cached = fileSystems.get(key);
+        if (cached != null) {
+            return cached;
+        }
+        synchronized (fileSystems) {
+            FileSystem fileSystem = fileSystems.get(key);
+            if (fileSystem == null) {
+                fileSystem = FileSystem.newInstance(uri, configuration);
+                fileSystems.put(key, fileSystem);
+            }
+            return fileSystem;
+        }
+    }
+
+    /**
+     * Closes and removes a file system of a URI, e.g. after its name node is reconfigured
+     *
+     * @param uri a URI of a file
+     */
+    public void close(final URI uri) {
+        final FileSystem fileSystem;
+        synchronized (fileSystems) {
+            fileSystem = fileSystems.remove(getKey(uri));
+        }
+        closeQuietly(fileSystem);
+    }
+
+    /**
+     * Closes all file systems
+     */
+    @PreDestroy
+    public void destroy() {
+        final List<FileSystem> closed;
+        synchronized (fileSystems) {
+            closed = new ArrayList<>(fileSystems.values());
+            fileSystems.clear();
+        }
+        closed.forEach(HdfsFileSystemManager::closeQuietly);
+    }
+
+    private static String getKey(final URI uri) {
+        return (uri.getScheme() != null ? uri.getScheme().toLowerCase() : "") + "://"
+                + (uri.getAuthority() != null ? uri.getAuthority().toLowerCase() : "");
+    }
+
+    private static void closeQuietly(final FileSystem fileSystem) {
+        if (fileSystem == null) {
+            return;
+        }
+        try {
+            fileSystem.close();
+        } catch (IOException e) {
+            LOGGER.warn("Failed to close file system " + fileSystem.getUri(), e);
+        }
+    }
+}
@@ -0,0 +1,217 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2016 EPAM Systems
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.epam.catgenome.manager;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import org.apache.commons.lang3.SerializationUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import net.sf.ehcache.Ehcache;
+
+/**
+ * <p>
+ * A read-through cache of metadata records: references, chromosomes and files, keyed by type and ID, that is
+ * kept in {@code metadata} LRU cache. These records almost never change after registration, so track requests
+ * are served without querying the database for them.
+ * </p>
+ * <p>
+ * Records are evicted, when they are registered, updated or deleted. Eviction is repeated after completion of a
+ * current transaction, so that a record, loaded concurrently before a commit, doesn't stay in the cache.
+ * Cached records are copied on read and write, so callers are free to modify returned objects.
+ * If no {@link CacheManager} is configured, all requests go straight to the database.
+ * </p>
+ */
+@Service
+public class MetadataCacheManager {
+
+    public static final String METADATA_CACHE = "metadata";
+
+    /**
+     * Types of cached metadata records
+     */
+    public enum MetadataType {
+        /**
+         * A reference without chromosomes and annotation files
+         */
+        REFERENCE,
+        /**
+         * A reference with chromosomes, a gene file and annotation files
+         */
+        REFERENCE_FULL,
+        CHROMOSOME,
+        BAM,
+        VCF,
+        WIG,
+        BED,
+        SEG,
+        MAF,
+        GENE
+    }
+
+    @Autowired(required = false)
+    private CacheManager cacheManager;
+
+    private final AtomicLong hitCount = new AtomicLong();
+    private final AtomicLong missCount = new AtomicLong();
+
+    /**
+     * Returns a cached record or loads and caches it. Missing records (null) aren't cached.
+     *
+     * @param type a type of a record
+     * @param id an ID of a record
+     * @param loader loads a record from the database
+     * @return a copy of a record or null, if it doesn't exist
+     */
+    @SuppressWarnings("unchecked")
+    public <T extends Serializable> T get(final MetadataType type, final Long id, final Supplier<T> loader) {
+        final Cache cache = getCache();
+        if (cache == null || id == null) {
+            return loader.get();
+        }
+        final MetadataKey key = new MetadataKey(type, id);
+        final Cache.ValueWrapper cached = cache.get(key);
+        if (cached != null) {
+            hitCount.incrementAndGet();
+            return SerializationUtils.clone((T) cached.get());
+        }
+        missCount.incrementAndGet();
+        final T value = loader.get();
+        if (value != null) {
+            cache.put(key, SerializationUtils.clone(value));
+        }
+        return value;
+    }
+
+    /**
+     * Removes a record from the cache
+     *
+     * @param type a type of a record
+     * @param id an ID of a record
+     */
+    public void evict(final MetadataType type, final Long id) {
+        final Cache cache = getCache();
+        if (cache == null || id == null) {
+            return;
+        }
+        final MetadataKey key = new MetadataKey(type, id);
+        cache.evict(key);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+                @Override
+                public void afterCompletion(final int status) {
+                    cache.evict(key);
+                }
+            });
+        }
+    }
+
+    /**
+     * Removes all records of a type from the cache
+     *
+     * @param type a type of records
+     */
+    public void evictAll(final MetadataType type) {
+        final Collection<?> keys = getKeys();
+        if (keys == null) {
+            final Cache cache = getCache();
+            if (cache != null) {
+                cache.clear();
+            }
+            return;
+        }
+        keys.stream()
+                .filter(key -> key instanceof MetadataKey && ((MetadataKey) key).type == type)
+                .forEach(key -> evict(type, ((MetadataKey) key).id));
+    }
+
+    public long getHitCount() {
+        return hitCount.get();
+    }
+
+    public long getMissCount() {
+        return missCount.get();
+    }
+
+    private Collection<?> getKeys() {
+        final Cache cache = getCache();
+        if (cache == null) {
+            return null;
+        }
+        final Object nativeCache = cache.getNativeCache();
+        if (nativeCache instanceof Ehcache) {
+            return ((Ehcache) nativeCache).getKeys();
+        }
+        if (nativeCache instanceof Map) {
+            return new ArrayList<>(((Map<?, ?>) nativeCache).keySet());
+        }
+        return null;
+    }
+
+    private Cache getCache() {
+        return cacheManager != null ? cacheManager.getCache(METADATA_CACHE) : null;
+    }
+
+    /**
+     * Identifies a metadata record
+     */
+    private static final class MetadataKey implements Serializable {
+        private final MetadataType type;
+        private final Long id;
+
+        private MetadataKey(final MetadataType type, final Long id) {
+            this.type = type;
+            this.id = id;
+        }
+
+        @Override
+        public boolean equals(final Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            final MetadataKey that = (MetadataKey) o;
+            return type == that.type && Objects.equals(id, that.id);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(type, id);
+        }
+    }
+}
@@ -0,0 +1,275 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2016 EPAM Systems
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package com.epam.catgenome.manager;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URL;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import javax.annotation.PostConstruct;
+
+import org.apache.commons.codec.digest.DigestUtils;
+import org.apache.commons.io.FilenameUtils;
+import org.apache.commons.lang3.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.epam.catgenome.entity.BiologicalDataItem;
+import com.epam.catgenome.entity.BiologicalDataItemResourceType;
+import com.epam.catgenome.util.BoundedDiskCache;
+import com.epam.catgenome.util.Utils;
+import com.epam.catgenome.util.stream.HttpRangeSource;
+import com.epam.catgenome.util.stream.RangeSource;
+
+/**
+ * <p>
+ * Keeps local copies of index files (BAI, CRAI, TBI, Tribble indexes) of remote data files: URLs, S3 and HDFS
+ * files, so that a remote index is downloaded once and readers open it as a local file. A local BAM index is
+ * memory mapped by htsjdk and parsed Tribble indexes of local files are shared through
+ * {@link FeatureReaderManager}, so requests to remote files seek straight to data blocks.
+ * </p>
+ * <p>
+ * A local copy is identified by a remote file's key, length and version (an ETag or a modification time), so
+ * a modified remote index is downloaded again. A remote file is checked not more often, than once in
+ * a validation interval. Local copies are kept in a {@link BoundedDiskCache}, that bounds their total size.
+ * If caching is disabled or an index can't be downloaded, readers use a remote index, as before.
+ * </p>
+ */
+@Service
+public class RemoteIndexManager {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(RemoteIndexManager.class);
+    private static final String CACHE_DIR = "index";
+    private static final int VERSION_HASH_LENGTH = 16;
+    private static final int BUFFER_SIZE = 1024 * 1024;
+    private static final int LOCK_STRIPES = 64;
+
+    @Autowired
+    private RemoteStreamManager remoteStreamManager;
+
+    @Value("#{catgenome['remote.index.cache.enabled'] ?: true}")
+    private boolean enabled;
+
+    @Value("#{catgenome['remote.index.cache.path'] ?: null}")
+    private String cachePath;
+
+    @Value("${files.base.directory.path}")
+    private String baseDirPath;
+
+    @Value("#{catgenome['remote.index.cache.max.size'] ?: 512L * 1024 * 1024}")
+    private long maxSize;
+
+    @Value("#{catgenome['remote.index.validation.interval'] ?: 60000}")
+    private long validationInterval;
+
+    private BoundedDiskCache copies;
+
+    /**
+     * Remote indexes to their local copies, that were recently validated, expired ones are removed on validation
+     */
+    private final ConcurrentMap<String, ValidatedIndex> validated = new ConcurrentHashMap<>();
+
+    /**
+     * Locks, that serialize validation and download of the same index, an index uses a lock by its key's hash
+     */
+    private final Object[] locks = new Object[LOCK_STRIPES];
+
+    public RemoteIndexManager() {
+        for (int i = 0; i < locks.length; i++) {
+            locks[i] = new Object();
+        }
+    }
+
+    /**
+     * Creates a directory for local copies and restores copies, left by a previous run
+     */
+    @PostConstruct
+    public void init() {
+        if (!enabled) {
+            return;
+        }
+        final File dir = new File(StringUtils.isNotBlank(cachePath) ? cachePath
+                : baseDirPath + File.separator + CACHE_DIR);
+        try {
+            copies = new BoundedDiskCache(dir, maxSize, 0);
+        } catch (IOException e) {
+            LOGGER.warn("Failed to create remote indexes cache directory " + dir
+                    + ", remote indexes are read without caching", e);
+        }
+    }
+
+    /**
+     * Returns a path to an index to open it with a reader: a path to a local copy for a remote index or
+     * an original path for a local one
+     *
+     * @param index an index of a data file
+     * @return a path to an index, original path if a local copy is unavailable
+     */
+    public String getIndexPath(final BiologicalDataItem index) {
+        if (index == null) {
+            return null;
+        }
+        final File localIndex = getLocalIndex(index);
+        return localIndex != null ? localIndex.getAbsolutePath() : index.getPath();
+    }
+
+    /**
+     * Returns a local copy of a remote index, downloads it if there is no copy or a remote index was modified
+     *
+     * @param index an index of a data file
+     * @return a local copy of an index or null if an index is local, caching is disabled or an index can't be
+     * downloaded
+     */
+    public File getLocalIndex(final BiologicalDataItem index) {
+        if (copies == null || index == null || StringUtils.isBlank(index.getPath())) {
+            return null;
+        }
+        final BiologicalDataItemResourceType type = index.getType() != null ? index.getType()
+                : BiologicalDataItemResourceType.getTypeFromPath(index.getPath());
+        if (type != BiologicalDataItemResourceType.URL && type != BiologicalDataItemResourceType.S3
+                && type != BiologicalDataItemResourceType.HDFS) {
+            return null;
+        }
+        try {
+            return getLocalIndex(type, index.getPath(), index.getBucketId());
+        } catch (IOException | IllegalArgumentException e) {
+            LOGGER.warn("Failed to cache remote index " + index.getPath() + ", it is read remotely", e);
+            return null;
+        }
+    }
+
+    /**
+     * @return total size of local copies in bytes
+     */
+    public long getTotalSize() {
+        return copies == null ? 0 : copies.getTotalSize();
+    }
+
+    private File getLocalIndex(final BiologicalDataItemResourceType type, final String path, final Long bucketId)
+            throws IOException {
+        final String requestKey = getRequestKey(type, path, bucketId);
+        final File recent = getRecentlyValidated(requestKey);
+        if (recent != null) {
+            return recent;
+        }
+
+        synchronized (locks[Math.floorMod(requestKey.hashCode(), locks.length)]) {
+            final File validatedByOther = getRecentlyValidated(requestKey);
+            if (validatedByOther != null) {
+                return validatedByOther;
+            }
+            try (RangeSource source = remoteStreamManager.createSource(type, path, bucketId)) {
+                final long length = source.length();
+                final String keyHash = DigestUtils.sha256Hex(source.getKey());
+                final String name = keyHash + '_'
+                        + DigestUtils.sha256Hex(source.getValidator() + ':' + length).substring(0, VERSION_HASH_LENGTH)
+                        + '_' + getFileName(path);
+                File file = getCached(name, length);
+                if (file == null) {
+                    file = download(source, name, length);
+                    copies.removeIf(entry -> entry.startsWith(keyHash + '_') && !entry.equals(name));
+                }
+                final long now = System.currentTimeMillis();
+                validated.values().removeIf(index -> now - index.validatedAt >= validationInterval);
+                validated.put(requestKey, new ValidatedIndex(name, now));
+                return file;
+            }
+        }
+    }
+
+    private File getRecentlyValidated(final String requestKey) {
+        final ValidatedIndex recent = validated.get(requestKey);
+        if (recent == null || System.currentTimeMillis() - recent.validatedAt >= validationInterval) {
+            return null;
+        }
+        final File file = copies.get(recent.name);
+        return file != null && file.exists() ? file : null;
+    }
+
+    private File getCached(final String name, final long length) {
+        final File file = copies.get(name);
+        if (file == null) {
+            return null;
+        }
+        if (file.exists() && file.length() == length) {
+            return file;
+        }
+        copies.remove(name);
+        return null;
+    }
+
+    private File download(final RangeSource source, final String name, final long length) throws IOException {
+        final double time1 = Utils.getSystemTimeMilliseconds();
+        final File file = copies.put(name, stream -> {
+            final byte[] buffer = new byte[(int) Math.min(BUFFER_SIZE, Math.max(length, 1))];
+            long position = 0;
+            while (position < length) {
+                final int chunk = (int) Math.min(buffer.length, length - position);
+                source.readFully(position, buffer, 0, chunk);
+                stream.write(buffer, 0, chunk);
+                position += chunk;
+            }
+        });
+        final double time2 = Utils.getSystemTimeMilliseconds();
+        LOGGER.debug("Downloading index {} took {} ms", source.getSource(), time2 - time1);
+        return file;
+    }
+
+    private static String getRequestKey(final BiologicalDataItemResourceType type, final String path,
+            final Long bucketId) throws IOException {
+        switch (type) {
+            case URL:
+                return HttpRangeSource.getStableKey(new URL(path));
+            case S3:
+                return "s3:" + bucketId + ':' + path;
+            default:
+                return path;
+        }
+    }
+
+    /**
+     * Keeps an original file name, as readers choose an index format by its extension
+     */
+    private static String getFileName(final String path) {
+        final String name = FilenameUtils.getName(StringUtils.substringBefore(path, "?"));
+        return StringUtils.isNotBlank(name) ? name.replaceAll("[^A-Za-z0-9._-]", "_") : "index";
+    }
+
+    private static final class ValidatedIndex {
+        private final String name;
+        private final long validatedAt;
+
+        private ValidatedIndex(final String name, final long validatedAt) {
+            this.name = name;
+            this.validatedAt = validatedAt;
+        }
+    }
+}
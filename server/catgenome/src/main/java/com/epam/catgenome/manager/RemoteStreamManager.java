@@ -0,0 +1,214 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2016 EPAM Systems
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package com.epam.catgenome.manager;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URI;
+import java.net.URL;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+
+import org.apache.commons.lang3.StringUtils;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.Path;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.epam.catgenome.entity.BiologicalDataItemResourceType;
+import com.epam.catgenome.manager.bucket.S3ClientManager;
+import com.epam.catgenome.util.HdfsSeekableInputStream;
+import com.epam.catgenome.util.stream.CachingSeekableStreamFactory;
+import com.epam.catgenome.util.stream.DiskBlockCache;
+import com.epam.catgenome.util.stream.HdfsRangeSource;
+import com.epam.catgenome.util.stream.HttpRangeSource;
+import com.epam.catgenome.util.stream.RangeSource;
+import htsjdk.samtools.seekablestream.ISeekableStreamFactory;
+import htsjdk.samtools.seekablestream.SeekableHTTPStream;
+import htsjdk.samtools.seekablestream.SeekableStream;
+import htsjdk.samtools.seekablestream.SeekableStreamFactory;
+
+/**
+ * <p>
+ * Opens remote files: URLs, presigned S3 URLs and HDFS files, as seekable streams, that read by blocks and
+ * keep fetched blocks in a shared size bounded cache on a local disk.
+ * </p>
+ * <p>
+ * On startup a {@link CachingSeekableStreamFactory} is installed as a default htsjdk stream factory, so files,
+ * opened by URL inside htsjdk readers, e.g. VCF and BED files and their indexes, are cached as well.
+ * If caching is disabled, files are read directly, as before.
+ * </p>
+ */
+@Service
+public class RemoteStreamManager {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(RemoteStreamManager.class);
+    private static final String CACHE_DIR = "remote";
+
+    @Autowired
+    private S3ClientManager s3ClientManager;
+
+    @Autowired
+    private HdfsFileSystemManager hdfsFileSystemManager;
+
+    @Value("#{catgenome['remote.stream.cache.enabled'] ?: true}")
+    private boolean enabled;
+
+    @Value("#{catgenome['remote.stream.cache.path'] ?: null}")
+    private String cachePath;
+
+    @Value("${files.base.directory.path}")
+    private String baseDirPath;
+
+    @Value("#{catgenome['remote.stream.cache.max.size'] ?: 1024L * 1024 * 1024}")
+    private long maxSize;
+
+    @Value("#{catgenome['remote.stream.block.size'] ?: 65536}")
+    private int blockSize;
+
+    @Value("#{catgenome['remote.stream.read.ahead.blocks'] ?: 4}")
+    private int readAheadBlocks;
+
+    @Value("#{catgenome['remote.stream.timeout'] ?: 60000}")
+    private int timeout;
+
+    private CachingSeekableStreamFactory streamFactory;
+    private DiskBlockCache blockCache;
+    private ISeekableStreamFactory defaultFactory;
+
+    /**
+     * Creates a cache directory and installs a caching stream factory
+     */
+    @PostConstruct
+    public void init() {
+        if (!enabled) {
+            return;
+        }
+        DiskBlockCache cache = null;
+        final File cacheDir = new File(StringUtils.isNotBlank(cachePath) ? cachePath
+                : baseDirPath + File.separator + CACHE_DIR);
+        try {
+            cache = new DiskBlockCache(cacheDir, maxSize);
+        } catch (IOException e) {
+            LOGGER.warn("Failed to create remote files cache directory " + cacheDir
+                    + ", remote files are read without caching", e);
+        }
+
+        final ISeekableStreamFactory currentFactory = SeekableStreamFactory.getInstance();
+        defaultFactory = currentFactory instanceof CachingSeekableStreamFactory
+                ? ((CachingSeekableStreamFactory) currentFactory).getDelegate() : currentFactory;
+        blockCache = cache;
+        streamFactory = new CachingSeekableStreamFactory(defaultFactory, cache, blockSize, readAheadBlocks, timeout);
+        SeekableStreamFactory.setInstance(streamFactory);
+    }
+
+    /**
+     * @return total size in bytes of cached blocks of remote files
+     */
+    public long getCacheSize() {
+        return blockCache == null ? 0 : blockCache.getTotalSize();
+    }
+
+    /**
+     * Restores a default htsjdk stream factory
+     */
+    @PreDestroy
+    public void destroy() {
+        if (streamFactory != null && SeekableStreamFactory.getInstance() == streamFactory) {
+            SeekableStreamFactory.setInstance(defaultFactory);
+        }
+    }
+
+    /**
+     * Opens a file by URL, including presigned S3 URLs
+     *
+     * @param url a URL of a file
+     * @return a stream
+     * @throws IOException if a file is unavailable
+     */
+    public SeekableStream openUrl(final URL url) throws IOException {
+        return streamFactory != null ? streamFactory.getStreamFor(url) : new SeekableHTTPStream(url);
+    }
+
+    /**
+     * Opens a file in a registered S3 bucket by a presigned URL
+     *
+     * @param bucketId an ID of a bucket
+     * @param path a path to a file in a bucket
+     * @return a stream
+     * @throws IOException if a file is unavailable
+     */
+    public SeekableStream openS3(final Long bucketId, final String path) throws IOException {
+        return openUrl(s3ClientManager.generatePresignedUrl(bucketId, path));
+    }
+
+    /**
+     * Opens a file in HDFS
+     *
+     * @param path an HDFS URI of a file
+     * @return a stream
+     * @throws IOException if a file is unavailable
+     */
+    public SeekableStream openHdfs(final String path) throws IOException {
+        final URI uri = URI.create(path);
+        final FileSystem fileSystem = hdfsFileSystemManager.getFileSystem(uri);
+        if (streamFactory == null) {
+            return new HdfsSeekableInputStream(fileSystem.open(new Path(uri)));
+        }
+        return streamFactory.open(new HdfsRangeSource(fileSystem, new Path(uri)));
+    }
+
+    /**
+     * Creates a source of ranges of a remote file, that allows to check file's size and version without
+     * reading it
+     *
+     * @param type a type of a file: URL, S3 or HDFS
+     * @param path a path to a file
+     * @param bucketId an ID of a bucket for S3 files
+     * @return a source of file's ranges, it should be closed after use
+     * @throws IOException if a URL is malformed or an HDFS file system is unavailable
+     */
+    public RangeSource createSource(final BiologicalDataItemResourceType type, final String path,
+            final Long bucketId) throws IOException {
+        switch (type) {
+            case URL:
+                final URL url = new URL(path);
+                return new HttpRangeSource(url, HttpRangeSource.getStableKey(url), timeout);
+            case S3:
+                final URL presignedUrl = s3ClientManager.generatePresignedUrl(bucketId, path);
+                return new HttpRangeSource(presignedUrl, HttpRangeSource.getStableKey(presignedUrl), timeout);
+            case HDFS:
+                final URI uri = URI.create(path);
+                return new HdfsRangeSource(hdfsFileSystemManager.getFileSystem(uri), new Path(uri));
+            default:
+                throw new IllegalArgumentException("Unsupported remote file type: " + type);
+        }
+    }
+}
@@ -294,8 +294,7 @@ public class TrackHelper {
 
             callables.add(() -> readerFunction.apply(track, featureFile, chromosome, portion));
         }
-        final List<Wig> newHistogram =
-                HistogramUtils.executeHistogramCreation(taskExecutorService.getExecutorService(), callables);
+        final List<Wig> newHistogram = HistogramUtils.executeHistogramCreation(taskExecutorService, callables);
         final double time2 = Utils.getSystemTimeMilliseconds();
         LOGGER.debug("Reading histogram, took {} ms", time2 - time1);
 
@@ -41,6 +41,8 @@ import com.epam.catgenome.dao.project.ProjectDao;
 import com.epam.catgenome.entity.BaseEntity;
 import com.epam.catgenome.entity.bam.BamFile;
 import com.epam.catgenome.entity.project.Project;
+import com.epam.catgenome.manager.MetadataCacheManager;
+import com.epam.catgenome.manager.MetadataCacheManager.MetadataType;
 
 /**
  * Source:      BamFileManager.java
@@ -61,6 +63,9 @@ public class BamFileManager {
     @Autowired
     private ProjectDao projectDao;
 
+    @Autowired
+    private MetadataCacheManager metadataCacheManager;
+
     /**
      * Persists {@code BamFile} record to the database
      *
@@ -75,6 +80,7 @@ public class BamFileManager {
         Assert.notNull(bamFile.getPath());
 
         bamFileDao.createBamFile(bamFile);
+        metadataCacheManager.evict(MetadataType.BAM, bamFile.getId());
     }
 
     /**
@@ -85,7 +91,7 @@ public class BamFileManager {
      */
     @Transactional(propagation = Propagation.SUPPORTS)
     public BamFile loadBamFile(Long bamFileId) {
-        return bamFileDao.loadBamFile(bamFileId);
+        return metadataCacheManager.get(MetadataType.BAM, bamFileId, () -> bamFileDao.loadBamFile(bamFileId));
     }
 
     /**
@@ -111,6 +117,7 @@ public class BamFileManager {
                         .collect(Collectors.joining(", "))));
 
         bamFileDao.deleteBamFile(bamFile.getId());
+        metadataCacheManager.evict(MetadataType.BAM, bamFile.getId());
         biologicalDataItemDao.deleteBiologicalDataItem(bamFile.getIndex().getId());
         biologicalDataItemDao.deleteBiologicalDataItem(bamFile.getBioDataItemId());
     }
@@ -32,7 +32,6 @@ import static org.apache.commons.lang3.StringUtils.trimToNull;
 
 import java.io.File;
 import java.io.IOException;
-import java.net.URI;
 import java.net.URL;
 import java.util.ArrayList;
 import java.util.Collections;
@@ -59,10 +58,6 @@ import htsjdk.samtools.SamInputResource;
 import htsjdk.samtools.SamReader;
 import htsjdk.samtools.SamReaderFactory;
 import htsjdk.samtools.ValidationStringency;
-import org.apache.hadoop.conf.Configuration;
-import org.apache.hadoop.fs.FSDataInputStream;
-import org.apache.hadoop.fs.FileSystem;
-import org.apache.hadoop.fs.Path;
 import org.jetbrains.annotations.NotNull;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -71,29 +66,28 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.util.Assert;
 
-import com.amazonaws.auth.BasicAWSCredentials;
-import com.amazonaws.services.s3.AmazonS3;
-import com.amazonaws.services.s3.AmazonS3Client;
 import com.epam.catgenome.constant.Constants;
 import com.epam.catgenome.constant.MessagesConstants;
 import com.epam.catgenome.controller.vo.registration.IndexedFileRegistrationRequest;
 import com.epam.catgenome.entity.BiologicalDataItem;
 import com.epam.catgenome.entity.BiologicalDataItemFormat;
 import com.epam.catgenome.entity.BiologicalDataItemResourceType;
-import com.epam.catgenome.entity.bucket.Bucket;
 import com.epam.catgenome.entity.reference.Chromosome;
 import com.epam.catgenome.entity.reference.Sequence;
 import com.epam.catgenome.entity.track.Track;
+import com.epam.catgenome.manager.RemoteIndexManager;
+import com.epam.catgenome.manager.RemoteStreamManager;
 import com.epam.catgenome.manager.bam.handlers.Handler;
-import com.epam.catgenome.manager.bucket.BucketManager;
+import com.epam.catgenome.manager.metrics.RequestMetrics;
+import com.epam.catgenome.manager.metrics.TrackPhase;
+import com.epam.catgenome.manager.reference.ReferenceBasesCache;
 import com.epam.catgenome.manager.reference.ReferenceManager;
+import com.epam.catgenome.manager.reference.io.CachingReferenceSource;
 import com.epam.catgenome.manager.reference.io.ChromosomeReferenceSequence;
 import com.epam.catgenome.util.AuthUtils;
 import com.epam.catgenome.util.BamUtil;
 import com.epam.catgenome.util.ConsensusSequenceUtils;
-import com.epam.catgenome.util.HdfsSeekableInputStream;
 import com.epam.catgenome.util.Utils;
-import htsjdk.samtools.cram.ref.ReferenceSource;
 import htsjdk.samtools.filter.AggregateFilter;
 import htsjdk.samtools.filter.DuplicateReadFilter;
 import htsjdk.samtools.filter.FailsVendorReadQualityFilter;
@@ -131,10 +125,16 @@ public class BamHelper {
     private BamFileManager bamFileManager;
 
     @Autowired
-    private BucketManager bucketManager;
+    private ReferenceManager referenceManager;
 
     @Autowired
-    private ReferenceManager referenceManager;
+    private ReferenceBasesCache referenceBasesCache;
+
+    @Autowired
+    private RemoteStreamManager remoteStreamManager;
+
+    @Autowired
+    private RemoteIndexManager remoteIndexManager;
 
     /*@Value("#{catgenome['bam.max.reads.count'] ?: 500000}")
     private int maxReadsCount;*/
@@ -319,8 +319,10 @@ public class BamHelper {
             IOException {
 
         Chromosome chromosome = bamTrack.getChromosome();
+        final long openTime = System.nanoTime();
         try (SamReader reader = makeSamReader(bamFile, Collections.singletonList(chromosome),
                 chromosome.getReferenceId())) {
+            RequestMetrics.record(TrackPhase.OPEN, openTime);
             LOG.debug(getMessage(MessagesConstants.DEBUG_FILE_OPENING, bamFile.getPath()));
             String chromosomeName = options.getChromosomeName();
 
@@ -331,7 +333,10 @@ public class BamHelper {
             Handler<SAMRecord> filter = filterReads(bamTrack, options, reader, chromosomeName, options.getMode() ==
                     BamTrackMode.COVERAGE, trackEmitter);
 
+            trackEmitter.checkCancelled();
+            final long siftTime = System.nanoTime();
             filter.getSifter().finish();
+            RequestMetrics.record(TrackPhase.SIFT, siftTime);
 
             bamTrack.setMinPosition(filter.getMinPosition());
             bamTrack.setReferenceBuffer(filter.getReferenceBuff());
@@ -381,8 +386,10 @@ public class BamHelper {
                                            String chromosomeName, boolean coverageOnly, BamTrackEmitter trackEmitter)
             throws IOException {
                                                                                             //int maxReadCount
+        final long queryTime = System.nanoTime();
         CloseableIterator<SAMRecord> iterator = reader.query(chromosomeName, bamTrack.getStartIndex(),
                                                                    bamTrack.getEndIndex(), false);
+        RequestMetrics.record(TrackPhase.QUERY, queryTime);
         LOG.debug(getMessage(MessagesConstants.DEBUG_GET_ITERATOR_QUERY, iterator.toString()));
 
         iterator = setIteratorFiltering(iterator, options);
@@ -390,11 +397,18 @@ public class BamHelper {
         final Handler<SAMRecord> filter = BamUtil.createSAMRecordHandler(bamTrack, options, referenceManager,
                 coverageOnly, trackEmitter); //maxReadCount
 
+        // decoding includes handling of reads, but not serialization and flushing of emitted reads
+        final long emitTime = RequestMetrics.getCurrentTime(TrackPhase.SERIALIZE, TrackPhase.FLUSH);
+        final long decodeTime = System.nanoTime();
         while (iterator.hasNext()) {
+            // stops reading and decoding, if a client has abandoned the request
+            trackEmitter.checkCancelled();
             final SAMRecord samRecord = iterator.next();
             //if read unmapped
             filter.add(samRecord);
         }
+        RequestMetrics.record(TrackPhase.DECODE, decodeTime
+                + RequestMetrics.getCurrentTime(TrackPhase.SERIALIZE, TrackPhase.FLUSH) - emitTime);
 
         return filter;
     }
@@ -474,13 +488,17 @@ public class BamHelper {
 
     private SamInputResource loadIndex(final SamInputResource samInputResource, final BiologicalDataItem indexFile)
             throws IOException {
+        final File localIndex = remoteIndexManager.getLocalIndex(indexFile);
+        if (localIndex != null) {
+            return samInputResource.index(localIndex);
+        }
         SamInputResource resource;
         switch (indexFile.getType()) {
             case FILE:
                 resource = samInputResource.index(new File(indexFile.getPath()));
                 break;
             case URL:
-                resource = samInputResource.index(new URL(indexFile.getPath()));
+                resource = samInputResource.index(remoteStreamManager.openUrl(new URL(indexFile.getPath())));
                 break;
             case S3:
                 resource = getS3Index(samInputResource, indexFile);
@@ -496,22 +514,13 @@ public class BamHelper {
 
     private SamInputResource getHDFSIndex(SamInputResource samInputResource,
             BiologicalDataItem indexFile) throws IOException {
-        URI uriIndex = URI.create(indexFile.getPath());
-        Configuration conf = new Configuration();
-        FileSystem fileBam = FileSystem.get(uriIndex, conf);
-        FSDataInputStream indexStream = fileBam.open(new Path(uriIndex));
-        return samInputResource.index(new HdfsSeekableInputStream(indexStream));
+        return samInputResource.index(remoteStreamManager.openHdfs(indexFile.getPath()));
     }
 
     private SamInputResource getS3Index(SamInputResource samInputResource,
-            BiologicalDataItem indexFile) {
+            BiologicalDataItem indexFile) throws IOException {
         Assert.notNull(indexFile.getBucketId(), getMessage(MessagesConstants.ERROR_S3_BUCKET));
-        final Bucket bucket = bucketManager.loadBucket(indexFile.getBucketId());
-        Assert.notNull(bucket, getMessage(MessagesConstants.ERROR_S3_BUCKET));
-        final AmazonS3 s3Client = new AmazonS3Client(new BasicAWSCredentials(bucket.getAccessKeyId(),
-                bucket.getSecretAccessKey()));
-        return samInputResource.index(s3Client.generatePresignedUrl(bucket.getBucketName(), indexFile.getPath(),
-                Utils.getTimeForS3URL()));
+        return samInputResource.index(remoteStreamManager.openS3(indexFile.getBucketId(), indexFile.getPath()));
     }
 
     private SamInputResource loadFile(final BamFile bamFile)
@@ -519,9 +528,11 @@ public class BamHelper {
         SamInputResource resource;
         switch (bamFile.getType()) {
             case FILE:
-            case URL:
                 resource = SamInputResource.of(bamFile.getPath());
                 break;
+            case URL:
+                resource = SamInputResource.of(remoteStreamManager.openUrl(new URL(bamFile.getPath())));
+                break;
             case S3:
                 resource = getS3SamInputResource(bamFile);
                 break;
@@ -535,20 +546,12 @@ public class BamHelper {
     }
 
     @NotNull private SamInputResource getHDFSSamInputResource(BamFile bamFile) throws IOException {
-        final URI uriBam = URI.create(bamFile.getPath());
-        final Configuration conf = new Configuration();
-        final FileSystem fileBam = FileSystem.get(uriBam, conf);
-        final FSDataInputStream inBam = fileBam.open(new Path(uriBam));
-        return SamInputResource.of(new HdfsSeekableInputStream(inBam));
+        return SamInputResource.of(remoteStreamManager.openHdfs(bamFile.getPath()));
     }
 
-    @NotNull private SamInputResource getS3SamInputResource(BamFile bamFile) {
-        final Bucket bucket = bucketManager.loadBucket(bamFile.getBucketId());
-        Assert.notNull(bucket, getMessage(MessagesConstants.ERROR_S3_BUCKET));
-        final AmazonS3 s3Client = new AmazonS3Client(new BasicAWSCredentials(bucket.getAccessKeyId(),
-                bucket.getSecretAccessKey()));
-        return SamInputResource.of(s3Client.generatePresignedUrl(bucket.getBucketName(), bamFile.getPath(),
-                Utils.getTimeForS3URL()));
+    @NotNull private SamInputResource getS3SamInputResource(BamFile bamFile) throws IOException {
+        Assert.notNull(bamFile.getBucketId(), getMessage(MessagesConstants.ERROR_S3_BUCKET));
+        return SamInputResource.of(remoteStreamManager.openS3(bamFile.getBucketId(), bamFile.getPath()));
     }
 
     private SamReader openSamReaderResource(final SamInputResource inputResource,
@@ -556,8 +559,8 @@ public class BamHelper {
         Assert.notNull(inputResource, getMessage(RESOURCE_NOT_FOUND));
         return SamReaderFactory.makeDefault()
                 .validationStringency(ValidationStringency.SILENT)
-                .referenceSource(new ReferenceSource(new ChromosomeReferenceSequence(chromosomes,
-                        referenceId, referenceManager)))
+                .referenceSource(new CachingReferenceSource(new ChromosomeReferenceSequence(chromosomes,
+                        referenceId, referenceManager), referenceId, referenceBasesCache))
                 .open(inputResource);
     }
 
@@ -27,12 +27,17 @@ package com.epam.catgenome.manager.bam;
 import com.epam.catgenome.controller.JsonMapper;
 import com.epam.catgenome.entity.bam.BamTrack;
 import com.epam.catgenome.entity.bam.Read;
+import com.epam.catgenome.manager.metrics.RequestMetrics;
+import com.epam.catgenome.manager.metrics.TrackPhase;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.node.ObjectNode;
 import org.springframework.http.MediaType;
 import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
 
 import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 /**
  * Class wrapper over {@link ResponseBodyEmitter}. Common usage is continuously writing {@link Read}s by calling
@@ -42,6 +47,8 @@ import java.io.IOException;
  * In case of any exception during writing to {@link BamTrackEmitter} {@link BamTrackEmitter#finishWithException} should
  * be called.
  * BamTrackEmitter produces buffering.
+ * If the wrapped emitter is completed or timed out before the track is written, e.g. a client has aborted
+ * the request, the emitter is marked as cancelled and producers should stop by {@link #checkCancelled()}.
  */
 public class BamTrackEmitter {
 
@@ -52,7 +59,9 @@ public class BamTrackEmitter {
     private final ResponseBodyEmitter emitter;
 
     private boolean firstRecordWasWritten = false;
-    private boolean finished = false;
+    private volatile boolean finished = false;
+    private volatile boolean cancelled = false;
+    private final List<Runnable> abortCallbacks = new CopyOnWriteArrayList<>();
 
     @SuppressWarnings("PMD.AvoidStringBufferField")
     private StringBuilder stringBuffer;
@@ -62,6 +71,8 @@ public class BamTrackEmitter {
         this.stringBuffer = new StringBuilder(BUFFER_SIZE);
         this.jsonMapper = new JsonMapper();
 
+        emitter.onTimeout(this::abort);
+        emitter.onCompletion(this::abort);
         writeHeader();
     }
 
@@ -72,12 +83,16 @@ public class BamTrackEmitter {
      */
     public void writeRecord(Read read) throws IOException {
         checkFinished();
+        checkCancelled();
 
         if (firstRecordWasWritten) {
             write(",");
         }
 
-        write(jsonMapper.writeValueAsString(read));
+        final long serializeTime = System.nanoTime();
+        final String json = jsonMapper.writeValueAsString(read);
+        RequestMetrics.record(TrackPhase.SERIALIZE, serializeTime);
+        write(json);
 
         if (!firstRecordWasWritten) {
             firstRecordWasWritten = true;
@@ -94,14 +109,17 @@ public class BamTrackEmitter {
         checkFinished();
         write("],");
 
+        final long serializeTime = System.nanoTime();
         JsonNode metadata = jsonMapper.convertValue(bamTrack, JsonNode.class);
         ((ObjectNode) metadata).remove("blocks");
-        write(jsonMapper.writeValueAsString(metadata).substring(1));
+        final String json = jsonMapper.writeValueAsString(metadata).substring(1);
+        RequestMetrics.record(TrackPhase.SERIALIZE, serializeTime);
+        write(json);
         write(",\"status\":\"OK\"}");
 
         sendBuffer();
-        emitter.complete();
         finished = true;
+        emitter.complete();
     }
 
     /**
@@ -112,6 +130,9 @@ public class BamTrackEmitter {
      */
     public void finishWithException(Throwable throwable) {
         checkFinished();
+        if (cancelled) {
+            return;
+        }
         try {
             write("]},\"status\":\"ERROR\",\"message\":\"" + throwable.getLocalizedMessage() + "\"}");
             sendBuffer();
@@ -121,6 +142,44 @@ public class BamTrackEmitter {
         emitter.complete();
     }
 
+    /**
+     * Registers a callback, that is called, when the request is abandoned: the wrapped emitter is completed
+     * or timed out before the track is written. The callback is called at once, if it has already happened.
+     * @param callback to be called
+     */
+    public void onAbort(Runnable callback) {
+        abortCallbacks.add(callback);
+        if (cancelled) {
+            callback.run();
+        }
+    }
+
+    /**
+     * @return true if the request is abandoned and nobody waits for the track
+     */
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    /**
+     * Should be called by producers of the track regularly, e.g. for each read, to stop processing of
+     * an abandoned request
+     * @throws CancellationException if the request is abandoned
+     */
+    public void checkCancelled() {
+        if (cancelled) {
+            throw new CancellationException("BAM track request is cancelled");
+        }
+    }
+
+    private void abort() {
+        if (finished || cancelled) {
+            return;
+        }
+        cancelled = true;
+        abortCallbacks.forEach(Runnable::run);
+    }
+
     private void writeHeader() throws IOException {
         write("{\"payload\":{\"blocks\":[");
     }
@@ -134,7 +193,9 @@ public class BamTrackEmitter {
     }
 
     private void sendBuffer() throws IOException {
+        final long flushTime = System.nanoTime();
         emitter.send(stringBuffer.toString(), MediaType.TEXT_PLAIN);
+        RequestMetrics.record(TrackPhase.FLUSH, flushTime);
         stringBuffer.setLength(0);
     }
 
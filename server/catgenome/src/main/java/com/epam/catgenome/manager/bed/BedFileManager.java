@@ -42,6 +42,8 @@ import com.epam.catgenome.dao.project.ProjectDao;
 import com.epam.catgenome.entity.BaseEntity;
 import com.epam.catgenome.entity.bed.BedFile;
 import com.epam.catgenome.entity.project.Project;
+import com.epam.catgenome.manager.MetadataCacheManager;
+import com.epam.catgenome.manager.MetadataCacheManager.MetadataType;
 
 /**
  * Provides service for managing {@code BedFile} in the system
@@ -60,6 +62,9 @@ public class BedFileManager {
     @Autowired
     private ProjectDao projectDao;
 
+    @Autowired
+    private MetadataCacheManager metadataCacheManager;
+
     /**
      * Persists a {@code BedFile} record in the database
      * @param bedFile a {@code BedFile} instance to be persisted
@@ -67,6 +72,7 @@ public class BedFileManager {
     @Transactional(propagation = Propagation.REQUIRED)
     public void createBedFile(BedFile bedFile) {
         bedFileDao.createBedFile(bedFile);
+        metadataCacheManager.evict(MetadataType.BED, bedFile.getId());
     }
 
     /**
@@ -77,7 +83,7 @@ public class BedFileManager {
      */
     @Transactional(propagation = Propagation.SUPPORTS)
     public BedFile loadBedFile(long bedFileId) {
-        return bedFileDao.loadBedFile(bedFileId);
+        return metadataCacheManager.get(MetadataType.BED, bedFileId, () -> bedFileDao.loadBedFile(bedFileId));
     }
 
     /**
@@ -131,6 +137,7 @@ public class BedFileManager {
         );
 
         bedFileDao.deleteBedFile(bedFile.getId());
+        metadataCacheManager.evict(MetadataType.BED, bedFile.getId());
         biologicalDataItemDao.deleteBiologicalDataItem(bedFile.getIndex().getId());
         biologicalDataItemDao.deleteBiologicalDataItem(bedFile.getBioDataItemId());
     }
@@ -32,6 +32,7 @@ import java.lang.reflect.InvocationTargetException;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Date;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
@@ -39,7 +40,6 @@ import java.util.stream.Collectors;
 import org.apache.commons.io.FilenameUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.lang3.tuple.Pair;
-import org.jetbrains.annotations.NotNull;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -61,6 +61,7 @@ import com.epam.catgenome.entity.wig.Wig;
 import com.epam.catgenome.exception.FeatureFileReadingException;
 import com.epam.catgenome.exception.FeatureIndexException;
 import com.epam.catgenome.manager.FeatureIndexManager;
+import com.epam.catgenome.manager.FeatureReaderManager;
 import com.epam.catgenome.exception.HistogramReadingException;
 import com.epam.catgenome.exception.HistogramWritingException;
 import com.epam.catgenome.exception.RegistrationException;
@@ -70,6 +71,7 @@ import com.epam.catgenome.manager.FileManager;
 import com.epam.catgenome.manager.TrackHelper;
 import com.epam.catgenome.manager.bed.parser.NggbBedFeature;
 import com.epam.catgenome.manager.reference.ReferenceGenomeManager;
+import com.epam.catgenome.manager.registration.RegistrationProgress;
 import com.epam.catgenome.util.AuthUtils;
 import com.epam.catgenome.util.HistogramUtils;
 import com.epam.catgenome.util.IOHelper;
@@ -110,6 +112,9 @@ public class BedManager {
     @Autowired
     private FeatureIndexManager featureIndexManager;
 
+    @Autowired
+    private FeatureReaderManager featureReaderManager;
+
     private static final Logger LOG = LoggerFactory.getLogger(BedManager.class);
 
     /**
@@ -169,20 +174,16 @@ public class BedManager {
     private Track<BedRecord> loadTrackFromFile(Track<BedRecord> track, BedFile bedFile, Chromosome chromosome)
         throws FeatureFileReadingException {
         final double time1 = Utils.getSystemTimeMilliseconds();
-        try (AbstractFeatureReader<NggbBedFeature, LineIterator> reader = fileManager.makeBedReader(bedFile)) {
-            CloseableIterator<NggbBedFeature> iterator = reader.query(chromosome.getName(), track.getStartIndex(),
-                                                                      track.getEndIndex());
-            if (!iterator.hasNext()) {
-                iterator = reader.query(Utils.changeChromosomeName(chromosome.getName()), track.getStartIndex(),
-                                        track.getEndIndex());
-            }
+        try {
+            final List<NggbBedFeature> features = featureReaderManager.loadFeatures(bedFile, chromosome.getName(),
+                    track.getStartIndex(), track.getEndIndex(), () -> fileManager.makeBedReader(bedFile));
 
             final List<BedRecord> bedRecords;
             if (track.getScaleFactor() >= 1) {
-                bedRecords = new ArrayList<>();
-                iterator.forEachRemaining(f -> bedRecords.add(new BedRecord(f)));
+                bedRecords = new ArrayList<>(features.size());
+                features.forEach(f -> bedRecords.add(new BedRecord(f)));
             } else {
-                bedRecords = loadStatisticRecords(track, iterator);
+                bedRecords = loadStatisticRecords(track, features.iterator());
             }
             final double time2 = Utils.getSystemTimeMilliseconds();
             LOG.debug("Reading records from bed file, took {} ms", time2 - time1);
@@ -233,6 +234,7 @@ public class BedManager {
         Assert.notNull(fileToDelete, MessagesConstants.ERROR_NO_SUCH_FILE);
 
         bedFileManager.deleteBedFile(fileToDelete);
+        featureReaderManager.evict(fileToDelete);
         fileManager.deleteFeatureFileDirectory(fileToDelete);
 
         return fileToDelete;
@@ -369,6 +371,7 @@ public class BedManager {
         int featureCount = 1;
         while (iterator.hasNext()) {
             NggbBedFeature feature = iterator.next();
+            RegistrationProgress.update(feature.getContig(), feature.getStart());
             if (!feature.getContig().equals(currentContig) && currentChromosome != null) {
                 currentWig.setValue((float) featureCount);
                 histogram.add(currentWig);
@@ -449,43 +452,21 @@ public class BedManager {
 
     private List<Wig> readHistogramPortion(final Track<Wig> track, final BedFile bedFile, final Chromosome
             chromosome, final List<Pair<Integer, Integer>> portion) throws IOException {
-        try (AbstractFeatureReader<NggbBedFeature, LineIterator> featureReader = fileManager.makeBedReader(bedFile)) {
-            return getWigFromHistogram(track, chromosome, portion, featureReader);
-        }
-    }
-
-    @NotNull private List<Wig> getWigFromHistogram(Track<Wig> track, Chromosome chromosome,
-            List<Pair<Integer, Integer>> portion,
-            AbstractFeatureReader<NggbBedFeature, LineIterator> featureReader) throws IOException {
         final List<Wig> wigs = new ArrayList<>(portion.size());
         for (Pair<Integer, Integer> interval : portion) {
             if (interval.getRight() > track.getStartIndex() && interval.getLeft() < track.getEndIndex()) {
                 final int startIndex = Math.max(interval.getLeft(), track.getStartIndex());
                 final int endIndex = Math.min(interval.getRight(), track.getEndIndex());
-                CloseableIterator<NggbBedFeature> iterator = featureReader.query(chromosome.getName(),
-                        startIndex, endIndex);
-                if (!iterator.hasNext()) {
-                    iterator = featureReader.query(Utils.changeChromosomeName(chromosome.getName()),
-                            startIndex, endIndex);
-                }
-                int genesCount = getGenesCount(iterator);
+                final int genesCount = featureReaderManager.loadFeatures(bedFile, chromosome.getName(), startIndex,
+                        endIndex, () -> fileManager.makeBedReader(bedFile)).size();
                 HistogramUtils.addToHistogramPortion(wigs, genesCount, interval);
             }
         }
         return wigs;
     }
 
-    private int getGenesCount(CloseableIterator<NggbBedFeature> iterator) {
-        int genesCount = 0;
-        while (iterator.hasNext()) {
-            iterator.next();
-            genesCount++;
-        }
-        return genesCount;
-    }
-
     private List<BedRecord> loadStatisticRecords(final Track<BedRecord> track,
-                                                 final CloseableIterator<NggbBedFeature> iterator) {
+                                                 final Iterator<NggbBedFeature> iterator) {
         final List<BedRecord> bedRecords = new ArrayList<>();
         int step = (int) Math.ceil(1 / (double)track.getScaleFactor());
         int from = track.getStartIndex();
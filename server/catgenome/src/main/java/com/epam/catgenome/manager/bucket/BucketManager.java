@@ -24,6 +24,8 @@
 
 package com.epam.catgenome.manager.bucket;
 
+import static com.epam.catgenome.component.MessageHelper.getMessage;
+
 import java.util.List;
 
 import org.springframework.beans.factory.annotation.Autowired;
@@ -44,6 +46,9 @@ public class BucketManager {
     @Autowired
     private BucketDao bucketDao;
 
+    @Autowired
+    private S3ClientManager s3ClientManager;
+
     /**
      * Registers the bucket in system
      * @param bucket {@code Bucket} to save
@@ -60,6 +65,36 @@ public class BucketManager {
     }
 
 
+    /**
+     * Updates a name and credentials of a registered bucket. A shared S3 client of the bucket is released.
+     * @param bucket {@code Bucket} to update
+     * @return updated {@code Bucket}
+     */
+    @Transactional(propagation = Propagation.REQUIRED)
+    public Bucket updateBucket(final Bucket bucket) {
+        Assert.notNull(bucket, MessagesConstants.ERROR_NULL_PARAM);
+        Assert.notNull(bucket.getId(), MessagesConstants.ERROR_NULL_PARAM);
+        Assert.notNull(bucket.getAccessKeyId(), MessagesConstants.ERROR_NULL_PARAM);
+        Assert.notNull(bucket.getBucketName(), MessagesConstants.ERROR_NULL_PARAM);
+        Assert.notNull(bucket.getSecretAccessKey(), MessagesConstants.ERROR_NULL_PARAM);
+        Assert.notNull(bucketDao.loadBucketById(bucket.getId()), getMessage(MessagesConstants.ERROR_S3_BUCKET));
+
+        bucketDao.updateBucket(bucket);
+        s3ClientManager.evict(bucket.getId());
+        return bucket;
+    }
+
+    /**
+     * Deletes a registered bucket. A shared S3 client of the bucket is released.
+     * @param bucketId {@code Long} a bucket ID
+     */
+    @Transactional(propagation = Propagation.REQUIRED)
+    public void deleteBucket(final Long bucketId) {
+        Assert.notNull(bucketDao.loadBucketById(bucketId), getMessage(MessagesConstants.ERROR_S3_BUCKET));
+        bucketDao.deleteBucket(bucketId);
+        s3ClientManager.evict(bucketId);
+    }
+
     /**
      * Loads a persisted {@code Bucket} record by it's ID
      *
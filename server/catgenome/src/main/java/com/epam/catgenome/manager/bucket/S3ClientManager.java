@@ -0,0 +1,196 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2016 EPAM Systems
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package com.epam.catgenome.manager.bucket;
+
+import static com.epam.catgenome.component.MessageHelper.getMessage;
+
+import java.net.URL;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import javax.annotation.PreDestroy;
+
+import org.apache.commons.codec.digest.DigestUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.Assert;
+
+import com.amazonaws.ClientConfiguration;
+import com.amazonaws.auth.BasicAWSCredentials;
+import com.amazonaws.services.s3.AmazonS3;
+import com.amazonaws.services.s3.AmazonS3Client;
+import com.epam.catgenome.constant.MessagesConstants;
+import com.epam.catgenome.dao.bucket.BucketDao;
+import com.epam.catgenome.entity.bucket.Bucket;
+import com.epam.catgenome.util.Utils;
+
+/**
+ * <p>
+ * A registry of shared S3 clients. A bucket record is loaded from the database once and a client, with its own
+ * connection pool, is created once for a pair of credentials, so that opening an S3 file doesn't cost a database
+ * query and a new client.
+ * </p>
+ * <p>
+ * Buckets, that have the same credentials, share a client. A bucket is evicted, when it is updated or deleted,
+ * and a client is shut down, when no registered bucket uses its credentials anymore.
+ * </p>
+ */
+@Service
+public class S3ClientManager {
+
+    @Autowired
+    private BucketDao bucketDao;
+
+    @Value("#{catgenome['s3.client.max.connections'] ?: 50}")
+    private int maxConnections;
+
+    @Value("#{catgenome['s3.client.timeout'] ?: 60000}")
+    private int timeout;
+
+    private final ConcurrentMap<Long, BucketClient> buckets = new ConcurrentHashMap<>();
+    /**
+     * Clients by credentials' keys, guarded by {@code this}
+     */
+    private final Map<String, AmazonS3Client> clients = new HashMap<>();
+
+    /**
+     * Returns a shared client for a bucket
+     *
+     * @param bucketId an ID of a bucket
+     * @return S3 client
+     */
+    public AmazonS3 getClient(final Long bucketId) {
+        return getBucketClient(bucketId).client;
+    }
+
+    /**
+     * Generates a presigned URL of a file in a bucket
+     *
+     * @param bucketId an ID of a bucket
+     * @param path a path to a file in a bucket
+     * @return a presigned URL
+     */
+    public URL generatePresignedUrl(final Long bucketId, final String path) {
+        final BucketClient bucketClient = getBucketClient(bucketId);
+        return bucketClient.client.generatePresignedUrl(bucketClient.bucketName, path, Utils.getTimeForS3URL());
+    }
+
+    /**
+     * Removes a bucket from the registry and shuts down its client, if no other bucket uses it. Eviction is
+     * repeated after completion of a current transaction, so that a bucket, loaded concurrently before a commit,
+     * doesn't stay in the registry.
+     *
+     * @param bucketId an ID of a bucket
+     */
+    public void evict(final Long bucketId) {
+        doEvict(bucketId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+                @Override
+                public void afterCompletion(final int status) {
+                    doEvict(bucketId);
+                }
+            });
+        }
+    }
+
+    /**
+     * Shuts down all clients
+     */
+    @PreDestroy
+    public synchronized void destroy() {
+        buckets.clear();
+        clients.values().forEach(AmazonS3Client::shutdown);
+        clients.clear();
+    }
+
+    private BucketClient getBucketClient(final Long bucketId) {
+        Assert.notNull(bucketId, getMessage(MessagesConstants.ERROR_S3_BUCKET));
+        final BucketClient cached = buckets.get(bucketId);
+        if (cached != null) {
+            return cached;
+        }
+        final Bucket bucket = bucketDao.loadBucketById(bucketId);
+        Assert.notNull(bucket, getMessage(MessagesConstants.ERROR_S3_BUCKET));
+        final String credentialsKey = getCredentialsKey(bucket);
+        synchronized (this) {
+            final BucketClient registered = buckets.get(bucketId);
+            if (registered != null) {
+                return registered;
+            }
+            final AmazonS3Client client = clients.computeIfAbsent(credentialsKey, key -> createClient(bucket));
+            final BucketClient bucketClient = new BucketClient(bucket.getBucketName(), credentialsKey, client);
+            buckets.put(bucketId, bucketClient);
+            return bucketClient;
+        }
+    }
+
+    private synchronized void doEvict(final Long bucketId) {
+        final BucketClient evicted = buckets.remove(bucketId);
+        if (evicted == null) {
+            return;
+        }
+        final boolean inUse = buckets.values().stream()
+                .anyMatch(bucketClient -> bucketClient.credentialsKey.equals(evicted.credentialsKey));
+        if (!inUse) {
+            clients.remove(evicted.credentialsKey);
+            evicted.client.shutdown();
+        }
+    }
+
+    private AmazonS3Client createClient(final Bucket bucket) {
+        final ClientConfiguration configuration = new ClientConfiguration()
+                .withMaxConnections(maxConnections)
+                .withConnectionTimeout(timeout)
+                .withSocketTimeout(timeout);
+        return new AmazonS3Client(new BasicAWSCredentials(bucket.getAccessKeyId(), bucket.getSecretAccessKey()),
+                configuration);
+    }
+
+    private static String getCredentialsKey(final Bucket bucket) {
+        return bucket.getAccessKeyId() + ':' + DigestUtils.sha256Hex(bucket.getSecretAccessKey());
+    }
+
+    /**
+     * A registered bucket: its name and a shared client
+     */
+    private static final class BucketClient {
+        private final String bucketName;
+        private final String credentialsKey;
+        private final AmazonS3Client client;
+
+        private BucketClient(final String bucketName, final String credentialsKey, final AmazonS3Client client) {
+            this.bucketName = bucketName;
+            this.credentialsKey = credentialsKey;
+            this.client = client;
+        }
+    }
+}
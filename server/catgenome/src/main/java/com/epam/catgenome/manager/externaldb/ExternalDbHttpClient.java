@@ -0,0 +1,476 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2016 EPAM Systems
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.epam.catgenome.manager.externaldb;
+
+import static com.epam.catgenome.component.MessageHelper.getMessage;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+
+import org.apache.commons.lang3.StringUtils;
+import org.apache.http.Header;
+import org.apache.http.HttpEntity;
+import org.apache.http.HttpHost;
+import org.apache.http.HttpStatus;
+import org.apache.http.auth.AuthScope;
+import org.apache.http.auth.UsernamePasswordCredentials;
+import org.apache.http.client.CredentialsProvider;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.client.methods.CloseableHttpResponse;
+import org.apache.http.client.methods.HttpGet;
+import org.apache.http.client.methods.HttpPost;
+import org.apache.http.client.methods.HttpUriRequest;
+import org.apache.http.client.utils.DateUtils;
+import org.apache.http.entity.ContentType;
+import org.apache.http.entity.StringEntity;
+import org.apache.http.impl.client.BasicCredentialsProvider;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.HttpClientBuilder;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.apache.http.util.EntityUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.epam.catgenome.constant.MessagesConstants;
+import com.epam.catgenome.exception.ExternalDbUnavailableException;
+import com.epam.catgenome.exception.TaskRejectedException;
+
+/**
+ * <p>
+ * A shared HTTP client for external databases. Connections are kept alive and reused from a pool, that limits
+ * a number of concurrent connections to a single host.
+ * </p>
+ * <p>
+ * Requests are executed asynchronously on a bounded pool of worker threads. If a remote service throttles us
+ * (HTTP 429, 5xx or Retry-After header) or a connection fails, a request is retried with exponential backoff
+ * with jitter. Retries are scheduled on a timer, so no thread sleeps while waiting for a remote service.
+ * </p>
+ * <p>
+ * Handlers of client requests, that query external databases, are run on a separate bounded pool by
+ * {@link #handle(Callable)}, so servlet threads aren't blocked while external databases respond.
+ * </p>
+ */
+@Service
+public class ExternalDbHttpClient {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ExternalDbHttpClient.class);
+    private static final String EXCEPTION_MESSAGE = "Couldn't fetch data for URL %s";
+    private static final String HTTP_HEADER_RETRY_AFTER = "Retry-After";
+    private static final String CONTENT_TYPE = "Content-Type";
+    private static final String APPLICATION_JSON = "application/json";
+    private static final int HTTP_TOO_MANY_REQUESTS = 429;
+    private static final int MILLIS_IN_SECOND = 1000;
+    private static final int MAX_BACKOFF_SHIFT = 20;
+    private static final int DEFAULT_THREADS = 16;
+    private static final int DEFAULT_QUEUE_SIZE = 1000;
+
+    @Value("#{catgenome['externaldb.proxy.host'] ?: null}")
+    private String proxyHost;
+    @Value("#{catgenome['externaldb.proxy.port'] ?: null}")
+    private Integer proxyPort;
+    @Value("#{catgenome['externaldb.proxy.user'] ?: null}")
+    private String proxyUser;
+    @Value("#{catgenome['externaldb.proxy.password'] ?: null}")
+    private String proxyPassword;
+
+    @Value("#{catgenome['externaldb.http.max.connections'] ?: 50}")
+    private int maxConnections;
+    @Value("#{catgenome['externaldb.http.max.connections.per.host'] ?: 4}")
+    private int maxConnectionsPerHost;
+    @Value("#{catgenome['externaldb.http.connect.timeout'] ?: 10000}")
+    private int connectTimeout;
+    @Value("#{catgenome['externaldb.http.socket.timeout'] ?: 60000}")
+    private int socketTimeout;
+    @Value("#{catgenome['externaldb.http.keep.alive'] ?: 60}")
+    private long keepAlive;
+    @Value("#{catgenome['externaldb.http.threads'] ?: " + DEFAULT_THREADS + "}")
+    private int threads;
+    @Value("#{catgenome['externaldb.http.queue.size'] ?: " + DEFAULT_QUEUE_SIZE + "}")
+    private int queueSize;
+    @Value("#{catgenome['externaldb.http.retry.max.attempts'] ?: 5}")
+    private int maxAttempts;
+    @Value("#{catgenome['externaldb.http.retry.base.delay'] ?: 500}")
+    private long baseDelay;
+    @Value("#{catgenome['externaldb.http.retry.max.delay'] ?: 30000}")
+    private long maxDelay;
+    @Value("#{catgenome['externaldb.http.request.timeout'] ?: 60000}")
+    private long requestTimeout;
+    @Value("#{catgenome['externaldb.http.retry.after'] ?: 5}")
+    private int retryAfter;
+
+    private CloseableHttpClient httpClient;
+    private ExecutorService requestExecutor;
+    private ExecutorService lookupExecutor;
+    private ExecutorService handlerExecutor;
+    private ScheduledExecutorService retryScheduler;
+
+    @PostConstruct
+    public void init() {
+        PoolingHttpClientConnectionManager connectionManager = new PoolingHttpClientConnectionManager(
+                keepAlive, TimeUnit.SECONDS);
+        connectionManager.setMaxTotal(maxConnections);
+        connectionManager.setDefaultMaxPerRoute(maxConnectionsPerHost);
+
+        RequestConfig requestConfig = RequestConfig.custom()
+                .setConnectTimeout(connectTimeout)
+                .setConnectionRequestTimeout(socketTimeout)
+                .setSocketTimeout(socketTimeout)
+                .build();
+
+        HttpClientBuilder builder = HttpClientBuilder.create()
+                .setConnectionManager(connectionManager)
+                .setDefaultRequestConfig(requestConfig)
+                .evictExpiredConnections()
+                .evictIdleConnections(keepAlive, TimeUnit.SECONDS);
+
+        if (StringUtils.isNotBlank(proxyHost) && proxyPort != null) {
+            builder.setProxy(new HttpHost(proxyHost, proxyPort));
+            if (proxyUser != null && proxyPassword != null) {
+                CredentialsProvider credentialsProvider = new BasicCredentialsProvider();
+                credentialsProvider.setCredentials(new AuthScope(proxyHost, proxyPort),
+                        new UsernamePasswordCredentials(proxyUser, proxyPassword));
+                builder.setDefaultCredentialsProvider(credentialsProvider);
+            }
+        }
+        httpClient = builder.build();
+
+        requestExecutor = createExecutor("externaldb-http-");
+        lookupExecutor = createExecutor("externaldb-lookup-");
+        handlerExecutor = createExecutor("externaldb-handler-");
+        retryScheduler = Executors.newSingleThreadScheduledExecutor(new NamedThreadFactory("externaldb-retry-"));
+    }
+
+    @PreDestroy
+    public void destroy() throws IOException {
+        retryScheduler.shutdownNow();
+        handlerExecutor.shutdownNow();
+        lookupExecutor.shutdownNow();
+        requestExecutor.shutdownNow();
+        httpClient.close();
+    }
+
+    /**
+     * Performs an asynchronous GET request
+     *
+     * @param location target URL
+     * @return a future of a response body
+     */
+    public CompletableFuture<String> get(final String location) {
+        return execute(location, () -> {
+            HttpGet request = new HttpGet(location);
+            request.setHeader(CONTENT_TYPE, APPLICATION_JSON);
+            return request;
+        });
+    }
+
+    /**
+     * Performs an asynchronous POST request with a JSON body
+     *
+     * @param location target URL
+     * @param json request body
+     * @return a future of a response body
+     */
+    public CompletableFuture<String> post(final String location, final String json) {
+        return execute(location, () -> {
+            HttpPost request = new HttpPost(location);
+            request.setEntity(new StringEntity(json, ContentType.APPLICATION_JSON));
+            return request;
+        });
+    }
+
+    /**
+     * Runs a lookup, that may perform several requests to external databases, asynchronously, so that
+     * independent lookups are performed concurrently
+     *
+     * @param lookup a lookup to run
+     * @return a future of a lookup result
+     */
+    public <T> CompletableFuture<T> submit(final Callable<T> lookup) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        try {
+            lookupExecutor.execute(() -> complete(result, lookup));
+        } catch (RejectedExecutionException e) {
+            result.completeExceptionally(new ExternalDbUnavailableException("Too many external database lookups", e));
+        }
+        return result;
+    }
+
+    /**
+     * Runs a handler of a client request, that queries external databases, on a separate pool, so a calling
+     * servlet thread is released while external databases respond
+     *
+     * @param handler a handler to run
+     * @return a future of a handler result, it fails with {@link TaskRejectedException}, if the pool is full
+     */
+    public <T> CompletableFuture<T> handle(final Callable<T> handler) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        try {
+            handlerExecutor.execute(() -> complete(result, handler));
+        } catch (RejectedExecutionException e) {
+            result.completeExceptionally(createBusyException());
+        }
+        return result;
+    }
+
+    /**
+     * @return an exception, that tells a client to repeat a request, when external databases respond
+     */
+    public TaskRejectedException createBusyException() {
+        return new TaskRejectedException(getMessage(MessagesConstants.ERROR_EXTERNAL_DB_BUSY, retryAfter),
+                retryAfter);
+    }
+
+    public long getRequestTimeout() {
+        return requestTimeout;
+    }
+
+    /**
+     * Waits for a result of a request not longer than a configured request timeout. A request, that timed out,
+     * isn't cancelled: it is retried in background and its response is cached for a repeated request.
+     *
+     * @param future a future of a request
+     * @return result of a request
+     * @throws ExternalDbUnavailableException if a request failed or timed out
+     */
+    public <T> T await(final CompletableFuture<T> future) throws ExternalDbUnavailableException {
+        try {
+            return future.get(requestTimeout, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            throw new ExternalDbUnavailableException(
+                    String.format("External database request timed out after %d ms", requestTimeout), e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            future.cancel(false);
+            throw new ExternalDbUnavailableException("External database request was interrupted", e);
+        } catch (ExecutionException | CancellationException e) {
+            throw unwrap(e);
+        }
+    }
+
+    /**
+     * Waits for a result of a lookup, returned by {@link #submit(Callable)} or {@link #completed(Callable)}
+     *
+     * @param future a future of a lookup
+     * @return result of a lookup
+     * @throws ExternalDbUnavailableException if a lookup failed
+     */
+    public static <T> T join(final CompletableFuture<T> future) throws ExternalDbUnavailableException {
+        try {
+            return future.join();
+        } catch (CompletionException | CancellationException e) {
+            throw unwrap(e);
+        }
+    }
+
+    /**
+     * Runs a lookup in a calling thread
+     *
+     * @param lookup a lookup to run
+     * @return a completed future of a lookup result
+     */
+    public static <T> CompletableFuture<T> completed(final Callable<T> lookup) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        complete(result, lookup);
+        return result;
+    }
+
+    private static <T> void complete(final CompletableFuture<T> result, final Callable<T> lookup) {
+        try {
+            result.complete(lookup.call());
+        } catch (Exception e) {
+            result.completeExceptionally(e);
+        }
+    }
+
+    private static ExternalDbUnavailableException unwrap(final Exception e) {
+        Throwable cause = e instanceof CancellationException ? e : e.getCause();
+        if (cause instanceof ExternalDbUnavailableException) {
+            return (ExternalDbUnavailableException) cause;
+        }
+        return new ExternalDbUnavailableException(cause != null ? cause.getMessage() : e.getMessage(), cause);
+    }
+
+    private ExecutorService createExecutor(final String threadPrefix) {
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(threads, threads, keepAlive, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueSize), new NamedThreadFactory(threadPrefix));
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+    private CompletableFuture<String> execute(final String location, final Supplier<HttpUriRequest> request) {
+        CompletableFuture<String> result = new CompletableFuture<>();
+        submitAttempt(location, request, 1, result);
+        return result;
+    }
+
+    private void submitAttempt(final String location, final Supplier<HttpUriRequest> request, final int attempt,
+                               final CompletableFuture<String> result) {
+        try {
+            requestExecutor.execute(() -> attempt(location, request, attempt, result));
+        } catch (RejectedExecutionException e) {
+            result.completeExceptionally(
+                    new ExternalDbUnavailableException(String.format(EXCEPTION_MESSAGE, location), e));
+        }
+    }
+
+    private void attempt(final String location, final Supplier<HttpUriRequest> request, final int attempt,
+                         final CompletableFuture<String> result) {
+        if (result.isDone()) {
+            return;
+        }
+        try (CloseableHttpResponse response = httpClient.execute(request.get())) {
+            int status = response.getStatusLine().getStatusCode();
+            if (status == HttpStatus.SC_OK) {
+                LOGGER.debug("HTTP_OK reply from destination server for {}", location);
+                result.complete(readResponse(response.getEntity()));
+                return;
+            }
+            EntityUtils.consume(response.getEntity());
+
+            Long retryAfter = getRetryAfter(response.getFirstHeader(HTTP_HEADER_RETRY_AFTER));
+            if ((status == HTTP_TOO_MANY_REQUESTS || status >= HttpStatus.SC_INTERNAL_SERVER_ERROR
+                    || retryAfter != null) && attempt < maxAttempts) {
+                scheduleRetry(location, request, attempt, result, retryAfter,
+                        String.valueOf(status));
+                return;
+            }
+            LOGGER.error("Unexpected HTTP status: {} for {}", response.getStatusLine(), location);
+            result.completeExceptionally(new ExternalDbUnavailableException(
+                    String.format("Unexpected HTTP status: %d %s for URL %s", status,
+                            response.getStatusLine().getReasonPhrase(), location)));
+        } catch (IOException e) {
+            if (attempt < maxAttempts) {
+                scheduleRetry(location, request, attempt, result, null, e.getMessage());
+            } else {
+                result.completeExceptionally(
+                        new ExternalDbUnavailableException(String.format(EXCEPTION_MESSAGE, location), e));
+            }
+        } catch (RuntimeException e) {
+            result.completeExceptionally(
+                    new ExternalDbUnavailableException(String.format(EXCEPTION_MESSAGE, location), e));
+        }
+    }
+
+    private void scheduleRetry(final String location, final Supplier<HttpUriRequest> request, final int attempt,
+                               final CompletableFuture<String> result, final Long retryAfter,
+                               final String reason) {
+        long delay = getRetryDelay(attempt, retryAfter);
+        LOGGER.info("Retrying request to {} in {} ms ({}), attempt {}", location, delay, reason, attempt + 1);
+        try {
+            retryScheduler.schedule(() -> submitAttempt(location, request, attempt + 1, result),
+                    delay, TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            result.completeExceptionally(
+                    new ExternalDbUnavailableException(String.format(EXCEPTION_MESSAGE, location), e));
+        }
+    }
+
+    /**
+     * Calculates a delay before a next attempt: exponential backoff from a base delay with "equal jitter",
+     * not less than a delay, requested by a remote service
+     */
+    long getRetryDelay(final int attempt, final Long retryAfter) {
+        long backoff = Math.min(maxDelay, baseDelay << Math.min(attempt - 1, MAX_BACKOFF_SHIFT));
+        long delay = backoff / 2 + ThreadLocalRandom.current().nextLong(backoff / 2 + 1);
+        return retryAfter != null ? Math.max(delay, retryAfter) : delay;
+    }
+
+    /**
+     * Parses Retry-After header, that contains either a number of seconds or an HTTP date
+     *
+     * @return a delay in milliseconds or null, if a header is absent
+     */
+    static Long getRetryAfter(final Header header) {
+        if (header == null || StringUtils.isBlank(header.getValue())) {
+            return null;
+        }
+        String value = header.getValue().trim();
+        if (StringUtils.isNumeric(value)) {
+            return Long.parseLong(value) * MILLIS_IN_SECOND;
+        }
+        Date date = DateUtils.parseDate(value);
+        return date != null ? Math.max(0, date.getTime() - System.currentTimeMillis()) : null;
+    }
+
+    /**
+     * Reads a response line by line, line separators are omitted
+     */
+    private static String readResponse(final HttpEntity entity) throws IOException {
+        if (entity == null) {
+            return null;
+        }
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(entity.getContent(), StandardCharsets.UTF_8))) {
+            StringBuilder result = new StringBuilder();
+            String line;
+            while ((line = reader.readLine()) != null) {
+                result.append(line);
+            }
+            return result.toString();
+        }
+    }
+
+    private static final class NamedThreadFactory implements ThreadFactory {
+
+        private final String prefix;
+        private final AtomicInteger counter = new AtomicInteger();
+
+        private NamedThreadFactory(final String prefix) {
+            this.prefix = prefix;
+        }
+
+        @Override
+        public Thread newThread(final Runnable runnable) {
+            Thread thread = new Thread(runnable, prefix + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
@@ -0,0 +1,244 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2016 EPAM Systems
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.epam.catgenome.manager.externaldb;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import javax.annotation.PostConstruct;
+
+import org.apache.commons.codec.digest.DigestUtils;
+import org.apache.commons.io.IOUtils;
+import org.apache.commons.lang3.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.epam.catgenome.util.BoundedDiskCache;
+
+/**
+ * <p>
+ * A disk based cache of raw responses of external databases (NCBI, Ensembl, UniProt, PDB and others), so that
+ * repeated lookups are served locally instead of calling remote services.
+ * </p>
+ * <p>
+ * Responses are keyed by normalized URL: scheme and host are lower cased and query parameters are sorted.
+ * Each response is stored in a separate file together with a time of its loading. A response is valid during
+ * a TTL, configured for its source by host name. Files are kept in a {@link BoundedDiskCache}, that bounds
+ * the total size of cached responses and restores them on startup.
+ * </p>
+ */
+@Service
+public class ExternalDbResponseCache {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ExternalDbResponseCache.class);
+    private static final String CACHE_DIR = "externaldb";
+    private static final int DIR_PREFIX_LENGTH = 2;
+
+    @Value("#{catgenome['externaldb.cache.enabled'] ?: true}")
+    private boolean enabled;
+
+    @Value("#{catgenome['externaldb.cache.path'] ?: null}")
+    private String cachePath;
+
+    @Value("${files.base.directory.path}")
+    private String baseDirPath;
+
+    @Value("#{catgenome['externaldb.cache.max.size'] ?: 100L * 1024 * 1024}")
+    private long maxSize;
+
+    @Value("#{catgenome['externaldb.cache.ttl.default'] ?: 3600}")
+    private long defaultTtl;
+
+    @Value("#{catgenome['externaldb.cache.ttl.ncbi'] ?: 3600}")
+    private long ncbiTtl;
+
+    @Value("#{catgenome['externaldb.cache.ttl.ensembl'] ?: 86400}")
+    private long ensemblTtl;
+
+    @Value("#{catgenome['externaldb.cache.ttl.uniprot'] ?: 86400}")
+    private long uniprotTtl;
+
+    @Value("#{catgenome['externaldb.cache.ttl.pdb'] ?: 86400}")
+    private long pdbTtl;
+
+    private BoundedDiskCache responses;
+    private Map<String, Long> ttlByHost;
+
+    /**
+     * Creates a cache directory and restores an index of previously cached responses
+     */
+    @PostConstruct
+    public void init() {
+        ttlByHost = new LinkedHashMap<>();
+        ttlByHost.put("ncbi.nlm.nih.gov", ncbiTtl);
+        ttlByHost.put("ensembl.org", ensemblTtl);
+        ttlByHost.put("uniprot.org", uniprotTtl);
+        ttlByHost.put("rcsb.org", pdbTtl);
+        if (!enabled) {
+            return;
+        }
+
+        final File cacheDir = new File(StringUtils.isNotBlank(cachePath) ? cachePath
+                : baseDirPath + File.separator + CACHE_DIR);
+        try {
+            responses = new BoundedDiskCache(cacheDir, maxSize, DIR_PREFIX_LENGTH);
+        } catch (IOException e) {
+            LOGGER.warn("Failed to create external DB cache directory " + cacheDir + ", caching is disabled", e);
+            responses = null;
+        }
+    }
+
+    /**
+     * Returns a cached response for a URL, if it is still valid
+     *
+     * @param location a URL with query parameters
+     * @return a response or null if it is not cached or expired
+     */
+    public String get(final String location) {
+        if (responses == null) {
+            return null;
+        }
+        final String normalized = normalize(location);
+        final String key = DigestUtils.sha256Hex(normalized);
+        final File file = responses.get(key);
+        if (file == null) {
+            return null;
+        }
+
+        try (DataInputStream stream = new DataInputStream(new FileInputStream(file))) {
+            final long loadedAt = stream.readLong();
+            final String cachedLocation = stream.readUTF();
+            if (System.currentTimeMillis() - loadedAt > TimeUnit.SECONDS.toMillis(getTtl(location))) {
+                responses.remove(key);
+                return null;
+            }
+            if (!normalized.equals(cachedLocation)) {
+                return null;
+            }
+            final String response = new String(IOUtils.toByteArray(stream), StandardCharsets.UTF_8);
+            // keeps the order of usage for restoring the index after restart
+            if (!file.setLastModified(System.currentTimeMillis())) {
+                LOGGER.debug("Failed to update modification time of {}", file);
+            }
+            return response;
+        } catch (IOException e) {
+            LOGGER.debug("Failed to read a cached response for " + location, e);
+            responses.remove(key);
+            return null;
+        }
+    }
+
+    /**
+     * Saves a response for a URL
+     *
+     * @param location a URL with query parameters
+     * @param response a response of an external database
+     */
+    public void put(final String location, final String response) {
+        if (responses == null || getTtl(location) <= 0) {
+            return;
+        }
+        final String normalized = normalize(location);
+        try {
+            responses.put(DigestUtils.sha256Hex(normalized), stream -> {
+                final DataOutputStream dataStream = new DataOutputStream(stream);
+                dataStream.writeLong(System.currentTimeMillis());
+                dataStream.writeUTF(normalized);
+                dataStream.write(response.getBytes(StandardCharsets.UTF_8));
+                dataStream.flush();
+            });
+        } catch (IOException e) {
+            LOGGER.warn("Failed to cache a response for " + location, e);
+        }
+    }
+
+    /**
+     * Returns a time to live of cached responses from a URL's host in seconds
+     */
+    long getTtl(final String location) {
+        final String host = getHost(location);
+        for (Map.Entry<String, Long> entry : ttlByHost.entrySet()) {
+            if (host.endsWith(entry.getKey())) {
+                return entry.getValue();
+            }
+        }
+        return defaultTtl;
+    }
+
+    /**
+     * @return total size of cached responses in bytes
+     */
+    public long getTotalSize() {
+        return responses == null ? 0 : responses.getTotalSize();
+    }
+
+    /**
+     * Normalizes a URL for use as a cache key: lower cases scheme and host and sorts query parameters,
+     * so that the same request with differently ordered parameters has the same key
+     */
+    static String normalize(final String location) {
+        final int queryStart = location.indexOf('?');
+        final String base = queryStart >= 0 ? location.substring(0, queryStart) : location;
+        String normalizedBase = base;
+        try {
+            final URL url = new URL(base);
+            normalizedBase = url.getProtocol().toLowerCase() + "://" + url.getAuthority().toLowerCase()
+                    + url.getPath();
+        } catch (MalformedURLException e) {
+            LOGGER.debug("Failed to parse URL " + location, e);
+        }
+        if (queryStart < 0 || queryStart == location.length() - 1) {
+            return normalizedBase;
+        }
+
+        final List<String> params = new ArrayList<>(Arrays.asList(location.substring(queryStart + 1).split("&")));
+        params.removeIf(StringUtils::isEmpty);
+        params.sort(Comparator.naturalOrder());
+        return normalizedBase + '?' + String.join("&", params);
+    }
+
+    private static String getHost(final String location) {
+        try {
+            return new URL(location).getHost().toLowerCase();
+        } catch (MalformedURLException e) {
+            return "";
+        }
+    }
+}
@@ -24,56 +24,36 @@
 
 package com.epam.catgenome.manager.externaldb;
 
-import java.io.BufferedReader;
-import java.io.IOException;
-import java.io.InputStream;
-import java.io.InputStreamReader;
-import java.io.OutputStreamWriter;
-import java.net.Authenticator;
-import java.net.HttpURLConnection;
-import java.net.InetSocketAddress;
-import java.net.PasswordAuthentication;
-import java.net.Proxy;
-import java.net.URL;
-import java.nio.charset.Charset;
-import java.util.logging.Logger;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 import org.apache.commons.lang3.StringUtils;
 import org.codehaus.jettison.json.JSONObject;
-import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
 import com.epam.catgenome.exception.ExternalDbUnavailableException;
 
 /**
  * <p>
- * A service class that manages http connections to external databases
+ * A service class that manages http connections to external databases. Requests are performed by a shared
+ * {@link ExternalDbHttpClient}, that reuses connections and retries throttled requests.
  * </p>
  */
 @Service
 public class HttpDataManager {
     private static final String EXCEPTION_MESSAGE = "Couldn't fetch data for URL %s";
-    private static final int MILLIS_IN_SECOND = 1000;
-    private static final String HTTP_HEADER_RETRY_AFTER = "Retry-After";
-    private static final Logger LOGGER = Logger.getLogger(HttpDataManager.class.getName());
-    private static final String CONTENT_TYPE = "Content-Type";
-    private static final String APPLICATION_JSON = "application/json";
-    private static final String WAITING_FORMAT = "Waiting (%d)...";
 
+    @Autowired
+    private ExternalDbHttpClient httpClient;
 
-    @Value("#{catgenome['externaldb.proxy.host'] ?: null}")
-    private String proxyHost;
-    @Value("#{catgenome['externaldb.proxy.port'] ?: null}")
-    private Integer proxyPort;
-    @Value("#{catgenome['externaldb.proxy.user'] ?: null}")
-    private String proxyUser;
-    @Value("#{catgenome['externaldb.proxy.password'] ?: null}")
-    private String proxyPassword;
+    @Autowired(required = false)
+    private ExternalDbResponseCache responseCache;
 
 
     /**
-     * Performs HTTP connection to a given URL and delegates processing of input stream to an abstract
-     * method processStream()
+     * Performs HTTP GET request to a given URL with given parameters. Responses are served from
+     * {@link ExternalDbResponseCache}, while they are valid.
      *
      * @param locationStub target URL stub
      * @return String with data
@@ -81,17 +61,31 @@ public class HttpDataManager {
      */
     public String fetchData(String locationStub, ParameterNameValue[] params)
             throws ExternalDbUnavailableException {
+        return httpClient.await(fetchDataAsync(locationStub, params));
+    }
 
+    /**
+     * Performs HTTP GET request to a given URL with given parameters asynchronously, a calling thread isn't
+     * blocked while waiting for a response
+     *
+     * @param locationStub target URL stub
+     * @return a future of a String with data
+     */
+    public CompletableFuture<String> fetchDataAsync(String locationStub, ParameterNameValue[] params) {
         final String location = getLocationStub(locationStub, params);
 
-        String resultData = getResultFromURL(location);
-
-
-        if (StringUtils.isBlank(resultData)) {
-            throw new ExternalDbUnavailableException(String.format(EXCEPTION_MESSAGE, location));
+        String cachedData = responseCache != null ? responseCache.get(location) : null;
+        if (cachedData != null) {
+            return CompletableFuture.completedFuture(cachedData);
         }
 
-        return resultData;
+        return httpClient.get(location).thenApply(resultData -> {
+            checkResult(location, resultData);
+            if (responseCache != null) {
+                responseCache.put(location, resultData);
+            }
+            return resultData;
+        });
     }
 
     /**
@@ -102,14 +96,19 @@ public class HttpDataManager {
      * @throws ExternalDbUnavailableException
      */
     public String fetchData(String location, JSONObject object) throws ExternalDbUnavailableException {
-        String resultData = getResultFromHttp(location, object);
+        return httpClient.await(httpClient.post(location, object.toString()).thenApply(resultData -> {
+            checkResult(location, resultData);
+            return resultData;
+        }));
+    }
+
+    private void checkResult(String location, String resultData) {
         if (StringUtils.isBlank(resultData)) {
-            throw new ExternalDbUnavailableException(String.format(EXCEPTION_MESSAGE, location));
+            throw new CompletionException(
+                    new ExternalDbUnavailableException(String.format(EXCEPTION_MESSAGE, location)));
         }
-        return resultData;
     }
 
-
     private String getLocationStub(String locationStub, ParameterNameValue[] params) {
         StringBuilder locationBuilder = new StringBuilder(locationStub);
 
@@ -123,159 +122,4 @@ public class HttpDataManager {
         }
         return locationBuilder.toString();
     }
-
-    private String getResultFromURL(final String location) throws ExternalDbUnavailableException {
-
-        HttpURLConnection conn = null;
-        try {
-            conn = createConnection(location);
-            HttpURLConnection.setFollowRedirects(true);
-            conn.setDoInput(true);
-            conn.setRequestProperty(CONTENT_TYPE, APPLICATION_JSON);
-            conn.connect();
-
-            int status = conn.getResponseCode();
-
-            while (true) {
-                long wait = 0;
-                String header = conn.getHeaderField(HTTP_HEADER_RETRY_AFTER);
-
-                if (header != null) {
-                    wait = Integer.valueOf(header);
-                }
-
-                if (wait == 0) {
-                    break;
-                }
-
-                LOGGER.info(String.format(WAITING_FORMAT, wait));
-                conn.disconnect();
-
-                Thread.sleep(wait * MILLIS_IN_SECOND);
-
-                conn = (HttpURLConnection) new URL(location).openConnection();
-                conn.setDoInput(true);
-                conn.connect();
-                status = conn.getResponseCode();
-
-            }
-            return getHttpResult(status, location, conn);
-        } catch (InterruptedException | IOException e) {
-            throw new ExternalDbUnavailableException(String.format(EXCEPTION_MESSAGE, location), e);
-        } finally {
-            if (conn != null) {
-                conn.disconnect();
-            }
-
-            resetProxy();
-        }
-    }
-
-    private void resetProxy() {
-        if (proxyUser != null && proxyPassword != null) {
-            Authenticator.setDefault(null);
-        }
-    }
-
-    private HttpURLConnection createConnection(final String location) throws IOException {
-
-        URL url = new URL(location);
-        HttpURLConnection conn;
-
-        if (proxyHost != null && proxyPort != null) {
-            if (proxyUser != null && proxyPassword != null) {
-                Authenticator authenticator = new Authenticator() {
-                    @Override
-                    public PasswordAuthentication getPasswordAuthentication() {
-                        return new PasswordAuthentication(proxyUser, proxyPassword.toCharArray());
-                    }
-                };
-                Authenticator.setDefault(authenticator);
-            }
-            Proxy proxy = new Proxy(Proxy.Type.HTTP, new InetSocketAddress(proxyHost, proxyPort));
-            conn = (HttpURLConnection) url.openConnection(proxy);
-        } else {
-            conn = (HttpURLConnection) url.openConnection();
-        }
-        return conn;
-    }
-
-    private String getHttpResult(final int status, final String location, final HttpURLConnection conn)
-            throws IOException, ExternalDbUnavailableException {
-        String result;
-        if (status == HttpURLConnection.HTTP_OK) {
-            LOGGER.info("HTTP_OK reply from destination server");
-
-            InputStream inputStream = conn.getInputStream();
-            BufferedReader streamReader = new BufferedReader(new InputStreamReader(inputStream, "UTF-8"));
-            StringBuilder responseStrBuilder = new StringBuilder();
-
-            String inputStr;
-            while ((inputStr = streamReader.readLine()) != null) {
-                responseStrBuilder.append(inputStr);
-            }
-
-            result = responseStrBuilder.toString();
-
-        } else {
-
-            LOGGER.severe("Unexpected HTTP status:" + conn.getResponseMessage() + " for " + location);
-            throw new ExternalDbUnavailableException(
-                    String.format("Unexpected HTTP status: %d %s for URL %s", status,
-                            conn.getResponseMessage(), location));
-
-        }
-        return result;
-    }
-
-    private String getResultFromHttp(final String location, final JSONObject object)
-            throws ExternalDbUnavailableException {
-        HttpURLConnection conn = null;
-        try {
-            URL url = new URL(location);
-
-            conn = (HttpURLConnection) url.openConnection();
-            conn.setDoOutput(true);
-            conn.setRequestMethod("POST");
-            conn.setRequestProperty(CONTENT_TYPE, APPLICATION_JSON);
-
-            OutputStreamWriter stream = new OutputStreamWriter(conn.getOutputStream(), Charset.defaultCharset());
-            stream.write(object.toString());
-            stream.flush();
-
-            int status = conn.getResponseCode();
-
-            while (true) {
-                String header = conn.getHeaderField(HTTP_HEADER_RETRY_AFTER);
-                long wait = 0;
-
-                if (header != null) {
-                    wait = Integer.valueOf(header);
-                }
-
-                if (wait == 0) {
-                    break;
-                }
-
-                LOGGER.info(String.format(WAITING_FORMAT, wait));
-                conn.disconnect();
-
-                Thread.sleep(wait * MILLIS_IN_SECOND);
-
-                conn = (HttpURLConnection) new URL(location).openConnection();
-                conn.setDoInput(true);
-                conn.connect();
-                status = conn.getResponseCode();
-            }
-            return getHttpResult(status, location, conn);
-        } catch (IOException | InterruptedException | ExternalDbUnavailableException e) {
-            throw new ExternalDbUnavailableException(String.format(EXCEPTION_MESSAGE, location), e);
-
-        } finally {
-            if (conn != null) {
-                conn.disconnect();
-            }
-        }
-
-    }
-}
\ No newline at end of file
+}
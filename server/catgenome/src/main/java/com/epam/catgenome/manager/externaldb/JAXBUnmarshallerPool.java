@@ -0,0 +1,94 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2016 EPAM Systems
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.epam.catgenome.manager.externaldb;
+
+import java.io.StringReader;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import javax.xml.bind.JAXBContext;
+import javax.xml.bind.JAXBException;
+import javax.xml.bind.Unmarshaller;
+
+/**
+ * <p>
+ * Keeps a single {@link JAXBContext} per binding package and a pool of {@link Unmarshaller}s for it.
+ * Creating a context introspects all classes of a binding package, so it is done once per package. Unmarshallers
+ * are not thread safe: each one is taken from the pool by a single thread and returned after parsing.
+ * </p>
+ */
+public final class JAXBUnmarshallerPool {
+
+    private static final int MAX_IDLE_UNMARSHALLERS = 16;
+    private static final ConcurrentMap<String, JAXBUnmarshallerPool> POOLS = new ConcurrentHashMap<>();
+
+    private final JAXBContext context;
+    private final BlockingQueue<Unmarshaller> idle = new ArrayBlockingQueue<>(MAX_IDLE_UNMARSHALLERS);
+
+    private JAXBUnmarshallerPool(final JAXBContext context) {
+        this.context = context;
+    }
+
+    /**
+     * Returns a pool for a binding package, creating its {@link JAXBContext} on the first call
+     *
+     * @param contextPath a name of a package with JAXB bindings
+     * @return a shared pool for the package
+     * @throws JAXBException if the context can not be created
+     */
+    public static JAXBUnmarshallerPool forPackage(final String contextPath) throws JAXBException {
+        JAXBUnmarshallerPool pool = POOLS.get(contextPath);
+        if (pool == null) {
+            // a context may be created twice by concurrent first calls, only one of them is kept
+            JAXBUnmarshallerPool newPool = new JAXBUnmarshallerPool(JAXBContext.newInstance(contextPath));
+            pool = POOLS.putIfAbsent(contextPath, newPool);
+            if (pool == null) {
+                pool = newPool;
+            }
+        }
+        return pool;
+    }
+
+    /**
+     * Parses an XML document with a pooled unmarshaller
+     *
+     * @param xml a document to parse
+     * @param type an expected type of the root object
+     * @return the root object or null, if it is not an instance of the expected type
+     * @throws JAXBException if the document can not be parsed
+     */
+    public <T> T unmarshal(final String xml, final Class<T> type) throws JAXBException {
+        Unmarshaller unmarshaller = idle.poll();
+        if (unmarshaller == null) {
+            unmarshaller = context.createUnmarshaller();
+        }
+        final Object result = unmarshaller.unmarshal(new StringReader(xml));
+        // an unmarshaller, that failed to parse a document, is not reused
+        idle.offer(unmarshaller);
+        return type.isInstance(result) ? type.cast(result) : null;
+    }
+}
@@ -24,11 +24,7 @@
 
 package com.epam.catgenome.manager.externaldb;
 
-import java.io.StringReader;
-
-import javax.xml.bind.JAXBContext;
 import javax.xml.bind.JAXBException;
-import javax.xml.bind.Unmarshaller;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
@@ -50,6 +46,9 @@ public class PdbDataManager {
     private static final String RCSB_SERVER = "http://www.rcsb.org/";
     private static final String RCSB_TOOL = "pdb/rest/customReport";
     private static final String RCSB_PDP_MAP_TOOL = "pdb/rest/das/pdb_uniprot_mapping/alignment";
+    private static final String RCSB_BINDINGS_PACKAGE = "com.epam.catgenome.manager.externaldb.bindings.rcsbpbd";
+    private static final String PDB_MAP_BINDINGS_PACKAGE =
+            "com.epam.catgenome.manager.externaldb.bindings.ecsbpdbmap";
 
     @Autowired
     private HttpDataManager httpDataManager;
@@ -72,18 +71,7 @@ public class PdbDataManager {
         String rcsbpbdData = httpDataManager.fetchData(location, params);
 
         try {
-            JAXBContext jaxbContext = JAXBContext.newInstance("com.epam.catgenome.manager.externaldb.bindings.rcsbpbd");
-            Unmarshaller unmarshaller = jaxbContext.createUnmarshaller();
-
-            StringReader reader = new StringReader(rcsbpbdData);
-            Object uniprotObject = unmarshaller.unmarshal(reader);
-
-            Dataset fetchedDatasetData = null;
-            if (uniprotObject instanceof Dataset) {
-                fetchedDatasetData = (Dataset) uniprotObject;
-            }
-
-            return fetchedDatasetData;
+            return JAXBUnmarshallerPool.forPackage(RCSB_BINDINGS_PACKAGE).unmarshal(rcsbpbdData, Dataset.class);
         } catch (JAXBException e) {
             throw new ExternalDbUnavailableException(MessageHelper.getMessage(MessagesConstants
                     .ERROR_UNEXPECTED_FORMAT, location), e);
@@ -106,19 +94,8 @@ public class PdbDataManager {
         String rcsbpbdData = httpDataManager.fetchData(location, params);
 
         try {
-            JAXBContext jaxbContext = JAXBContext
-                    .newInstance("com.epam.catgenome.manager.externaldb.bindings.ecsbpdbmap");
-            Unmarshaller unmarshaller = jaxbContext.createUnmarshaller();
-
-            StringReader reader = new StringReader(rcsbpbdData);
-            Object pdbObject = unmarshaller.unmarshal(reader);
-
-            Dasalignment fetchedDasalignmentData = null;
-            if (pdbObject instanceof Dasalignment) {
-                fetchedDasalignmentData = (Dasalignment) pdbObject;
-            }
-
-            return fetchedDasalignmentData;
+            return JAXBUnmarshallerPool.forPackage(PDB_MAP_BINDINGS_PACKAGE)
+                    .unmarshal(rcsbpbdData, Dasalignment.class);
         } catch (JAXBException e) {
             throw new ExternalDbUnavailableException(MessageHelper.getMessage(MessagesConstants
                     .ERROR_UNEXPECTED_FORMAT, location), e);
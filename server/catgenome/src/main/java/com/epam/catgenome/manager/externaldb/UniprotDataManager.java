@@ -24,11 +24,7 @@
 
 package com.epam.catgenome.manager.externaldb;
 
-import java.io.StringReader;
-
-import javax.xml.bind.JAXBContext;
 import javax.xml.bind.JAXBException;
-import javax.xml.bind.Unmarshaller;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
@@ -48,6 +44,8 @@ public class UniprotDataManager {
 
     private static final String UNIPROT_TOOL = "uniprot";
 
+    private static final String UNIPROT_BINDINGS_PACKAGE = "com.epam.catgenome.manager.externaldb.bindings.uniprot";
+
     private Uniprot fetchedUniprotData = null;
 
     @Autowired
@@ -69,14 +67,10 @@ public class UniprotDataManager {
         String uniprotData = httpDataManager.fetchData(location, params);
 
         try {
-            JAXBContext jaxbContext = JAXBContext.newInstance("com.epam.catgenome.manager.externaldb.bindings.uniprot");
-            Unmarshaller unmarshaller = jaxbContext.createUnmarshaller();
-
-            StringReader reader = new StringReader(uniprotData);
-            Object uniprotObject = unmarshaller.unmarshal(reader);
-
-            if (uniprotObject instanceof Uniprot) {
-                fetchedUniprotData = (Uniprot) uniprotObject;
+            Uniprot uniprot = JAXBUnmarshallerPool.forPackage(UNIPROT_BINDINGS_PACKAGE)
+                    .unmarshal(uniprotData, Uniprot.class);
+            if (uniprot != null) {
+                fetchedUniprotData = uniprot;
             }
 
             return fetchedUniprotData;
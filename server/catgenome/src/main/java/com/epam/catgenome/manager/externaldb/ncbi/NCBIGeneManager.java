@@ -27,6 +27,8 @@ package com.epam.catgenome.manager.externaldb.ncbi;
 import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
 import java.util.stream.Collectors;
 
 import org.apache.commons.lang3.StringUtils;
@@ -40,6 +42,7 @@ import com.epam.catgenome.controller.JsonMapper;
 import com.epam.catgenome.controller.vo.externaldb.NCBIGeneVO;
 import com.epam.catgenome.controller.vo.externaldb.NCBISummaryVO;
 import com.epam.catgenome.exception.ExternalDbUnavailableException;
+import com.epam.catgenome.manager.externaldb.ExternalDbHttpClient;
 import com.epam.catgenome.manager.externaldb.ncbi.parser.NCBIGeneInfoParser;
 import com.epam.catgenome.manager.externaldb.ncbi.util.NCBIDatabase;
 import com.epam.catgenome.manager.externaldb.ncbi.util.NCBIUtility;
@@ -64,6 +67,9 @@ public class NCBIGeneManager {
     @Autowired
     private NCBIGeneInfoParser geneInfoParser;
 
+    @Autowired(required = false)
+    private ExternalDbHttpClient httpClient;
+
     private static final int NUMBER_OF_PUBLICATIONS = 5;
     private static final String UIDS = "uids";
 
@@ -90,22 +96,21 @@ public class NCBIGeneManager {
         if (StringUtils.isNotBlank(id)) {
             String realID = fetchExternalId(id);
 
-            String geneInfoXml = ncbiAuxiliaryManager.fetchXmlById(NCBIDatabase.GENE.name(), realID, null);
-            ncbiGeneVO = geneInfoParser.parseGeneInfo(geneInfoXml);
+            // gene info and linked entries are independent, so they are requested concurrently
+            CompletableFuture<String> geneInfo = lookupAsync(() ->
+                    ncbiAuxiliaryManager.fetchXmlById(NCBIDatabase.GENE.name(), realID, null));
+            CompletableFuture<JsonNode> pubmed = lookupAsync(() ->
+                    fetchLinkedSummary(realID, NCBIDatabase.PUBMED, "gene_pubmed"));
+            CompletableFuture<JsonNode> biosystems = lookupAsync(() ->
+                    fetchLinkedSummary(realID, NCBIDatabase.BIOSYSTEMS, "gene_biosystems"));
+            CompletableFuture<JsonNode> homologs = lookupAsync(() ->
+                    fetchLinkedSummary(realID, NCBIDatabase.HOMOLOGENE, "gene_homologene"));
+
+            ncbiGeneVO = geneInfoParser.parseGeneInfo(ExternalDbHttpClient.join(geneInfo));
             ncbiGeneVO.setLinkToCitations(String.format(NCBI_PUBMED_FULL_URL, ncbiGeneVO.getGeneId()));
             ncbiGeneVO.setGeneLink(String.format(NCBI_GENE_LINK, ncbiGeneVO.getGeneId()));
-            String pubmedQueryXml =
-                    ncbiAuxiliaryManager.link(realID,
-                            NCBIDatabase.GENE.name(), NCBIDatabase.PUBMED.name(), "gene_pubmed");
-
-
-            Pair<String, String> stringStringPair =
-                    geneInfoParser.parseHistoryResponse(pubmedQueryXml, NCBIUtility.NCBI_LINK);
-
-            String pubmedHistoryQuery = stringStringPair.getLeft();
-            String pubmedHistoryWebenv = stringStringPair.getRight();
 
-            JsonNode pubmedEntries = ncbiAuxiliaryManager.summaryWithHistory(pubmedHistoryQuery, pubmedHistoryWebenv);
+            JsonNode pubmedEntries = ExternalDbHttpClient.join(pubmed);
             JsonNode pubmedResultRoot = pubmedEntries.path(RESULT_PATH).path(UIDS);
             try {
                 parseJsonFromPubmed(pubmedResultRoot, pubmedEntries, ncbiGeneVO);
@@ -114,17 +119,7 @@ public class NCBIGeneManager {
                         .ERROR_NO_RESULT_BY_EXTERNAL_DB), e);
             }
 
-            String biosystemsQueryXml =
-                    ncbiAuxiliaryManager.link(realID,
-                            NCBIDatabase.GENE.name(), NCBIDatabase.BIOSYSTEMS.name(), "gene_biosystems");
-            Pair<String, String> biosystemsParams =
-                    geneInfoParser.parseHistoryResponse(biosystemsQueryXml, NCBIUtility.NCBI_LINK);
-
-            String biosystemsHistoryQuery = biosystemsParams.getLeft();
-            String biosystemsHistoryWebenv = biosystemsParams.getRight();
-
-            JsonNode biosystemsEntries =
-                    ncbiAuxiliaryManager.summaryWithHistory(biosystemsHistoryQuery, biosystemsHistoryWebenv);
+            JsonNode biosystemsEntries = ExternalDbHttpClient.join(biosystems);
             JsonNode biosystemsResultRoot = biosystemsEntries.path(RESULT_PATH).path(UIDS);
             try {
                 parseJsonFromBio(biosystemsResultRoot, biosystemsEntries, ncbiGeneVO);
@@ -133,16 +128,7 @@ public class NCBIGeneManager {
                         .ERROR_NO_RESULT_BY_EXTERNAL_DB), e);
             }
 
-            String homologsQueryXml =
-                    ncbiAuxiliaryManager.link(realID,
-                            NCBIDatabase.GENE.name(), NCBIDatabase.HOMOLOGENE.name(), "gene_homologene");
-            Pair<String, String> homologsParams =
-                    geneInfoParser.parseHistoryResponse(homologsQueryXml, NCBIUtility.NCBI_LINK);
-            String homologsQuery = homologsParams.getLeft();
-            String homologsWebenv = homologsParams.getRight();
-
-            JsonNode homologEntries =
-                    ncbiAuxiliaryManager.summaryWithHistory(homologsQuery, homologsWebenv);
+            JsonNode homologEntries = ExternalDbHttpClient.join(homologs);
             JsonNode homologsResultRoot = homologEntries.path(RESULT_PATH).path(UIDS);
             try {
                 parseJsonFromHomolog(homologsResultRoot, homologEntries, ncbiGeneVO);
@@ -155,6 +141,20 @@ public class NCBIGeneManager {
         return ncbiGeneVO;
     }
 
+    /**
+     * Links a gene to entries of a target database and fetches their summary using NCBI history server
+     */
+    private JsonNode fetchLinkedSummary(final String geneId, final NCBIDatabase targetDb, final String linkName)
+            throws ExternalDbUnavailableException {
+        String queryXml = ncbiAuxiliaryManager.link(geneId, NCBIDatabase.GENE.name(), targetDb.name(), linkName);
+        Pair<String, String> historyParams = geneInfoParser.parseHistoryResponse(queryXml, NCBIUtility.NCBI_LINK);
+        return ncbiAuxiliaryManager.summaryWithHistory(historyParams.getLeft(), historyParams.getRight());
+    }
+
+    private <T> CompletableFuture<T> lookupAsync(final Callable<T> lookup) {
+        return httpClient != null ? httpClient.submit(lookup) : ExternalDbHttpClient.completed(lookup);
+    }
+
     private String fetchExternalId(String id) throws ExternalDbUnavailableException {
         String externalID = id;
         // if ID contains literals then we consider this external ID and perform search
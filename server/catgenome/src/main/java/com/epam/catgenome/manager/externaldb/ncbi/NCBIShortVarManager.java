@@ -25,14 +25,13 @@
 package com.epam.catgenome.manager.externaldb.ncbi;
 
 import java.io.IOException;
-import java.io.StringReader;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
 
-import javax.xml.bind.JAXBContext;
 import javax.xml.bind.JAXBException;
-import javax.xml.bind.Unmarshaller;
 
 import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.lang3.tuple.Pair;
@@ -49,6 +48,8 @@ import com.epam.catgenome.entity.vcf.GenotypeData;
 import com.epam.catgenome.entity.vcf.Variation;
 import com.epam.catgenome.entity.vcf.VariationType;
 import com.epam.catgenome.exception.ExternalDbUnavailableException;
+import com.epam.catgenome.manager.externaldb.ExternalDbHttpClient;
+import com.epam.catgenome.manager.externaldb.JAXBUnmarshallerPool;
 import com.epam.catgenome.manager.externaldb.bindings.dbsnp.Assembly;
 import com.epam.catgenome.manager.externaldb.bindings.dbsnp.Component;
 import com.epam.catgenome.manager.externaldb.bindings.dbsnp.ExchangeSet;
@@ -69,6 +70,7 @@ import com.fasterxml.jackson.databind.JsonNode;
 public class NCBIShortVarManager {
 
     private static final int MAX_RESULT = 20;
+    private static final String DBSNP_BINDINGS_PACKAGE = "com.epam.catgenome.manager.externaldb.bindings.dbsnp";
 
     private NCBIGeneInfoParser ncbiGeneInfoParser = new NCBIGeneInfoParser();
 
@@ -78,6 +80,9 @@ public class NCBIShortVarManager {
     @Autowired
     private NCBIAuxiliaryManager ncbiAuxiliaryManager;
 
+    @Autowired(required = false)
+    private ExternalDbHttpClient httpClient;
+
     /**
      * Retrieves variation info from multiple NCBI databases
      *
@@ -92,31 +97,41 @@ public class NCBIShortVarManager {
         NCBIVariationVO result = new NCBIVariationVO();
         NCBIShortVarVO snp = this.fetchVariationById(id);
 
+        // assembly, clinical and taxonomy info are independent, so they are requested concurrently
         String contigLabel = snp.getContigLabel();
+        CompletableFuture<String> assembly = StringUtils.isNotBlank(contigLabel) ?
+                lookupAsync(() -> fetchAssemblyNumber(contigLabel)) : CompletableFuture.completedFuture(null);
+        CompletableFuture<NCBIClinVarVO> clinVar = StringUtils.isNotBlank(snp.getClinicalSignificance()) ?
+                lookupAsync(() -> ncbiClinVarManager.fetchVariationById(id)) : CompletableFuture.completedFuture(null);
+        String taxId = snp.getTaxId();
+        CompletableFuture<NCBITaxonomyVO> taxonomy = lookupAsync(() ->
+                ncbiAuxiliaryManager.fetchTaxonomyInfoById(taxId));
 
-        if (StringUtils.isNotBlank(contigLabel)) {
-            String annotationId = ncbiAuxiliaryManager.searchDbForId("annotinfo", contigLabel);
-            if (StringUtils.isNotBlank(annotationId)) {
-                JsonNode jsonNode = ncbiAuxiliaryManager.fetchAnnotationInfoById(annotationId);
-                String annotreleaseid = jsonNode.get("annotreleaseid").toString();
-                snp.setAssemblyNumber(annotreleaseid);
-            }
+        String assemblyNumber = ExternalDbHttpClient.join(assembly);
+        if (assemblyNumber != null) {
+            snp.setAssemblyNumber(assemblyNumber);
         }
-
         result.setNcbiShortVar(snp);
 
-        if (StringUtils.isNotBlank(snp.getClinicalSignificance())) {
-            NCBIClinVarVO ncbiClinVarVO = ncbiClinVarManager.fetchVariationById(id);
+        NCBIClinVarVO ncbiClinVarVO = ExternalDbHttpClient.join(clinVar);
+        if (ncbiClinVarVO != null) {
             result.setNcbiClinVar(ncbiClinVarVO);
         }
 
-        String taxId = snp.getTaxId();
-        NCBITaxonomyVO ncbiTaxonomyVO = ncbiAuxiliaryManager.fetchTaxonomyInfoById(taxId);
-        result.setNcbiTaxonomy(ncbiTaxonomyVO);
+        result.setNcbiTaxonomy(ExternalDbHttpClient.join(taxonomy));
 
         return result;
     }
 
+    private String fetchAssemblyNumber(final String contigLabel) throws ExternalDbUnavailableException {
+        String annotationId = ncbiAuxiliaryManager.searchDbForId("annotinfo", contigLabel);
+        if (StringUtils.isBlank(annotationId)) {
+            return null;
+        }
+        JsonNode jsonNode = ncbiAuxiliaryManager.fetchAnnotationInfoById(annotationId);
+        return jsonNode.get("annotreleaseid").toString();
+    }
+
     /**
      * Retrieves variation info from NCBI's dbSNP
      *
@@ -126,7 +141,14 @@ public class NCBIShortVarManager {
      */
     public NCBIShortVarVO fetchVariationById(String id) throws ExternalDbUnavailableException {
 
-        JsonNode dbSnpSummary = ncbiAuxiliaryManager.summaryEntityById(NCBIDatabase.SNP.name(), id);
+        CompletableFuture<JsonNode> summary = lookupAsync(() ->
+                ncbiAuxiliaryManager.summaryEntityById(NCBIDatabase.SNP.name(), id));
+        CompletableFuture<String> fasta = lookupAsync(() ->
+                ncbiAuxiliaryManager.fetchTextById(NCBIDatabase.SNP.name(), id, "fasta"));
+        CompletableFuture<String> dbSnpFetchXml = lookupAsync(() ->
+                ncbiAuxiliaryManager.fetchXmlById(NCBIDatabase.SNP.name(), id, null));
+
+        JsonNode dbSnpSummary = ExternalDbHttpClient.join(summary);
         NCBIShortVarVO shortVarVO;
         try {
             shortVarVO = ncbiAuxiliaryManager.getMapper().treeToValue(dbSnpSummary, NCBIShortVarVO.class);
@@ -135,11 +157,9 @@ public class NCBIShortVarManager {
                     .ERROR_NO_RESULT_BY_EXTERNAL_DB), e);
         }
 
-        String fasta = ncbiAuxiliaryManager.fetchTextById(NCBIDatabase.SNP.name(), id, "fasta");
-        shortVarVO.setFasta(fasta);
+        shortVarVO.setFasta(ExternalDbHttpClient.join(fasta));
 
-        String dbSnpFetchXml = ncbiAuxiliaryManager.fetchXmlById(NCBIDatabase.SNP.name(), id, null);
-        ncbiGeneInfoParser.parseSnpInfo(dbSnpFetchXml, shortVarVO);
+        ncbiGeneInfoParser.parseSnpInfo(ExternalDbHttpClient.join(dbSnpFetchXml), shortVarVO);
 
         return shortVarVO;
     }
@@ -170,26 +190,21 @@ public class NCBIShortVarManager {
 
         String dataXml = ncbiAuxiliaryManager.fetchWithHistory(queryKey, webEnv, NCBIDatabase.SNP);
 
-        ExchangeSet snpResultJaxb = null;
+        ExchangeSet snpResultJaxb;
 
         try {
-
-            JAXBContext jaxbContext = JAXBContext.newInstance("com.epam.catgenome.manager.externaldb.bindings.dbsnp");
-            Unmarshaller unmarshaller = jaxbContext.createUnmarshaller();
-
-            StringReader reader = new StringReader(dataXml);
-            Object uniprotObject = unmarshaller.unmarshal(reader);
-
-            if (uniprotObject instanceof ExchangeSet) {
-                snpResultJaxb = (ExchangeSet) uniprotObject;
-            }
-
+            snpResultJaxb = JAXBUnmarshallerPool.forPackage(DBSNP_BINDINGS_PACKAGE)
+                    .unmarshal(dataXml, ExchangeSet.class);
         } catch (JAXBException e) {
             throw new ExternalDbUnavailableException("Error parsing ncbi snp response", e);
         }
         return getResultList(snpResultJaxb);
     }
 
+    private <T> CompletableFuture<T> lookupAsync(final Callable<T> lookup) {
+        return httpClient != null ? httpClient.submit(lookup) : ExternalDbHttpClient.completed(lookup);
+    }
+
     /**
      * Converts NCBI variation type to NGGB variation type
      *
@@ -222,13 +222,15 @@ public class NCBIGeneInfoParser {
 
             String pubmedHistoryQuery;
             String pubmedHistoryWebenv;
+            // history responses are parsed concurrently by NCBI lookups, XPath objects aren't thread safe
+            XPath historyXPath = XPathFactory.newInstance().newXPath();
 
             if (NCBIUtility.NCBI_LINK == utility) {
-                pubmedHistoryQuery = xPath.evaluate(ELINK_QUERY_XPATH, xmlDocument);
-                pubmedHistoryWebenv = xPath.evaluate(ELINK_WEBENV_XPATH, xmlDocument);
+                pubmedHistoryQuery = historyXPath.evaluate(ELINK_QUERY_XPATH, xmlDocument);
+                pubmedHistoryWebenv = historyXPath.evaluate(ELINK_WEBENV_XPATH, xmlDocument);
             } else if (NCBIUtility.NCBI_SEARCH == utility) {
-                pubmedHistoryQuery = xPath.evaluate(ESEARCH_QUERY_XPATH, xmlDocument);
-                pubmedHistoryWebenv = xPath.evaluate(ESEARCH_WEBENV_XPATH, xmlDocument);
+                pubmedHistoryQuery = historyXPath.evaluate(ESEARCH_QUERY_XPATH, xmlDocument);
+                pubmedHistoryWebenv = historyXPath.evaluate(ESEARCH_WEBENV_XPATH, xmlDocument);
             } else {
                 pubmedHistoryQuery = StringUtils.EMPTY;
                 pubmedHistoryWebenv = StringUtils.EMPTY;
@@ -42,6 +42,8 @@ import com.epam.catgenome.dao.project.ProjectDao;
 import com.epam.catgenome.entity.BaseEntity;
 import com.epam.catgenome.entity.gene.GeneFile;
 import com.epam.catgenome.entity.project.Project;
+import com.epam.catgenome.manager.MetadataCacheManager;
+import com.epam.catgenome.manager.MetadataCacheManager.MetadataType;
 
 /**
  * Source:      GeneFileManager
@@ -69,6 +71,9 @@ public class GeneFileManager {
     @Autowired
     private ReferenceGenomeDao referenceGenomeDao;
 
+    @Autowired
+    private MetadataCacheManager metadataCacheManager;
+
     /**
      * Persists {@code GeneFile} record to the database
      *
@@ -77,6 +82,7 @@ public class GeneFileManager {
     @Transactional(propagation = Propagation.REQUIRED)
     public void createGeneFile(GeneFile geneFile) {
         geneFileDao.createGeneFile(geneFile);
+        metadataCacheManager.evict(MetadataType.GENE, geneFile.getId());
     }
 
     /**
@@ -107,6 +113,7 @@ public class GeneFileManager {
                         .collect(Collectors.joining(", "))));
 
         geneFileDao.deleteGeneFile(geneFile.getId());
+        metadataCacheManager.evict(MetadataType.GENE, geneFile.getId());
         biologicalDataItemDao.deleteBiologicalDataItem(geneFile.getIndex().getId());
         biologicalDataItemDao.deleteBiologicalDataItem(geneFile.getBioDataItemId());
     }
@@ -119,7 +126,8 @@ public class GeneFileManager {
      */
     @Transactional(propagation = Propagation.SUPPORTS)
     public GeneFile loadGeneFile(long geneFileId) {
-        GeneFile geneFile = geneFileDao.loadGeneFile(geneFileId);
+        GeneFile geneFile = metadataCacheManager.get(MetadataType.GENE, geneFileId,
+            () -> geneFileDao.loadGeneFile(geneFileId));
         Assert.notNull(geneFile, MessageHelper.getMessage(MessagesConstants.ERROR_FILE_NOT_FOUND, geneFileId));
         return geneFile;
     }
@@ -62,6 +62,7 @@ import com.epam.catgenome.manager.FileManager;
 import com.epam.catgenome.manager.gene.parser.GeneFeature;
 import com.epam.catgenome.manager.gene.parser.GffCodec;
 import com.epam.catgenome.manager.reference.ReferenceGenomeManager;
+import com.epam.catgenome.manager.registration.RegistrationProgress;
 import com.epam.catgenome.util.AuthUtils;
 import com.epam.catgenome.util.IndexUtils;
 import com.epam.catgenome.util.PositionalOutputStream;
@@ -200,6 +201,7 @@ public class GeneRegisterer {
             final long filePointer = iterator.getPosition();
             //add the feature to the index
             feature = (GeneFeature) iterator.next();
+            RegistrationProgress.update(feature.getContig(), feature.getStart());
 
             if (firstFeature == null) {
                 firstFeature = feature;
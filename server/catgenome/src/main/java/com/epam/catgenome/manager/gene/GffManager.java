@@ -48,6 +48,8 @@ import com.epam.catgenome.exception.HistogramReadingException;
 import com.epam.catgenome.exception.HistogramWritingException;
 import com.epam.catgenome.exception.RegistrationException;
 import com.epam.catgenome.manager.gene.parser.GffCodec;
+import com.epam.catgenome.manager.metrics.RequestMetrics;
+import com.epam.catgenome.manager.metrics.TrackPhase;
 import htsjdk.tribble.AsciiFeatureCodec;
 import htsjdk.tribble.FeatureReader;
 import org.apache.commons.collections4.CollectionUtils;
@@ -107,6 +109,7 @@ import com.epam.catgenome.manager.gene.reader.AbstractGeneReader;
 import com.epam.catgenome.manager.reference.ReferenceGenomeManager;
 import com.epam.catgenome.manager.parallel.ParallelTaskExecutionUtils;
 import com.epam.catgenome.manager.parallel.TaskExecutorService;
+import com.epam.catgenome.manager.protein.ProteinSequenceCacheManager;
 import com.epam.catgenome.util.AuthUtils;
 import com.epam.catgenome.util.HistogramUtils;
 import com.epam.catgenome.util.IOHelper;
@@ -162,6 +165,9 @@ public class GffManager {
     @Autowired
     private FeatureIndexManager featureIndexManager;
 
+    @Autowired
+    private ProteinSequenceCacheManager proteinSequenceCacheManager;
+
     @Autowired
     private TaskExecutorService taskExecutorService;
 
@@ -384,6 +390,7 @@ public class GffManager {
 
         geneFileManager.deleteGeneFile(fileToDelete);
         fileManager.deleteFeatureFileDirectory(fileToDelete);
+        proteinSequenceCacheManager.evictGeneFile(geneFileId);
 
         return fileToDelete;
     }
@@ -441,10 +448,13 @@ public class GffManager {
             return track;
         }
 
+        // genes are read in parallel by sub-tasks, so opening, querying and decoding are measured together
+        final long decodeTime = System.nanoTime();
         AbstractGeneReader gtfReader = AbstractGeneReader.createGeneReader(taskExecutorService.getExecutorService(),
                 fileManager, geneFile);
         List<Gene> notSyncGenes = gtfReader.readGenesFromGeneFile(track, chromosome, collapse,
                 taskExecutorService.getTaskNumberOfThreads());
+        RequestMetrics.record(TrackPhase.DECODE, decodeTime);
 
         track.setBlocks(notSyncGenes);
         return track;
@@ -740,8 +750,7 @@ public class GffManager {
             callables.add(() -> readHistogramPortion(track, geneFile, chromosome, GeneFileType.ORIGINAL, portion));
         }
 
-        final List<Wig> newHistogram =
-                HistogramUtils.executeHistogramCreation(taskExecutorService.getExecutorService(), callables);
+        final List<Wig> newHistogram = HistogramUtils.executeHistogramCreation(taskExecutorService, callables);
         final double time2 = Utils.getSystemTimeMilliseconds();
         LOGGER.debug("Reading histogram, took {} ms", time2 - time1);
 
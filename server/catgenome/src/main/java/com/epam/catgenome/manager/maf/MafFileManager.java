@@ -41,6 +41,8 @@ import com.epam.catgenome.dao.project.ProjectDao;
 import com.epam.catgenome.entity.BaseEntity;
 import com.epam.catgenome.entity.maf.MafFile;
 import com.epam.catgenome.entity.project.Project;
+import com.epam.catgenome.manager.MetadataCacheManager;
+import com.epam.catgenome.manager.MetadataCacheManager.MetadataType;
 
 /**
  Provides service for managing {@code MafFile} in the system
@@ -56,6 +58,9 @@ public class MafFileManager {
     @Autowired
     private ProjectDao projectDao;
 
+    @Autowired
+    private MetadataCacheManager metadataCacheManager;
+
     /**
      * Saves a {@code MafFile} in the system
      * @param mafFile instance to save
@@ -63,6 +68,7 @@ public class MafFileManager {
     @Transactional(propagation = Propagation.REQUIRED)
     public void createMafFile(MafFile mafFile) {
         mafFileDao.createMafFile(mafFile);
+        metadataCacheManager.evict(MetadataType.MAF, mafFile.getId());
     }
 
     /**
@@ -72,7 +78,7 @@ public class MafFileManager {
      */
     @Transactional(propagation = Propagation.SUPPORTS)
     public MafFile loadMafFile(long mafFileId) {
-        MafFile mafFile = mafFileDao.loadMafFile(mafFileId);
+        MafFile mafFile = loadMafFileNullable(mafFileId);
         Assert.notNull(mafFile, "MAF file with requested ID not found: " + mafFileId);
         return mafFile;
     }
@@ -84,8 +90,7 @@ public class MafFileManager {
      */
     @Transactional(propagation = Propagation.SUPPORTS)
     public MafFile loadMafFileNullable(long mafFileId) {
-        MafFile mafFile = mafFileDao.loadMafFile(mafFileId);
-        return mafFile;
+        return metadataCacheManager.get(MetadataType.MAF, mafFileId, () -> mafFileDao.loadMafFile(mafFileId));
     }
 
     /**
@@ -118,6 +123,7 @@ public class MafFileManager {
                 MessagesConstants.ERROR_FILE_IN_USE, mafFile.getName(), mafFile.getId(),
                 projectsWhereFileInUse.stream().map(BaseEntity::getName).collect(Collectors.joining(", "))));
         mafFileDao.deleteMafFile(mafFile.getId());
+        metadataCacheManager.evict(MetadataType.MAF, mafFile.getId());
         biologicalDataItemDao.deleteBiologicalDataItem(mafFile.getIndex().getId());
         biologicalDataItemDao.deleteBiologicalDataItem(mafFile.getBioDataItemId());
     }
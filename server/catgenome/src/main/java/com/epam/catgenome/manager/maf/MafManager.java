@@ -30,18 +30,26 @@ import static com.epam.catgenome.constant.MessagesConstants.ERROR_EMPTY_FOLDER;
 import java.io.BufferedWriter;
 import java.io.File;
 import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
 import java.security.NoSuchAlgorithmException;
 import java.util.ArrayList;
-import java.util.Collections;
 import java.util.Date;
 import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
 import java.util.stream.Collectors;
 
 import org.apache.commons.io.FilenameUtils;
+import org.apache.commons.io.IOUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.util.Assert;
 
@@ -56,17 +64,22 @@ import com.epam.catgenome.entity.track.Track;
 import com.epam.catgenome.exception.RegistrationException;
 import com.epam.catgenome.manager.BiologicalDataItemManager;
 import com.epam.catgenome.manager.DownloadFileManager;
+import com.epam.catgenome.manager.FeatureReaderManager;
 import com.epam.catgenome.manager.FileManager;
 import com.epam.catgenome.manager.TrackHelper;
 import com.epam.catgenome.manager.maf.parser.MafCodec;
 import com.epam.catgenome.manager.maf.parser.MafFeature;
+import com.epam.catgenome.manager.parallel.TaskExecutorService;
+import com.epam.catgenome.manager.parallel.TaskPriority;
 import com.epam.catgenome.manager.reference.ReferenceGenomeManager;
 import com.epam.catgenome.util.AuthUtils;
 import com.epam.catgenome.util.IOHelper;
 import com.epam.catgenome.util.Utils;
 import com.epam.catgenome.util.comparator.FeatureComparator;
+import com.epam.catgenome.util.sort.MafSorter;
 import htsjdk.samtools.util.CloseableIterator;
 import htsjdk.tribble.AbstractFeatureReader;
+import htsjdk.tribble.TribbleException;
 import htsjdk.tribble.readers.LineIterator;
 
 /**
@@ -92,7 +105,18 @@ public class MafManager {
     @Autowired
     private DownloadFileManager downloadFileManager;
 
+    @Autowired
+    private FeatureReaderManager featureReaderManager;
+
+    @Autowired
+    private TaskExecutorService taskExecutorService;
+
+    @Value("#{catgenome['files.maf.sort.max.memory'] ?: " + DEFAULT_SORT_MAX_MEMORY + "}")
+    private int sortMaxMemory;
+
     private static final Logger LOGGER = LoggerFactory.getLogger(MafManager.class);
+    private static final int DEFAULT_SORT_MAX_MEMORY = 500;
+    private static final String MAF_PART_EXTENSION = ".part";
 
     /**
      * Registers a MAF file or a directory with MAF files
@@ -178,6 +202,7 @@ public class MafManager {
         Assert.notNull(fileToDelete, MessagesConstants.ERROR_NO_SUCH_FILE);
 
         mafFileManager.deleteMafFile(fileToDelete);
+        featureReaderManager.evict(fileToDelete);
         fileManager.deleteFeatureFileDirectory(fileToDelete);
 
         return fileToDelete;
@@ -186,6 +211,7 @@ public class MafManager {
     public MafFile updateMafFile(long mafFileId) throws IOException {
         LOGGER.debug("Updating MAF file " + mafFileId);
         MafFile mafFile = mafFileManager.loadMafFile(mafFileId);
+        featureReaderManager.evict(mafFile);
         fileManager.deleteFeatureFileDirectory(mafFile);
 
         File file = new File(mafFile.getRealPath());
@@ -203,16 +229,9 @@ public class MafManager {
         MafFile mafFile = mafFileManager.loadMafFile(track.getId());
 
         double time1 = Utils.getSystemTimeMilliseconds();
-        try (AbstractFeatureReader<MafFeature, LineIterator> reader = fileManager.makeMafReader(mafFile)) {
-            CloseableIterator<MafFeature> iterator = reader.query(chromosome.getName(), track.getStartIndex(),
-                    track.getEndIndex());
-            if (!iterator.hasNext()) {
-                iterator = reader.query(Utils.changeChromosomeName(chromosome.getName()), track.getStartIndex(),
-                        track.getEndIndex());
-            }
-
-            track.setBlocks(iterator.stream().map(MafRecord::new).collect(Collectors.toList()));
-        }
+        List<MafFeature> features = featureReaderManager.loadFeatures(mafFile, chromosome.getName(),
+                track.getStartIndex(), track.getEndIndex(), () -> fileManager.makeMafReader(mafFile));
+        track.setBlocks(features.stream().map(MafRecord::new).collect(Collectors.toList()));
         double time2 = Utils.getSystemTimeMilliseconds();
         LOGGER.debug("Reading records from MAF file, took {} ms", time2 - time1);
         return track;
@@ -246,26 +265,22 @@ public class MafManager {
         Reference reference = referenceGenomeManager.loadReferenceGenome(mafFile.getReferenceId());
         try (BufferedWriter writer = fileManager.makeMafFileWriter(mafFile)) {
             createMafBioItem(mafFile);
+            List<File> mafFiles = new ArrayList<>();
             for (File f : directory.listFiles()) {
-                if (f.getAbsolutePath().endsWith(MafCodec.MAF_EXTENSION) ||
-                        f.getAbsolutePath().endsWith(MafCodec.MAF_COMPRESSED_EXTENSION)) {
-                    fileManager.makeMafTempIndex(f, mafFile);
+                if (isMafFile(f)) {
+                    mafFiles.add(prepareMafFile(f, mafFile));
                 }
             }
-            for (Chromosome chromosome : reference.getChromosomes()) {
-                List<MafFeature> currChrFeatures = new ArrayList<>();
-                LOGGER.debug("Reading MAF records for chromosome {}", chromosome.getName());
-                for (File f : directory.listFiles()) {
-                    addFeaturesFromFile(mafFile, chromosome, currChrFeatures, f);
+
+            File[] parts = mergeChromosomes(mafFile, mafFiles, reference.getChromosomes());
+            for (File part : parts) {
+                if (part == null) {
+                    continue;
                 }
-                LOGGER.debug("Sorting MAF records for chromosome {}", chromosome.getName());
-                Collections.sort(currChrFeatures, new FeatureComparator());
-                LOGGER.debug("Writing MAF records for chromosome {}", chromosome.getName());
-                for (MafFeature feature : currChrFeatures) {
-                    writer.write(feature.toBigMafString());
-                    writer.newLine();
+                try (Reader reader = Files.newBufferedReader(part.toPath(), Charset.defaultCharset())) {
+                    IOUtils.copy(reader, writer);
                 }
-                writer.flush();
+                Files.delete(part.toPath());
             }
             writer.flush();
         } finally {
@@ -274,24 +289,159 @@ public class MafManager {
         fileManager.makeBigMafIndex(mafFile);
     }
 
-    private void addFeaturesFromFile(MafFile mafFile, Chromosome chromosome,
-            List<MafFeature> currChrFeatures, File f) throws IOException {
-        if (f.getAbsolutePath().endsWith(MafCodec.MAF_EXTENSION) ||
-                f.getAbsolutePath().endsWith(MafCodec.MAF_COMPRESSED_EXTENSION)) {
-            File indexFile = fileManager.getMafTempIndex(f, mafFile);
-            MafCodec mafCodec = new MafCodec(f.getName());
-
-            try (AbstractFeatureReader<MafFeature, LineIterator> reader = AbstractFeatureReader
-                    .getFeatureReader(f.getAbsolutePath(), indexFile.getAbsolutePath(), mafCodec, true)) {
-                CloseableIterator<MafFeature> iterator = reader.query(chromosome.getName(), 1,
-                        chromosome.getSize());
-                if (!iterator.hasNext()) {
-                    iterator = reader.query(Utils.changeChromosomeName(chromosome.getName()), 1,
-                            chromosome.getSize());
+    private static boolean isMafFile(File f) {
+        return f.getAbsolutePath().endsWith(MafCodec.MAF_EXTENSION) ||
+                f.getAbsolutePath().endsWith(MafCodec.MAF_COMPRESSED_EXTENSION);
+    }
+
+    /**
+     * Creates a temporary index for a MAF file. If the file isn't sorted, it is sorted into the temporary
+     * directory first, keeping the original file name, since a sample name is taken from it
+     * @return a file to read MAF records from during merging
+     */
+    private File prepareMafFile(File f, MafFile mafFile) throws IOException {
+        try {
+            fileManager.makeMafTempIndex(f, mafFile);
+            return f;
+        } catch (TribbleException | IllegalArgumentException e) {
+            LOGGER.debug("MAF file {} is not sorted, sorting it before merge: {}", f.getName(), e.getMessage());
+        }
+
+        File sorted = fileManager.getMafTempFile(f.getName(), mafFile);
+        new MafSorter(f, sorted, sorted.getParentFile()).run(sortMaxMemory);
+        fileManager.makeMafTempIndex(sorted, mafFile);
+        return sorted;
+    }
+
+    /**
+     * Merges MAF records chromosome by chromosome. Chromosomes are distributed between tasks of the shared
+     * executor, each chromosome is written to a separate temporary part file.
+     * @return part files in the order of reference chromosomes, {@code null} for chromosomes without records
+     */
+    private File[] mergeChromosomes(MafFile mafFile, List<File> mafFiles, List<Chromosome> chromosomes)
+            throws IOException {
+        File[] parts = new File[chromosomes.size()];
+        int numOfTasks = Math.max(1, Math.min(taskExecutorService.getTaskNumberOfThreads(), chromosomes.size()));
+        List<Callable<Boolean>> callables = new ArrayList<>(numOfTasks);
+        for (int i = 0; i < numOfTasks; i++) {
+            final int factor = i;
+            callables.add(() -> {
+                mergeChromosomes(mafFile, mafFiles, chromosomes, parts, factor, numOfTasks);
+                return true;
+            });
+        }
+
+        try {
+            for (Future<Boolean> future : taskExecutorService.invokeAll(TaskPriority.BACKGROUND, callables)) {
+                future.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException(e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
+            }
+            throw new IOException(e.getCause());
+        }
+
+        return parts;
+    }
+
+    private void mergeChromosomes(MafFile mafFile, List<File> mafFiles, List<Chromosome> chromosomes,
+            File[] parts, int factor, int numOfTasks) throws IOException {
+        List<AbstractFeatureReader<MafFeature, LineIterator>> readers = new ArrayList<>(mafFiles.size());
+        try {
+            for (File f : mafFiles) {
+                readers.add(AbstractFeatureReader.getFeatureReader(f.getAbsolutePath(),
+                        fileManager.getMafTempIndex(f, mafFile).getAbsolutePath(), new MafCodec(f.getName()), true));
+            }
+
+            for (int i = factor; i < chromosomes.size(); i += numOfTasks) {
+                File part = fileManager.getMafTempFile(i + MAF_PART_EXTENSION, mafFile);
+                if (mergeChromosome(readers, chromosomes.get(i), part)) {
+                    parts[i] = part;
+                }
+            }
+        } finally {
+            readers.forEach(IOUtils::closeQuietly);
+        }
+    }
+
+    /**
+     * Writes MAF records of a chromosome from all files into a part file, merging sorted streams of records.
+     * Only one record per file is kept in memory.
+     * @return true if any records were written
+     */
+    private boolean mergeChromosome(List<AbstractFeatureReader<MafFeature, LineIterator>> readers,
+            Chromosome chromosome, File part) throws IOException {
+        LOGGER.debug("Merging MAF records for chromosome {}", chromosome.getName());
+        FeatureComparator featureComparator = new FeatureComparator();
+        PriorityQueue<MergeEntry> queue = new PriorityQueue<>(Math.max(1, readers.size()), (e1, e2) -> {
+            int result = featureComparator.compare(e1.feature, e2.feature);
+            return result != 0 ? result : Integer.compare(e1.order, e2.order);
+        });
+
+        try {
+            for (int i = 0; i < readers.size(); i++) {
+                CloseableIterator<MafFeature> iterator = queryChromosome(readers.get(i), chromosome);
+                if (iterator.hasNext()) {
+                    queue.add(new MergeEntry(iterator, i));
+                } else {
+                    iterator.close();
                 }
+            }
+            if (queue.isEmpty()) {
+                return false;
+            }
 
-                currChrFeatures.addAll(iterator.toList());
+            try (BufferedWriter writer = Files.newBufferedWriter(part.toPath(), Charset.defaultCharset())) {
+                while (!queue.isEmpty()) {
+                    MergeEntry entry = queue.poll();
+                    writer.write(entry.feature.toBigMafString());
+                    writer.newLine();
+                    if (entry.advance()) {
+                        queue.add(entry);
+                    }
+                }
+            }
+            return true;
+        } finally {
+            queue.forEach(entry -> entry.iterator.close());
+        }
+    }
+
+    private CloseableIterator<MafFeature> queryChromosome(AbstractFeatureReader<MafFeature, LineIterator> reader,
+            Chromosome chromosome) throws IOException {
+        CloseableIterator<MafFeature> iterator = reader.query(chromosome.getName(), 1, chromosome.getSize());
+        if (!iterator.hasNext()) {
+            iterator.close();
+            iterator = reader.query(Utils.changeChromosomeName(chromosome.getName()), 1, chromosome.getSize());
+        }
+        return iterator;
+    }
+
+    /**
+     * Current record of a single MAF file in a merge
+     */
+    private static final class MergeEntry {
+        private final CloseableIterator<MafFeature> iterator;
+        private final int order;
+        private MafFeature feature;
+
+        private MergeEntry(CloseableIterator<MafFeature> iterator, int order) {
+            this.iterator = iterator;
+            this.order = order;
+            this.feature = iterator.next();
+        }
+
+        private boolean advance() {
+            if (!iterator.hasNext()) {
+                iterator.close();
+                return false;
             }
+            feature = iterator.next();
+            return true;
         }
     }
 }
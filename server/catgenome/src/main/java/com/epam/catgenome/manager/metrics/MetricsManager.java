@@ -0,0 +1,216 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2016 EPAM Systems
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.epam.catgenome.manager.metrics;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Map;
+import java.util.StringJoiner;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import javax.annotation.PostConstruct;
+
+import net.sf.ehcache.Ehcache;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Service;
+
+import com.epam.catgenome.manager.RemoteIndexManager;
+import com.epam.catgenome.manager.RemoteStreamManager;
+import com.epam.catgenome.manager.externaldb.ExternalDbResponseCache;
+import com.epam.catgenome.manager.parallel.TaskExecutorService;
+import com.epam.catgenome.manager.reference.ReferenceBasesCache;
+
+/**
+ * {@code MetricsManager} collects performance metrics of the server: timers of track requests and their phases
+ * (see {@link TrackPhase}) by track type and gauges of task queues and caches, including statistics of all
+ * Ehcache caches. Metrics are written in Prometheus text format. Requests, that take longer than a threshold,
+ * are logged with their phase breakdown.
+ */
+@Service
+public class MetricsManager {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(MetricsManager.class);
+
+    private static final long DEFAULT_SLOW_REQUEST_THRESHOLD = 5000;
+    private static final String TOTAL = "total";
+    private static final String TIMER_METRIC = "ngb_track_request_seconds";
+    private static final String MAX_METRIC = "ngb_track_request_max_seconds";
+    private static final double NANOS_IN_SECOND = 1e9;
+    private static final double MILLIS_IN_SECOND = 1e3;
+
+    @Value("#{catgenome['metrics.slow.request.threshold'] ?: " + DEFAULT_SLOW_REQUEST_THRESHOLD + "}")
+    private long slowRequestThreshold;
+
+    @Autowired
+    private TaskExecutorService taskExecutorService;
+
+    @Autowired
+    private RemoteStreamManager remoteStreamManager;
+
+    @Autowired
+    private RemoteIndexManager remoteIndexManager;
+
+    @Autowired
+    private ReferenceBasesCache referenceBasesCache;
+
+    @Autowired
+    private ExternalDbResponseCache externalDbResponseCache;
+
+    @Autowired(required = false)
+    private CacheManager cacheManager;
+
+    private final Map<String, Timer> timers = new ConcurrentSkipListMap<>();
+    private final Map<String, Supplier<Number>> gauges = new ConcurrentSkipListMap<>();
+
+    @PostConstruct
+    public void init() {
+        registerGauge("ngb_tasks_queued", taskExecutorService::getQueuedTaskCount);
+        registerGauge("ngb_tasks_running", taskExecutorService::getRunningTaskCount);
+        registerGauge("ngb_remote_block_cache_bytes", remoteStreamManager::getCacheSize);
+        registerGauge("ngb_remote_index_cache_bytes", remoteIndexManager::getTotalSize);
+        registerGauge("ngb_external_db_cache_bytes", externalDbResponseCache::getTotalSize);
+        registerGauge("ngb_reference_cache_bytes", referenceBasesCache::getTotalSize);
+        registerCacheGauges("reference", referenceBasesCache::getHitCount, referenceBasesCache::getMissCount);
+        if (cacheManager != null) {
+            cacheManager.getCacheNames().forEach(this::registerEhcacheGauges);
+        }
+    }
+
+    /**
+     * Registers a gauge, that is evaluated, when metrics are written
+     * @param name of a metric, optionally with labels, e.g. {@code ngb_cache_hits{cache="featureTile"}}
+     * @param gauge supplier of the current value
+     */
+    public void registerGauge(String name, Supplier<Number> gauge) {
+        gauges.put(name, gauge);
+    }
+
+    /**
+     * Starts measuring of a track request and binds its metrics to the current thread
+     * @param track type of a track, e.g. bam
+     * @return metrics of the request
+     */
+    public RequestMetrics startRequest(String track) {
+        RequestMetrics metrics = new RequestMetrics(track);
+        RequestMetrics.bind(metrics);
+        return metrics;
+    }
+
+    /**
+     * Finishes measuring of a track request: adds its total and phases time to the timers of the track type
+     * and logs the request, if it is slow
+     * @param metrics of the request
+     */
+    public void finishRequest(RequestMetrics metrics) {
+        long total = metrics.getElapsedTime();
+        getTimer(metrics.getTrack(), TOTAL).record(total);
+        StringJoiner phases = new StringJoiner(", ");
+        for (TrackPhase phase : TrackPhase.values()) {
+            long time = metrics.getPhaseTime(phase);
+            if (time > 0) {
+                getTimer(metrics.getTrack(), phase.getKey()).record(time);
+                phases.add(phase.getKey() + " " + TimeUnit.NANOSECONDS.toMillis(time) + " ms");
+            }
+        }
+        long totalMillis = TimeUnit.NANOSECONDS.toMillis(total);
+        if (totalMillis >= slowRequestThreshold) {
+            LOGGER.warn("Slow {} track request took {} ms: {}", metrics.getTrack(), totalMillis, phases);
+        }
+    }
+
+    /**
+     * @param track type of a track
+     * @param phase key of a {@link TrackPhase} or "total" for the whole request
+     * @return timer of a phase of requests of a track type
+     */
+    public Timer getTimer(String track, String phase) {
+        return timers.computeIfAbsent(track + ':' + phase, key -> new Timer());
+    }
+
+    /**
+     * Writes all metrics in Prometheus text format
+     * @param writer to write metrics to
+     * @throws IOException if writing fails
+     */
+    public void writeMetrics(Writer writer) throws IOException {
+        writer.write("# TYPE " + TIMER_METRIC + " histogram\n");
+        for (Map.Entry<String, Timer> entry : timers.entrySet()) {
+            String labels = getTimerLabels(entry.getKey());
+            Timer timer = entry.getValue();
+            for (int i = 0; i < Timer.BUCKET_BOUNDS.length; i++) {
+                writer.write(String.format("%s_bucket{%s,le=\"%s\"} %d%n", TIMER_METRIC, labels,
+                        Timer.BUCKET_BOUNDS[i] / MILLIS_IN_SECOND, timer.getCumulativeCount(i)));
+            }
+            writer.write(String.format("%s_bucket{%s,le=\"+Inf\"} %d%n", TIMER_METRIC, labels,
+                    timer.getCumulativeCount(Timer.BUCKET_BOUNDS.length)));
+            writer.write(String.format("%s_sum{%s} %s%n", TIMER_METRIC, labels,
+                    timer.getTotalTime() / NANOS_IN_SECOND));
+            writer.write(String.format("%s_count{%s} %d%n", TIMER_METRIC, labels, timer.getCount()));
+        }
+        writer.write("# TYPE " + MAX_METRIC + " gauge\n");
+        for (Map.Entry<String, Timer> entry : timers.entrySet()) {
+            writer.write(String.format("%s{%s} %s%n", MAX_METRIC, getTimerLabels(entry.getKey()),
+                    entry.getValue().getMaxTime() / NANOS_IN_SECOND));
+        }
+        for (Map.Entry<String, Supplier<Number>> entry : gauges.entrySet()) {
+            Number value;
+            try {
+                value = entry.getValue().get();
+            } catch (RuntimeException e) {
+                LOGGER.debug("Failed to evaluate gauge {}: {}", entry.getKey(), e.getMessage());
+                continue;
+            }
+            writer.write(entry.getKey() + ' ' + value + '\n');
+        }
+    }
+
+    private static String getTimerLabels(String key) {
+        int separator = key.lastIndexOf(':');
+        return String.format("track=\"%s\",phase=\"%s\"", key.substring(0, separator), key.substring(separator + 1));
+    }
+
+    private void registerCacheGauges(String cache, Supplier<Number> hits, Supplier<Number> misses) {
+        registerGauge("ngb_cache_hits{cache=\"" + cache + "\"}", hits);
+        registerGauge("ngb_cache_misses{cache=\"" + cache + "\"}", misses);
+    }
+
+    private void registerEhcacheGauges(String name) {
+        Cache cache = cacheManager.getCache(name);
+        if (cache == null || !(cache.getNativeCache() instanceof Ehcache)) {
+            return;
+        }
+        Ehcache ehcache = (Ehcache) cache.getNativeCache();
+        registerCacheGauges(name, () -> ehcache.getStatistics().cacheHitCount(),
+                () -> ehcache.getStatistics().cacheMissCount());
+        registerGauge("ngb_cache_size{cache=\"" + name + "\"}", () -> ehcache.getStatistics().getSize());
+    }
+}
@@ -0,0 +1,118 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2016 EPAM Systems
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.epam.catgenome.manager.metrics;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Time, spent by a single track request in each {@link TrackPhase}. Metrics of a request are bound to threads,
+ * which process it, so the code, that reads files, records its phases by {@link #record(TrackPhase, long)}
+ * without passing the metrics explicitly. Recording is a no-op in threads without bound metrics, e.g. during
+ * registration of files.
+ */
+public final class RequestMetrics {
+
+    private static final ThreadLocal<RequestMetrics> CURRENT = new ThreadLocal<>();
+
+    private final String track;
+    private final long startTime;
+    private final AtomicLongArray phaseTimes = new AtomicLongArray(TrackPhase.values().length);
+
+    RequestMetrics(String track) {
+        this.track = track;
+        this.startTime = System.nanoTime();
+    }
+
+    /**
+     * @return metrics of a request, processed by the current thread, or null
+     */
+    public static RequestMetrics current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Binds metrics of a request to the current thread
+     * @param metrics to bind, null unbinds current metrics
+     * @return metrics, that were bound before
+     */
+    public static RequestMetrics bind(RequestMetrics metrics) {
+        RequestMetrics previous = CURRENT.get();
+        if (metrics == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(metrics);
+        }
+        return previous;
+    }
+
+    /**
+     * Adds time, passed since a given moment, to a phase of the current request
+     * @param phase of the request
+     * @param startTime start of the phase, obtained by {@link System#nanoTime()}
+     */
+    public static void record(TrackPhase phase, long startTime) {
+        RequestMetrics metrics = CURRENT.get();
+        if (metrics != null) {
+            metrics.add(phase, System.nanoTime() - startTime);
+        }
+    }
+
+    /**
+     * Returns total time of phases of the current request, e.g. to exclude nested phases from an enclosing one
+     * @return time in nanoseconds or 0, if there is no current request
+     */
+    public static long getCurrentTime(TrackPhase... phases) {
+        RequestMetrics metrics = CURRENT.get();
+        long time = 0;
+        if (metrics != null) {
+            for (TrackPhase phase : phases) {
+                time += metrics.getPhaseTime(phase);
+            }
+        }
+        return time;
+    }
+
+    public void add(TrackPhase phase, long time) {
+        phaseTimes.addAndGet(phase.ordinal(), time);
+    }
+
+    /**
+     * @return time in nanoseconds, spent in a phase
+     */
+    public long getPhaseTime(TrackPhase phase) {
+        return phaseTimes.get(phase.ordinal());
+    }
+
+    /**
+     * @return time in nanoseconds since the start of the request
+     */
+    public long getElapsedTime() {
+        return System.nanoTime() - startTime;
+    }
+
+    public String getTrack() {
+        return track;
+    }
+}
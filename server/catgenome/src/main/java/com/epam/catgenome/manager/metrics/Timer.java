@@ -0,0 +1,93 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2016 EPAM Systems
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.epam.catgenome.manager.metrics;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Thread safe accumulator of measured durations: number of measurements, total and maximum time and a histogram
+ * with fixed buckets from 1 ms to 10 s
+ */
+public class Timer {
+
+    /**
+     * Upper bounds of histogram buckets in milliseconds, the last bucket is unbounded
+     */
+    static final long[] BUCKET_BOUNDS = {1, 5, 10, 25, 50, 100, 250, 500, 1000, 2500, 5000, 10000};
+
+    private final LongAdder count = new LongAdder();
+    private final LongAdder totalTime = new LongAdder();
+    private final AtomicLong maxTime = new AtomicLong();
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKET_BOUNDS.length + 1);
+
+    /**
+     * Adds a measured duration
+     * @param time duration in nanoseconds
+     */
+    public void record(long time) {
+        count.increment();
+        totalTime.add(time);
+        maxTime.accumulateAndGet(time, Math::max);
+        long millis = TimeUnit.NANOSECONDS.toMillis(time);
+        int bucket = 0;
+        while (bucket < BUCKET_BOUNDS.length && millis >= BUCKET_BOUNDS[bucket]) {
+            bucket++;
+        }
+        buckets.incrementAndGet(bucket);
+    }
+
+    public long getCount() {
+        return count.sum();
+    }
+
+    /**
+     * @return total time of all measurements in nanoseconds
+     */
+    public long getTotalTime() {
+        return totalTime.sum();
+    }
+
+    /**
+     * @return maximum measured duration in nanoseconds
+     */
+    public long getMaxTime() {
+        return maxTime.get();
+    }
+
+    /**
+     * @param bucket index of a bucket in {@link #BUCKET_BOUNDS}, or its length for the unbounded bucket
+     * @return number of measurements, that are less than the upper bound of the bucket
+     */
+    public long getCumulativeCount(int bucket) {
+        long result = 0;
+        for (int i = 0; i <= bucket; i++) {
+            result += buckets.get(i);
+        }
+        return result;
+    }
+}
@@ -0,0 +1,66 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2016 EPAM Systems
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.epam.catgenome.manager.metrics;
+
+/**
+ * Phases of a track request, which time is measured separately by {@link RequestMetrics}
+ */
+public enum TrackPhase {
+    /**
+     * Waiting for a worker thread in a queue of scheduled tasks
+     */
+    QUEUE,
+    /**
+     * Opening of a file reader, including reading of a header and an index
+     */
+    OPEN,
+    /**
+     * Seeking a requested interval by an index
+     */
+    QUERY,
+    /**
+     * Reading and decoding of records and building of track blocks
+     */
+    DECODE,
+    /**
+     * Downsampling of BAM reads
+     */
+    SIFT,
+    /**
+     * Serialization of a track to JSON
+     */
+    SERIALIZE,
+    /**
+     * Sending of serialized data to a client
+     */
+    FLUSH;
+
+    /**
+     * @return name of the phase in metrics and logs
+     */
+    public String getKey() {
+        return name().toLowerCase();
+    }
+}
@@ -0,0 +1,164 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2016 EPAM Systems
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.epam.catgenome.manager.parallel;
+
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Bounded queue of tasks, that keeps a separate queue for each owner (user) and priority. Tasks are taken
+ * by the highest priority first and, within a priority, from owners' queues in turn, so a user, that submits
+ * a lot of tasks, doesn't delay tasks of other users. The total number of queued batches and the number of
+ * queued batches of a single owner are limited. A batch of tasks of a single request is admitted or rejected
+ * as a whole and takes a single place in the queue, while its tasks are still taken one by one in turn.
+ */
+final class FairTaskQueue {
+
+    private final Map<TaskPriority, LinkedHashMap<String, Deque<Deque<Runnable>>>> queues =
+            new EnumMap<>(TaskPriority.class);
+    private final Map<String, Integer> ownerSizes = new HashMap<>();
+    private final int maxSize;
+    private final int maxOwnerSize;
+    private int size;
+    private int taskCount;
+
+    FairTaskQueue(int maxSize, int maxOwnerSize) {
+        this.maxSize = maxSize;
+        this.maxOwnerSize = maxOwnerSize;
+        for (TaskPriority priority : TaskPriority.values()) {
+            queues.put(priority, new LinkedHashMap<>());
+        }
+    }
+
+    /**
+     * Adds a task to the end of the owner's queue of the given priority
+     * @return false if the task isn't added, because the queue or the owner's queue is full
+     */
+    synchronized boolean offer(String owner, TaskPriority priority, Runnable task) {
+        return offerAll(owner, priority, Collections.singletonList(task));
+    }
+
+    /**
+     * Adds a batch of tasks to the end of the owner's queue of the given priority, a batch takes a single place
+     * @return false if none of the tasks is added, because the queue or the owner's queue is full
+     */
+    synchronized boolean offerAll(String owner, TaskPriority priority, Collection<? extends Runnable> tasks) {
+        if (tasks.isEmpty()) {
+            return true;
+        }
+        int ownerSize = ownerSizes.getOrDefault(owner, 0);
+        if (size >= maxSize || ownerSize >= maxOwnerSize) {
+            return false;
+        }
+        queues.get(priority).computeIfAbsent(owner, o -> new ArrayDeque<>()).addLast(new ArrayDeque<>(tasks));
+        ownerSizes.put(owner, ownerSize + 1);
+        size++;
+        taskCount += tasks.size();
+        return true;
+    }
+
+    /**
+     * Takes the next task: the first task of the owner, that is the next in turn for the highest priority
+     * @return the next task or null if the queue is empty
+     */
+    synchronized Runnable poll() {
+        for (Map.Entry<TaskPriority, LinkedHashMap<String, Deque<Deque<Runnable>>>> entry : queues.entrySet()) {
+            Iterator<Map.Entry<String, Deque<Deque<Runnable>>>> owners = entry.getValue().entrySet().iterator();
+            if (!owners.hasNext()) {
+                continue;
+            }
+            Map.Entry<String, Deque<Deque<Runnable>>> first = owners.next();
+            String owner = first.getKey();
+            Deque<Deque<Runnable>> ownerQueue = first.getValue();
+            Deque<Runnable> batch = ownerQueue.peekFirst();
+            Runnable task = batch.pollFirst();
+            taskCount--;
+            if (batch.isEmpty()) {
+                ownerQueue.pollFirst();
+                decrementSize(owner);
+            }
+            // the owner goes to the end of the turn
+            owners.remove();
+            if (!ownerQueue.isEmpty()) {
+                entry.getValue().put(owner, ownerQueue);
+            }
+            return task;
+        }
+        return null;
+    }
+
+    /**
+     * Removes a task, that is not started yet, e.g. if it is cancelled
+     * @return true if the task was found in the queue
+     */
+    synchronized boolean remove(String owner, TaskPriority priority, Runnable task) {
+        Map<String, Deque<Deque<Runnable>>> priorityQueues = queues.get(priority);
+        Deque<Deque<Runnable>> ownerQueue = priorityQueues.get(owner);
+        if (ownerQueue == null) {
+            return false;
+        }
+        Iterator<Deque<Runnable>> batches = ownerQueue.iterator();
+        while (batches.hasNext()) {
+            Deque<Runnable> batch = batches.next();
+            if (!batch.remove(task)) {
+                continue;
+            }
+            taskCount--;
+            if (batch.isEmpty()) {
+                batches.remove();
+                decrementSize(owner);
+            }
+            if (ownerQueue.isEmpty()) {
+                priorityQueues.remove(owner);
+            }
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * @return number of queued tasks
+     */
+    synchronized int size() {
+        return taskCount;
+    }
+
+    private void decrementSize(String owner) {
+        int ownerSize = ownerSizes.get(owner) - 1;
+        if (ownerSize == 0) {
+            ownerSizes.remove(owner);
+        } else {
+            ownerSizes.put(owner, ownerSize);
+        }
+        size--;
+    }
+}
@@ -25,26 +25,55 @@
 package com.epam.catgenome.manager.parallel;
 
 import java.io.IOException;
-import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.Executor;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.SynchronousQueue;
 import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
 
+import javax.annotation.PreDestroy;
+import javax.servlet.http.HttpServletRequest;
+
+import com.epam.catgenome.exception.TaskRejectedException;
 import com.epam.catgenome.manager.bam.BamTrackEmitter;
-import htsjdk.samtools.util.RuntimeIOException;
+import com.epam.catgenome.manager.metrics.RequestMetrics;
+import com.epam.catgenome.manager.metrics.TrackPhase;
 import org.slf4j.Logger;
+import org.apache.commons.lang3.StringUtils;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import static com.epam.catgenome.component.MessageHelper.getMessage;
+import static com.epam.catgenome.constant.MessagesConstants.ERROR_TASK_QUEUE_FULL;
 
 /**
  * Created: 2/29/2016
  * Project: CATGenome Browser
  *
  * <p>
- * Represents class, that contains fixed thread pool to execute different parallel task through Genome Browser.
+ * Represents class, that contains thread pools to execute different parallel task through Genome Browser.
+ * Top level tasks, e.g. BAM track requests and histograms, are scheduled by priority with per-user fair queues
+ * and a limited number of worker threads. If the queues are full, a task of an HTTP request is rejected with
+ * a {@link TaskRejectedException}, while {@link TaskPriority#BACKGROUND} tasks and tasks, submitted outside of
+ * an HTTP request, e.g. by registration jobs, are never rejected and run in the submitting thread instead.
+ * Sub-tasks of a request, e.g. parts of a file being read in parallel, are run in a separate pool
+ * ({@link #getExecutorService()}), so they don't compete with top level tasks.
  * </p>
  */
 @Service
@@ -54,6 +83,11 @@ public final class TaskExecutorService {
 
     private static final long DEFAULT_KEEP_ALIVE_TIME = 60L;
     private static final long DEFAULT_MAX_THREADS = 20;
+    private static final int DEFAULT_QUEUE_SIZE = 200;
+    private static final int DEFAULT_USER_QUEUE_SIZE = 50;
+    private static final int DEFAULT_RETRY_AFTER = 5;
+    private static final String SYSTEM_OWNER = "system";
+    private static final String FORWARDED_FOR_HEADER = "X-Forwarded-For";
 
     @Value("#{catgenome['ngb.bam.streaming.thread.keep-alive'] ?: " + DEFAULT_KEEP_ALIVE_TIME + "}")
     private int keepAliveTime;
@@ -61,6 +95,21 @@ public final class TaskExecutorService {
     @Value("#{catgenome['server.tomcat.max-connections'] ?: " + DEFAULT_MAX_THREADS + "}")
     private int maxThreadCount;
 
+    @Value("#{catgenome['ngb.task.scheduler.threads'] ?: " + DEFAULT_MAX_THREADS + "}")
+    private int schedulerThreadCount;
+
+    @Value("#{catgenome['ngb.task.queue.size'] ?: " + DEFAULT_QUEUE_SIZE + "}")
+    private int queueSize;
+
+    @Value("#{catgenome['ngb.task.queue.user.size'] ?: " + DEFAULT_USER_QUEUE_SIZE + "}")
+    private int userQueueSize;
+
+    @Value("#{catgenome['ngb.task.retry.after'] ?: " + DEFAULT_RETRY_AFTER + "}")
+    private int retryAfter;
+
+    @Value("#{catgenome['ngb.task.owner.forwarded'] ?: false}")
+    private boolean ownerForwarded;
+
     public enum ExecutionMode {
         SEQUENTIAL, ASYNC
     }
@@ -70,8 +119,11 @@ public final class TaskExecutorService {
 
     private volatile ExecutorService executorService;
 
+    private volatile ThreadPoolExecutor schedulerExecutor;
+    private volatile FairTaskQueue taskQueue;
+
     /**
-     * Provides executor service to run runnable/callable tasks.
+     * Provides executor service to run runnable/callable sub-tasks of a request.
      *
      * @return ExecutorService
      */
@@ -89,26 +141,78 @@ public final class TaskExecutorService {
         return instance;
     }
 
-    public synchronized void executeTrackTask(BamTrackEmitter bamTrackEmitter, ExecutionMode mode, BamTrackTask task)
-            throws IOException {
-
-        Executor executor = (mode == ExecutionMode.SEQUENTIAL || forceSequential) ?
-                (Runnable::run) :
-                getExecutorService();
-
-        CompletableFuture.runAsync(
-            () -> {
+    /**
+     * Schedules tasks with a given priority in a queue of the current user and waits until all of them
+     * complete. Tasks are admitted as a single batch, that takes one place in the queue, so either all of them
+     * are scheduled or none. Tasks shouldn't wait for other scheduled tasks. If the current thread is interrupted,
+     * all unfinished tasks are cancelled.
+     * @param priority of the tasks
+     * @param tasks to execute
+     * @return futures of the tasks in the same order, all of them are done
+     * @throws InterruptedException if the current thread is interrupted while waiting
+     * @throws TaskRejectedException if the queues are full
+     */
+    public <T> List<Future<T>> invokeAll(TaskPriority priority, Collection<? extends Callable<T>> tasks)
+            throws InterruptedException {
+        String owner = getCurrentOwner();
+        List<Future<T>> futures = new ArrayList<>(tasks.size());
+        boolean done = false;
+        try {
+            List<ScheduledTask<T>> scheduledTasks = new ArrayList<>(tasks.size());
+            for (Callable<T> task : tasks) {
+                scheduledTasks.add(new ScheduledTask<>(owner, priority, task));
+            }
+            futures.addAll(scheduledTasks);
+            schedule(owner, priority, scheduledTasks);
+            for (Future<T> future : futures) {
                 try {
-                    task.run();
-                } catch (IOException e) {
-                    throw new RuntimeIOException(e);
+                    future.get();
+                } catch (CancellationException | ExecutionException e) {
+                    // a result of each task is checked by a caller
+                    LOGGER.trace(e.getMessage(), e);
                 }
-            }, executor).exceptionally(
-                e -> {
-                    bamTrackEmitter.finishWithException(e);
-                    return null;
-                }
-        );
+            }
+            done = true;
+            return futures;
+        } finally {
+            if (!done) {
+                futures.forEach(future -> future.cancel(true));
+            }
+        }
+    }
+
+    /**
+     * Schedules a task with a given priority in a queue of the current user
+     * @param priority of the task
+     * @param task to execute
+     * @return a future of the task, its cancellation removes a queued task from the queue
+     * @throws TaskRejectedException if the queues are full
+     */
+    public <T> Future<T> submit(TaskPriority priority, Callable<T> task) {
+        String owner = getCurrentOwner();
+        ScheduledTask<T> scheduledTask = new ScheduledTask<>(owner, priority, task);
+        schedule(owner, priority, Collections.singletonList(scheduledTask));
+        return scheduledTask;
+    }
+
+    /**
+     * Runs a task of a BAM track request. An asynchronous task is scheduled with {@link TaskPriority#TRACK}
+     * priority. If a client abandons the request, a queued task is removed from the queue and a running one
+     * is interrupted and stops at the next {@link BamTrackEmitter#checkCancelled()}.
+     * @throws TaskRejectedException if the queues are full
+     */
+    public void executeTrackTask(BamTrackEmitter bamTrackEmitter, ExecutionMode mode, BamTrackTask task)
+            throws IOException {
+        if (mode == ExecutionMode.SEQUENTIAL || forceSequential) {
+            runTrackTask(bamTrackEmitter, task);
+            return;
+        }
+
+        Future<Void> future = submit(TaskPriority.TRACK, () -> {
+            runTrackTask(bamTrackEmitter, task);
+            return null;
+        });
+        bamTrackEmitter.onAbort(() -> future.cancel(true));
     }
 
     public int getTaskNumberOfThreads() {
@@ -118,7 +222,96 @@ public final class TaskExecutorService {
     }
 
     /**
-     * Return fixed thread pool with size of available processors in system.
+     * @return number of scheduled tasks, that are running
+     */
+    public int getRunningTaskCount() {
+        ThreadPoolExecutor executor = schedulerExecutor;
+        return executor == null ? 0 : executor.getActiveCount();
+    }
+
+    /**
+     * @return number of scheduled tasks, waiting for a worker thread
+     */
+    public int getQueuedTaskCount() {
+        FairTaskQueue queue = taskQueue;
+        return queue == null ? 0 : queue.size();
+    }
+
+    public synchronized void setForceSequential(boolean force) {
+        forceSequential = force;
+    }
+
+    @PreDestroy
+    public synchronized void shutdown() {
+        if (schedulerExecutor != null) {
+            schedulerExecutor.shutdownNow();
+        }
+        if (executorService != null) {
+            executorService.shutdownNow();
+        }
+    }
+
+    private static void runTrackTask(BamTrackEmitter bamTrackEmitter, BamTrackTask task) {
+        try {
+            task.run();
+        } catch (CancellationException e) {
+            LOGGER.debug(e.getMessage());
+        } catch (IOException | RuntimeException e) {
+            if (bamTrackEmitter.isCancelled()) {
+                LOGGER.debug("Cancelled BAM track task failed: {}", e.getMessage());
+            } else {
+                bamTrackEmitter.finishWithException(e);
+            }
+        }
+    }
+
+    private void schedule(String owner, TaskPriority priority, List<? extends ScheduledTask<?>> tasks) {
+        ThreadPoolExecutor executor = getSchedulerExecutor();
+        if (!taskQueue.offerAll(owner, priority, tasks)) {
+            if (!isRejectable(priority)) {
+                LOGGER.debug("{} tasks of {} with priority {} run in the submitting thread, queue size {}",
+                        tasks.size(), owner, priority, taskQueue.size());
+                tasks.forEach(ScheduledTask::run);
+                return;
+            }
+            LOGGER.debug("{} tasks of {} with priority {} are rejected, queue size {}",
+                    tasks.size(), owner, priority, taskQueue.size());
+            throw new TaskRejectedException(getMessage(ERROR_TASK_QUEUE_FULL, retryAfter), retryAfter);
+        }
+        // each worker run takes the next task in turn, that is not necessarily one of the submitted
+        for (int i = 0; i < tasks.size(); i++) {
+            executor.execute(this::runNextTask);
+        }
+    }
+
+    private void runNextTask() {
+        Runnable task = taskQueue.poll();
+        if (task != null) {
+            task.run();
+        }
+    }
+
+    private ThreadPoolExecutor getSchedulerExecutor() {
+        ThreadPoolExecutor instance = schedulerExecutor;
+        if (instance == null) {
+            synchronized (this) {
+                instance = schedulerExecutor;
+                if (instance == null) {
+                    taskQueue = new FairTaskQueue(queueSize, userQueueSize);
+                    instance = new ThreadPoolExecutor(schedulerThreadCount, schedulerThreadCount, keepAliveTime,
+                            TimeUnit.SECONDS, new LinkedBlockingQueue<>());
+                    instance.allowCoreThreadTimeOut(true);
+                    LOGGER.info("Create task scheduler with {} threads and queue size {}", schedulerThreadCount,
+                            queueSize);
+                    schedulerExecutor = instance;
+                }
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * Return cached thread pool with max capacity of max connections.
      *
      * @return ExecutorService
      */
@@ -129,7 +322,72 @@ public final class TaskExecutorService {
         return threadPoolExecutor;
     }
 
-    public synchronized void setForceSequential(boolean force) {
-        forceSequential = force;
+    /**
+     * Only tasks of HTTP requests are rejected, a client may repeat such a request later
+     */
+    private static boolean isRejectable(TaskPriority priority) {
+        return priority != TaskPriority.BACKGROUND
+                && RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes;
+    }
+
+    /**
+     * Tasks are owned by an authenticated user or, if authentication is disabled, by a client address.
+     * Behind a proxy the client address is taken from the first X-Forwarded-For entry.
+     */
+    private String getCurrentOwner() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.isAuthenticated()
+                && !(authentication instanceof AnonymousAuthenticationToken)) {
+            return authentication.getName();
+        }
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes instanceof ServletRequestAttributes) {
+            HttpServletRequest request = ((ServletRequestAttributes) attributes).getRequest();
+            String forwardedFor = ownerForwarded ? request.getHeader(FORWARDED_FOR_HEADER) : null;
+            if (StringUtils.isNotBlank(forwardedFor)) {
+                return StringUtils.substringBefore(forwardedFor, ",").trim();
+            }
+            return request.getRemoteAddr();
+        }
+        return SYSTEM_OWNER;
+    }
+
+    private final class ScheduledTask<T> extends FutureTask<T> {
+
+        private final String owner;
+        private final TaskPriority priority;
+        private final RequestMetrics requestMetrics;
+        private final long submitTime;
+
+        private ScheduledTask(String owner, TaskPriority priority, Callable<T> callable) {
+            super(callable);
+            this.owner = owner;
+            this.priority = priority;
+            this.requestMetrics = RequestMetrics.current();
+            this.submitTime = System.nanoTime();
+        }
+
+        /**
+         * Runs the task with metrics of a request, that has submitted it
+         */
+        @Override
+        public void run() {
+            RequestMetrics previous = RequestMetrics.bind(requestMetrics);
+            try {
+                RequestMetrics.record(TrackPhase.QUEUE, submitTime);
+                super.run();
+            } finally {
+                RequestMetrics.bind(previous);
+            }
+        }
+
+        @Override
+        public boolean cancel(boolean mayInterruptIfRunning) {
+            boolean cancelled = super.cancel(mayInterruptIfRunning);
+            if (cancelled) {
+                taskQueue.remove(owner, priority, this);
+            }
+            return cancelled;
+        }
     }
 }
@@ -0,0 +1,127 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2016 EPAM Systems
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package com.epam.catgenome.manager.project;
+
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import javax.annotation.PreDestroy;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.epam.catgenome.dao.project.ProjectDao;
+
+/**
+ * <p>
+ * A service class, that records when projects are opened. Opening a project only remembers the date in memory,
+ * keeping the read path free of writes; collected dates are periodically saved to the database in a single
+ * batch, only the latest date being saved for each project.
+ * </p>
+ */
+@Service
+public class LastOpenedDateRecorder {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(LastOpenedDateRecorder.class);
+
+    private static final long DEFAULT_FLUSH_DELAY = 5000;
+
+    @Autowired
+    private ProjectDao projectDao;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final ConcurrentMap<Long, Date> pendingDates = new ConcurrentHashMap<>();
+
+    /**
+     * Records that a project was opened now. The date is saved to the database with the next flush.
+     * @param projectId {@code Long} ID of an opened project
+     */
+    public void recordOpened(long projectId) {
+        Date now = new Date();
+        pendingDates.merge(projectId, now, (previous, current) -> previous.after(current) ? previous : current);
+    }
+
+    /**
+     * Saves all recorded last opened dates to the database in a single batch. Dates, that failed to be saved,
+     * are kept to be saved with the next flush.
+     * @return number of projects, which dates were saved
+     */
+    @Scheduled(fixedDelayString = "#{catgenome['project.last.opened.flush.delay'] ?: " + DEFAULT_FLUSH_DELAY + "}")
+    @Transactional(propagation = Propagation.REQUIRED)
+    public int flush() {
+        if (pendingDates.isEmpty()) {
+            return 0;
+        }
+
+        Map<Long, Date> dates = new HashMap<>();
+        for (Long projectId : pendingDates.keySet()) {
+            Date date = pendingDates.remove(projectId);
+            if (date != null) {
+                dates.put(projectId, date);
+            }
+        }
+
+        try {
+            projectDao.updateLastOpenedDates(dates);
+        } catch (RuntimeException e) {
+            LOGGER.error("Failed to save last opened dates of {} projects", dates.size(), e);
+            dates.forEach((projectId, date) -> pendingDates.merge(projectId, date,
+                (previous, current) -> previous.after(current) ? previous : current));
+            throw e;
+        }
+        return dates.size();
+    }
+
+    /**
+     * Returns number of projects, which last opened dates are not saved yet
+     * @return number of pending projects
+     */
+    public int getPendingCount() {
+        return pendingDates.size();
+    }
+
+    @PreDestroy
+    public void destroy() {
+        // called on the target bean, not through the transactional proxy
+        try {
+            new TransactionTemplate(transactionManager).execute(status -> flush());
+        } catch (RuntimeException e) {
+            LOGGER.error("Failed to save last opened dates on shutdown", e);
+        }
+    }
+}
@@ -26,6 +26,7 @@ package com.epam.catgenome.manager.project;
 
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.Date;
 import java.util.EnumMap;
@@ -95,6 +96,9 @@ public class ProjectManager {
     @Autowired
     private FileManager fileManager;
 
+    @Autowired
+    private LastOpenedDateRecorder lastOpenedDateRecorder;
+
     /**
      * Loads all top-level projects for current user from the database.
      * Projects are being loaded with single reference item.
@@ -125,16 +129,26 @@ public class ProjectManager {
     }
 
     /**
-     * Loads all project hierarchy for current user, with all items
+     * Loads all project hierarchy for current user, with all items. Projects, their items and samples are
+     * loaded with a bounded number of set-based queries: one per level of the hierarchy for a subtree, one per
+     * item chunk and one per sample type.
      * @param parentId specifies the root project for loading, if null, all projects will be loaded
      * @param referenceName
      * @return all project hierarchy for current user, with all items
      */
     @Transactional(propagation = Propagation.REQUIRED)
     public List<Project> loadProjectTree(final Long parentId, String referenceName) {
+        Project topProject = null;
         List<Project> allProjects;
         if (StringUtils.isEmpty(referenceName)) {
-            allProjects = projectDao.loadAllProjects(AuthUtils.getCurrentUserId());
+            if (parentId != null) {
+                topProject = projectDao.loadProject(parentId);
+                Assert.notNull(topProject,
+                        MessageHelper.getMessage(MessagesConstants.ERROR_PROJECT_NOT_FOUND, parentId));
+                allProjects = loadSubtree(parentId);
+            } else {
+                allProjects = projectDao.loadAllProjects(AuthUtils.getCurrentUserId());
+            }
         } else {
             Reference reference =
                     referenceGenomeDao.loadReferenceGenomeByName(referenceName.toLowerCase());
@@ -144,17 +158,13 @@ public class ProjectManager {
         }
 
         Map<Long, List<Project>> hierarchyMap = new HashMap<>();
-        Map<Long, Set<ProjectItem>> itemMap;
-
-        if (StringUtils.isEmpty(referenceName)) {
-            itemMap = projectDao.loadAllProjectItems();
-        } else {
-            itemMap = projectDao.loadProjectItemsByProjects(allProjects);
-        }
+        Map<Long, Set<ProjectItem>> itemMap = projectDao.loadProjectItemsByProjects(allProjects);
+        List<ProjectItem> allItems = new ArrayList<>();
 
         allProjects.stream().forEach(p -> {
             if (itemMap.containsKey(p.getId())) {
                 p.setItems(new ArrayList<>(itemMap.get(p.getId())));
+                allItems.addAll(p.getItems());
             }
 
             if (!hierarchyMap.containsKey(p.getParentId())) {
@@ -164,16 +174,48 @@ public class ProjectManager {
         });
 
         if (parentId != null) {
-            Project topProject = loadProjectAndUpdateLastOpenedDate(parentId);
-            Assert.notNull(topProject,
-                    MessageHelper.getMessage(MessagesConstants.ERROR_PROJECT_NOT_FOUND, parentId));
+            if (topProject == null) {
+                topProject = projectDao.loadProject(parentId);
+                Assert.notNull(topProject,
+                        MessageHelper.getMessage(MessagesConstants.ERROR_PROJECT_NOT_FOUND, parentId));
+            }
+            topProject.setItems(projectDao.loadProjectItemsByProjectId(parentId));
+            topProject.setItemsCount(topProject.getItems().size());
+            allItems.addAll(topProject.getItems());
+            loadSamples(allItems);
+            lastOpenedDateRecorder.recordOpened(parentId);
+
             topProject.setNestedProjects(hierarchyMap.get(parentId));
+            allProjects.forEach(p -> p.setNestedProjects(hierarchyMap.get(p.getId())));
             return Collections.singletonList(topProject);
         }
+        loadSamples(allItems);
         allProjects.forEach(p -> p.setNestedProjects(hierarchyMap.get(p.getId())));
         return hierarchyMap.get(null);
     }
 
+    /**
+     * Loads all projects, nested into a specified one, level by level: one query per level of the hierarchy
+     * @param parentId an ID of a root project of a subtree
+     * @return a {@code List} of all nested projects
+     */
+    private List<Project> loadSubtree(long parentId) {
+        List<Project> subtree = new ArrayList<>();
+        Set<Long> visited = new HashSet<>();
+        visited.add(parentId);
+
+        List<Long> levelIds = Collections.singletonList(parentId);
+        while (!levelIds.isEmpty()) {
+            List<Project> level = projectDao.loadNestedProjects(levelIds).values().stream()
+                    .flatMap(List::stream)
+                    .filter(p -> visited.add(p.getId()))
+                    .collect(Collectors.toList());
+            subtree.addAll(level);
+            levelIds = level.stream().map(BaseEntity::getId).collect(Collectors.toList());
+        }
+        return subtree;
+    }
+
     /**
      * Loads a project from the database by its ID with all its items
      *
@@ -186,6 +228,7 @@ public class ProjectManager {
         Assert.notNull(project, MessageHelper.getMessage(MessagesConstants.ERROR_PROJECT_NOT_FOUND, projectId));
 
         loadProjectStuff(project);
+        lastOpenedDateRecorder.recordOpened(project.getId());
 
         return project;
     }
@@ -202,7 +245,7 @@ public class ProjectManager {
         Assert.notNull(project, MessageHelper.getMessage(MessagesConstants.ERROR_PROJECT_NOT_FOUND, projectName));
 
         loadProjectStuff(project);
-        updateLastOpenedDate(project);
+        lastOpenedDateRecorder.recordOpened(project.getId());
 
         return project;
     }
@@ -212,10 +255,6 @@ public class ProjectManager {
         project.setNestedProjects(projectDao.loadNestedProjects(project.getId()));
     }
 
-    private void updateLastOpenedDate(Project project) {
-        projectDao.updateLastOpenedDate(project.getId());
-    }
-
     /**
      * Moves a Project, specified by projectId to a parent project, specified by parentId
      * @param projectId an ID of a project, to move
@@ -236,29 +275,7 @@ public class ProjectManager {
 
     private void loadProjectItems(Project project) {
         project.setItems(projectDao.loadProjectItemsByProjectId(project.getId()));
-
-        // Set Vcf files samples
-        Set<Long> vcfIds = new HashSet<>();
-        Set<Long> segIds = new HashSet<>();
-        project.getItems().stream().forEach(item -> {
-            if (item.getBioDataItem() != null) {
-                switch (item.getBioDataItem().getFormat()) {
-                    case VCF:
-                        VcfFile vcfFile = (VcfFile) item.getBioDataItem();
-                        vcfIds.add(vcfFile.getId());
-                        break;
-                    case SEG:
-                        SegFile segFile = (SegFile) item.getBioDataItem();
-                        segIds.add(segFile.getId());
-                        break;
-                    default:
-                        break;
-                }
-            }
-        });
-
-        loadSamples(project, vcfIds, segIds);
-
+        loadSamples(project.getItems());
         project.setItemsCount(project.getItems().size());
     }
 
@@ -475,6 +492,67 @@ public class ProjectManager {
         return loadProjectAndUpdateLastOpenedDate(projectId);
     }
 
+    /**
+     * Adds several items to a project, specified by ID, by a single batch update. Items, that are already
+     * in a project, are skipped
+     *
+     * @param projectId         {@code Long} ID of a project
+     * @param biologicalItemIds {@code List} of IDs of items to add
+     */
+    @Transactional(propagation = Propagation.REQUIRED)
+    public Project addProjectItems(long projectId, List<Long> biologicalItemIds) {
+        Project loadedProject = loadProjectAndUpdateLastOpenedDate(projectId);
+        Reference reference = findReference(loadedProject.getItems());
+        Set<Long> existingBioIds = loadedProject.getItems().stream()
+                .map(item -> BiologicalDataItem.getBioDataItemId(item.getBioDataItem()))
+                .collect(Collectors.toSet());
+        List<Long> newBioIds = biologicalItemIds.stream()
+                .filter(id -> !existingBioIds.contains(id))
+                .distinct()
+                .collect(Collectors.toList());
+        if (newBioIds.isEmpty()) {
+            return loadedProject;
+        }
+
+        List<BiologicalDataItem> itemsToAdd = biologicalDataItemDao.loadBiologicalDataItemsByIds(newBioIds);
+        Set<Long> foundBioIds = itemsToAdd.stream().map(BiologicalDataItem::getBioDataItemId)
+                .collect(Collectors.toSet());
+        for (Long id : newBioIds) {
+            Assert.isTrue(foundBioIds.contains(id),
+                    MessageHelper.getMessage(MessagesConstants.ERROR_BIO_ID_NOT_FOUND, id));
+        }
+        Assert.isTrue(itemsToAdd.stream().noneMatch(
+            item -> item.getFormat() == BiologicalDataItemFormat.REFERENCE),
+                MessageHelper.getMessage(MessagesConstants.ERROR_PROJECT_INVALID_REFERENCE));
+        checkReference(reference, itemsToAdd);
+
+        projectDao.addProjectItems(projectId, itemsToAdd.stream().map(ProjectItem::new)
+                .collect(Collectors.toList()));
+        return loadProjectAndUpdateLastOpenedDate(projectId);
+    }
+
+    /**
+     * Removes several items from a project, specified by ID, by a single batch update
+     *
+     * @param projectId         {@code Long} ID of a project
+     * @param biologicalItemIds {@code List} of IDs of items to remove
+     */
+    @Transactional(propagation = Propagation.REQUIRED)
+    public Project removeProjectItems(long projectId, List<Long> biologicalItemIds) {
+        List<ProjectItem> itemsToRemove = biologicalItemIds.stream().distinct()
+                .map(id -> {
+                    BiologicalDataItem item = new BiologicalDataItem();
+                    item.setId(id);
+                    return new ProjectItem(item);
+                })
+                .collect(Collectors.toList());
+        if (!itemsToRemove.isEmpty()) {
+            projectDao.deleteProjectItems(projectId, itemsToRemove);
+        }
+
+        return loadProjectAndUpdateLastOpenedDate(projectId);
+    }
+
     /**
      * Hides a project item, specified by ID. Hidden item won't be shown on UI.
      *
@@ -515,12 +593,34 @@ public class ProjectManager {
         }
     }
 
-    private void loadSamples(Project project, Set<Long> vcfIds, Set<Long> segIds) {
+    /**
+     * Sets samples of all VCF and SEG files among given project items, loading them with a single query
+     * per file type
+     * @param items a {@code Collection} of project items to set samples for
+     */
+    private void loadSamples(Collection<ProjectItem> items) {
+        Set<Long> vcfIds = new HashSet<>();
+        Set<Long> segIds = new HashSet<>();
+        items.stream().forEach(item -> {
+            if (item.getBioDataItem() != null) {
+                switch (item.getBioDataItem().getFormat()) {
+                    case VCF:
+                        vcfIds.add(item.getBioDataItem().getId());
+                        break;
+                    case SEG:
+                        segIds.add(item.getBioDataItem().getId());
+                        break;
+                    default:
+                        break;
+                }
+            }
+        });
+
         if (!vcfIds.isEmpty() || !segIds.isEmpty()) {
             Map<Long, List<VcfSample>> vcfSampleMap = vcfFileDao.loadSamplesByFileIds(vcfIds);
             Map<Long, List<SegSample>> segSampleMap = segFileDao.loadSamplesByFileIds(segIds);
 
-            project.getItems().parallelStream().forEach(item -> {
+            items.parallelStream().forEach(item -> {
                 if (item.getBioDataItem() != null) {
                     switch (item.getBioDataItem().getFormat()) {
                         case VCF:
@@ -0,0 +1,118 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2016 EPAM Systems
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.epam.catgenome.manager.protein;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import com.epam.catgenome.entity.reference.Sequence;
+
+/**
+ * Lazily enumerates all combinations of alternative nucleotide sequences of a transcript's CDS.
+ * <p>
+ * Works as an odometer over per-CDS option lists: the last CDS changes fastest, so consecutive
+ * combinations share the longest possible prefix. Only the current combination is held in memory,
+ * {@link #getChangedIndex()} reports the first CDS that differs from the previously returned one.
+ * </p>
+ */
+class NucleotideVariantIterator implements Iterator<List<List<Sequence>>> {
+
+    private final List<List<List<Sequence>>> options;
+    private final int[] positions;
+    private final List<List<Sequence>> current;
+    private final List<List<Sequence>> currentView;
+    private boolean started;
+    private boolean exhausted;
+    private int changedIndex;
+
+    /**
+     * @param options list of possible nucleotide sequences for each CDS, in translation order
+     */
+    NucleotideVariantIterator(final List<List<List<Sequence>>> options) {
+        this.options = options;
+        this.positions = new int[options.size()];
+        this.current = new ArrayList<>(options.size());
+        this.currentView = Collections.unmodifiableList(current);
+        this.exhausted = options.isEmpty() || options.stream().anyMatch(List::isEmpty);
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (exhausted) {
+            return false;
+        }
+        if (!started) {
+            return true;
+        }
+        for (int i = 0; i < positions.length; i++) {
+            if (positions[i] < options.get(i).size() - 1) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Advances to the next combination. The returned list is a read-only view, that is updated
+     * in place by the subsequent calls.
+     *
+     * @return nucleotide sequences of the current combination, one per CDS
+     */
+    @Override
+    public List<List<Sequence>> next() {
+        if (!hasNext()) {
+            exhausted = true;
+            throw new NoSuchElementException();
+        }
+        if (!started) {
+            started = true;
+            changedIndex = 0;
+            for (List<List<Sequence>> cdsOptions : options) {
+                current.add(cdsOptions.get(0));
+            }
+            return currentView;
+        }
+        int i = positions.length - 1;
+        while (positions[i] == options.get(i).size() - 1) {
+            positions[i] = 0;
+            current.set(i, options.get(i).get(0));
+            i--;
+        }
+        positions[i]++;
+        current.set(i, options.get(i).get(positions[i]));
+        changedIndex = i;
+        return currentView;
+    }
+
+    /**
+     * @return index of the first CDS, which sequence differs from the previous combination
+     */
+    int getChangedIndex() {
+        return changedIndex;
+    }
+}
@@ -0,0 +1,210 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2016 EPAM Systems
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.epam.catgenome.manager.protein;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Service;
+
+import com.epam.catgenome.entity.protein.ProteinSequenceEntry;
+import net.sf.ehcache.Ehcache;
+
+/**
+ * <p>
+ * A service, that keeps protein sequences of whole transcripts in {@code proteinTranscript} LRU cache, keyed by
+ * gene file, transcript ID, reference and chromosome. Protein track requests are assembled from cached transcripts,
+ * overlapping a requested window, so panning and zooming do not reconstruct the same transcripts again.
+ * </p>
+ * <p>
+ * Cached sequences are evicted, when a gene file or a reference is deleted. If no {@link CacheManager} is
+ * configured, nothing is cached.
+ * </p>
+ */
+@Service
+public class ProteinSequenceCacheManager {
+
+    public static final String PROTEIN_TRANSCRIPT_CACHE = "proteinTranscript";
+
+    @Autowired(required = false)
+    private CacheManager cacheManager;
+
+    private final AtomicLong hitCount = new AtomicLong();
+    private final AtomicLong missCount = new AtomicLong();
+
+    /**
+     * Returns a cached protein sequence of a transcript
+     *
+     * @param key a key of a transcript
+     * @return a list of amino acids of a transcript or null, if it is not cached
+     */
+    @SuppressWarnings("unchecked")
+    public List<ProteinSequenceEntry> get(final TranscriptKey key) {
+        final Cache cache = getCache();
+        if (cache == null) {
+            return null;
+        }
+        final Cache.ValueWrapper cached = cache.get(key);
+        if (cached == null) {
+            missCount.incrementAndGet();
+            return null;
+        }
+        hitCount.incrementAndGet();
+        return (List<ProteinSequenceEntry>) cached.get();
+    }
+
+    /**
+     * Saves a protein sequence of a transcript in the cache
+     *
+     * @param key a key of a transcript
+     * @param aminoAcids a list of amino acids of a whole transcript
+     * @return an unmodifiable list of amino acids, that is shared between requests
+     */
+    public List<ProteinSequenceEntry> put(final TranscriptKey key, final List<ProteinSequenceEntry> aminoAcids) {
+        final List<ProteinSequenceEntry> value = Collections.unmodifiableList(aminoAcids);
+        final Cache cache = getCache();
+        if (cache != null) {
+            cache.put(key, value);
+        }
+        return value;
+    }
+
+    /**
+     * Removes cached protein sequences of all transcripts of a gene file
+     * @param geneFileId an ID of a gene file
+     */
+    public void evictGeneFile(final Long geneFileId) {
+        evictIf(key -> Objects.equals(key.geneFileId, geneFileId));
+    }
+
+    /**
+     * Removes cached protein sequences of all transcripts, translated from a reference
+     * @param referenceId an ID of a reference
+     */
+    public void evictReference(final Long referenceId) {
+        evictIf(key -> Objects.equals(key.referenceId, referenceId));
+    }
+
+    public long getHitCount() {
+        return hitCount.get();
+    }
+
+    public long getMissCount() {
+        return missCount.get();
+    }
+
+    /**
+     * @return number of cached transcripts
+     */
+    public int getSize() {
+        final Collection<?> keys = getKeys();
+        return keys != null ? keys.size() : 0;
+    }
+
+    private void evictIf(final Predicate<TranscriptKey> predicate) {
+        final Cache cache = getCache();
+        if (cache == null) {
+            return;
+        }
+        final Collection<?> keys = getKeys();
+        if (keys == null) {
+            cache.clear();
+            return;
+        }
+        keys.stream()
+                .filter(key -> key instanceof TranscriptKey && predicate.test((TranscriptKey) key))
+                .forEach(cache::evict);
+    }
+
+    private Collection<?> getKeys() {
+        final Cache cache = getCache();
+        if (cache == null) {
+            return null;
+        }
+        final Object nativeCache = cache.getNativeCache();
+        if (nativeCache instanceof Ehcache) {
+            return ((Ehcache) nativeCache).getKeys();
+        }
+        if (nativeCache instanceof Map) {
+            return new ArrayList<>(((Map<?, ?>) nativeCache).keySet());
+        }
+        return null;
+    }
+
+    private Cache getCache() {
+        return cacheManager != null ? cacheManager.getCache(PROTEIN_TRANSCRIPT_CACHE) : null;
+    }
+
+    /**
+     * Identifies a protein sequence of a transcript. A chromosome is a part of a key, as transcripts of
+     * pseudoautosomal regions share the same ID on X and Y chromosomes.
+     */
+    public static final class TranscriptKey implements Serializable {
+        private final Long geneFileId;
+        private final String transcriptId;
+        private final Long referenceId;
+        private final Long chromosomeId;
+        private final boolean collapsed;
+
+        public TranscriptKey(final Long geneFileId, final String transcriptId, final Long referenceId,
+                final Long chromosomeId, final boolean collapsed) {
+            this.geneFileId = geneFileId;
+            this.transcriptId = transcriptId;
+            this.referenceId = referenceId;
+            this.chromosomeId = chromosomeId;
+            this.collapsed = collapsed;
+        }
+
+        @Override
+        public boolean equals(final Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            final TranscriptKey that = (TranscriptKey) o;
+            return collapsed == that.collapsed && Objects.equals(geneFileId, that.geneFileId)
+                    && Objects.equals(transcriptId, that.transcriptId)
+                    && Objects.equals(referenceId, that.referenceId)
+                    && Objects.equals(chromosomeId, that.chromosomeId);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(geneFileId, transcriptId, referenceId, chromosomeId, collapsed);
+        }
+    }
+}
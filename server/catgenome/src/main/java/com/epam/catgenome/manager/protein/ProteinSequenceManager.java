@@ -37,9 +37,8 @@ import java.util.stream.Collectors;
 
 import org.apache.commons.collections4.CollectionUtils;
 import org.apache.commons.lang3.StringUtils;
-import org.apache.commons.lang3.tuple.ImmutablePair;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.cache.annotation.Cacheable;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
@@ -86,6 +85,9 @@ public class ProteinSequenceManager {
     @Autowired
     private ProteinSequenceReconstructionManager psReconstructionManager;
 
+    @Value("#{catgenome['protein.variants.max.combinations'] ?: 1000}")
+    private int maxVariantCombinations;
+
     /**
      * Load protein sequence for specified track (start and end indexes, gene item id, reference genome).
      *
@@ -94,8 +96,6 @@ public class ProteinSequenceManager {
      * @throws GeneReadingException if errors occurred during working with gene file
      */
     @Transactional(propagation = Propagation.REQUIRED)
-    @Cacheable(cacheNames = "proteinTrack", key = "#geneTrack.proteinCacheKey(#referenceId)",
-            unless = "#result == null") //TODO: remove?
     public Track<ProteinSequenceInfo> loadProteinSequence(final Track<Gene> geneTrack, final Long referenceId)
         throws GeneReadingException {
         Assert.notNull(referenceId, MessageHelper.getMessage(MessagesConstants.ERROR_REFERENCE_ID_NULL));
@@ -246,10 +246,9 @@ public class ProteinSequenceManager {
                                                     final Map<Gene, List<List<ProteinSequenceEntry>>>
                                                             mrnaToAminoAcidsMap,
                                                     final Gene mrna, final List<Gene> cdses) throws IOException {
+        List<Gene> translationOrder = sortForTranslation(cdses);
         Map<Gene, List<List<Sequence>>> cdsToPossibleNucleotideSeqs = new HashMap<>();
-        List<Integer> frames = new ArrayList<>();
-        for (Gene cds : cdses) {
-            frames.add(cds.getFrame());
+        for (Gene cds : translationOrder) {
             List<List<Sequence>> variants = cdsToNucleotidesMap.get(cds);
             if (variants == null) {
                 variants = psReconstructionManager.loadNucleotidesForReferenceCds(chromosome, referenceId,
@@ -258,36 +257,21 @@ public class ProteinSequenceManager {
             cdsToPossibleNucleotideSeqs.put(cds, variants);
         }
 
-        List<List<ImmutablePair<Gene, List<Sequence>>>> nucleotideVariants = makeNucleatideVariantsList(cdses,
-                                                                                        cdsToPossibleNucleotideSeqs);
-
-        List<List<ProteinSequenceEntry>> variantList = new ArrayList<>();
-        for (List<ImmutablePair<Gene, List<Sequence>>> nucleotideVariant : nucleotideVariants) {
-            List<List<Sequence>> cdsNucleotides =
-                    nucleotideVariant.stream().map(ImmutablePair::getValue).collect(Collectors.toList());
-
-
-            Map<Gene, List<ProteinSequenceEntry>> cdsToAminoAcidsMap = psReconstructionManager.getAminoAcids(geneTrack,
-                    cdses, cdsNucleotides, frames);
-            List<ProteinSequenceEntry> aminoAcids = new ArrayList<>();
-            cdsToAminoAcidsMap.values().stream().forEach(aminoAcids::addAll);
-            variantList.add(aminoAcids);
-        }
-        mrnaToAminoAcidsMap.put(mrna, variantList);
+        mrnaToAminoAcidsMap.put(mrna, psReconstructionManager.getAminoAcidVariants(geneTrack, translationOrder,
+                translationOrder.stream().map(cdsToPossibleNucleotideSeqs::get).collect(Collectors.toList()),
+                maxVariantCombinations));
     }
 
-    private List<List<ImmutablePair<Gene, List<Sequence>>>> makeNucleatideVariantsList(final List<Gene> cdses,
-                                                        Map<Gene, List<List<Sequence>>> cdsToPossibleNucleotideSeqs) {
+    /**
+     * Sorts CDS in the order they are translated: by start index, descending for the negative strand.
+     */
+    private List<Gene> sortForTranslation(final List<Gene> cdses) {
+        if (CollectionUtils.isEmpty(cdses)) {
+            return Collections.emptyList();
+        }
         boolean isNegative = StrandSerializable.NEGATIVE.equals(cdses.get(0).getStrand());
-        return combineData(cdsToPossibleNucleotideSeqs, (o1, o2) -> {
-            if (o1.getStartIndex() < o2.getStartIndex()) {
-                return isNegative ? 1 : -1;
-            } else if (o1.getStartIndex() > o2.getStartIndex()) {
-                return isNegative ? -1 : 1;
-            } else {
-                return 0;
-            }
-        });
+        Comparator<Gene> comparator = Comparator.comparing(Gene::getStartIndex);
+        return cdses.stream().sorted(isNegative ? comparator.reversed() : comparator).collect(Collectors.toList());
     }
 
     private Map<Variation, List<Gene>> findIntersections(final Track<Variation> variations, final Set<Gene> allCds) {
@@ -318,42 +302,4 @@ public class ProteinSequenceManager {
         variationCds.addAll(helpAllCdsList);
         return variationCds;
     }
-
-    private List<List<ImmutablePair<Gene, List<Sequence>>>> combineData(
-            final Map<Gene, List<List<Sequence>>> data,
-            final Comparator<Gene> comparator) {
-        List<List<ImmutablePair<Gene, List<Sequence>>>> source =
-                data.entrySet().stream().sorted((e1, e2) -> comparator.compare(e1.getKey(), e2.getKey()))
-                        .map(e -> e.getValue().stream().map(s -> new ImmutablePair<>(e.getKey(), s))
-                                .collect(Collectors.toList())).collect(Collectors.toList());
-        if (CollectionUtils.isEmpty(source)) {
-            return Collections.emptyList();
-        }
-        List<List<ImmutablePair<Gene, List<Sequence>>>> start = new ArrayList<>();
-        for (ImmutablePair<Gene, List<Sequence>> p : source.remove(0)) {
-            List<ImmutablePair<Gene, List<Sequence>>> ll = new ArrayList<>();
-            ll.add(p);
-            start.add(ll);
-        }
-        return recursiveCombine(start, source);
-    }
-
-    private List<List<ImmutablePair<Gene, List<Sequence>>>> recursiveCombine(
-            List<List<ImmutablePair<Gene, List<Sequence>>>> acc,
-            List<List<ImmutablePair<Gene, List<Sequence>>>> source) {
-        if (source.isEmpty()) {
-            return acc;
-        }
-        List<ImmutablePair<Gene, List<Sequence>>> nextLevel = source.remove(0);
-        List<List<ImmutablePair<Gene, List<Sequence>>>> newAcc = new ArrayList<>();
-        for (ImmutablePair<Gene, List<Sequence>> p : nextLevel) {
-            for (List<ImmutablePair<Gene, List<Sequence>>> list : acc) {
-                List<ImmutablePair<Gene, List<Sequence>>> newList = new ArrayList<>();
-                newList.addAll(list);
-                newList.add(p);
-                newAcc.add(newList);
-            }
-        }
-        return recursiveCombine(newAcc, source);
-    }
 }
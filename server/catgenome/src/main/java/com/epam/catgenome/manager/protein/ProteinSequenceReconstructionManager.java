@@ -39,6 +39,7 @@ import java.util.stream.Collectors;
 
 import org.apache.commons.collections4.CollectionUtils;
 import org.apache.commons.collections4.ListUtils;
+import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.lang3.mutable.MutableInt;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -76,6 +77,7 @@ import com.epam.catgenome.util.Utils;
 public class ProteinSequenceReconstructionManager {
 
     private static final int TRIPLE_LENGTH = 3;
+    private static final String TRANSCRIPT_ID_FIELD = "transcript_id";
 
     @Autowired
     private GffManager gffManager;
@@ -86,6 +88,9 @@ public class ProteinSequenceReconstructionManager {
     @Autowired
     private GeneFileManager geneFileManager;
 
+    @Autowired
+    private ProteinSequenceCacheManager proteinSequenceCacheManager;
+
     private static final List TRANSCRIPTS_NAMES = Arrays.asList("mrna", "transcript");
     private static final List CDS_NAMES = Arrays.asList("cds", "stop_codon");
 
@@ -115,19 +120,20 @@ public class ProteinSequenceReconstructionManager {
         ConcurrentMap<Gene, List<ProteinSequenceEntry>> mrnaToAminoAcidsMap = new ConcurrentHashMap<>();
         for (Map.Entry<Gene, List<Gene>> mrnaToCdsEntry : mrnaToCdsMap.entrySet()) {
             List<Gene> cdsList = mrnaToCdsEntry.getValue();
-            List<Integer> frames = cdsList.stream().map(Gene::getFrame).collect(Collectors.toList());
-            List<List<Sequence>> cdsNucleotides = loadCdsNucleatides(cdsList, referenceId, chromosome);
-            if (cdsNucleotides == null) {
+            if (CollectionUtils.isEmpty(cdsList)) {
                 continue;
             }
-
-            // Convert nucleotide triple -> amino acid for all CDS.
-            Map<Gene, List<ProteinSequenceEntry>> cdsToAminoAcidsMap = getAminoAcids(geneTrack, cdsList, cdsNucleotides,
-                                                                                     frames);
-
-            List<ProteinSequenceEntry> aminoAcids = new ArrayList<>();
-            cdsToAminoAcidsMap.values().stream().forEach(aminoAcids::addAll);
-            mrnaToAminoAcidsMap.put(mrnaToCdsEntry.getKey(), aminoAcids);
+            try {
+                // Convert nucleotide triple -> amino acid for all CDS.
+                List<ProteinSequenceEntry> aminoAcids = loadTranscriptAminoAcids(geneTrack, mrnaToCdsEntry.getKey(),
+                        cdsList, referenceId, chromosome, collapsedTrack);
+                mrnaToAminoAcidsMap.put(mrnaToCdsEntry.getKey(), aminoAcids.stream()
+                        .filter(aminoAcid -> isInTrack(geneTrack, aminoAcid.getTripleStartIndex(),
+                                aminoAcid.getTripleEndIndex()))
+                        .collect(Collectors.toList()));
+            } catch (IOException e) {
+                LOGGER.error("Error during protein sequence reconstruction.", e);
+            }
         }
         time2 = Utils.getSystemTimeMilliseconds();
         LOGGER.info("protein sequence reconstruction took {} ms", time2 - time1);
@@ -135,6 +141,33 @@ public class ProteinSequenceReconstructionManager {
         return mrnaToAminoAcidsMap;
     }
 
+    /**
+     * Loads amino acids of a whole transcript from the cache or translates and caches them. Transcripts without
+     * ID are translated only for the requested track.
+     */
+    private List<ProteinSequenceEntry> loadTranscriptAminoAcids(final Track<Gene> geneTrack, final Gene mrna,
+                                                                final List<Gene> cdsList, final Long referenceId,
+                                                                final Chromosome chromosome,
+                                                                final boolean collapsedTrack) throws IOException {
+        String transcriptId = mrna.getAttributes() != null ? mrna.getAttributes().get(TRANSCRIPT_ID_FIELD) : null;
+        if (StringUtils.isBlank(transcriptId)) {
+            return translateReferenceCds(geneTrack, cdsList, referenceId, chromosome);
+        }
+
+        ProteinSequenceCacheManager.TranscriptKey key = new ProteinSequenceCacheManager.TranscriptKey(
+                geneTrack.getId(), transcriptId, referenceId, chromosome.getId(), collapsedTrack);
+        List<ProteinSequenceEntry> aminoAcids = proteinSequenceCacheManager.get(key);
+        if (aminoAcids != null) {
+            return aminoAcids;
+        }
+
+        Track<Gene> transcriptTrack = new Track<>(geneTrack);
+        transcriptTrack.setStartIndex(cdsList.stream().mapToInt(Gene::getStartIndex).min().getAsInt());
+        transcriptTrack.setEndIndex(cdsList.stream().mapToInt(Gene::getEndIndex).max().getAsInt());
+        return proteinSequenceCacheManager.put(key,
+                translateReferenceCds(transcriptTrack, cdsList, referenceId, chromosome));
+    }
+
     /**
      * Load CDS from gene file in specified interval [startIndex, endIndex].
      *
@@ -181,40 +214,110 @@ public class ProteinSequenceReconstructionManager {
 
         MutableInt aminoAcidCounter = new MutableInt(0);
         for (int i = 0; i < cdsNucleotides.size(); i++) {
-            List<Sequence> nucleotides = cdsNucleotides.get(i);
-            Gene cds = cdsList.get(i);
-
-            int extendedStart = 0;
-            int frame = frames.get(i);
-            if (frame > 0 && i != 0) {
-                //restore the part of the triplet from the previous nucleotides
-                List<Sequence> prev = cdsNucleotides.get(i - 1);
-                int prevNucleotides =  TRIPLE_LENGTH - frame;
-                if (prev.size() >= prevNucleotides) {
-                    List<Sequence> nucleotidesExtended = new ArrayList<>();
-                    nucleotidesExtended.addAll(prev.subList(prev.size() - prevNucleotides, prev.size()));
-                    nucleotidesExtended.addAll(nucleotides);
-                    nucleotides = nucleotidesExtended;
-                    extendedStart = -prevNucleotides;
-                }
-            } else {
-                nucleotides = nucleotides.subList(frame, nucleotides.size());
-            }
+            proteinSequences.putIfAbsent(cdsList.get(i),
+                    translateCds(track, cdsList, cdsNucleotides, frames, i, aminoAcidCounter));
+        }
 
-            // Construct amino acids from nucleotide triples.
-            List<List<Sequence>> tripleList = ListUtils.partition(nucleotides, TRIPLE_LENGTH);
-            List<ProteinSequenceEntry> value =
-                    reconstructAminoAcidByTriples(track, cds, cdsNucleotides, i, tripleList,
-                                                  extendedStart, aminoAcidCounter);
+        double time2 = Utils.getSystemTimeMilliseconds();
+        LOGGER.debug("Get amino acids {}:{} ms", Thread.currentThread().getName(), time2 - time1);
 
-            proteinSequences.putIfAbsent(cds, value);
+        return proteinSequences;
+    }
 
+    /**
+     * Constructs amino acid sequences for all combinations of alternative CDS nucleotide sequences.
+     * Combinations are enumerated lazily, so that only the current one is kept in memory, and
+     * translation of the CDS, not affected by the last change, is reused from the previous combination.
+     *
+     * @param track a track to create sequences
+     * @param cdsList a list of CDS blocks in translation order
+     * @param cdsVariants a list of possible nucleotide sequences for each CDS from cdsList
+     * @param maxCombinations maximum number of combinations to translate
+     * @return a list of protein sequences, one per combination
+     */
+    public List<List<ProteinSequenceEntry>> getAminoAcidVariants(final Track<Gene> track, final List<Gene> cdsList,
+                                                                 final List<List<List<Sequence>>> cdsVariants,
+                                                                 final int maxCombinations) {
+        if (CollectionUtils.isEmpty(cdsList) || CollectionUtils.isEmpty(cdsVariants)) {
+            return Collections.emptyList();
+        }
+        Assert.isTrue(cdsList.size() == cdsVariants.size(), "Each CDS should have its nucleotide sequences.");
+        double time1 = Utils.getSystemTimeMilliseconds();
+        int size = cdsList.size();
+        List<Integer> frames = cdsList.stream().map(Gene::getFrame).collect(Collectors.toList());
+        List<List<ProteinSequenceEntry>> translated = new ArrayList<>(Collections.nCopies(size, null));
+        int[] counters = new int[size];
+
+        List<List<ProteinSequenceEntry>> variants = new ArrayList<>();
+        NucleotideVariantIterator iterator = new NucleotideVariantIterator(cdsVariants);
+        while (iterator.hasNext() && variants.size() < maxCombinations) {
+            List<List<Sequence>> cdsNucleotides = iterator.next();
+            // a boundary triple of a CDS may borrow up to two nucleotides from the following ones
+            int from = Math.max(0, iterator.getChangedIndex() - 2);
+            MutableInt aminoAcidCounter = new MutableInt(counters[from]);
+            for (int i = from; i < size; i++) {
+                counters[i] = aminoAcidCounter.intValue();
+                translated.set(i, translateCds(track, cdsList, cdsNucleotides, frames, i, aminoAcidCounter));
+            }
+
+            List<ProteinSequenceEntry> aminoAcids = new ArrayList<>();
+            translated.forEach(aminoAcids::addAll);
+            variants.add(aminoAcids);
+        }
+        if (iterator.hasNext()) {
+            LOGGER.warn("Number of protein sequence variants for track {} exceeds limit {}, the rest are skipped",
+                    track.getId(), maxCombinations);
         }
 
         double time2 = Utils.getSystemTimeMilliseconds();
-        LOGGER.debug("Get amino acids {}:{} ms", Thread.currentThread().getName(), time2 - time1);
+        LOGGER.debug("Get amino acid variants {}:{} ms", Thread.currentThread().getName(), time2 - time1);
+        return variants;
+    }
 
-        return proteinSequences;
+    /**
+     * Constructs amino acid sequence of reference CDS of a transcript. Works on a single reference
+     * byte array with integer encoded codons, so that no objects are created for nucleotides and triples.
+     * Produces the same result as {@link #getAminoAcids(Track, List, List, List)} for the sequences,
+     * loaded by {@link #loadNucleotidesForReferenceCds(Chromosome, Long, List)}.
+     *
+     * @param track a track to create sequences
+     * @param cdsList a list of transcript's CDS blocks
+     * @param referenceId reference genome id
+     * @param chromosome chromosome
+     * @return list of amino acids of all CDS in translation order
+     * @throws IOException if errors occurred during working with reference file
+     */
+    public List<ProteinSequenceEntry> translateReferenceCds(final Track<Gene> track, final List<Gene> cdsList,
+                                                            final Long referenceId, final Chromosome chromosome)
+        throws IOException {
+        if (CollectionUtils.isEmpty(cdsList)) {
+            return Collections.emptyList();
+        }
+        double time1 = Utils.getSystemTimeMilliseconds();
+        int startIndex = chromosome.getSize();
+        int endIndex = 1;
+        for (Gene cds : cdsList) {
+            startIndex = Math.min(startIndex, cds.getStartIndex());
+            endIndex = Math.max(endIndex, cds.getEndIndex());
+        }
+        byte[] reference = referenceManager.getSequenceByteArray(startIndex, endIndex, referenceId,
+                chromosome.getName());
+
+        //if gene is on the negative strand, we should process it from the end
+        List<Gene> translationOrder = new ArrayList<>(cdsList);
+        if (StrandSerializable.NEGATIVE.equals(translationOrder.get(0).getStrand())) {
+            Collections.reverse(translationOrder);
+        }
+        CdsBases bases = new CdsBases(translationOrder, reference, startIndex);
+        List<ProteinSequenceEntry> aminoAcids = new ArrayList<>();
+        MutableInt aminoAcidCounter = new MutableInt(0);
+        for (int i = 0; i < translationOrder.size(); i++) {
+            translateCds(track, bases, i, aminoAcidCounter, aminoAcids);
+        }
+
+        double time2 = Utils.getSystemTimeMilliseconds();
+        LOGGER.debug("Translating reference cds {}:{} ms", Thread.currentThread().getName(), time2 - time1);
+        return aminoAcids;
     }
 
     /**
@@ -364,22 +467,105 @@ public class ProteinSequenceReconstructionManager {
         }
     }
 
-    private List<List<Sequence>> loadCdsNucleatides(List<Gene> cdsList, long referenceId, Chromosome chromosome) {
-        if (CollectionUtils.isEmpty(cdsList)) {
-            return null;
+    private List<ProteinSequenceEntry> translateCds(final Track<Gene> track, final List<Gene> cdsList,
+                                                    final List<List<Sequence>> cdsNucleotides,
+                                                    final List<Integer> frames, final int index,
+                                                    final MutableInt aminoAcidCounter) {
+        List<Sequence> nucleotides = cdsNucleotides.get(index);
+        int extendedStart = 0;
+        int frame = frames.get(index);
+        if (frame > 0 && index != 0) {
+            //restore the part of the triplet from the previous nucleotides
+            List<Sequence> prev = cdsNucleotides.get(index - 1);
+            int prevNucleotides =  TRIPLE_LENGTH - frame;
+            if (prev.size() >= prevNucleotides) {
+                List<Sequence> nucleotidesExtended = new ArrayList<>();
+                nucleotidesExtended.addAll(prev.subList(prev.size() - prevNucleotides, prev.size()));
+                nucleotidesExtended.addAll(nucleotides);
+                nucleotides = nucleotidesExtended;
+                extendedStart = -prevNucleotides;
+            }
+        } else {
+            nucleotides = nucleotides.subList(frame, nucleotides.size());
         }
 
-        // Load reference nucleotides for CDS.
-        List<List<Sequence>> cdsNucleotides;
-        try {
-            cdsNucleotides = loadNucleotidesForReferenceCds(chromosome, referenceId, cdsList);
-        } catch (IOException e) {
-            LOGGER.error("Error during protein sequence reconstruction.", e);
-            return null;
+        // Construct amino acids from nucleotide triples.
+        List<List<Sequence>> tripleList = ListUtils.partition(nucleotides, TRIPLE_LENGTH);
+        return reconstructAminoAcidByTriples(track, cdsList.get(index), cdsNucleotides, index, tripleList,
+                                             extendedStart, aminoAcidCounter);
+    }
+
+    /**
+     * Mirrors {@link #translateCds(Track, List, List, List, int, MutableInt)} and
+     * {@link #reconstructAminoAcidByTriples(Track, Gene, List, int, List, Integer, MutableInt)}
+     * for the reference bases of CDS.
+     */
+    private void translateCds(final Track<Gene> track, final CdsBases bases, final int index,
+                              final MutableInt aminoAcidCounter, final List<ProteinSequenceEntry> aminoAcids) {
+        Gene cds = bases.getCds(index);
+        int length = bases.length(index);
+        int frame = cds.getFrame();
+        // a sequence to translate is [prefix of the previous CDS bases] + [CDS bases, starting from skip]
+        int prefix = 0;
+        int skip = 0;
+        if (frame > 0 && index != 0) {
+            //restore the part of the triplet from the previous nucleotides
+            if (bases.length(index - 1) >= TRIPLE_LENGTH - frame) {
+                prefix = TRIPLE_LENGTH - frame;
+            }
+        } else {
+            skip = Math.min(frame, length);
         }
-        Assert.notNull(cdsNucleotides, "Cannot load nucleotides for cds list.");
 
-        return cdsNucleotides;
+        int sequenceLength = prefix + length - skip;
+        for (int tripleStart = 0; tripleStart < sequenceLength; tripleStart += TRIPLE_LENGTH) {
+            int newExtendedStart = tripleStart == 0 ? -prefix : 0;
+            if (newExtendedStart == 0) {
+                aminoAcidCounter.increment();
+            }
+
+            int codon = 0;
+            int firstPosition = 0;
+            int lastPosition = 0;
+            int tripleEnd = Math.min(tripleStart + TRIPLE_LENGTH, sequenceLength);
+            for (int i = tripleStart; i < tripleEnd; i++) {
+                int cdsIndex = i < prefix ? index - 1 : index;
+                int offset = i < prefix ? bases.length(index - 1) - prefix + i : i - prefix + skip;
+                codon = ProteinSequenceUtils.appendNucleotideCode(codon, bases.getCode(cdsIndex, offset));
+                if (i == tripleStart) {
+                    firstPosition = bases.getPosition(cdsIndex, offset);
+                }
+                lastPosition = bases.getPosition(cdsIndex, offset);
+            }
+
+            // Reconstruct boundary amino acids, using nucleotides from nearby CDS.
+            int tripleLength = tripleEnd - tripleStart;
+            boolean isAdditionalCds = false;
+            for (int next = index + 1; tripleLength < TRIPLE_LENGTH; next++) {
+                if (next >= bases.size()) {
+                    isAdditionalCds = true;
+                    break;
+                }
+                int borrowed = Math.min(bases.length(next), TRIPLE_LENGTH - tripleLength);
+                for (int offset = 0; offset < borrowed; offset++) {
+                    codon = ProteinSequenceUtils.appendNucleotideCode(codon, bases.getCode(next, offset));
+                    lastPosition = bases.getPosition(next, offset);
+                }
+                newExtendedStart += borrowed;
+                tripleLength += borrowed;
+            }
+
+            if (!isAdditionalCds) {
+                boolean isNegative = StrandSerializable.NEGATIVE.equals(cds.getStrand());
+                String aminoAcid = ProteinSequenceUtils.codonToAminoAcid(codon);
+                long tripleStartIndex = isNegative ? lastPosition : firstPosition;
+                if (((newExtendedStart > 0) && isNegative) || ((newExtendedStart < 0) && !isNegative)) {
+                    tripleStartIndex = cds.getStartIndex();
+                }
+                addProteinSequenceEntry(track, cds, aminoAcids, aminoAcid, tripleStartIndex, newExtendedStart,
+                                        aminoAcidCounter);
+            }
+        }
     }
 
     private void checkAndRevert(final List<Gene> cdsList, final List<List<Sequence>> cdsNucleotides,
@@ -529,25 +715,29 @@ public class ProteinSequenceReconstructionManager {
     private void addProteinSequenceEntry(Track<Gene> track, final Gene cds, List<ProteinSequenceEntry> proteinSequences,
                                          String aminoAcid, long tripleStartIndex, int newExtendedStart,
                                          final MutableInt aminoAcidCounter) {
-        if (tripleStartIndex >= track.getStartIndex() && tripleStartIndex <= track.getEndIndex()) {
-            long tripleEndIndex = tripleStartIndex + 2;
-            if (newExtendedStart != 0) {
-                tripleEndIndex = tripleEndIndex - Math.abs(newExtendedStart);
-            }
-            if (tripleEndIndex > cds.getEndIndex()) {
-                tripleEndIndex = cds.getEndIndex();
-            }
-            if (!(tripleStartIndex > track.getStartIndex() && tripleEndIndex > track.getEndIndex()) &&
-                !(tripleStartIndex < track.getStartIndex() && tripleEndIndex < track.getEndIndex())) {
-                ProteinSequenceEntry protein = new ProteinSequenceEntry(aminoAcid, track.getId(),
-                                                        cds.getStartIndex().longValue(), cds.getEndIndex().longValue(),
-                                                                                    tripleStartIndex, tripleEndIndex);
-                protein.setIndex(aminoAcidCounter.longValue() - 1);
-                proteinSequences.add(protein);
-            }
+        long tripleEndIndex = tripleStartIndex + 2;
+        if (newExtendedStart != 0) {
+            tripleEndIndex = tripleEndIndex - Math.abs(newExtendedStart);
+        }
+        if (tripleEndIndex > cds.getEndIndex()) {
+            tripleEndIndex = cds.getEndIndex();
+        }
+        if (isInTrack(track, tripleStartIndex, tripleEndIndex)) {
+            ProteinSequenceEntry protein = new ProteinSequenceEntry(aminoAcid, track.getId(),
+                                                    cds.getStartIndex().longValue(), cds.getEndIndex().longValue(),
+                                                                                tripleStartIndex, tripleEndIndex);
+            protein.setIndex(aminoAcidCounter.longValue() - 1);
+            proteinSequences.add(protein);
         }
     }
 
+    private static boolean isInTrack(final Track<Gene> track, final long tripleStartIndex,
+                                     final long tripleEndIndex) {
+        return tripleStartIndex >= track.getStartIndex() && tripleStartIndex <= track.getEndIndex() &&
+               !(tripleStartIndex > track.getStartIndex() && tripleEndIndex > track.getEndIndex()) &&
+               !(tripleStartIndex < track.getStartIndex() && tripleEndIndex < track.getEndIndex());
+    }
+
     private void processCds(Track<Gene> track, final Gene cds, List<ProteinSequenceEntry> proteinSequences,
                             List<Sequence> triple, boolean isAdditionalCds, int newExtendedStart,
                             final MutableInt aminoAcidCounter) {
@@ -567,4 +757,50 @@ public class ProteinSequenceReconstructionManager {
                                     aminoAcidCounter);
         }
     }
+
+    /**
+     * Provides access to the bases of CDS in transcription direction: on the negative strand bases are
+     * read from the end of CDS and complemented, positions are computed from CDS coordinates.
+     */
+    private static final class CdsBases {
+        private final List<Gene> cdsList;
+        private final byte[] reference;
+        private final int referenceStart;
+
+        private CdsBases(final List<Gene> cdsList, final byte[] reference, final int referenceStart) {
+            this.cdsList = cdsList;
+            this.reference = reference;
+            this.referenceStart = referenceStart;
+        }
+
+        private int size() {
+            return cdsList.size();
+        }
+
+        private Gene getCds(final int index) {
+            return cdsList.get(index);
+        }
+
+        private int length(final int index) {
+            Gene cds = cdsList.get(index);
+            return cds.getEndIndex() - cds.getStartIndex() + 1;
+        }
+
+        private int getPosition(final int index, final int offset) {
+            Gene cds = cdsList.get(index);
+            return isNegative(cds) ? cds.getEndIndex() - offset : cds.getStartIndex() + offset;
+        }
+
+        private int getCode(final int index, final int offset) {
+            Gene cds = cdsList.get(index);
+            return isNegative(cds)
+                   ? ProteinSequenceUtils.encodeComplementNucleotide(reference[getPosition(index, offset) -
+                                                                                referenceStart])
+                   : ProteinSequenceUtils.encodeNucleotide(reference[getPosition(index, offset) - referenceStart]);
+        }
+
+        private static boolean isNegative(final Gene cds) {
+            return StrandSerializable.NEGATIVE.equals(cds.getStrand());
+        }
+    }
 }
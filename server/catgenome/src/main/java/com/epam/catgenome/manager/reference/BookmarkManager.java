@@ -32,6 +32,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
 
+import org.apache.commons.lang3.tuple.Pair;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Propagation;
@@ -141,9 +142,10 @@ public class BookmarkManager {
      * @return an {@link IndexSearchResult} object, that contains search results
      */
     public IndexSearchResult<FeatureIndexEntry> searchBookmarks(String searchStr, int limit) {
-        int bookmarksCount = bookmarkDao.searchBookmarkCount(searchStr, AuthUtils.getCurrentUserId());
-        List<Bookmark> bookmarks = bookmarkDao.searchBookmarks(searchStr, AuthUtils.getCurrentUserId(), limit);
-        List<FeatureIndexEntry> bookmarkEntries = bookmarks.stream().map(BookmarkIndexEntry::new).collect(
+        Pair<List<Bookmark>, Integer> bookmarks = bookmarkDao.searchBookmarksWithCount(searchStr,
+                AuthUtils.getCurrentUserId(), limit);
+        int bookmarksCount = bookmarks.getRight();
+        List<FeatureIndexEntry> bookmarkEntries = bookmarks.getLeft().stream().map(BookmarkIndexEntry::new).collect(
             Collectors.toList());
 
         return new IndexSearchResult<>(bookmarkEntries, bookmarksCount > limit, bookmarksCount);
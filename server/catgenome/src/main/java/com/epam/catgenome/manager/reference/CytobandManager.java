@@ -33,14 +33,20 @@ import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.OutputStreamWriter;
 import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 import org.apache.commons.collections4.CollectionUtils;
 import org.apache.commons.io.FileUtils;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
 import org.springframework.stereotype.Service;
 import org.springframework.util.Assert;
 
@@ -52,6 +58,7 @@ import com.epam.catgenome.entity.track.TrackType;
 import com.epam.catgenome.manager.FileManager;
 import com.epam.catgenome.manager.reference.io.cytoband.CytobandReader;
 import com.epam.catgenome.manager.reference.io.cytoband.CytobandRecord;
+import com.epam.catgenome.manager.reference.io.cytoband.CytobandStore;
 
 /**
  * {@code CytobandManager} represents a service class designed to encapsulate all business
@@ -66,12 +73,20 @@ public class CytobandManager {
      */
     private static final String FMT_CYTOBAND_ROW = "%s\t%d\t%d\t%s\t%s";
 
+    /**
+     * {@code String} specifies the name of a cache of cytobands by chromosome IDs
+     */
+    public static final String CYTOBANDS_CACHE = "cytobands";
+
     @Autowired
     private FileManager fileManager;
 
     @Autowired
     private ReferenceGenomeManager referenceGenomeManager;
 
+    @Autowired(required = false)
+    private CacheManager cacheManager;
+
     /**
      * Returns {@code Track} with cytobands if they're available for a chromosome with
      * the given ID, otherwise returns <tt>null</tt>.
@@ -85,15 +100,8 @@ public class CytobandManager {
     public Track<Cytoband> loadCytobands(final Long chromosomeId) throws IOException {
         // loads chromosome data by the given ID
         final Chromosome chromosome = referenceGenomeManager.loadChromosome(chromosomeId);
-        // tries to find a file that provides cytobands for the given chromosome
-        final File cytobandFile = fileManager.makeCytobandsFile(chromosome);
-        if (!cytobandFile.exists()) {
-            return null;
-        }
-        // loads cytobands from a file, skipping validation, because it was done earlier
-        final CytobandReader reader = CytobandReader.getInstance(cytobandFile);
-        final CytobandRecord record = reader.getRecord(chromosome.getName());
-        if (record == null || CollectionUtils.isEmpty(record.getBands())) {
+        final List<Cytoband> bands = getBands(chromosome);
+        if (CollectionUtils.isEmpty(bands)) {
             return null;
         }
         // creates and fills a new track that describes cytobands
@@ -102,7 +110,7 @@ public class CytobandManager {
         track.setScaleFactor(1D);
         track.setId(chromosomeId);
         track.setChromosome(chromosome);
-        track.setBlocks(record.getBands());
+        track.setBlocks(bands);
         track.setName(chromosome.getName());
         track.setEndIndex(chromosome.getSize());
         return track;
@@ -133,11 +141,21 @@ public class CytobandManager {
             final CytobandReader reader = CytobandReader.getInstance(file, dictionary);
 
             // saves cytobands in the system relatively to corresponded chromosomes
+            final Map<String, List<Cytoband>> bands = new LinkedHashMap<>();
             for (final Chromosome chromosome : reference.getChromosomes()) {
                 final CytobandRecord record = reader.getRecord(chromosome.getName());
                 processCytobandRecord(cytobandsFiles, chromosome, record);
-
+                if (record != null) {
+                    bands.put(chromosome.getName(), toSystemPositions(record.getBands()));
+                }
+            }
+            // saves all cytobands of the genome to a binary file, used to serve cytobands tracks
+            final File binaryFile = fileManager.makeCytobandsBinaryFile(referenceId);
+            if (!binaryFile.exists()) {
+                cytobandsFiles.add(binaryFile);
             }
+            CytobandStore.write(binaryFile, bands);
+            reference.getChromosomes().forEach(chromosome -> evict(chromosome.getId()));
             // sets this flag to 'true' that means all activities are performed successfully and no
             // rollback for applied changes are required
             succeeded = true;
@@ -152,6 +170,68 @@ public class CytobandManager {
         }
     }
 
+    /**
+     * Returns cytobands of a chromosome from the cache, the binary file of the reference genome or,
+     * for genomes registered before binary files were introduced, from the text file of the chromosome.
+     */
+    @SuppressWarnings("unchecked")
+    private List<Cytoband> getBands(final Chromosome chromosome) throws IOException {
+        final Cache cache = cacheManager != null ? cacheManager.getCache(CYTOBANDS_CACHE) : null;
+        if (cache != null) {
+            final Cache.ValueWrapper cached = cache.get(chromosome.getId());
+            if (cached != null) {
+                return (List<Cytoband>) cached.get();
+            }
+        }
+
+        final List<Cytoband> bands = readBands(chromosome);
+        if (cache != null) {
+            cache.put(chromosome.getId(), bands);
+        }
+        return bands;
+    }
+
+    private List<Cytoband> readBands(final Chromosome chromosome) throws IOException {
+        final File binaryFile = fileManager.makeCytobandsBinaryFile(chromosome.getReferenceId());
+        if (binaryFile.exists()) {
+            final List<Cytoband> bands = CytobandStore.read(binaryFile).get(chromosome.getName());
+            return bands != null ? Collections.unmodifiableList(bands) : Collections.emptyList();
+        }
+        // tries to find a file that provides cytobands for the given chromosome
+        final File cytobandFile = fileManager.makeCytobandsFile(chromosome);
+        if (!cytobandFile.exists()) {
+            return Collections.emptyList();
+        }
+        // loads cytobands from a file, skipping validation, because it was done earlier
+        final CytobandRecord record = CytobandReader.getInstance(cytobandFile).getRecord(chromosome.getName());
+        return record != null && record.getBands() != null ?
+                Collections.unmodifiableList(record.getBands()) : Collections.emptyList();
+    }
+
+    private void evict(final Long chromosomeId) {
+        final Cache cache = cacheManager != null ? cacheManager.getCache(CYTOBANDS_CACHE) : null;
+        if (cache != null) {
+            cache.evict(chromosomeId);
+        }
+    }
+
+    /**
+     * Copies bands, shifting zero-based positions of a cytobands file to the positions used in the system
+     */
+    private static List<Cytoband> toSystemPositions(final List<Cytoband> bands) {
+        final List<Cytoband> result = new ArrayList<>(bands.size());
+        for (final Cytoband band : bands) {
+            final Cytoband copy = new Cytoband();
+            copy.setChromosome(band.getChromosome());
+            copy.setStartIndex(band.getStartIndex() + 1);
+            copy.setEndIndex(band.getEndIndex() + 1);
+            copy.setName(band.getName());
+            copy.setGiemsaStain(band.getGiemsaStain());
+            result.add(copy);
+        }
+        return result;
+    }
+
     private void processCytobandRecord(List<File> cytobandsFiles, Chromosome chromosome,
             CytobandRecord record) throws IOException {
         // skips chromosome if no cytobands are available for it
@@ -0,0 +1,213 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2016 EPAM Systems
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package com.epam.catgenome.manager.reference;
+
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import htsjdk.samtools.util.SequenceUtil;
+
+/**
+ * <p>
+ * An in-memory cache of decoded reference sequences, that are used for CRAM decoding. CRAM records store only
+ * differences from a reference, so each reader requires the whole sequence of a chromosome. Without the cache
+ * every opened reader decodes it from the Nib file again.
+ * </p>
+ * <p>
+ * Sequences are kept upper cased and are keyed by their MD5 checksum, the same one that is stored in the
+ * {@code M5} tag of a CRAM file header, so identical chromosomes of different references share a single copy.
+ * A checksum is calculated on load, thus a sequence never gets under a wrong key, even if a header doesn't
+ * match a reference. Concurrent requests for the same chromosome wait for a single load. The total size of
+ * cached sequences is bounded: least recently used sequences are removed first.
+ * </p>
+ */
+@Service
+public class ReferenceBasesCache {
+
+    @Value("#{catgenome['cram.reference.cache.max.size'] ?: 512L * 1024 * 1024}")
+    private long maxSize;
+
+    /**
+     * Cached sequences by MD5 checksum in least recently used order
+     */
+    private final LinkedHashMap<String, byte[]> basesByMd5 = new LinkedHashMap<>(16, 0.75f, true);
+    private final ConcurrentMap<String, String> md5ByChromosome = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, CompletableFuture<byte[]>> loading = new ConcurrentHashMap<>();
+    private long totalSize;
+
+    private final AtomicLong hitCount = new AtomicLong();
+    private final AtomicLong missCount = new AtomicLong();
+
+    /**
+     * Loads a sequence of a chromosome
+     */
+    @FunctionalInterface
+    public interface BasesLoader {
+        byte[] load() throws IOException;
+    }
+
+    /**
+     * Returns a cached sequence or loads and caches it
+     *
+     * @param md5 an expected MD5 checksum of a sequence, may be null
+     * @param chromosomeKey identifies a chromosome of a reference, e.g. reference ID and chromosome name
+     * @param loader loads a sequence, if it isn't cached
+     * @return upper cased sequence or null, if a loader returns null
+     * @throws IOException if a sequence can't be loaded
+     */
+    public byte[] get(final String md5, final String chromosomeKey, final BasesLoader loader) throws IOException {
+        byte[] bases = lookup(md5, chromosomeKey);
+        if (bases != null) {
+            hitCount.incrementAndGet();
+            return bases;
+        }
+
+        final CompletableFuture<byte[]> future = new CompletableFuture<>();
+        final CompletableFuture<byte[]> inFlight = loading.putIfAbsent(chromosomeKey, future);
+        if (inFlight != null) {
+            hitCount.incrementAndGet();
+            return await(inFlight);
+        }
+        try {
+            // a concurrent load may have completed before registration of this one
+            bases = lookup(md5, chromosomeKey);
+            if (bases == null) {
+                missCount.incrementAndGet();
+                bases = load(chromosomeKey, loader);
+            }
+            future.complete(bases);
+            return bases;
+        } catch (IOException | RuntimeException e) {
+            future.completeExceptionally(e);
+            throw e;
+        } finally {
+            loading.remove(chromosomeKey, future);
+        }
+    }
+
+    /**
+     * Removes all cached sequences
+     */
+    public void clear() {
+        synchronized (basesByMd5) {
+            basesByMd5.clear();
+            md5ByChromosome.clear();
+            totalSize = 0;
+        }
+    }
+
+    /**
+     * @return total size of cached sequences in bytes
+     */
+    public long getTotalSize() {
+        synchronized (basesByMd5) {
+            return totalSize;
+        }
+    }
+
+    public long getHitCount() {
+        return hitCount.get();
+    }
+
+    public long getMissCount() {
+        return missCount.get();
+    }
+
+    private byte[] lookup(final String md5, final String chromosomeKey) {
+        synchronized (basesByMd5) {
+            if (md5 != null) {
+                final byte[] bases = basesByMd5.get(md5.toLowerCase());
+                if (bases != null) {
+                    return bases;
+                }
+            }
+            final String loadedMd5 = md5ByChromosome.get(chromosomeKey);
+            return loadedMd5 != null ? basesByMd5.get(loadedMd5) : null;
+        }
+    }
+
+    private byte[] load(final String chromosomeKey, final BasesLoader loader) throws IOException {
+        final byte[] bases = loader.load();
+        if (bases == null) {
+            return null;
+        }
+        SequenceUtil.upperCase(bases);
+        if (bases.length > maxSize) {
+            return bases;
+        }
+        final String md5 = SequenceUtil.calculateMD5String(bases, 0, bases.length);
+        synchronized (basesByMd5) {
+            final byte[] cached = basesByMd5.putIfAbsent(md5, bases);
+            if (cached != null) {
+                // the same sequence is already loaded for another reference
+                md5ByChromosome.put(chromosomeKey, md5);
+                return cached;
+            }
+            totalSize += bases.length;
+            md5ByChromosome.put(chromosomeKey, md5);
+            evict();
+        }
+        return bases;
+    }
+
+    private void evict() {
+        final Iterator<Map.Entry<String, byte[]>> iterator = basesByMd5.entrySet().iterator();
+        while (totalSize > maxSize && iterator.hasNext()) {
+            final Map.Entry<String, byte[]> eldest = iterator.next();
+            totalSize -= eldest.getValue().length;
+            iterator.remove();
+            md5ByChromosome.values().removeIf(eldest.getKey()::equals);
+        }
+    }
+
+    private static byte[] await(final CompletableFuture<byte[]> future) throws IOException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException(e);
+        } catch (ExecutionException e) {
+            final Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            }
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new IOException(cause);
+        }
+    }
+}
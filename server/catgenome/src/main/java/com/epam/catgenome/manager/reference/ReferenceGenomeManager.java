@@ -42,6 +42,8 @@ import com.epam.catgenome.entity.FeatureFile;
 import com.epam.catgenome.entity.gene.GeneFile;
 import com.epam.catgenome.exception.FeatureIndexException;
 import com.epam.catgenome.manager.FeatureIndexManager;
+import com.epam.catgenome.manager.MetadataCacheManager;
+import com.epam.catgenome.manager.MetadataCacheManager.MetadataType;
 import com.epam.catgenome.util.AuthUtils;
 import com.epam.catgenome.util.ListMapCollector;
 import org.apache.commons.collections4.CollectionUtils;
@@ -85,6 +87,9 @@ public class ReferenceGenomeManager {
     @Autowired
     private FeatureIndexManager featureIndexManager;
 
+    @Autowired
+    private MetadataCacheManager metadataCacheManager;
+
     /**
      * Generates and returns ID value, that has to be used to identify each certain reference
      * genome in the system.
@@ -129,6 +134,7 @@ public class ReferenceGenomeManager {
             referenceGenomeDao.createReferenceGenome(reference);
         }
         referenceGenomeDao.saveChromosomes(reference.getId(), reference.getChromosomes());
+        evictReference(reference.getId());
         return reference;
     }
 
@@ -152,8 +158,11 @@ public class ReferenceGenomeManager {
                     reference.getName(), reference.getId(), fileList.stream().map(BaseEntity::getName)
                             .collect(Collectors.joining(", "))));
         }
+        final List<Chromosome> chromosomes = referenceGenomeDao.loadAllChromosomesByReferenceId(reference.getId());
         referenceGenomeDao.unregisterReferenceGenome(reference.getId());
         biologicalDataItemDao.deleteBiologicalDataItem(reference.getBioDataItemId());
+        evictReference(reference.getId());
+        chromosomes.forEach(chromosome -> metadataCacheManager.evict(MetadataType.CHROMOSOME, chromosome.getId()));
     }
 
     /**
@@ -168,6 +177,11 @@ public class ReferenceGenomeManager {
      */
     @Transactional(propagation = Propagation.REQUIRED)
     public Reference loadReferenceGenome(final Long referenceId) {
+        return metadataCacheManager.get(MetadataType.REFERENCE_FULL, referenceId,
+            () -> loadReferenceGenomeWithFiles(referenceId));
+    }
+
+    private Reference loadReferenceGenomeWithFiles(final Long referenceId) {
         final Reference reference = referenceGenomeDao.loadReferenceGenome(referenceId);
         Assert.notNull(reference, getMessage(MessageCode.NO_SUCH_REFERENCE));
 
@@ -272,7 +286,8 @@ public class ReferenceGenomeManager {
      */
     @Transactional(propagation = Propagation.SUPPORTS)
     public Chromosome loadChromosome(final Long chromosomeId) {
-        final Chromosome chromosome = referenceGenomeDao.loadChromosome(chromosomeId);
+        final Chromosome chromosome = metadataCacheManager.get(MetadataType.CHROMOSOME, chromosomeId,
+            () -> referenceGenomeDao.loadChromosome(chromosomeId));
         Assert.notNull(chromosome, getMessage(MessageCode.NO_SUCH_CHROMOSOME));
         return chromosome;
     }
@@ -315,7 +330,8 @@ public class ReferenceGenomeManager {
     @Transactional(propagation = Propagation.SUPPORTS)
     public Reference getOnlyReference(final Long referenceId) {
         Assert.notNull(referenceId, getMessage(MessageCode.NO_SUCH_REFERENCE));
-        final Reference reference = referenceGenomeDao.loadReferenceGenome(referenceId);
+        final Reference reference = metadataCacheManager.get(MetadataType.REFERENCE, referenceId,
+            () -> referenceGenomeDao.loadReferenceGenome(referenceId));
         Assert.notNull(reference, getMessage(MessageCode.NO_SUCH_REFERENCE));
         return reference;
     }
@@ -326,6 +342,7 @@ public class ReferenceGenomeManager {
         Assert.notNull(reference, getMessage(MessageCode.NO_SUCH_REFERENCE));
 
         referenceGenomeDao.updateReferenceGeneFileId(referenceId, geneFileId);
+        evictReference(referenceId);
         return loadReferenceGenome(referenceId);
     }
 
@@ -377,9 +394,15 @@ public class ReferenceGenomeManager {
             featureIndexManager.buildIndexForFile(annotationFile);
             referenceGenomeDao.addAnnotationFile(referenceId, annotationFileBiologicalItemId);
         }
+        evictReference(referenceId);
         return loadReferenceGenome(referenceId);
     }
 
+    private void evictReference(final Long referenceId) {
+        metadataCacheManager.evict(MetadataType.REFERENCE, referenceId);
+        metadataCacheManager.evict(MetadataType.REFERENCE_FULL, referenceId);
+    }
+
     private FeatureFile fetchFeatureFile(Long annotationFileId) {
         List<BiologicalDataItem> annotationFiles = biologicalDataItemDao.loadBiologicalDataItemsByIds(
                 Collections.singletonList(annotationFileId));
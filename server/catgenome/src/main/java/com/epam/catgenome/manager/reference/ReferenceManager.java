@@ -39,8 +39,11 @@ import com.epam.catgenome.entity.BiologicalDataItem;
 import com.epam.catgenome.entity.BiologicalDataItemFormat;
 import com.epam.catgenome.entity.track.ReferenceTrackMode;
 import com.epam.catgenome.manager.BiologicalDataItemManager;
+import com.epam.catgenome.manager.metrics.RequestMetrics;
+import com.epam.catgenome.manager.metrics.TrackPhase;
 import com.epam.catgenome.manager.reference.io.FastaSequenceFile;
 import com.epam.catgenome.manager.reference.io.FastaUtils;
+import com.epam.catgenome.manager.registration.RegistrationProgress;
 import com.epam.catgenome.util.AuthUtils;
 import org.apache.commons.io.FilenameUtils;
 import org.apache.commons.lang3.StringUtils;
@@ -76,6 +79,7 @@ import com.epam.catgenome.manager.externaldb.HttpDataManager;
 import com.epam.catgenome.manager.externaldb.ParameterNameValue;
 import com.epam.catgenome.manager.gene.GeneFileManager;
 import com.epam.catgenome.manager.gene.GffManager;
+import com.epam.catgenome.manager.protein.ProteinSequenceCacheManager;
 import com.epam.catgenome.manager.reference.io.NibDataReader;
 import com.epam.catgenome.manager.reference.io.NibDataWriter;
 import com.epam.catgenome.util.BlockCompressedDataInputStream;
@@ -113,6 +117,8 @@ import com.epam.catgenome.util.Utils;
 
     @Autowired private BiologicalDataItemManager biologicalDataItemManager;
 
+    @Autowired private ProteinSequenceCacheManager proteinSequenceCacheManager;
+
     private static final Logger LOG = LoggerFactory.getLogger(ReferenceManager.class);
 
     /**
@@ -123,11 +129,14 @@ import com.epam.catgenome.util.Utils;
     public Track<Sequence> getNucleotidesResultFromNib(Track<Sequence> track)
             throws ReferenceReadingException {
         track.setType(TrackType.REF);
+        final long decodeTime = System.nanoTime();
         try {
             return getNucleotidesTrackFromNib(track);
         } catch (Ga4ghResourceUnavailableException | IOException e) {
             LOG.error(e.getMessage(), e);
             throw new ReferenceReadingException(String.valueOf(track.getId()), e);
+        } finally {
+            RequestMetrics.record(TrackPhase.DECODE, decodeTime);
         }
     }
 
@@ -321,6 +330,7 @@ import com.epam.catgenome.util.Utils;
 
         referenceGenomeManager.unregister(reference);
         fileManager.deleteReferenceDir(reference);
+        proteinSequenceCacheManager.evictReference(referenceId);
         return reference;
     }
 
@@ -538,7 +548,10 @@ import com.epam.catgenome.util.Utils;
         setIndex(reference);
         long lengthOfGenome = 0;
         FastaSequenceFile referenceReader = new FastaSequenceFile(path, reference.getIndex().getPath());
+        final long totalLength = referenceReader.getChromosomeNames().stream()
+                .mapToLong(referenceReader::getSequenceSize).sum();
         for (String chr : referenceReader.getChromosomeNames()) {
+            RegistrationProgress.update(lengthOfGenome, totalLength);
             lengthOfGenome += referenceReader.getSequenceSize(chr);
             // prepares meta-information about the current chromosome
             final Chromosome chromosome = new Chromosome();
@@ -0,0 +1,72 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2016 EPAM Systems
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package com.epam.catgenome.manager.reference.io;
+
+import java.io.IOException;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.epam.catgenome.manager.reference.ReferenceBasesCache;
+import htsjdk.samtools.SAMSequenceRecord;
+import htsjdk.samtools.cram.ref.ReferenceSource;
+import htsjdk.samtools.reference.ReferenceSequence;
+
+/**
+ * {@code CachingReferenceSource} provides reference sequences for CRAM file format decoding from
+ * a shared {@code ReferenceBasesCache}, so that each chromosome is decoded from an NGB reference once
+ * for all CRAM readers instead of once per reader.
+ */
+public class CachingReferenceSource extends ReferenceSource {
+
+    private static final Logger LOG = LoggerFactory.getLogger(CachingReferenceSource.class);
+
+    private final ChromosomeReferenceSequence referenceSequence;
+    private final Long referenceId;
+    private final ReferenceBasesCache cache;
+
+    public CachingReferenceSource(final ChromosomeReferenceSequence referenceSequence, final Long referenceId,
+            final ReferenceBasesCache cache) {
+        super(referenceSequence);
+        this.referenceSequence = referenceSequence;
+        this.referenceId = referenceId;
+        this.cache = cache;
+    }
+
+    @Override
+    public byte[] getReferenceBases(final SAMSequenceRecord record, final boolean tryNameVariants) {
+        final String name = record.getSequenceName();
+        try {
+            return cache.get(record.getMd5(), referenceId + ":" + name, () -> {
+                final ReferenceSequence sequence = referenceSequence.getSequence(name);
+                return sequence != null ? sequence.getBases() : null;
+            });
+        } catch (IOException e) {
+            LOG.debug(e.getMessage(), e);
+            return null;
+        }
+    }
+}
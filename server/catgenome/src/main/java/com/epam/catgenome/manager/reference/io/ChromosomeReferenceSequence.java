@@ -109,6 +109,9 @@ public class ChromosomeReferenceSequence implements ReferenceSequenceFile {
         if (chromosome == null) {
             chromosome = chromosomeMap.get(Utils.changeChromosomeName(contig));
         }
+        if (chromosome == null) {
+            return null;
+        }
         return getSubsequenceAt(contig, 1, chromosome.getSize());
     }
 
@@ -0,0 +1,120 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2016 EPAM Systems
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.epam.catgenome.manager.reference.io.cytoband;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.util.Assert;
+
+import com.epam.catgenome.entity.reference.cytoband.Cytoband;
+import com.epam.catgenome.entity.reference.cytoband.GiemsaStain;
+
+/**
+ * {@code CytobandStore} reads and writes cytobands of all chromosomes of a reference genome in
+ * a compact binary form, so they can be loaded without parsing of a text file.
+ * <p>
+ * Layout: a header ({@code int} magic, {@code int} version, {@code int} number of chromosomes),
+ * followed by chromosomes, each one is a name and a number of bands, followed by bands
+ * ({@code int} start, {@code int} end, name and Giemsa stain).
+ */
+public final class CytobandStore {
+
+    private static final int MAGIC = 0x43594242;
+    private static final int VERSION = 1;
+
+    private CytobandStore() {
+        // no-op
+    }
+
+    /**
+     * Writes cytobands to a file, creating missing parent directories
+     *
+     * @param file  {@code File} to write cytobands to
+     * @param bands {@code Map} of cytobands by chromosome names
+     * @throws IOException will be thrown if any I/O errors occur
+     */
+    public static void write(final File file, final Map<String, List<Cytoband>> bands) throws IOException {
+        Files.createDirectories(file.getParentFile().toPath());
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(bands.size());
+            for (final Map.Entry<String, List<Cytoband>> entry : bands.entrySet()) {
+                out.writeUTF(entry.getKey());
+                out.writeInt(entry.getValue().size());
+                for (final Cytoband band : entry.getValue()) {
+                    out.writeInt(band.getStartIndex());
+                    out.writeInt(band.getEndIndex());
+                    out.writeUTF(band.getName());
+                    out.writeUTF(band.getGiemsaStain().name());
+                }
+            }
+        }
+    }
+
+    /**
+     * Reads cytobands of all chromosomes from a file, written by {@link #write(File, Map)}
+     *
+     * @param file {@code File} to read cytobands from
+     * @return {@code Map} of cytobands by chromosome names
+     * @throws IOException will be thrown if any I/O errors occur
+     */
+    public static Map<String, List<Cytoband>> read(final File file) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+            Assert.isTrue(in.readInt() == MAGIC, "Invalid cytobands file " + file.getName());
+            Assert.isTrue(in.readInt() == VERSION, "Unsupported cytobands file version");
+            final int chromosomeCount = in.readInt();
+            final Map<String, List<Cytoband>> bands = new HashMap<>(chromosomeCount);
+            for (int i = 0; i < chromosomeCount; i++) {
+                final String chromosome = in.readUTF();
+                final int bandCount = in.readInt();
+                final List<Cytoband> chromosomeBands = new ArrayList<>(bandCount);
+                for (int j = 0; j < bandCount; j++) {
+                    final Cytoband band = new Cytoband();
+                    band.setChromosome(chromosome);
+                    band.setStartIndex(in.readInt());
+                    band.setEndIndex(in.readInt());
+                    band.setName(in.readUTF());
+                    band.setGiemsaStain(GiemsaStain.valueOf(in.readUTF()));
+                    chromosomeBands.add(band);
+                }
+                bands.put(chromosome, chromosomeBands);
+            }
+            return bands;
+        }
+    }
+}
@@ -0,0 +1,131 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2016 EPAM Systems
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package com.epam.catgenome.manager.registration;
+
+import static com.epam.catgenome.component.MessageHelper.getMessage;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.util.Assert;
+
+import com.epam.catgenome.constant.MessagesConstants;
+import com.epam.catgenome.controller.vo.registration.BatchFileRegistrationRequest;
+import com.epam.catgenome.controller.vo.registration.FileRegistrationResult;
+import com.epam.catgenome.entity.registration.RegistrationJob;
+import com.epam.catgenome.entity.registration.RegistrationJobStatus;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Registers a batch of files, that is sent by a single request, e.g. when a cohort of files is onboarded.
+ * Each file is queued as a separate job of {@code RegistrationExecutorService}, so a batch is registered by
+ * the same bounded pool of workers, as other registration jobs, and a request returns at once with a job for
+ * each file in the order of requests. A failure of one file doesn't affect others, results of files are
+ * polled by IDs of their jobs.
+ */
+@Service
+public class BatchRegistrationManager {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(BatchRegistrationManager.class);
+    private static final int DEFAULT_MAX_BATCH_SIZE = 1000;
+
+    @Autowired
+    private RegistrationExecutorService registrationExecutorService;
+
+    @Autowired
+    private FileRegistrationManager fileRegistrationManager;
+
+    @Value("#{catgenome['registration.batch.max.size'] ?: " + DEFAULT_MAX_BATCH_SIZE + "}")
+    private int maxBatchSize;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    /**
+     * Queues registration of a batch of files. Jobs wait in the registration queue, that isn't limited, and
+     * take at most {@code registration.batch.parallelism} workers at once.
+     * @param requests registration requests with formats of files
+     * @return queued jobs or error messages for files, that failed to queue, in the order of requests
+     */
+    public List<FileRegistrationResult> registerFiles(final List<BatchFileRegistrationRequest> requests) {
+        Assert.notEmpty(requests, getMessage(MessagesConstants.ERROR_NULL_PARAM, "requests"));
+        Assert.isTrue(requests.size() <= maxBatchSize,
+                getMessage(MessagesConstants.ERROR_REGISTRATION_BATCH_SIZE, requests.size(), maxBatchSize));
+
+        final List<FileRegistrationResult> results = new ArrayList<>(requests.size());
+        for (BatchFileRegistrationRequest request : requests) {
+            final FileRegistrationResult result = new FileRegistrationResult(request.getPath(), request.getFormat());
+            try {
+                result.setJob(registrationExecutorService.registerBatchFile(request.getFormat(), request));
+            } catch (IllegalArgumentException e) {
+                LOGGER.error("Failed to queue registration of file " + request.getPath(), e);
+                result.setErrorMessage(e.getMessage() != null ? e.getMessage() : e.getClass().getName());
+            }
+            results.add(result);
+        }
+        LOGGER.info("Batch of {} files queued for registration, {} failed", requests.size(),
+                results.stream().filter(FileRegistrationResult::isFailed).count());
+        return results;
+    }
+
+    /**
+     * Loads results of registration jobs of a batch
+     * @param jobIds IDs of registration jobs
+     * @return jobs in their current state in the order of IDs along with registered files for succeeded jobs
+     * and error messages for failed and cancelled ones
+     */
+    public List<FileRegistrationResult> loadResults(final List<Long> jobIds) {
+        Assert.notEmpty(jobIds, getMessage(MessagesConstants.ERROR_NULL_PARAM, "jobIds"));
+        final List<FileRegistrationResult> results = new ArrayList<>(jobIds.size());
+        for (Long jobId : jobIds) {
+            final RegistrationJob job = registrationExecutorService.loadJob(jobId);
+            final FileRegistrationResult result = new FileRegistrationResult(readPath(job), job.getFormat());
+            result.setJob(job);
+            if (job.getStatus() == RegistrationJobStatus.SUCCEEDED) {
+                result.setItem(fileRegistrationManager.loadFile(job.getFormat(), job.getResultId()));
+            } else if (job.getStatus().isFinished()) {
+                result.setErrorMessage(job.getErrorMessage() != null ? job.getErrorMessage()
+                        : job.getStatus().name());
+            }
+            results.add(result);
+        }
+        return results;
+    }
+
+    private String readPath(final RegistrationJob job) {
+        try {
+            return objectMapper.readTree(job.getRequest()).path("path").asText(null);
+        } catch (IOException e) {
+            LOGGER.error("Failed to read a request of registration job " + job.getId(), e);
+            return null;
+        }
+    }
+}
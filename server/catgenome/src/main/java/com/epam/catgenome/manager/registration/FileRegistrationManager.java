@@ -0,0 +1,172 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2016 EPAM Systems
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package com.epam.catgenome.manager.registration;
+
+import static com.epam.catgenome.component.MessageHelper.getMessage;
+
+import java.io.IOException;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import com.epam.catgenome.constant.MessagesConstants;
+import com.epam.catgenome.controller.vo.registration.DefaultFileRegistrationRequest;
+import com.epam.catgenome.controller.vo.registration.FeatureIndexedFileRegistrationRequest;
+import com.epam.catgenome.controller.vo.registration.FileRegistrationRequest;
+import com.epam.catgenome.controller.vo.registration.IndexedFileRegistrationRequest;
+import com.epam.catgenome.controller.vo.registration.ReferenceRegistrationRequest;
+import com.epam.catgenome.entity.BiologicalDataItem;
+import com.epam.catgenome.entity.BiologicalDataItemFormat;
+import com.epam.catgenome.manager.bam.BamFileManager;
+import com.epam.catgenome.manager.bam.BamManager;
+import com.epam.catgenome.manager.bed.BedFileManager;
+import com.epam.catgenome.manager.bed.BedManager;
+import com.epam.catgenome.manager.gene.GeneFileManager;
+import com.epam.catgenome.manager.gene.GffManager;
+import com.epam.catgenome.manager.maf.MafFileManager;
+import com.epam.catgenome.manager.maf.MafManager;
+import com.epam.catgenome.manager.reference.ReferenceManager;
+import com.epam.catgenome.manager.seg.SegFileManager;
+import com.epam.catgenome.manager.seg.SegManager;
+import com.epam.catgenome.manager.vcf.VcfFileManager;
+import com.epam.catgenome.manager.vcf.VcfManager;
+import com.epam.catgenome.manager.wig.FacadeWigManager;
+import com.epam.catgenome.manager.wig.WigFileManager;
+
+/**
+ * Registers a file of any supported format with a corresponding manager. Serves registration methods, that
+ * receive a format of a file along with a request, e.g. registration jobs and batch registration.
+ */
+@Service
+public class FileRegistrationManager {
+
+    @Autowired
+    private ReferenceManager referenceManager;
+
+    @Autowired
+    private BamManager bamManager;
+
+    @Autowired
+    private VcfManager vcfManager;
+
+    @Autowired
+    private GffManager gffManager;
+
+    @Autowired
+    private BedManager bedManager;
+
+    @Autowired
+    private SegManager segManager;
+
+    @Autowired
+    private FacadeWigManager facadeWigManager;
+
+    @Autowired
+    private MafManager mafManager;
+
+    @Autowired
+    private BamFileManager bamFileManager;
+
+    @Autowired
+    private VcfFileManager vcfFileManager;
+
+    @Autowired
+    private GeneFileManager geneFileManager;
+
+    @Autowired
+    private BedFileManager bedFileManager;
+
+    @Autowired
+    private SegFileManager segFileManager;
+
+    @Autowired
+    private WigFileManager wigFileManager;
+
+    @Autowired
+    private MafFileManager mafFileManager;
+
+    /**
+     * Registers a file of a given format
+     * @param format a format of a file
+     * @param request a registration request of a type, that is required by a format
+     * @return a registered file
+     * @throws IOException if a file can't be read
+     * @throws IllegalArgumentException if a format is not supported
+     */
+    public BiologicalDataItem registerFile(final BiologicalDataItemFormat format,
+            final DefaultFileRegistrationRequest request) throws IOException {
+        switch (format) {
+            case REFERENCE:
+                return referenceManager.registerGenome((ReferenceRegistrationRequest) request);
+            case BAM:
+                return bamManager.registerBam((IndexedFileRegistrationRequest) request);
+            case VCF:
+                return vcfManager.registerVcfFile((FeatureIndexedFileRegistrationRequest) request);
+            case GENE:
+                return gffManager.registerGeneFile((FeatureIndexedFileRegistrationRequest) request);
+            case BED:
+                return bedManager.registerBed((IndexedFileRegistrationRequest) request);
+            case SEG:
+                return segManager.registerSegFile((IndexedFileRegistrationRequest) request);
+            case WIG:
+                return facadeWigManager.registerWigFile((FileRegistrationRequest) request);
+            case MAF:
+                return mafManager.registerMafFile((IndexedFileRegistrationRequest) request);
+            default:
+                throw new IllegalArgumentException(getMessage(MessagesConstants.ERROR_UNSUPPORTED_FILE_FORMAT,
+                        format));
+        }
+    }
+
+    /**
+     * Loads a registered file of a given format, except a reference, e.g. a result of a registration job
+     * @param format a format of a file
+     * @param fileId an ID of a file
+     * @return a registered file
+     * @throws IllegalArgumentException if a format is not supported
+     */
+    public BiologicalDataItem loadFile(final BiologicalDataItemFormat format, final Long fileId) {
+        switch (format) {
+            case BAM:
+                return bamFileManager.loadBamFile(fileId);
+            case VCF:
+                return vcfFileManager.loadVcfFile(fileId);
+            case GENE:
+                return geneFileManager.loadGeneFile(fileId);
+            case BED:
+                return bedFileManager.loadBedFile(fileId);
+            case SEG:
+                return segFileManager.loadSegFile(fileId);
+            case WIG:
+                return wigFileManager.loadWigFile(fileId);
+            case MAF:
+                return mafFileManager.loadMafFile(fileId);
+            default:
+                throw new IllegalArgumentException(getMessage(MessagesConstants.ERROR_UNSUPPORTED_FILE_FORMAT,
+                        format));
+        }
+    }
+}
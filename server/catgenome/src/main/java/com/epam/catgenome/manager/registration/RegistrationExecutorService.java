@@ -0,0 +1,405 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2016 EPAM Systems
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package com.epam.catgenome.manager.registration;
+
+import static com.epam.catgenome.component.MessageHelper.getMessage;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.util.Assert;
+
+import com.epam.catgenome.constant.MessagesConstants;
+import com.epam.catgenome.controller.vo.registration.DefaultFileRegistrationRequest;
+import com.epam.catgenome.controller.vo.registration.FeatureIndexedFileRegistrationRequest;
+import com.epam.catgenome.controller.vo.registration.FileRegistrationRequest;
+import com.epam.catgenome.controller.vo.registration.IndexedFileRegistrationRequest;
+import com.epam.catgenome.controller.vo.registration.ReferenceRegistrationRequest;
+import com.epam.catgenome.entity.BiologicalDataItemFormat;
+import com.epam.catgenome.entity.reference.Chromosome;
+import com.epam.catgenome.entity.registration.RegistrationJob;
+import com.epam.catgenome.entity.registration.RegistrationJobStatus;
+import com.epam.catgenome.exception.RegistrationCancelledException;
+import com.epam.catgenome.manager.reference.ReferenceGenomeManager;
+import com.epam.catgenome.util.AuthUtils;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * <p>
+ * Registers files asynchronously: a registration request is saved as a queued job and a job ID is returned
+ * at once, while a file is registered by a bounded pool of workers, separate from {@code TaskExecutorService},
+ * that serves track requests. Heavy registration steps, e.g. writing of feature indexes, histograms and
+ * GC-content files, therefore don't hold HTTP threads. Queued jobs wait in the REGISTRATION_JOB table and
+ * are taken from it in the order of submission, when a worker is free, so only running jobs are bounded.
+ * </p>
+ * <p>
+ * Running jobs report their progress through {@link RegistrationProgress}. A queued job is cancelled at once,
+ * a running one stops on the next reported feature and removes all data, that is already created, as in case
+ * of any other registration error. Jobs, that were queued before a server restart, are started after it,
+ * running ones are marked as failed.
+ * </p>
+ */
+@Service
+public class RegistrationExecutorService {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(RegistrationExecutorService.class);
+    private static final int DEFAULT_THREADS = 2;
+    private static final int DEFAULT_BATCH_PARALLELISM = 1;
+
+    @Autowired
+    private RegistrationJobManager registrationJobManager;
+
+    @Autowired
+    private FileRegistrationManager fileRegistrationManager;
+
+    @Autowired
+    private ReferenceGenomeManager referenceGenomeManager;
+
+    @Value("#{catgenome['registration.job.threads'] ?: " + DEFAULT_THREADS + "}")
+    private int threadCount;
+
+    @Value("#{catgenome['registration.batch.parallelism'] ?: " + DEFAULT_BATCH_PARALLELISM + "}")
+    private int batchParallelism;
+
+    private final ObjectMapper objectMapper = new ObjectMapper()
+            .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+    private final ConcurrentMap<Long, ActiveJob> activeJobs = new ConcurrentHashMap<>();
+    private ThreadPoolExecutor executor;
+
+    /**
+     * Creates a pool of workers and starts jobs, left queued by a previous run
+     */
+    @PostConstruct
+    public void init() {
+        executor = new ThreadPoolExecutor(threadCount, threadCount, 0L, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>());
+        LOGGER.info("Create registration thread pool with {} threads, {} of them for batches", threadCount,
+                batchParallelism);
+        recoverJobs();
+        dispatch();
+    }
+
+    /**
+     * Stops workers, interrupted jobs are marked as failed on the next startup
+     */
+    @PreDestroy
+    public void destroy() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Queues registration of a reference genome
+     * @param request a reference registration request
+     * @return a queued job
+     */
+    public RegistrationJob registerReference(final ReferenceRegistrationRequest request) {
+        return submit(BiologicalDataItemFormat.REFERENCE, request, false);
+    }
+
+    /**
+     * Queues registration of a VCF file
+     * @param request a VCF registration request
+     * @return a queued job
+     */
+    public RegistrationJob registerVcf(final FeatureIndexedFileRegistrationRequest request) {
+        return submit(BiologicalDataItemFormat.VCF, request, false);
+    }
+
+    /**
+     * Queues registration of a GFF/GTF file
+     * @param request a gene file registration request
+     * @return a queued job
+     */
+    public RegistrationJob registerGene(final FeatureIndexedFileRegistrationRequest request) {
+        return submit(BiologicalDataItemFormat.GENE, request, false);
+    }
+
+    /**
+     * Queues registration of a BED file
+     * @param request a BED registration request
+     * @return a queued job
+     */
+    public RegistrationJob registerBed(final IndexedFileRegistrationRequest request) {
+        return submit(BiologicalDataItemFormat.BED, request, false);
+    }
+
+    /**
+     * Queues registration of a SEG file
+     * @param request a SEG registration request
+     * @return a queued job
+     */
+    public RegistrationJob registerSeg(final IndexedFileRegistrationRequest request) {
+        return submit(BiologicalDataItemFormat.SEG, request, false);
+    }
+
+    /**
+     * Queues registration of a file of a batch in any format, except a reference. Jobs of batches take
+     * at most {@code registration.batch.parallelism} workers, so single files don't wait for whole batches.
+     * @param format a format of a file
+     * @param request a registration request of a type, that is required by a format
+     * @return a queued job
+     */
+    public RegistrationJob registerBatchFile(final BiologicalDataItemFormat format,
+            final FileRegistrationRequest request) {
+        Assert.notNull(format, getMessage(MessagesConstants.ERROR_NULL_PARAM, "format"));
+        Assert.isTrue(format != BiologicalDataItemFormat.REFERENCE,
+                getMessage(MessagesConstants.ERROR_UNSUPPORTED_FILE_FORMAT, format));
+        return submit(format, request, true);
+    }
+
+    /**
+     * Loads a registration job with the current progress of a running one
+     * @param jobId an ID of a job
+     * @return a job
+     */
+    public RegistrationJob loadJob(final Long jobId) {
+        final RegistrationJob job = registrationJobManager.loadJob(jobId);
+        Assert.notNull(job, getMessage(MessagesConstants.ERROR_REGISTRATION_JOB_NOT_FOUND, jobId));
+        final ActiveJob activeJob = activeJobs.get(jobId);
+        if (activeJob != null && job.getStatus() == RegistrationJobStatus.RUNNING) {
+            job.setProgress(activeJob.progress.getProgress());
+        }
+        return job;
+    }
+
+    /**
+     * Cancels a registration job. A queued job is cancelled at once, a running job stops on the next
+     * processed feature, so it may still complete, if it is already saving a registered file.
+     * @param jobId an ID of a job
+     * @return a job in it's current state
+     */
+    public synchronized RegistrationJob cancelJob(final Long jobId) {
+        final RegistrationJob job = loadJob(jobId);
+        if (job.getStatus().isFinished()) {
+            return job;
+        }
+        final ActiveJob activeJob = activeJobs.get(jobId);
+        if (activeJob == null) {
+            // a job waits in the table and isn't dispatched, while the lock is held
+            if (job.getStatus() == RegistrationJobStatus.QUEUED) {
+                finishJob(job, RegistrationJobStatus.CANCELLED,
+                        getMessage(MessagesConstants.ERROR_REGISTRATION_CANCELLED));
+            }
+            return job;
+        }
+        activeJob.progress.cancel();
+        if (activeJob.task.cancel(false)) {
+            // a job hasn't started and will never run, it's worker may take the next job
+            activeJobs.remove(jobId);
+            executor.purge();
+            finishJob(job, RegistrationJobStatus.CANCELLED, getMessage(MessagesConstants.ERROR_REGISTRATION_CANCELLED));
+            dispatch();
+        }
+        return loadJob(jobId);
+    }
+
+    private RegistrationJob submit(final BiologicalDataItemFormat format,
+            final DefaultFileRegistrationRequest request, final boolean batch) {
+        if (request instanceof FileRegistrationRequest) {
+            Assert.notNull(((FileRegistrationRequest) request).getReferenceId(),
+                    getMessage(MessagesConstants.ERROR_NULL_PARAM, "referenceId"));
+        }
+
+        final RegistrationJob job = new RegistrationJob();
+        job.setFormat(format);
+        job.setStatus(RegistrationJobStatus.QUEUED);
+        job.setProgress(0.0);
+        job.setRequest(writeRequest(request));
+        job.setCreatedBy(AuthUtils.getCurrentUserId());
+        job.setCreatedDate(new Date());
+        job.setBatch(batch);
+        registrationJobManager.createJob(job);
+
+        dispatch();
+        return job;
+    }
+
+    /**
+     * Starts the first queued jobs from the table on free workers. Queued jobs are kept only in the table,
+     * so their number isn't limited by memory, and the pool runs at most {@code threadCount} jobs at once.
+     */
+    private synchronized void dispatch() {
+        if (executor.isShutdown()) {
+            return;
+        }
+        List<RegistrationJob> jobs = loadNextJobs();
+        while (!jobs.isEmpty()) {
+            // each job is either started or failed, so it isn't loaded again
+            jobs.forEach(this::startJob);
+            jobs = loadNextJobs();
+        }
+    }
+
+    private List<RegistrationJob> loadNextJobs() {
+        final int freeWorkers = threadCount - activeJobs.size();
+        if (freeWorkers <= 0) {
+            return Collections.emptyList();
+        }
+        final long runningBatchJobs = activeJobs.values().stream().filter(activeJob -> activeJob.batch).count();
+        final int freeBatchWorkers = (int) Math.min(freeWorkers, batchParallelism - runningBatchJobs);
+
+        final List<RegistrationJob> jobs = new ArrayList<>(registrationJobManager.loadQueuedJobs(false,
+                freeWorkers));
+        if (freeBatchWorkers > 0) {
+            jobs.addAll(registrationJobManager.loadQueuedJobs(true, freeBatchWorkers));
+        }
+        // jobs are started in the order of submission
+        jobs.sort(Comparator.comparing(RegistrationJob::getId));
+        return jobs.size() > freeWorkers ? jobs.subList(0, freeWorkers) : jobs;
+    }
+
+    private void startJob(final RegistrationJob job) {
+        final DefaultFileRegistrationRequest request;
+        final RegistrationProgress progress;
+        try {
+            request = objectMapper.readValue(job.getRequest(), getRequestClass(job.getFormat()));
+            progress = createProgress(request);
+        } catch (IOException | IllegalArgumentException e) {
+            LOGGER.error("Failed to start registration job " + job.getId(), e);
+            finishJob(job, RegistrationJobStatus.FAILED, e.getMessage());
+            return;
+        }
+        job.setStatus(RegistrationJobStatus.RUNNING);
+        job.setStartedDate(new Date());
+        registrationJobManager.updateJob(job);
+
+        final FutureTask<Void> task = new FutureTask<>(() -> runJob(job, request, progress), null);
+        activeJobs.put(job.getId(), new ActiveJob(task, progress, job.isBatch()));
+        executor.execute(task);
+    }
+
+    private void runJob(final RegistrationJob job, final DefaultFileRegistrationRequest request,
+            final RegistrationProgress progress) {
+        LOGGER.info("Registration job {} started: {} {}", job.getId(), job.getFormat(), request.getPath());
+
+        progress.bind();
+        RegistrationJobStatus status = RegistrationJobStatus.FAILED;
+        String errorMessage = null;
+        try {
+            job.setResultId(fileRegistrationManager.registerFile(job.getFormat(), request).getId());
+            job.setProgress(1.0);
+            status = RegistrationJobStatus.SUCCEEDED;
+        } catch (RegistrationCancelledException e) {
+            LOGGER.info("Registration job {} cancelled", job.getId());
+            status = RegistrationJobStatus.CANCELLED;
+            errorMessage = e.getMessage();
+        } catch (Exception e) {
+            LOGGER.error("Registration job " + job.getId() + " failed", e);
+            errorMessage = e.getMessage() != null ? e.getMessage() : e.getClass().getName();
+        } finally {
+            RegistrationProgress.unbind();
+            activeJobs.remove(job.getId());
+            if (status != RegistrationJobStatus.SUCCEEDED) {
+                job.setProgress(progress.getProgress());
+            }
+            finishJob(job, status, errorMessage);
+            dispatch();
+        }
+    }
+
+    private void finishJob(final RegistrationJob job, final RegistrationJobStatus status, final String errorMessage) {
+        job.setStatus(status);
+        job.setErrorMessage(errorMessage);
+        job.setFinishedDate(new Date());
+        registrationJobManager.updateJob(job);
+        LOGGER.info("Registration job {} finished: {}", job.getId(), status);
+    }
+
+    private RegistrationProgress createProgress(final DefaultFileRegistrationRequest request) {
+        if (request instanceof FileRegistrationRequest) {
+            final Long referenceId = ((FileRegistrationRequest) request).getReferenceId();
+            Assert.notNull(referenceId, getMessage(MessagesConstants.ERROR_NULL_PARAM, "referenceId"));
+            final List<Chromosome> chromosomes = referenceGenomeManager.loadChromosomes(referenceId);
+            return new RegistrationProgress(chromosomes);
+        }
+        return new RegistrationProgress(Collections.emptyList());
+    }
+
+    private void recoverJobs() {
+        for (RegistrationJob job : registrationJobManager.loadJobs(RegistrationJobStatus.RUNNING)) {
+            finishJob(job, RegistrationJobStatus.FAILED, getMessage(MessagesConstants.ERROR_REGISTRATION_INTERRUPTED));
+        }
+    }
+
+    private String writeRequest(final DefaultFileRegistrationRequest request) {
+        try {
+            return objectMapper.writeValueAsString(request);
+        } catch (IOException e) {
+            throw new IllegalArgumentException(getMessage(MessagesConstants.ERROR_INVALID_PARAM), e);
+        }
+    }
+
+    private static Class<? extends DefaultFileRegistrationRequest> getRequestClass(
+            final BiologicalDataItemFormat format) {
+        switch (format) {
+            case REFERENCE:
+                return ReferenceRegistrationRequest.class;
+            case VCF:
+            case GENE:
+                return FeatureIndexedFileRegistrationRequest.class;
+            case BAM:
+            case BED:
+            case SEG:
+            case MAF:
+                return IndexedFileRegistrationRequest.class;
+            case WIG:
+                return FileRegistrationRequest.class;
+            default:
+                throw new IllegalArgumentException(getMessage(MessagesConstants.ERROR_INVALID_PARAM));
+        }
+    }
+
+    private static final class ActiveJob {
+        private final FutureTask<Void> task;
+        private final RegistrationProgress progress;
+        private final boolean batch;
+
+        private ActiveJob(final FutureTask<Void> task, final RegistrationProgress progress, final boolean batch) {
+            this.task = task;
+            this.progress = progress;
+            this.batch = batch;
+        }
+    }
+}
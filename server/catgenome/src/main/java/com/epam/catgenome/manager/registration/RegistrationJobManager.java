@@ -0,0 +1,100 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2016 EPAM Systems
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package com.epam.catgenome.manager.registration;
+
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.epam.catgenome.dao.registration.RegistrationJobDao;
+import com.epam.catgenome.entity.registration.RegistrationJob;
+import com.epam.catgenome.entity.registration.RegistrationJobStatus;
+
+/**
+ * {@code RegistrationJobManager} provides transactional access to persisted registration jobs. Each state change
+ * of a job is committed in a separate transaction, so that it is visible to clients, polling a job, while a file
+ * is being registered.
+ */
+@Service
+public class RegistrationJobManager {
+
+    @Autowired
+    private RegistrationJobDao registrationJobDao;
+
+    /**
+     * Persists a new registration job and assigns an ID to it
+     * @param job a job to save
+     * @return a saved job
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public RegistrationJob createJob(final RegistrationJob job) {
+        registrationJobDao.createRegistrationJob(job);
+        return job;
+    }
+
+    /**
+     * Saves a state, progress and result of a registration job
+     * @param job a job to update
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void updateJob(final RegistrationJob job) {
+        registrationJobDao.updateRegistrationJob(job);
+    }
+
+    /**
+     * Loads a registration job by it's ID
+     * @param jobId an ID of a job
+     * @return a job or null if it doesn't exist
+     */
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public RegistrationJob loadJob(final Long jobId) {
+        return registrationJobDao.loadRegistrationJob(jobId);
+    }
+
+    /**
+     * Loads registration jobs in a specified state
+     * @param status a state of jobs
+     * @return a list of jobs ordered by ID
+     */
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public List<RegistrationJob> loadJobs(final RegistrationJobStatus status) {
+        return registrationJobDao.loadRegistrationJobs(status);
+    }
+
+    /**
+     * Loads the first registration jobs, that wait for a worker
+     * @param batch whether jobs of batches or single jobs should be loaded
+     * @param limit maximum number of jobs to load
+     * @return a list of jobs ordered by ID
+     */
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public List<RegistrationJob> loadQueuedJobs(final boolean batch, final int limit) {
+        return registrationJobDao.loadQueuedRegistrationJobs(batch, limit);
+    }
+}
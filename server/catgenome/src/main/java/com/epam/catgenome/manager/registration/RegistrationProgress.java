@@ -0,0 +1,172 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2016 EPAM Systems
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package com.epam.catgenome.manager.registration;
+
+import static com.epam.catgenome.component.MessageHelper.getMessage;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import com.epam.catgenome.constant.MessagesConstants;
+import com.epam.catgenome.entity.reference.Chromosome;
+import com.epam.catgenome.exception.RegistrationCancelledException;
+import com.epam.catgenome.util.Utils;
+
+/**
+ * <p>
+ * Tracks progress of a registration job, that runs in a current thread. Registration methods report positions
+ * of processed features and check for cancellation through static methods, that do nothing, if a file is
+ * registered synchronously, outside of a job.
+ * </p>
+ * <p>
+ * Progress of a sorted feature file is a part of a reference genome, that is passed by a reader: sizes of
+ * chromosomes, that are already processed, and a position in a current one. Progress only grows, so a file,
+ * that is not sorted by chromosomes, doesn't make it jump back.
+ * </p>
+ */
+public final class RegistrationProgress {
+
+    private static final ThreadLocal<RegistrationProgress> CURRENT = new ThreadLocal<>();
+
+    private final Map<String, Chromosome> chromosomeMap = new HashMap<>();
+    private final Set<String> passedChromosomes = new HashSet<>();
+    private long genomeSize;
+    private long passedSize;
+    private String currentChromosome;
+    private int currentSize;
+
+    private volatile double progress;
+    private volatile boolean cancelled;
+
+    /**
+     * @param chromosomes chromosomes of a reference genome of a registered file, empty for a reference itself
+     */
+    RegistrationProgress(final List<Chromosome> chromosomes) {
+        for (Chromosome chromosome : chromosomes) {
+            chromosomeMap.put(chromosome.getName(), chromosome);
+            genomeSize += chromosome.getSize();
+        }
+    }
+
+    /**
+     * Reports a position of a feature, that is being processed, and checks if a job is cancelled
+     *
+     * @param chromosomeName a chromosome of a feature
+     * @param position a start of a feature
+     * @throws RegistrationCancelledException if a job is cancelled
+     */
+    public static void update(final String chromosomeName, final int position) {
+        final RegistrationProgress current = CURRENT.get();
+        if (current != null) {
+            current.checkNotCancelled();
+            current.updatePosition(chromosomeName, position);
+        }
+    }
+
+    /**
+     * Reports a processed part of a file and checks if a job is cancelled
+     *
+     * @param processed an amount of processed data
+     * @param total a total amount of data
+     * @throws RegistrationCancelledException if a job is cancelled
+     */
+    public static void update(final long processed, final long total) {
+        final RegistrationProgress current = CURRENT.get();
+        if (current != null) {
+            current.checkNotCancelled();
+            if (total > 0) {
+                current.setProgress((double) processed / total);
+            }
+        }
+    }
+
+    /**
+     * Checks if a job is cancelled, for registration steps, that can't measure their progress
+     *
+     * @throws RegistrationCancelledException if a job is cancelled
+     */
+    public static void checkCancelled() {
+        final RegistrationProgress current = CURRENT.get();
+        if (current != null) {
+            current.checkNotCancelled();
+        }
+    }
+
+    /**
+     * @return a processed part of a file, from 0 to 1
+     */
+    public double getProgress() {
+        return progress;
+    }
+
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    void cancel() {
+        cancelled = true;
+    }
+
+    void bind() {
+        CURRENT.set(this);
+    }
+
+    static void unbind() {
+        CURRENT.remove();
+    }
+
+    private void checkNotCancelled() {
+        if (cancelled) {
+            throw new RegistrationCancelledException(getMessage(MessagesConstants.ERROR_REGISTRATION_CANCELLED));
+        }
+    }
+
+    private void updatePosition(final String chromosomeName, final int position) {
+        if (genomeSize == 0 || chromosomeName == null) {
+            return;
+        }
+        if (!chromosomeName.equals(currentChromosome)) {
+            if (currentChromosome != null && currentSize > 0 && passedChromosomes.add(currentChromosome)) {
+                passedSize += currentSize;
+            }
+            final Chromosome chromosome = Utils.getFromChromosomeMap(chromosomeMap, chromosomeName);
+            currentChromosome = chromosome != null ? chromosome.getName() : chromosomeName;
+            currentSize = chromosome != null && !passedChromosomes.contains(currentChromosome)
+                    ? chromosome.getSize() : 0;
+        }
+        setProgress((double) (passedSize + Math.min(Math.max(position, 0), currentSize)) / genomeSize);
+    }
+
+    private void setProgress(final double value) {
+        final double bounded = Math.min(value, 1.0);
+        if (bounded > progress) {
+            progress = bounded;
+        }
+    }
+}
@@ -41,6 +41,8 @@ import com.epam.catgenome.dao.seg.SegFileDao;
 import com.epam.catgenome.entity.BaseEntity;
 import com.epam.catgenome.entity.project.Project;
 import com.epam.catgenome.entity.seg.SegFile;
+import com.epam.catgenome.manager.MetadataCacheManager;
+import com.epam.catgenome.manager.MetadataCacheManager.MetadataType;
 
 
 /**
@@ -58,6 +60,9 @@ public class SegFileManager {
     @Autowired
     private ProjectDao projectDao;
 
+    @Autowired
+    private MetadataCacheManager metadataCacheManager;
+
     /**
      * Saves a {@code SegFile} in the system and extracts and saves samples from the file
      * @param segFile to save
@@ -72,6 +77,7 @@ public class SegFileManager {
             segFileDao.createSegFile(segFile);
         }
         segFileDao.createSamples(segFile.getSamples(), segFile.getId());
+        metadataCacheManager.evict(MetadataType.SEG, segFile.getId());
     }
 
     /**
@@ -82,13 +88,13 @@ public class SegFileManager {
      */
     @Transactional(propagation = Propagation.SUPPORTS)
     public SegFile loadSegFile(long segFileId) {
-        SegFile segFile = segFileDao.loadSegFile(segFileId);
-
-        if (segFile != null) {
-            segFile.setSamples(segFileDao.loadSamplesForFile(segFileId));
-        }
-
-        return segFile;
+        return metadataCacheManager.get(MetadataType.SEG, segFileId, () -> {
+            SegFile segFile = segFileDao.loadSegFile(segFileId);
+            if (segFile != null) {
+                segFile.setSamples(segFileDao.loadSamplesForFile(segFileId));
+            }
+            return segFile;
+        });
     }
 
     /**
@@ -125,6 +131,7 @@ public class SegFileManager {
 
 
         segFileDao.deleteSegFile(segFile.getId());
+        metadataCacheManager.evict(MetadataType.SEG, segFile.getId());
         biologicalDataItemDao.deleteBiologicalDataItem(segFile.getIndex().getId());
         biologicalDataItemDao.deleteBiologicalDataItem(segFile.getBioDataItemId());
     }
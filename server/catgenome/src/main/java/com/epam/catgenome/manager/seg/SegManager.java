@@ -38,6 +38,7 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.stream.Collectors;
 
 import org.apache.commons.io.FilenameUtils;
 import org.apache.commons.lang3.StringUtils;
@@ -58,8 +59,10 @@ import com.epam.catgenome.entity.track.SampledTrack;
 import com.epam.catgenome.exception.RegistrationException;
 import com.epam.catgenome.manager.BiologicalDataItemManager;
 import com.epam.catgenome.manager.DownloadFileManager;
+import com.epam.catgenome.manager.FeatureReaderManager;
 import com.epam.catgenome.manager.FileManager;
 import com.epam.catgenome.manager.TrackHelper;
+import com.epam.catgenome.manager.registration.RegistrationProgress;
 import com.epam.catgenome.manager.seg.parser.SegFeature;
 import com.epam.catgenome.util.AuthUtils;
 import com.epam.catgenome.util.IOHelper;
@@ -98,6 +101,9 @@ public class SegManager {
     @Autowired
     private DownloadFileManager downloadFileManager;
 
+    @Autowired
+    private FeatureReaderManager featureReaderManager;
+
     /**
      * Saves a {@code SegFile} in the system, writes it's metadata to the database and
      * creates feature index.
@@ -127,34 +133,82 @@ public class SegManager {
      * @throws IOException
      */
     public SampledTrack<SegRecord> loadFeatures(SampledTrack<SegRecord> track) throws IOException {
+        return loadFeatures(track, null);
+    }
+
+    /**
+     * Loads SEG track form the requested file for the specified samples. Zoomed out tracks are loaded
+     * from the precomputed summary of the file, if it is available.
+     *
+     * @param track a {@code Track} to fill with SEG features
+     * @param samples names of samples to load, all samples are loaded if null or empty
+     * @return a {@code Track}, filled with SEG features
+     * @throws IOException
+     */
+    public SampledTrack<SegRecord> loadFeatures(SampledTrack<SegRecord> track, List<String> samples)
+            throws IOException {
         Chromosome chromosome = trackHelper.validateTrack(track);
 
         SegFile segFile = segFileManager.loadSegFile(track.getId());
 
         double time1 = Utils.getSystemTimeMilliseconds();
-        try (AbstractFeatureReader<SegFeature, LineIterator> reader = fileManager.makeSegReader(segFile)) {
-            CloseableIterator<SegFeature> iterator = reader.query(chromosome.getName(), track.getStartIndex(),
-                    track.getEndIndex());
-            if (!iterator.hasNext()) {
-                iterator = reader.query(Utils.changeChromosomeName(chromosome.getName()), track.getStartIndex(),
-                        track.getEndIndex());
+        Map<String, List<SegRecord>> sampledRecords = loadSummary(segFile, chromosome, track, samples);
+        if (sampledRecords == null) {
+            sampledRecords = loadRecords(segFile, chromosome, track, samples);
+        }
+
+        track.setTracks(sampledRecords);
+        double time2 = Utils.getSystemTimeMilliseconds();
+        LOGGER.debug("Reading records from SEG file, took {} ms", time2 - time1);
+        return track;
+    }
+
+    private Map<String, List<SegRecord>> loadRecords(SegFile segFile, Chromosome chromosome,
+            SampledTrack<SegRecord> track, List<String> samples) throws IOException {
+        List<SegFeature> features = featureReaderManager.loadFeatures(segFile, chromosome.getName(),
+                track.getStartIndex(), track.getEndIndex(), () -> fileManager.makeSegReader(segFile));
+
+        Set<String> requestedSamples = samples == null || samples.isEmpty() ? null : new HashSet<>(samples);
+        Map<String, List<SegRecord>> sampledRecords = new HashMap<>();
+        features.forEach(f -> {
+            if ((double) (f.getEnd() - f.getStart()) * track.getScaleFactor() >= 1 &&
+                    (requestedSamples == null || requestedSamples.contains(f.getId()))) {
+                if (!sampledRecords.containsKey(f.getId())) {
+                    sampledRecords.put(f.getId(), new ArrayList<>());
+                }
+                sampledRecords.get(f.getId()).add(new SegRecord(f));
             }
+        });
+        return sampledRecords;
+    }
 
-            Map<String, List<SegRecord>> sampledRecords = new HashMap<>();
-            iterator.forEachRemaining(f -> {
-                if ((double) (f.getEnd() - f.getStart()) * track.getScaleFactor() >= 1) {
-                    if (!sampledRecords.containsKey(f.getId())) {
-                        sampledRecords.put(f.getId(), new ArrayList<>());
-                    }
-                    sampledRecords.get(f.getId()).add(new SegRecord(f));
+    /**
+     * Loads records from the summary of a SEG file, if the summary exists and has a level with bins
+     * not wider than a pixel of the track
+     * @return records, grouped by sample, or null if the summary can't be used for the track
+     */
+    private Map<String, List<SegRecord>> loadSummary(SegFile segFile, Chromosome chromosome,
+            SampledTrack<SegRecord> track, List<String> samples) throws IOException {
+        File summaryFile = fileManager.getSegSummaryFile(segFile);
+        if (track.getScaleFactor() == null || track.getScaleFactor() <= 0 || !summaryFile.exists()) {
+            return null;
+        }
+
+        try (SegSummaryReader reader = new SegSummaryReader(summaryFile)) {
+            String chromosomeName = chromosome.getName();
+            if (!reader.hasChromosome(chromosomeName)) {
+                chromosomeName = Utils.changeChromosomeName(chromosomeName);
+                if (!reader.hasChromosome(chromosomeName)) {
+                    return new HashMap<>();
                 }
-            });
+            }
 
-            track.setTracks(sampledRecords);
+            int level = reader.findLevel(chromosomeName, 1 / track.getScaleFactor());
+            if (level < 0) {
+                return null;
+            }
+            return reader.read(chromosomeName, level, samples, track.getStartIndex(), track.getEndIndex());
         }
-        double time2 = Utils.getSystemTimeMilliseconds();
-        LOGGER.debug("Reading records from SEG file, took {} ms", time2 - time1);
-        return track;
     }
 
     /**
@@ -171,6 +225,7 @@ public class SegManager {
         Assert.notNull(fileToDelete, MessagesConstants.ERROR_NO_SUCH_FILE);
 
         segFileManager.deleteSegFile(fileToDelete);
+        featureReaderManager.evict(fileToDelete);
         fileManager.deleteFeatureFileDirectory(fileToDelete);
 
         return fileToDelete;
@@ -234,6 +289,9 @@ public class SegManager {
             Collections.sort(allFeatures, new FeatureComparator());
             writeSegFeatures(segFile, allFeatures);
             fileManager.makeSegIndex(segFile);
+            LOGGER.debug("Writing summary of SEG file {}", segFile.getPath());
+            new SegSummaryWriter(samples.stream().map(SegSample::getName).collect(Collectors.toList()))
+                    .write(fileManager.getSegSummaryFile(segFile), allFeatures);
             segFile.setSamples(samples);
             biologicalDataItemManager.createBiologicalDataItem(segFile.getIndex());
             segFileManager.createSegFile(segFile);
@@ -260,6 +318,7 @@ public class SegManager {
             CloseableIterator<SegFeature> iterator = reader.iterator();
             while (iterator.hasNext()) {
                 SegFeature feature = iterator.next();
+                RegistrationProgress.checkCancelled();
                 allFeatures.add(feature);
                 if (sampleNames.add(feature.getId())) {
                     samples.add(new SegSample(feature.getId()));
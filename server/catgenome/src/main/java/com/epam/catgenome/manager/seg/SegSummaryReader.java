@@ -0,0 +1,179 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2016 EPAM Systems
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.epam.catgenome.manager.seg;
+
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.util.Assert;
+
+import com.epam.catgenome.entity.seg.SegRecord;
+
+/**
+ * {@code SegSummaryReader} reads summary records of a SEG file, written by {@link SegSummaryWriter}.
+ * Records are read only for requested samples.
+ */
+public class SegSummaryReader implements Closeable {
+
+    private final List<String> samples = new ArrayList<>();
+    private final Map<String, Integer> sampleIndexes = new HashMap<>();
+    private final Map<String, int[]> binSizes = new HashMap<>();
+    private final Map<String, long[]> offsets = new HashMap<>();
+    private final RandomAccessFile file;
+
+    /**
+     * Opens a summary file and reads its header
+     * @param summaryFile a file, written by {@link SegSummaryWriter}
+     * @throws IOException
+     */
+    public SegSummaryReader(File summaryFile) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(summaryFile)))) {
+            Assert.isTrue(in.readInt() == SegSummaryWriter.MAGIC, "Invalid SEG summary file " + summaryFile);
+            Assert.isTrue(in.readInt() == SegSummaryWriter.VERSION, "Unsupported SEG summary version");
+            int sampleCount = in.readInt();
+            for (int i = 0; i < sampleCount; i++) {
+                String sample = in.readUTF();
+                samples.add(sample);
+                sampleIndexes.put(sample, i);
+            }
+            int chromosomeCount = in.readInt();
+            for (int i = 0; i < chromosomeCount; i++) {
+                String chromosome = in.readUTF();
+                int levelCount = in.readInt();
+                int[] sizes = new int[levelCount];
+                long[] levelOffsets = new long[levelCount];
+                for (int level = 0; level < levelCount; level++) {
+                    sizes[level] = in.readInt();
+                    levelOffsets[level] = in.readLong();
+                }
+                binSizes.put(chromosome, sizes);
+                offsets.put(chromosome, levelOffsets);
+            }
+        }
+        file = new RandomAccessFile(summaryFile, "r");
+    }
+
+    public List<String> getSamples() {
+        return samples;
+    }
+
+    /**
+     * Checks if a chromosome is present in the summary
+     * @param chromosome name of a chromosome
+     * @return true if the summary contains the chromosome
+     */
+    public boolean hasChromosome(String chromosome) {
+        return binSizes.containsKey(chromosome);
+    }
+
+    /**
+     * Finds the least detailed level, which bins are not wider than the requested size
+     * @param chromosome name of a chromosome
+     * @param maxBinSize maximum size of a bin, e.g. number of bases per pixel
+     * @return index of a level or -1, if all the levels are too coarse
+     */
+    public int findLevel(String chromosome, double maxBinSize) {
+        int[] sizes = binSizes.get(chromosome);
+        if (sizes == null) {
+            return -1;
+        }
+        int result = -1;
+        for (int level = 0; level < sizes.length; level++) {
+            if (sizes[level] <= maxBinSize) {
+                result = level;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Reads summary records, overlapping the interval
+     * @param chromosome name of a chromosome
+     * @param level index of a level, returned by {@link #findLevel(String, double)}
+     * @param requestedSamples samples to read, all samples are read if null or empty
+     * @param start start of the interval
+     * @param end end of the interval
+     * @return records, grouped by sample name
+     * @throws IOException
+     */
+    public Map<String, List<SegRecord>> read(String chromosome, int level, Collection<String> requestedSamples,
+            int start, int end) throws IOException {
+        Collection<String> toRead = requestedSamples == null || requestedSamples.isEmpty() ?
+                samples : requestedSamples;
+        long offset = offsets.get(chromosome)[level];
+        ByteBuffer counts = readBytes(offset, Integer.BYTES * (samples.size() + 1));
+        long recordsOffset = offset + Integer.BYTES * (samples.size() + 1);
+
+        Map<String, List<SegRecord>> result = new HashMap<>();
+        for (String sample : toRead) {
+            Integer index = sampleIndexes.get(sample);
+            if (index == null) {
+                continue;
+            }
+            int from = counts.getInt(index * Integer.BYTES);
+            int to = counts.getInt((index + 1) * Integer.BYTES);
+            if (from == to) {
+                continue;
+            }
+            ByteBuffer records = readBytes(recordsOffset + (long) from * SegSummaryWriter.RECORD_SIZE,
+                    (to - from) * SegSummaryWriter.RECORD_SIZE);
+            List<SegRecord> sampleRecords = new ArrayList<>();
+            for (int i = from; i < to; i++) {
+                int recordStart = records.getInt();
+                int recordEnd = records.getInt();
+                float mean = records.getFloat();
+                if (recordEnd >= start && recordStart <= end) {
+                    sampleRecords.add(new SegRecord(sample, recordStart, recordEnd, mean));
+                }
+            }
+            if (!sampleRecords.isEmpty()) {
+                result.put(sample, sampleRecords);
+            }
+        }
+        return result;
+    }
+
+    private ByteBuffer readBytes(long position, int length) throws IOException {
+        byte[] bytes = new byte[length];
+        file.seek(position);
+        file.readFully(bytes);
+        return ByteBuffer.wrap(bytes);
+    }
+
+    @Override
+    public void close() throws IOException {
+        file.close();
+    }
+}
@@ -0,0 +1,253 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2016 EPAM Systems
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.epam.catgenome.manager.seg;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.epam.catgenome.manager.seg.parser.SegFeature;
+
+/**
+ * {@code SegSummaryWriter} builds a multi-resolution summary of a SEG file, used to serve zoomed out
+ * SEG tracks without reading all the segments.
+ * <p>
+ * For each chromosome several zoom levels are built. On each level the chromosome is split into bins of
+ * equal size, a value of a bin is a length weighted mean of the sample's segments, covering the bin. Adjacent
+ * bins with equal values are merged, so the level is stored as a list of summary segments per sample.
+ * </p>
+ * <p>
+ * File layout: a header with sample names and, for each chromosome, sizes of bins and offsets of its levels.
+ * A level is a table of {@code sampleCount + 1} cumulative record counts, followed by the records
+ * ({@code int start, int end, float mean}) of all samples, one sample after another. Thus records of
+ * a single sample are read with one seek.
+ * </p>
+ */
+public class SegSummaryWriter {
+
+    static final int MAGIC = 0x53454753;
+    static final int VERSION = 1;
+    static final int RECORD_SIZE = 12;
+
+    /**
+     * Bins of the most detailed level are not smaller, than this value
+     */
+    private static final int MIN_BIN_SIZE = 1000;
+    /**
+     * Maximum number of bins of a chromosome on the most detailed level
+     */
+    private static final int MAX_BIN_COUNT = 20000;
+    /**
+     * Minimum number of bins of a chromosome on the least detailed level
+     */
+    private static final int MIN_BIN_COUNT = 500;
+    private static final int ZOOM_FACTOR = 4;
+
+    private final List<String> samples;
+    private final Map<String, Integer> sampleIndexes;
+
+    /**
+     * @param samples names of the samples of a SEG file, the order of rows in the summary
+     */
+    public SegSummaryWriter(List<String> samples) {
+        this.samples = samples;
+        this.sampleIndexes = new LinkedHashMap<>();
+        for (int i = 0; i < samples.size(); i++) {
+            sampleIndexes.put(samples.get(i), i);
+        }
+    }
+
+    /**
+     * Writes a summary of SEG features to a file
+     * @param file to write the summary to
+     * @param features SEG features, sorted by chromosome and start
+     * @throws IOException
+     */
+    public void write(File file, List<SegFeature> features) throws IOException {
+        Map<String, List<List<SegFeature>>> chromosomes = groupFeatures(features);
+        Map<String, int[]> binSizes = new LinkedHashMap<>();
+        chromosomes.forEach((chr, rows) -> binSizes.put(chr, getBinSizes(getLength(rows))));
+
+        Map<String, long[]> offsets = new LinkedHashMap<>();
+        binSizes.forEach((chr, sizes) -> offsets.put(chr, new long[sizes.length]));
+        long position = writeHeader(binSizes, offsets).length;
+
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file)))) {
+            out.write(new byte[(int) position]);
+            for (Map.Entry<String, List<List<SegFeature>>> entry : chromosomes.entrySet()) {
+                int[] sizes = binSizes.get(entry.getKey());
+                int length = getLength(entry.getValue());
+                for (int level = 0; level < sizes.length; level++) {
+                    offsets.get(entry.getKey())[level] = position;
+                    position += writeLevel(out, entry.getValue(), sizes[level], length);
+                }
+            }
+        }
+
+        try (RandomAccessFile out = new RandomAccessFile(file, "rw")) {
+            out.write(writeHeader(binSizes, offsets));
+        }
+    }
+
+    private Map<String, List<List<SegFeature>>> groupFeatures(List<SegFeature> features) {
+        Map<String, List<List<SegFeature>>> chromosomes = new LinkedHashMap<>();
+        for (SegFeature feature : features) {
+            List<List<SegFeature>> rows = chromosomes.computeIfAbsent(feature.getContig(), chr -> {
+                List<List<SegFeature>> sampleRows = new ArrayList<>(samples.size());
+                for (int i = 0; i < samples.size(); i++) {
+                    sampleRows.add(new ArrayList<>());
+                }
+                return sampleRows;
+            });
+            rows.get(sampleIndexes.get(feature.getId())).add(feature);
+        }
+        return chromosomes;
+    }
+
+    private static int getLength(List<List<SegFeature>> rows) {
+        int length = 0;
+        for (List<SegFeature> row : rows) {
+            for (SegFeature feature : row) {
+                length = Math.max(length, feature.getEnd());
+            }
+        }
+        return length + 1;
+    }
+
+    private static int[] getBinSizes(int length) {
+        List<Integer> sizes = new ArrayList<>();
+        long binSize = Math.max(MIN_BIN_SIZE, (length + MAX_BIN_COUNT - 1) / MAX_BIN_COUNT);
+        do {
+            sizes.add((int) binSize);
+            binSize *= ZOOM_FACTOR;
+        } while (length / binSize >= MIN_BIN_COUNT);
+        return sizes.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    private byte[] writeHeader(Map<String, int[]> binSizes, Map<String, long[]> offsets) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(samples.size());
+            for (String sample : samples) {
+                out.writeUTF(sample);
+            }
+            out.writeInt(binSizes.size());
+            for (Map.Entry<String, int[]> entry : binSizes.entrySet()) {
+                out.writeUTF(entry.getKey());
+                out.writeInt(entry.getValue().length);
+                for (int level = 0; level < entry.getValue().length; level++) {
+                    out.writeInt(entry.getValue()[level]);
+                    out.writeLong(offsets.get(entry.getKey())[level]);
+                }
+            }
+        }
+        return bytes.toByteArray();
+    }
+
+    private static long writeLevel(DataOutputStream out, List<List<SegFeature>> rows, int binSize, int length)
+            throws IOException {
+        List<List<int[]>> summaries = new ArrayList<>(rows.size());
+        int count = 0;
+        out.writeInt(count);
+        for (List<SegFeature> row : rows) {
+            List<int[]> summary = row.isEmpty() ? Collections.emptyList() : summarize(row, binSize, length);
+            count += summary.size();
+            out.writeInt(count);
+            summaries.add(summary);
+        }
+
+        for (List<int[]> summary : summaries) {
+            for (int[] record : summary) {
+                out.writeInt(record[0]);
+                out.writeInt(record[1]);
+                out.writeInt(record[2]);
+            }
+        }
+        return (long) Integer.BYTES * (rows.size() + 1) + (long) RECORD_SIZE * count;
+    }
+
+    /**
+     * Calculates mean values of a sample's segments in bins and merges adjacent bins with equal values
+     * @return summary records as {@code {start, end, mean}} triples, mean is stored as float bits
+     */
+    private static List<int[]> summarize(List<SegFeature> row, int binSize, int length) {
+        int binCount = (length + binSize - 1) / binSize;
+        double[] sums = new double[binCount];
+        long[] covered = new long[binCount];
+        int[] starts = new int[binCount];
+        int[] ends = new int[binCount];
+
+        for (SegFeature feature : row) {
+            if (feature.getSegMean() == null || feature.getEnd() < feature.getStart()) {
+                continue;
+            }
+            for (int bin = feature.getStart() / binSize; bin <= feature.getEnd() / binSize; bin++) {
+                int start = Math.max(feature.getStart(), bin * binSize);
+                int end = Math.min(feature.getEnd(), (bin + 1) * binSize - 1);
+                if (covered[bin] == 0 || start < starts[bin]) {
+                    starts[bin] = start;
+                }
+                ends[bin] = Math.max(ends[bin], end);
+                covered[bin] += end - start + 1;
+                sums[bin] += (double) (end - start + 1) * feature.getSegMean();
+            }
+        }
+
+        List<int[]> summary = new ArrayList<>();
+        int[] current = null;
+        float currentMean = 0;
+        for (int bin = 0; bin < binCount; bin++) {
+            if (covered[bin] == 0) {
+                continue;
+            }
+            float mean = (float) (sums[bin] / covered[bin]);
+            if (current != null && mean == currentMean && starts[bin] <= current[1] + 1) {
+                current[1] = ends[bin];
+            } else {
+                addRecord(summary, current, currentMean);
+                current = new int[]{starts[bin], ends[bin]};
+                currentMean = mean;
+            }
+        }
+        addRecord(summary, current, currentMean);
+        return summary;
+    }
+
+    private static void addRecord(List<int[]> summary, int[] interval, float mean) {
+        if (interval != null) {
+            summary.add(new int[]{interval[0], interval[1], Float.floatToIntBits(mean)});
+        }
+    }
+}
@@ -34,15 +34,21 @@ import com.epam.catgenome.util.sort.FeatureSorterFactory;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
 import java.io.File;
 import java.io.IOException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 import static com.epam.catgenome.component.MessageHelper.getMessage;
 
 /**
- * Provides service for sorting feature files
+ * Provides service for sorting feature files. Chunks of all sorts are sorted by one shared pool of
+ * {@code sort.threads} threads
  */
 @Service
 public class ToolsManager {
@@ -54,6 +60,28 @@ public class ToolsManager {
     @Autowired
     private FileManager fileManager;
 
+    @Value("#{catgenome['sort.threads'] ?: 0}")
+    private int threadCount;
+
+    private ExecutorService executor;
+
+    /**
+     * Creates a pool, that sorts chunks of feature files, by default with a thread per processor
+     */
+    @PostConstruct
+    public void init() {
+        if (threadCount <= 0) {
+            threadCount = Runtime.getRuntime().availableProcessors();
+        }
+        executor = Executors.newFixedThreadPool(threadCount);
+        LOG.info("Create sorting thread pool with {} threads", threadCount);
+    }
+
+    @PreDestroy
+    public void destroy() {
+        executor.shutdownNow();
+    }
+
     /**
      * Sorts feature file due to request parameters
      *
@@ -70,6 +98,8 @@ public class ToolsManager {
             );
 
             AbstractFeatureSorter sorter = FeatureSorterFactory.getSorter(ordinal, sorted, fileManager.getTempDir());
+            sorter.setThreadCount(threadCount);
+            sorter.setExecutor(executor);
 
             LOG.debug("Will sort {} file with {}Mb of memory",
                     request.getOriginalFilePath(),
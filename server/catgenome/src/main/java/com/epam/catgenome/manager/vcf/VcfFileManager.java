@@ -46,6 +46,8 @@ import com.epam.catgenome.entity.BaseEntity;
 import com.epam.catgenome.entity.project.Project;
 import com.epam.catgenome.entity.vcf.VcfFile;
 import com.epam.catgenome.entity.vcf.VcfSample;
+import com.epam.catgenome.manager.MetadataCacheManager;
+import com.epam.catgenome.manager.MetadataCacheManager.MetadataType;
 
 
 /**
@@ -70,6 +72,9 @@ public class VcfFileManager {
     @Autowired
     private ProjectDao projectDao;
 
+    @Autowired
+    private MetadataCacheManager metadataCacheManager;
+
     /**
      * Persists {@code VcfFile} record to the database
      *
@@ -81,6 +86,7 @@ public class VcfFileManager {
         if (vcfFile.getSamples() != null) {
             vcfFileDao.createSamples(vcfFile.getSamples(), vcfFile.getId());
         }
+        metadataCacheManager.evict(MetadataType.VCF, vcfFile.getId());
     }
 
     /**
@@ -91,12 +97,13 @@ public class VcfFileManager {
      */
     @Transactional(propagation = Propagation.SUPPORTS)
     public VcfFile loadVcfFile(Long vcfFileId) {
-        VcfFile vcfFile = vcfFileDao.loadVcfFile(vcfFileId);
-        if (vcfFile != null) {
-            vcfFile.setSamples(vcfFileDao.loadSamplesForFile(vcfFileId));
-        }
-
-        return vcfFile;
+        return metadataCacheManager.get(MetadataType.VCF, vcfFileId, () -> {
+            VcfFile vcfFile = vcfFileDao.loadVcfFile(vcfFileId);
+            if (vcfFile != null) {
+                vcfFile.setSamples(vcfFileDao.loadSamplesForFile(vcfFileId));
+            }
+            return vcfFile;
+        });
     }
 
     @Transactional(propagation = Propagation.REQUIRED)
@@ -134,6 +141,7 @@ public class VcfFileManager {
                         .collect(Collectors.joining(", "))));
 
         vcfFileDao.deleteVcfFile(vcfFile.getId());
+        metadataCacheManager.evict(MetadataType.VCF, vcfFile.getId());
         biologicalDataItemDao.deleteBiologicalDataItem(vcfFile.getIndex().getId());
         biologicalDataItemDao.deleteBiologicalDataItem(vcfFile.getBioDataItemId());
     }
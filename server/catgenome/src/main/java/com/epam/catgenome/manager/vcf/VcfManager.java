@@ -45,6 +45,7 @@ import java.util.Set;
 import java.util.stream.Collectors;
 
 import com.epam.catgenome.dao.index.FeatureIndexDao;
+import com.epam.catgenome.manager.registration.RegistrationProgress;
 import com.epam.catgenome.util.AuthUtils;
 import com.epam.catgenome.util.DiskBasedList;
 import com.epam.catgenome.util.IOHelper;
@@ -603,6 +604,7 @@ public class VcfManager {
 
         while (iterator.hasNext()) {
             variantContext = iterator.next();
+            RegistrationProgress.update(variantContext.getContig(), variantContext.getStart());
 
             if (!variantContext.getContig().equals(currentKey)) {
                 if (checkMetaMapKey(chromosomeMap, currentKey)) {
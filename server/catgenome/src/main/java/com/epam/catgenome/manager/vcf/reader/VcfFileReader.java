@@ -57,6 +57,8 @@ import com.epam.catgenome.entity.vcf.VariationType;
 import com.epam.catgenome.entity.vcf.VcfFile;
 import com.epam.catgenome.exception.VcfReadingException;
 import com.epam.catgenome.manager.FileManager;
+import com.epam.catgenome.manager.metrics.RequestMetrics;
+import com.epam.catgenome.manager.metrics.TrackPhase;
 import com.epam.catgenome.manager.reference.ReferenceGenomeManager;
 import com.epam.catgenome.util.Utils;
 import htsjdk.samtools.util.CloseableIterator;
@@ -112,15 +114,21 @@ public class VcfFileReader extends AbstractVcfReader {
     public Track<Variation> readVariations(VcfFile vcfFile, final Track<Variation> track, Chromosome chromosome,
                                            final Integer sampleIndex, final boolean loadInfo, final boolean collapse)
             throws VcfReadingException {
+        final long openTime = System.nanoTime();
         try (FeatureReader<VariantContext> reader = AbstractFeatureReader.getFeatureReader(vcfFile.getPath(),
-                vcfFile.getIndex().getPath(), new VCFCodec(), true)) {
+                fileManager.getIndexPath(vcfFile.getIndex()), new VCFCodec(), true)) {
+            RequestMetrics.record(TrackPhase.OPEN, openTime);
             if (checkBounds(vcfFile, track, chromosome, loadInfo)) {
                 return track;
             }
+            final long queryTime = System.nanoTime();
             try (CloseableIterator<VariantContext> iterator = Utils.query(reader, chromosome.getName(), track
                     .getStartIndex(), track.getEndIndex())) {
+                RequestMetrics.record(TrackPhase.QUERY, queryTime);
+                final long decodeTime = System.nanoTime();
                 VCFHeader header = (VCFHeader) reader.getHeader();
                 track.setBlocks(doReadVariations(iterator, track, header, vcfFile, sampleIndex, loadInfo, collapse));
+                RequestMetrics.record(TrackPhase.DECODE, decodeTime);
             }
         } catch (IOException e) {
             throw new VcfReadingException(vcfFile, e);
@@ -137,7 +145,7 @@ public class VcfFileReader extends AbstractVcfReader {
             return null;
         }
         try (FeatureReader<VariantContext> reader = AbstractFeatureReader.getFeatureReader(vcfFile.getPath(),
-                vcfFile.getIndex().getPath(), new VCFCodec(), true)) {
+                fileManager.getIndexPath(vcfFile.getIndex()), new VCFCodec(), true)) {
             return readNextOrPreviousVariation(fromPosition, vcfFile, sampleIndex, chromosome,
                     forward, end, reader);
         } catch (IOException e) {
@@ -41,6 +41,8 @@ import com.epam.catgenome.manager.BiologicalDataItemManager;
 import com.epam.catgenome.manager.DownloadFileManager;
 import com.epam.catgenome.manager.FileManager;
 import com.epam.catgenome.manager.TrackHelper;
+import com.epam.catgenome.manager.metrics.RequestMetrics;
+import com.epam.catgenome.manager.metrics.TrackPhase;
 import com.epam.catgenome.manager.reference.ReferenceGenomeManager;
 import com.epam.catgenome.util.AuthUtils;
 import com.epam.catgenome.util.NgbFileUtils;
@@ -194,7 +196,10 @@ public class FacadeWigManager {
         track.setType(TrackType.WIG);
         final Chromosome chromosome = trackHelper.validateTrackWithBlockCount(track);
         final WigFile wigFile = wigFileManager.loadWigFile(track.getId());
-        return fetchWigManager(wigFile.getPath()).getWigFromFile(wigFile, track, chromosome);
+        final long decodeTime = System.nanoTime();
+        final Track<Wig> result = fetchWigManager(wigFile.getPath()).getWigFromFile(wigFile, track, chromosome);
+        RequestMetrics.record(TrackPhase.DECODE, decodeTime);
+        return result;
     }
 
     protected void prepareWigFileToWork(final WigFile wigFile) throws IOException {
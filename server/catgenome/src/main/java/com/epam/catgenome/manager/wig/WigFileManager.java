@@ -41,6 +41,8 @@ import com.epam.catgenome.dao.wig.WigFileDao;
 import com.epam.catgenome.entity.BaseEntity;
 import com.epam.catgenome.entity.project.Project;
 import com.epam.catgenome.entity.wig.WigFile;
+import com.epam.catgenome.manager.MetadataCacheManager;
+import com.epam.catgenome.manager.MetadataCacheManager.MetadataType;
 
 /**
  * Source:      WigFileManager.java
@@ -64,6 +66,9 @@ public class WigFileManager {
     @Autowired
     private BiologicalDataItemDao biologicalDataItemDao;
 
+    @Autowired
+    private MetadataCacheManager metadataCacheManager;
+
     /**
      * Persists {@code WigFile} record to the database
      *
@@ -79,6 +84,7 @@ public class WigFileManager {
         Assert.notNull(wigFile.getType());
         Assert.notNull(wigFile.getFormat());
         wigFileDao.createWigFile(wigFile);
+        metadataCacheManager.evict(MetadataType.WIG, wigFile.getId());
     }
 
     @Transactional(propagation = Propagation.REQUIRED)
@@ -94,7 +100,7 @@ public class WigFileManager {
      */
     @Transactional(propagation = Propagation.REQUIRED)
     public WigFile loadWigFile(Long wigFileId) {
-        return wigFileDao.loadWigFile(wigFileId);
+        return metadataCacheManager.get(MetadataType.WIG, wigFileId, () -> wigFileDao.loadWigFile(wigFileId));
     }
 
     /**
@@ -120,6 +126,7 @@ public class WigFileManager {
                         .collect(Collectors.joining(", "))));
 
         wigFileDao.deleteWigFile(wigFile.getId());
+        metadataCacheManager.evict(MetadataType.WIG, wigFile.getId());
         biologicalDataItemDao.deleteBiologicalDataItem(wigFile.getBioDataItemId());
     }
 }
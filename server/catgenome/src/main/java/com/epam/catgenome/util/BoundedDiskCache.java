@@ -0,0 +1,263 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2016 EPAM Systems
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package com.epam.catgenome.util;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * <p>
+ * A bounded store of files in a directory, used by disk based caches. Each entry is a file, named by a key,
+ * that is safe to use as a file name, e.g. a hash. Entries may be distributed by subdirectories, named by first
+ * characters of their names, so that a directory doesn't get too many files.
+ * </p>
+ * <p>
+ * An entry is written to a temporary file first and then atomically moved in place, so readers never see partial
+ * entries. The total size of entries is bounded: least recently used entries are removed first. Entries are
+ * restored on creation from files, that are left by a previous run, in order of their modification.
+ * </p>
+ */
+public class BoundedDiskCache {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(BoundedDiskCache.class);
+    private static final String TMP_EXTENSION = ".tmp";
+
+    private final File dir;
+    private final long maxSize;
+    private final int dirPrefixLength;
+
+    /**
+     * Entries' names to their sizes in least recently used order
+     */
+    private final LinkedHashMap<String, Long> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long totalSize;
+
+    /**
+     * Writes an entry's content
+     */
+    @FunctionalInterface
+    public interface EntryWriter {
+        void write(OutputStream stream) throws IOException;
+    }
+
+    /**
+     * @param dir a directory for entries, it is created if it doesn't exist
+     * @param maxSize maximum total size of entries in bytes
+     * @param dirPrefixLength a length of a name's prefix, used as a subdirectory, 0 to store entries in
+     *                        the directory itself
+     * @throws IOException if a directory can't be created
+     */
+    public BoundedDiskCache(final File dir, final long maxSize, final int dirPrefixLength) throws IOException {
+        this.dir = dir;
+        this.maxSize = maxSize;
+        this.dirPrefixLength = dirPrefixLength;
+        makeDir(dir);
+        restoreEntries();
+    }
+
+    /**
+     * Returns a file of an entry and marks an entry as recently used
+     *
+     * @param name a name of an entry
+     * @return a file of an entry or null if there is no such entry
+     */
+    public File get(final String name) {
+        synchronized (entries) {
+            if (entries.get(name) == null) {
+                return null;
+            }
+        }
+        return getFile(name);
+    }
+
+    /**
+     * Checks if there is an entry, an order of usage is not changed
+     *
+     * @param name a name of an entry
+     * @return true if there is an entry
+     */
+    public boolean contains(final String name) {
+        synchronized (entries) {
+            return entries.containsKey(name);
+        }
+    }
+
+    /**
+     * Writes an entry, replacing an existing one, and removes least recently used entries, if the total size
+     * exceeds the maximum. A temporary file is deleted, if writing fails
+     *
+     * @param name a name of an entry
+     * @param writer writes an entry's content
+     * @return a file of an entry
+     * @throws IOException if an entry can't be written
+     */
+    public File put(final String name, final EntryWriter writer) throws IOException {
+        final File file = getFile(name);
+        final File fileDir = file.getParentFile();
+        makeDir(fileDir);
+        final File tmpFile = File.createTempFile(name, TMP_EXTENSION, fileDir);
+        try {
+            try (OutputStream stream = new FileOutputStream(tmpFile)) {
+                writer.write(stream);
+            }
+            Files.move(tmpFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            if (tmpFile.exists()) {
+                deleteQuietly(tmpFile);
+            }
+        }
+        add(name, file.length());
+        return file;
+    }
+
+    /**
+     * Removes an entry and its file
+     * @param name a name of an entry
+     */
+    public void remove(final String name) {
+        synchronized (entries) {
+            final Long size = entries.remove(name);
+            if (size != null) {
+                totalSize -= size;
+            }
+        }
+        deleteFile(name);
+    }
+
+    /**
+     * Removes all entries, matching a filter
+     * @param filter a filter of entries' names
+     */
+    public void removeIf(final Predicate<String> filter) {
+        final List<String> removed = new ArrayList<>();
+        synchronized (entries) {
+            for (String name : entries.keySet()) {
+                if (filter.test(name)) {
+                    removed.add(name);
+                }
+            }
+        }
+        removed.forEach(this::remove);
+    }
+
+    /**
+     * @return total size of entries in bytes
+     */
+    public long getTotalSize() {
+        synchronized (entries) {
+            return totalSize;
+        }
+    }
+
+    public File getDir() {
+        return dir;
+    }
+
+    private File getFile(final String name) {
+        return dirPrefixLength > 0 ? new File(new File(dir, name.substring(0, dirPrefixLength)), name)
+                : new File(dir, name);
+    }
+
+    private void add(final String name, final long size) {
+        final List<String> evicted = new ArrayList<>();
+        synchronized (entries) {
+            final Long previous = entries.put(name, size);
+            totalSize += size - (previous != null ? previous : 0);
+            final Iterator<Map.Entry<String, Long>> iterator = entries.entrySet().iterator();
+            while (totalSize > maxSize && iterator.hasNext()) {
+                final Map.Entry<String, Long> eldest = iterator.next();
+                if (eldest.getKey().equals(name)) {
+                    continue;
+                }
+                totalSize -= eldest.getValue();
+                evicted.add(eldest.getKey());
+                iterator.remove();
+            }
+        }
+        evicted.forEach(this::deleteFile);
+    }
+
+    private void deleteFile(final String name) {
+        final File file = getFile(name);
+        if (file.exists()) {
+            deleteQuietly(file);
+        }
+    }
+
+    private void restoreEntries() {
+        final List<File> files = new ArrayList<>();
+        if (dirPrefixLength > 0) {
+            final File[] dirs = dir.listFiles(File::isDirectory);
+            for (File subDir : dirs != null ? dirs : new File[0]) {
+                final File[] dirFiles = subDir.listFiles(File::isFile);
+                if (dirFiles != null) {
+                    files.addAll(Arrays.asList(dirFiles));
+                }
+            }
+        } else {
+            final File[] dirFiles = dir.listFiles(File::isFile);
+            if (dirFiles != null) {
+                files.addAll(Arrays.asList(dirFiles));
+            }
+        }
+        files.sort(Comparator.comparingLong(File::lastModified));
+        for (File file : files) {
+            if (file.getName().endsWith(TMP_EXTENSION)) {
+                deleteQuietly(file);
+            } else {
+                add(file.getName(), file.length());
+            }
+        }
+    }
+
+    private static void makeDir(final File dir) throws IOException {
+        if (!dir.exists() && !dir.mkdirs() && !dir.exists()) {
+            throw new IOException("Failed to create directory " + dir);
+        }
+    }
+
+    private static void deleteQuietly(final File file) {
+        if (!file.delete()) {
+            LOGGER.warn("Failed to delete file {}", file);
+        }
+    }
+}
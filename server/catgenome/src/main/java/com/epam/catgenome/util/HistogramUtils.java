@@ -28,7 +28,6 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.Callable;
 import java.util.concurrent.ExecutionException;
-import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Future;
 
 import org.apache.commons.lang3.tuple.ImmutablePair;
@@ -38,6 +37,8 @@ import org.slf4j.LoggerFactory;
 
 import com.epam.catgenome.entity.wig.Wig;
 import com.epam.catgenome.exception.HistogramWritingException;
+import com.epam.catgenome.manager.parallel.TaskExecutorService;
+import com.epam.catgenome.manager.parallel.TaskPriority;
 
 /**
  * Source:
@@ -82,18 +83,19 @@ public final class HistogramUtils {
     }
 
     /**
-     * Executes histogram creation, done by callable tasks
-     * @param executorService an ExecutorService to execute histogram building tasks
+     * Executes histogram creation, done by callable tasks, with {@link TaskPriority#HISTOGRAM} priority
+     * @param taskExecutorService a TaskExecutorService to schedule histogram building tasks
      * @param histogramTasks callable tasks, that create histogram blocks
      * @return a List of {@link Wig} blocks, representing histogram blocks
      * @throws HistogramWritingException if something goes wrong during execution
      */
-    public static List<Wig> executeHistogramCreation(final ExecutorService executorService,
+    public static List<Wig> executeHistogramCreation(final TaskExecutorService taskExecutorService,
                                                      final List<Callable<List<Wig>>> histogramTasks)
         throws HistogramWritingException {
         final List<Wig> histogram = new ArrayList<>();
         try {
-            executorService.invokeAll(histogramTasks).forEach(future -> addBlockToHistogram(future, histogram));
+            taskExecutorService.invokeAll(TaskPriority.HISTOGRAM, histogramTasks)
+                    .forEach(future -> addBlockToHistogram(future, histogram));
         } catch (InterruptedException | AssertionError e) {
             throw new HistogramWritingException(e);
         }
@@ -45,7 +45,37 @@ import com.epam.catgenome.entity.reference.Sequence;
  */
 public final class ProteinSequenceUtils {
     private static final int NUCLEOTIDES_IN_CODON = 3;
+    private static final int NUCLEOTIDE_BITS = 2;
+    private static final int CODONS_COUNT = 64;
+    private static final int ASCII_SIZE = 128;
+    private static final String NUCLEOTIDE_LETTERS = "ACGU";
 
+    /**
+     * Maps an ASCII nucleotide letter to its 2-bit code (A - 0, C - 1, G - 2, T/U - 3), -1 for other letters
+     */
+    private static final byte[] NUCLEOTIDE_CODES = new byte[ASCII_SIZE];
+
+    /**
+     * Maps a codon, encoded by {@link #encodeCodon(byte, byte, byte)}, to amino acid
+     */
+    private static final String[] CODON_TABLE = new String[CODONS_COUNT];
+
+    static {
+        Arrays.fill(NUCLEOTIDE_CODES, (byte) -1);
+        for (int i = 0; i < NUCLEOTIDE_LETTERS.length(); i++) {
+            NUCLEOTIDE_CODES[NUCLEOTIDE_LETTERS.charAt(i)] = (byte) i;
+            NUCLEOTIDE_CODES[Character.toLowerCase(NUCLEOTIDE_LETTERS.charAt(i))] = (byte) i;
+        }
+        NUCLEOTIDE_CODES['T'] = NUCLEOTIDE_CODES['U'];
+        NUCLEOTIDE_CODES['t'] = NUCLEOTIDE_CODES['U'];
+
+        for (RnaCodonTable aminoAcid : RnaCodonTable.values()) {
+            for (String triple : aminoAcid.correspondedTriples) {
+                CODON_TABLE[encodeCodon((byte) triple.charAt(0), (byte) triple.charAt(1), (byte) triple.charAt(2))] =
+                        aminoAcid.title;
+            }
+        }
+    }
 
     private ProteinSequenceUtils() {
     }
@@ -154,14 +184,71 @@ public final class ProteinSequenceUtils {
      */
     public static String tripletToAminoAcid(final String triplet) {
         validateTriplet(triplet);
-        String newTriple = triplet.toUpperCase().replace("T", "U");
-        for (RnaCodonTable aminoAcid : RnaCodonTable.values()) {
-            if (aminoAcid.correspondedTriples.contains(newTriple)) {
-                return aminoAcid.title;
-            }
+        int codon = encodeCodon((byte) triplet.charAt(0), (byte) triplet.charAt(1), (byte) triplet.charAt(2));
+        if (codon < 0) {
+            throw new IllegalArgumentException("Triplet " + triplet + " can not be converted to amino acid. ");
         }
+        return CODON_TABLE[codon];
+    }
+
+    /**
+     * Returns 2-bit code of a nucleotide: A - 0, C - 1, G - 2, T or U - 3. Letter case is ignored.
+     *
+     * @param nucleotide ASCII nucleotide letter
+     * @return nucleotide code or -1 if the letter is not a nucleotide
+     */
+    public static int encodeNucleotide(final byte nucleotide) {
+        return nucleotide >= 0 ? NUCLEOTIDE_CODES[nucleotide] : -1;
+    }
 
-        throw new IllegalArgumentException("Triplet " + triplet + " can not be converted to amino acid. ");
+    /**
+     * Returns 2-bit code of a nucleotide, complement to the specified one.
+     *
+     * @param nucleotide ASCII nucleotide letter
+     * @return complement nucleotide code or -1 if the letter is not a nucleotide
+     */
+    public static int encodeComplementNucleotide(final byte nucleotide) {
+        int code = encodeNucleotide(nucleotide);
+        // A <-> U and C <-> G codes sum up to 3
+        return code >= 0 ? NUCLEOTIDE_CODES['U'] - code : -1;
+    }
+
+    /**
+     * Encodes nucleotide triplet to an integer in range [0, 64), that could be converted to amino acid
+     * with {@link #codonToAminoAcid(int)}.
+     *
+     * @return codon code or -1 if the triplet contains not a nucleotide
+     */
+    public static int encodeCodon(final byte first, final byte second, final byte third) {
+        return appendNucleotideCode(appendNucleotideCode(encodeNucleotide(first), encodeNucleotide(second)),
+                encodeNucleotide(third));
+    }
+
+    /**
+     * Adds next nucleotide code to a partially encoded codon.
+     *
+     * @param codon codon code, encoded so far, or -1 if it is invalid
+     * @param nucleotideCode code of the next nucleotide
+     * @return codon code or -1 if any of the codes is invalid
+     */
+    public static int appendNucleotideCode(final int codon, final int nucleotideCode) {
+        if (codon < 0 || nucleotideCode < 0) {
+            return -1;
+        }
+        return (codon << NUCLEOTIDE_BITS) | nucleotideCode;
+    }
+
+    /**
+     * Convert codon code to amino acid, using RNA codon table.
+     *
+     * @param codon codon code, obtained by {@link #encodeCodon(byte, byte, byte)}
+     * @return corresponded amino acid
+     */
+    public static String codonToAminoAcid(final int codon) {
+        if (codon < 0 || codon >= CODONS_COUNT) {
+            throw new IllegalArgumentException("Codon " + codon + " can not be converted to amino acid. ");
+        }
+        return CODON_TABLE[codon];
     }
 
     /**
@@ -24,22 +24,61 @@
 
 package com.epam.catgenome.util.sort;
 
+import com.epam.catgenome.exception.SortingException;
 import com.epam.catgenome.util.NgbFileUtils;
 import htsjdk.samtools.util.BlockCompressedInputStream;
 import htsjdk.samtools.util.BlockCompressedOutputStream;
-import htsjdk.samtools.util.CloseableIterator;
-import htsjdk.samtools.util.SortingCollection;
+import htsjdk.tribble.Feature;
+import htsjdk.tribble.SimpleFeature;
+import htsjdk.tribble.index.Index;
+import htsjdk.tribble.index.IndexCreator;
+import htsjdk.tribble.index.linear.LinearIndexCreator;
+import htsjdk.tribble.index.tabix.TabixFormat;
+import htsjdk.tribble.index.tabix.TabixIndexCreator;
 import htsjdk.tribble.readers.AsciiLineReader;
+import org.apache.commons.io.output.CountingOutputStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
+/**
+ * External sorter of feature files. Input is split into chunks, that fit into the given amount of memory,
+ * the chunks are sorted in parallel and spilled to the temporary directory as BGZF compressed runs.
+ * Then the runs are merged into the output file. An index of the output file (tabix for BGZF output,
+ * tribble linear index for plain text output) is built during the merge.
+ * Chunks are sorted by a shared executor, if it is set, otherwise by a pool, created for a single sort.
+ */
 public abstract class AbstractFeatureSorter {
 
-    private static final int ESTIMATED_RECORD_SIZE = 150;
-    private static final String UTF_8 = "UTF-8";
+    private static final Logger LOG = LoggerFactory.getLogger(AbstractFeatureSorter.class);
+
+    /**
+     * Approximate heap size of a record in addition to its text
+     */
+    private static final int RECORD_OVERHEAD = 96;
+    private static final int BYTES_IN_MEGABYTE = 1024 * 1024;
+    /**
+     * Maximum number of runs, merged at once
+     */
+    private static final int MAX_MERGE_RUNS = 256;
+    private static final int RUN_COMPRESSION_LEVEL = 1;
+    private static final String RUN_PREFIX = "sort";
+    private static final String RUN_SUFFIX = ".run";
 
     private File inputFile;
     private File outputFile;
@@ -54,6 +93,10 @@ public abstract class AbstractFeatureSorter {
      */
     private File tmpDir;
 
+    private int threadCount = Runtime.getRuntime().availableProcessors();
+
+    private ExecutorService executor;
+
     protected Comparator<SortableRecord> comparator = getDefaultComparator();
 
     public AbstractFeatureSorter(File inputFile, File outputFile, File tmpDir) {
@@ -62,6 +105,21 @@ public abstract class AbstractFeatureSorter {
         this.tmpDir = tmpDir;
     }
 
+    /**
+     * @param threadCount number of threads, sorting chunks of the input file
+     */
+    public void setThreadCount(int threadCount) {
+        this.threadCount = Math.max(1, threadCount);
+    }
+
+    /**
+     * @param executor an executor, shared between sorts, that sorts and merges chunks. Its lifecycle is managed
+     *                 by a caller. A sort doesn't submit more than {@code threadCount} chunks at once
+     */
+    public void setExecutor(ExecutorService executor) {
+        this.executor = executor;
+    }
+
     /**
      * @param maxMemory - in megabytes
      * @throws IOException
@@ -69,38 +127,165 @@ public abstract class AbstractFeatureSorter {
      */
     public void run(int maxMemory) throws IOException {
         try (
-                PrintWriter writer = NgbFileUtils.isGzCompressed(outputFile.getName()) ?
-                        new PrintWriter(new OutputStreamWriter(new BlockCompressedOutputStream(outputFile), UTF_8)) :
-                        new PrintWriter(outputFile, UTF_8);
+                SortTasks tasks = new SortTasks();
                 AsciiLineReader reader = NgbFileUtils.isGzCompressed(inputFile.getName()) ?
                         new AsciiLineReader(new BlockCompressedInputStream(inputFile)) :
-                        new AsciiLineReader(new FileInputStream(inputFile))
+                        new AsciiLineReader(new FileInputStream(inputFile));
+                SortedOutput output = new SortedOutput(outputFile, getTabixFormat())
         ) {
+            PrintWriter headerWriter = new PrintWriter(new OutputStreamWriter(output.getStream(),
+                    StandardCharsets.UTF_8));
+            String firstDataRow = writeHeader(reader, headerWriter);
+            headerWriter.flush();
+
+            List<File> runs = new ArrayList<>();
+            List<SortableRecord> records = splitRuns(reader, firstDataRow, maxMemory, tasks, runs);
+            if (runs.isEmpty()) {
+                for (SortableRecord record : records) {
+                    output.write(record);
+                }
+            } else {
+                runs = reduceRuns(runs, tasks);
+                merge(runs, output::write);
+            }
+            output.complete();
+        }
+    }
+
+    /**
+     * Reads records from the input and sorts them in chunks. If the input doesn't fit into memory, sorted
+     * chunks are written to runs, otherwise the sorted records are returned
+     */
+    private List<SortableRecord> splitRuns(AsciiLineReader reader, String firstDataRow, int maxMemory,
+            SortTasks tasks, List<File> runs) throws IOException {
+        long chunkMemory = Math.max(1L, (long) maxMemory * BYTES_IN_MEGABYTE / (threadCount + 1));
+        Semaphore permits = new Semaphore(threadCount);
+        List<Future<File>> futures = new ArrayList<>();
+
+        Parser parser = getParser();
+        List<SortableRecord> chunk = new ArrayList<>();
+        long chunkSize = 0;
+        SortableRecord next = firstDataRow != null && !firstDataRow.isEmpty() ?
+                parser.createRecord(firstDataRow) : parser.readNextRecord(reader);
+        while (next != null) {
+            chunk.add(next);
+            chunkSize += RECORD_OVERHEAD + 2L * next.getText().length();
+            if (chunkSize >= chunkMemory) {
+                futures.add(submitRun(chunk, tasks, permits));
+                chunk = new ArrayList<>();
+                chunkSize = 0;
+            }
+            next = parser.readNextRecord(reader);
+        }
 
-            SortableRecordCodec codec = new SortableRecordCodec();
+        if (futures.isEmpty()) {
+            chunk.sort(comparator);
+            return chunk;
+        }
+        if (!chunk.isEmpty()) {
+            futures.add(submitRun(chunk, tasks, permits));
+        }
+        for (Future<File> future : futures) {
+            runs.add(getResult(future));
+        }
+        LOG.debug("Sorted {} runs of {}", runs.size(), inputFile.getName());
+        return Collections.emptyList();
+    }
 
-            SortingCollection cltn = SortingCollection.newInstance(
-                    SortableRecord.class, codec, comparator, maxMemory * 1024 * 1024 / ESTIMATED_RECORD_SIZE, tmpDir);
+    private Future<File> submitRun(List<SortableRecord> chunk, SortTasks tasks, Semaphore permits) {
+        try {
+            permits.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SortingException(e);
+        }
+        return tasks.submit(() -> {
+            try {
+                chunk.sort(comparator);
+                File run = tasks.createRun();
+                try (RunWriter writer = new RunWriter(run)) {
+                    for (SortableRecord record : chunk) {
+                        writer.write(record);
+                    }
+                }
+                return run;
+            } finally {
+                permits.release();
+            }
+        });
+    }
 
-            Parser parser = getParser();
+    /**
+     * Merges runs in groups until their number allows to merge them at once
+     */
+    private List<File> reduceRuns(List<File> runs, SortTasks tasks) throws IOException {
+        List<File> current = runs;
+        while (current.size() > MAX_MERGE_RUNS) {
+            List<Future<File>> futures = new ArrayList<>();
+            for (int i = 0; i < current.size(); i += MAX_MERGE_RUNS) {
+                List<File> group = current.subList(i, Math.min(i + MAX_MERGE_RUNS, current.size()));
+                futures.add(tasks.submit(() -> {
+                    File run = tasks.createRun();
+                    try (RunWriter writer = new RunWriter(run)) {
+                        merge(group, writer::write);
+                    }
+                    return run;
+                }));
+            }
 
-            String firstDataRow = writeHeader(reader, writer);
-            if (firstDataRow != null && !firstDataRow.isEmpty()) {
-                cltn.add(parser.createRecord(firstDataRow));
+            List<File> merged = new ArrayList<>(futures.size());
+            for (Future<File> future : futures) {
+                merged.add(getResult(future));
             }
+            current.forEach(File::delete);
+            current = merged;
+        }
+        return current;
+    }
 
-            SortableRecord next;
-            while ((next = parser.readNextRecord(reader)) != null) {
-                cltn.add(next);
+    /**
+     * Merges sorted runs. Records with equal keys are written in the order of runs, so the sort is stable
+     */
+    private void merge(List<File> runs, RecordConsumer consumer) throws IOException {
+        PriorityQueue<RunReader> queue = new PriorityQueue<>(runs.size(), (r1, r2) -> {
+            int result = comparator.compare(r1.current, r2.current);
+            return result != 0 ? result : Integer.compare(r1.order, r2.order);
+        });
+        List<RunReader> readers = new ArrayList<>(runs.size());
+        try {
+            for (int i = 0; i < runs.size(); i++) {
+                RunReader reader = new RunReader(runs.get(i), i);
+                readers.add(reader);
+                if (reader.advance()) {
+                    queue.add(reader);
+                }
             }
 
-            CloseableIterator<SortableRecord> iter = cltn.iterator();
-            while (iter.hasNext()) {
-                SortableRecord al = iter.next();
-                writer.println(al.getText());
+            while (!queue.isEmpty()) {
+                RunReader reader = queue.poll();
+                consumer.accept(reader.current);
+                if (reader.advance()) {
+                    queue.add(reader);
+                }
+            }
+        } finally {
+            for (RunReader reader : readers) {
+                reader.close();
+            }
+        }
+    }
 
+    private static File getResult(Future<File> future) throws IOException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SortingException(e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
             }
-            iter.close();
+            throw new SortingException(e.getCause());
         }
     }
 
@@ -108,7 +293,7 @@ public abstract class AbstractFeatureSorter {
         return (o1, o2) -> {
             int nameComp = o1.getChromosome().compareTo(o2.getChromosome());
             if (nameComp == 0) {
-                return o1.getStart() - o2.getStart();
+                return Integer.compare(o1.getStart(), o2.getStart());
             } else {
                 return nameComp;
             }
@@ -128,6 +313,22 @@ public abstract class AbstractFeatureSorter {
      */
     abstract String writeHeader(AsciiLineReader reader, PrintWriter writer) throws IOException;
 
+    /**
+     * @return a format of a tabix index for BGZF compressed output, null if tabix index isn't supported
+     */
+    TabixFormat getTabixFormat() {
+        return null;
+    }
+
+    /**
+     * Converts a record to a feature, used to build an index of the output file. Coordinates of the
+     * feature should match the ones, produced by a codec of the file format
+     */
+    Feature toIndexFeature(SortableRecord record) {
+        return new SimpleFeature(record.getChromosome(), record.getStart(),
+                Math.max(record.getStart(), record.getEnd()));
+    }
+
     static boolean isEmptyLine(String line) {
         for (char c : line.toCharArray()) {
             if (!Character.isWhitespace(c)) {
@@ -155,4 +356,173 @@ public abstract class AbstractFeatureSorter {
 
         return beforeExtension + SORTED_SUFFIX + extension;
     }
+
+    @FunctionalInterface
+    private interface RecordConsumer {
+        void accept(SortableRecord record) throws IOException;
+    }
+
+    /**
+     * Tasks of a single sort and their temporary runs. On close, tasks, that are not started yet, are skipped,
+     * running ones are awaited, then all runs are deleted, whether the sort succeeded or failed
+     */
+    private final class SortTasks implements Closeable {
+        private final ExecutorService taskExecutor;
+        private final boolean ownExecutor;
+        private final List<Future<File>> futures = new ArrayList<>();
+        private final List<File> runs = Collections.synchronizedList(new ArrayList<>());
+        private volatile boolean closed;
+
+        private SortTasks() {
+            ownExecutor = executor == null;
+            taskExecutor = ownExecutor ? Executors.newFixedThreadPool(threadCount) : executor;
+        }
+
+        private Future<File> submit(Callable<File> task) {
+            Future<File> future = taskExecutor.submit(() -> closed ? null : task.call());
+            futures.add(future);
+            return future;
+        }
+
+        private File createRun() throws IOException {
+            File run = File.createTempFile(RUN_PREFIX, RUN_SUFFIX, tmpDir);
+            runs.add(run);
+            return run;
+        }
+
+        @Override
+        public void close() {
+            closed = true;
+            try {
+                for (Future<File> future : futures) {
+                    try {
+                        future.get();
+                    } catch (ExecutionException e) {
+                        LOG.debug("Sorting task of {} failed: {}", inputFile.getName(), e.getCause().getMessage());
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                if (ownExecutor) {
+                    taskExecutor.shutdownNow();
+                }
+                synchronized (runs) {
+                    runs.forEach(File::delete);
+                }
+            }
+        }
+    }
+
+    /**
+     * Writes records of a sorted run to a compressed temporary file
+     */
+    private static final class RunWriter implements Closeable {
+        private final OutputStream stream;
+        private final SortableRecordCodec codec = new SortableRecordCodec();
+
+        private RunWriter(File run) throws IOException {
+            stream = new BufferedOutputStream(new BlockCompressedOutputStream(run, RUN_COMPRESSION_LEVEL));
+            codec.setOutputStream(stream);
+        }
+
+        private void write(SortableRecord record) {
+            codec.encode(record);
+        }
+
+        @Override
+        public void close() throws IOException {
+            stream.close();
+        }
+    }
+
+    /**
+     * Reads records of a sorted run, keeping the current one
+     */
+    private static final class RunReader implements Closeable {
+        private final InputStream stream;
+        private final SortableRecordCodec codec = new SortableRecordCodec();
+        private final int order;
+        private SortableRecord current;
+
+        private RunReader(File run, int order) throws IOException {
+            this.stream = new BufferedInputStream(new BlockCompressedInputStream(run));
+            this.order = order;
+            codec.setInputStream(stream);
+        }
+
+        private boolean advance() {
+            current = codec.decode();
+            return current != null;
+        }
+
+        @Override
+        public void close() throws IOException {
+            stream.close();
+        }
+    }
+
+    /**
+     * Writes sorted records to the output file and builds its index: tabix index for BGZF compressed
+     * output and tribble linear index for plain text
+     */
+    private final class SortedOutput implements Closeable {
+        private final OutputStream stream;
+        private final BlockCompressedOutputStream compressedStream;
+        private final CountingOutputStream countingStream;
+        private IndexCreator indexCreator;
+        private boolean completed;
+
+        private SortedOutput(File file, TabixFormat tabixFormat) throws IOException {
+            if (NgbFileUtils.isGzCompressed(file.getName())) {
+                compressedStream = new BlockCompressedOutputStream(file);
+                countingStream = null;
+                stream = compressedStream;
+                indexCreator = tabixFormat != null ? new TabixIndexCreator(tabixFormat) : null;
+            } else {
+                compressedStream = null;
+                countingStream = new CountingOutputStream(new BufferedOutputStream(new FileOutputStream(file)));
+                stream = countingStream;
+                indexCreator = new LinearIndexCreator(file, LinearIndexCreator.DEFAULT_BIN_WIDTH);
+            }
+        }
+
+        private OutputStream getStream() {
+            return stream;
+        }
+
+        private long getPosition() {
+            return compressedStream != null ? compressedStream.getFilePointer() : countingStream.getByteCount();
+        }
+
+        private void write(SortableRecord record) throws IOException {
+            if (indexCreator != null) {
+                try {
+                    indexCreator.addFeature(toIndexFeature(record), getPosition());
+                } catch (RuntimeException e) {
+                    LOG.warn("Index won't be created for {}: {}", outputFile.getName(), e.getMessage());
+                    indexCreator = null;
+                }
+            }
+            stream.write(record.getText().getBytes(StandardCharsets.UTF_8));
+            stream.write('\n');
+        }
+
+        /**
+         * Marks the output as completely written, an index is written on close only for a complete output
+         */
+        private void complete() {
+            completed = true;
+        }
+
+        @Override
+        public void close() throws IOException {
+            long end = getPosition();
+            stream.close();
+            if (completed && indexCreator != null) {
+                Index index = indexCreator.finalizeIndex(end);
+                index.writeBasedOnFeatureFile(outputFile);
+            }
+        }
+    }
 }
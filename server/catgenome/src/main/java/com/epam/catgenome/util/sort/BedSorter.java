@@ -24,6 +24,9 @@
 
 package com.epam.catgenome.util.sort;
 
+import htsjdk.tribble.Feature;
+import htsjdk.tribble.SimpleFeature;
+import htsjdk.tribble.index.tabix.TabixFormat;
 import htsjdk.tribble.readers.AsciiLineReader;
 
 import java.io.File;
@@ -34,6 +37,7 @@ public class BedSorter extends AbstractFeatureSorter {
 
     private static final int CHR_COL = 0;
     private static final int START_COL = 1;
+    private static final int END_COL = 2;
 
 
     public BedSorter(File inputFile, File outputFile, File tmpDir) {
@@ -42,7 +46,21 @@ public class BedSorter extends AbstractFeatureSorter {
 
     @Override
     Parser getParser() {
-        return new Parser(CHR_COL, START_COL);
+        return new Parser(CHR_COL, START_COL, END_COL);
+    }
+
+    @Override
+    TabixFormat getTabixFormat() {
+        return TabixFormat.BED;
+    }
+
+    /**
+     * BED start is 0-based, while BED codec produces 1-based features
+     */
+    @Override
+    Feature toIndexFeature(SortableRecord record) {
+        int start = record.getStart() + 1;
+        return new SimpleFeature(record.getChromosome(), start, Math.max(start, record.getEnd()));
     }
 
     @Override
@@ -57,6 +57,8 @@ public final class FeatureSorterFactory {
                 return new GFFSorter(inputFile, outputFile, tmpDir);
             case VCF:
                 return new VCFSorter(inputFile, outputFile, tmpDir);
+            case MAF:
+                return new MafSorter(inputFile, outputFile, tmpDir);
             default:
                 throw new IllegalArgumentException(getMessage(
                         MessagesConstants.ERROR_UNSUPPORTED_FEATURE_FILE_SORT_TYPE, inputFile.getName()));
@@ -0,0 +1,71 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2017 EPAM Systems
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.epam.catgenome.util.sort;
+
+import htsjdk.tribble.index.tabix.TabixFormat;
+import htsjdk.tribble.readers.AsciiLineReader;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintWriter;
+
+public class MafSorter extends AbstractFeatureSorter {
+
+    private static final int CHR_COL = 4;
+    private static final int START_COL = 5;
+    private static final int END_COL = 6;
+    private static final TabixFormat MAF_TABIX_FORMAT = new TabixFormat(TabixFormat.UCSC_FLAGS, 5, 6, 7, '#', 0);
+
+
+    public MafSorter(File inputFile, File outputFile, File tmpDir) {
+        super(inputFile, outputFile, tmpDir);
+    }
+
+    @Override
+    Parser getParser() {
+        return new Parser(CHR_COL, START_COL, END_COL);
+    }
+
+    @Override
+    TabixFormat getTabixFormat() {
+        return MAF_TABIX_FORMAT;
+    }
+
+    @Override
+    String writeHeader(AsciiLineReader reader, PrintWriter writer) throws IOException {
+
+        String nextLine = reader.readLine();
+
+        while (nextLine != null && (nextLine.startsWith("#") ||
+                nextLine.startsWith("Hugo_Symbol") ||
+                isEmptyLine(nextLine))) {
+            writer.println(nextLine);
+            nextLine = reader.readLine();
+        }
+
+        return nextLine;
+
+    }
+
+}
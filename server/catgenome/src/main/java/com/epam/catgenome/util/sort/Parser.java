@@ -40,13 +40,24 @@ public class Parser {
 
     private int chrCol;
     private int startCol;
+    private int endCol;
     private String commentPrefix;
 
     private static final Logger LOG = LoggerFactory.getLogger(SortableRecordCodec.class);
 
     public Parser(int chrCol, int startCol) {
+        this(chrCol, startCol, -1);
+    }
+
+    /**
+     * @param chrCol index of a chromosome column
+     * @param startCol index of a start column
+     * @param endCol index of an end column, if it is negative, end is the same as start
+     */
+    public Parser(int chrCol, int startCol, int endCol) {
         this.chrCol = chrCol;
         this.startCol = startCol;
+        this.endCol = endCol;
         this.commentPrefix = "#";
     }
 
@@ -84,6 +95,23 @@ public class Parser {
             start = Integer.MAX_VALUE;
         }
 
-        return new SortableRecord(chr, start, nextLine);
+        return new SortableRecord(chr, start, parseEnd(fields, start), nextLine);
+    }
+
+    /**
+     * Gets an end of a record, used for indexing of a sorted file
+     * @param fields columns of a record
+     * @param start parsed start of a record
+     * @return end of a record
+     */
+    protected int parseEnd(String[] fields, int start) {
+        if (endCol < 0 || endCol >= fields.length) {
+            return start;
+        }
+        try {
+            return Integer.parseInt(fields[endCol].trim());
+        } catch (NumberFormatException e) {
+            return start;
+        }
     }
 }
@@ -59,6 +59,7 @@ public class SortableRecordCodec implements SortingCollection.Codec<SortableReco
     public void encode(SortableRecord record) {
         try {
             outputStream.writeInt(record.getStart());
+            outputStream.writeInt(record.getEnd());
             outputStream.writeUTF(record.getChromosome());
 
             String s = record.getText();
@@ -79,6 +80,7 @@ public class SortableRecordCodec implements SortingCollection.Codec<SortableReco
                 return null;
             }
 
+            int end = inputStream.readInt();
             String chr = inputStream.readUTF();
             int textLen = inputStream.readInt();
 
@@ -86,7 +88,7 @@ public class SortableRecordCodec implements SortingCollection.Codec<SortableReco
             inputStream.readFully(textBytes);
             String text = new String(textBytes, UTF_8);
 
-            return new SortableRecord(chr, start, text);
+            return new SortableRecord(chr, start, end, text);
         } catch (IOException ex) {
             throw new SortingException(ex);
         }
@@ -24,6 +24,7 @@
 
 package com.epam.catgenome.util.sort;
 
+import htsjdk.tribble.index.tabix.TabixFormat;
 import htsjdk.tribble.readers.AsciiLineReader;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -36,6 +37,7 @@ import java.io.PrintWriter;
 public class VCFSorter extends AbstractFeatureSorter {
 
     private static final Logger LOG = LoggerFactory.getLogger(VCFSorter.class);
+    private static final int REF_COL = 3;
 
     public VCFSorter(File inputFile, File outputFile, File tmpDir) {
         super(inputFile, outputFile, tmpDir);
@@ -43,7 +45,17 @@ public class VCFSorter extends AbstractFeatureSorter {
 
     @Override
     Parser getParser() {
-        return new Parser(0, 1);
+        return new Parser(0, 1) {
+            @Override
+            protected int parseEnd(String[] fields, int start) {
+                return fields.length > REF_COL ? start + fields[REF_COL].length() - 1 : start;
+            }
+        };
+    }
+
+    @Override
+    TabixFormat getTabixFormat() {
+        return TabixFormat.VCF;
     }
 
     @Override
@@ -0,0 +1,216 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2016 EPAM Systems
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package com.epam.catgenome.util.stream;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import htsjdk.samtools.seekablestream.SeekableStream;
+import htsjdk.samtools.util.BlockCompressedStreamConstants;
+
+/**
+ * <p>
+ * A {@link SeekableStream} over a {@link RangeSource}, that reads a remote file by fixed size blocks
+ * instead of forwarding every small read of htsjdk readers to the network.
+ * </p>
+ * <p>
+ * A missing block is fetched together with consecutive missing blocks in a single ranged read. A read always
+ * covers a whole BGZF block, starting at a current position, and sequential reads are extended further by
+ * a configured number of read ahead blocks. Fetched blocks are saved to a shared {@link DiskBlockCache}, so
+ * that later readers of the same file, e.g. of a BAM index, don't download them again.
+ * </p>
+ */
+public class BlockCachingSeekableStream extends SeekableStream {
+
+    private final RangeSource source;
+    private final DiskBlockCache cache;
+    private final int blockSize;
+    private final int readAheadBlocks;
+    private final String fileKey;
+    private final long length;
+
+    /**
+     * Recently used blocks of this stream, read ahead blocks are kept here if there's no disk cache
+     */
+    private final Map<Long, byte[]> recentBlocks;
+    private long position;
+    private long nextBlock = -1;
+
+    /**
+     * @param source a remote file
+     * @param cache a shared cache of blocks, may be null
+     * @param blockSize a size of a block in bytes
+     * @param readAheadBlocks a number of blocks to read ahead during sequential reading
+     * @throws IOException if a file is unavailable
+     */
+    public BlockCachingSeekableStream(final RangeSource source, final DiskBlockCache cache, final int blockSize,
+            final int readAheadBlocks) throws IOException {
+        this.source = source;
+        this.cache = cache;
+        this.blockSize = blockSize;
+        this.readAheadBlocks = readAheadBlocks;
+        this.length = source.length();
+        this.fileKey = source.getKey() + '\n' + source.getValidator();
+        final long maxRunBlocks = (getRunEnd(blockSize - 1, true) + blockSize - 1) / blockSize + 1;
+        this.recentBlocks = new LinkedHashMap<Long, byte[]>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(final Map.Entry<Long, byte[]> eldest) {
+                return size() > maxRunBlocks;
+            }
+        };
+    }
+
+    @Override
+    public long length() {
+        return length;
+    }
+
+    @Override
+    public long position() {
+        return position;
+    }
+
+    @Override
+    public void seek(final long position) throws IOException {
+        if (position < 0) {
+            throw new IOException("Invalid position " + position + " in " + getSource());
+        }
+        this.position = position;
+    }
+
+    @Override
+    public long skip(final long count) {
+        final long skipped = Math.max(0, Math.min(count, length - position));
+        position += skipped;
+        return skipped;
+    }
+
+    @Override
+    public int read() throws IOException {
+        final byte[] buffer = new byte[1];
+        return read(buffer, 0, 1) < 0 ? -1 : buffer[0] & 0xFF;
+    }
+
+    @Override
+    public int read(final byte[] buffer, final int offset, final int count) throws IOException {
+        if (count == 0) {
+            return 0;
+        }
+        if (position >= length) {
+            return -1;
+        }
+        int total = 0;
+        while (total < count && position < length) {
+            final long blockIndex = position / blockSize;
+            final byte[] block = getBlock(blockIndex);
+            final int blockOffset = (int) (position - blockIndex * blockSize);
+            final int chunk = Math.min(count - total, block.length - blockOffset);
+            System.arraycopy(block, blockOffset, buffer, offset + total, chunk);
+            total += chunk;
+            position += chunk;
+        }
+        return total;
+    }
+
+    @Override
+    public boolean eof() {
+        return position >= length;
+    }
+
+    @Override
+    public String getSource() {
+        return source.getSource();
+    }
+
+    @Override
+    public void close() throws IOException {
+        recentBlocks.clear();
+        source.close();
+    }
+
+    private byte[] getBlock(final long blockIndex) throws IOException {
+        final boolean sequential = blockIndex == nextBlock;
+        nextBlock = blockIndex + 1;
+        byte[] block = recentBlocks.get(blockIndex);
+        if (block == null && cache != null) {
+            block = cache.get(fileKey, blockIndex);
+            if (block != null) {
+                recentBlocks.put(blockIndex, block);
+            }
+        }
+        return block != null ? block : fetch(blockIndex, sequential);
+    }
+
+    /**
+     * Fetches a block together with following missing blocks in a single ranged read
+     */
+    private byte[] fetch(final long blockIndex, final boolean sequential) throws IOException {
+        final long start = blockIndex * blockSize;
+        final long end = Math.min(length, start + getRunEnd(position - start, sequential));
+        long lastBlock = (end - 1) / blockSize;
+        for (long i = blockIndex + 1; i <= lastBlock; i++) {
+            if (isCached(i)) {
+                lastBlock = i - 1;
+                break;
+            }
+        }
+
+        final byte[] data = new byte[(int) (Math.min(length, (lastBlock + 1) * blockSize) - start)];
+        source.readFully(start, data, 0, data.length);
+        byte[] first = null;
+        for (long i = blockIndex; i <= lastBlock; i++) {
+            final int from = (int) ((i - blockIndex) * blockSize);
+            final int to = Math.min(data.length, from + blockSize);
+            final byte[] block = Arrays.copyOfRange(data, from, to);
+            if (cache != null) {
+                cache.put(fileKey, i, block, 0, block.length);
+            }
+            recentBlocks.put(i, block);
+            if (first == null) {
+                first = block;
+            }
+        }
+        return first;
+    }
+
+    /**
+     * @param positionOffset an offset of a current position in a block
+     * @param sequential true if a previous read ended in a previous block
+     * @return an end of a fetched range relative to a block start: it includes a whole BGZF block, that starts
+     * at a current position, and read ahead blocks, if reading is sequential
+     */
+    private long getRunEnd(final long positionOffset, final boolean sequential) {
+        final long bgzfEnd = positionOffset + BlockCompressedStreamConstants.MAX_COMPRESSED_BLOCK_SIZE;
+        final long readAheadEnd = (long) blockSize * (sequential ? readAheadBlocks + 1 : 1);
+        return Math.max(bgzfEnd, readAheadEnd);
+    }
+
+    private boolean isCached(final long blockIndex) {
+        return recentBlocks.containsKey(blockIndex) || cache != null && cache.contains(fileKey, blockIndex);
+    }
+}
@@ -0,0 +1,109 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2016 EPAM Systems
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package com.epam.catgenome.util.stream;
+
+import java.io.IOException;
+import java.net.URL;
+
+import htsjdk.samtools.seekablestream.ISeekableStreamFactory;
+import htsjdk.samtools.seekablestream.SeekableStream;
+
+/**
+ * An {@link ISeekableStreamFactory}, that opens HTTP and HTTPS files as {@link BlockCachingSeekableStream}s.
+ * Being installed with {@code SeekableStreamFactory.setInstance}, it is used by all htsjdk readers, that open
+ * files by URL: BAM, CRAM, VCF and other tabix indexed files and their indexes. Other files are opened by
+ * a delegate factory.
+ */
+public class CachingSeekableStreamFactory implements ISeekableStreamFactory {
+
+    private final ISeekableStreamFactory delegate;
+    private final DiskBlockCache cache;
+    private final int blockSize;
+    private final int readAheadBlocks;
+    private final int timeout;
+
+    /**
+     * @param delegate a factory for other files
+     * @param cache a shared cache of blocks, may be null
+     * @param blockSize a size of a block in bytes
+     * @param readAheadBlocks a number of blocks to read ahead during sequential reading
+     * @param timeout HTTP connection and read timeout in ms
+     */
+    public CachingSeekableStreamFactory(final ISeekableStreamFactory delegate, final DiskBlockCache cache,
+            final int blockSize, final int readAheadBlocks, final int timeout) {
+        this.delegate = delegate;
+        this.cache = cache;
+        this.blockSize = blockSize;
+        this.readAheadBlocks = readAheadBlocks;
+        this.timeout = timeout;
+    }
+
+    /**
+     * Opens a stream over a remote file
+     *
+     * @param source a remote file
+     * @return a stream
+     * @throws IOException if a file is unavailable
+     */
+    public SeekableStream open(final RangeSource source) throws IOException {
+        return new BlockCachingSeekableStream(source, cache, blockSize, readAheadBlocks);
+    }
+
+    @Override
+    public SeekableStream getStreamFor(final URL url) throws IOException {
+        if (!isHttp(url.getProtocol())) {
+            return delegate.getStreamFor(url);
+        }
+        return open(new HttpRangeSource(url, HttpRangeSource.getStableKey(url), timeout));
+    }
+
+    @Override
+    public SeekableStream getStreamFor(final String path) throws IOException {
+        final int schemeEnd = path.indexOf("://");
+        if (schemeEnd > 0 && isHttp(path.substring(0, schemeEnd))) {
+            return getStreamFor(new URL(path));
+        }
+        return delegate.getStreamFor(path);
+    }
+
+    @Override
+    public SeekableStream getBufferedStream(final SeekableStream stream) {
+        return delegate.getBufferedStream(stream);
+    }
+
+    @Override
+    public SeekableStream getBufferedStream(final SeekableStream stream, final int bufferSize) {
+        return delegate.getBufferedStream(stream, bufferSize);
+    }
+
+    public ISeekableStreamFactory getDelegate() {
+        return delegate;
+    }
+
+    private static boolean isHttp(final String protocol) {
+        return "http".equalsIgnoreCase(protocol) || "https".equalsIgnoreCase(protocol);
+    }
+}
@@ -0,0 +1,133 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2016 EPAM Systems
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package com.epam.catgenome.util.stream;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+
+import org.apache.commons.codec.digest.DigestUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.epam.catgenome.util.BoundedDiskCache;
+
+/**
+ * <p>
+ * A disk based cache of fixed size blocks of remote files, shared by all {@link BlockCachingSeekableStream}s.
+ * </p>
+ * <p>
+ * Blocks are keyed by a file's key, its validator (an ETag or a length with a modification time) and an index
+ * of a block, so a modified file never gets blocks of its previous version. Each block is stored in a separate
+ * file of a {@link BoundedDiskCache}, that bounds the total size of cached blocks and restores them on creation.
+ * </p>
+ */
+public class DiskBlockCache {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(DiskBlockCache.class);
+    private static final int DIR_PREFIX_LENGTH = 2;
+
+    private final BoundedDiskCache blocks;
+
+    /**
+     * @param cacheDir a directory for cached blocks, it is created if it doesn't exist
+     * @param maxSize maximum total size of cached blocks in bytes
+     * @throws IOException if a directory can't be created
+     */
+    public DiskBlockCache(final File cacheDir, final long maxSize) throws IOException {
+        blocks = new BoundedDiskCache(cacheDir, maxSize, DIR_PREFIX_LENGTH);
+    }
+
+    /**
+     * Returns a cached block
+     *
+     * @param fileKey a key of a file with its validator
+     * @param blockIndex an index of a block in a file
+     * @return block's data or null if it isn't cached
+     */
+    public byte[] get(final String fileKey, final long blockIndex) {
+        final String name = getName(fileKey, blockIndex);
+        final File file = blocks.get(name);
+        if (file == null) {
+            return null;
+        }
+        try {
+            return Files.readAllBytes(file.toPath());
+        } catch (IOException e) {
+            LOGGER.debug("Failed to read a cached block " + file, e);
+            blocks.remove(name);
+            return null;
+        }
+    }
+
+    /**
+     * Checks if a block is cached
+     *
+     * @param fileKey a key of a file with its validator
+     * @param blockIndex an index of a block in a file
+     * @return true if a block is cached
+     */
+    public boolean contains(final String fileKey, final long blockIndex) {
+        return blocks.contains(getName(fileKey, blockIndex));
+    }
+
+    /**
+     * Saves a block
+     *
+     * @param fileKey a key of a file with its validator
+     * @param blockIndex an index of a block in a file
+     * @param buffer a buffer with block's data
+     * @param offset an offset of a block in a buffer
+     * @param length a length of a block
+     */
+    public void put(final String fileKey, final long blockIndex, final byte[] buffer, final int offset,
+            final int length) {
+        final String name = getName(fileKey, blockIndex);
+        if (blocks.contains(name)) {
+            return;
+        }
+        try {
+            blocks.put(name, stream -> stream.write(buffer, offset, length));
+        } catch (IOException e) {
+            LOGGER.warn("Failed to cache a block of " + fileKey, e);
+        }
+    }
+
+    /**
+     * @return total size of cached blocks in bytes
+     */
+    public long getTotalSize() {
+        return blocks.getTotalSize();
+    }
+
+    public File getCacheDir() {
+        return blocks.getDir();
+    }
+
+    private static String getName(final String fileKey, final long blockIndex) {
+        return DigestUtils.sha256Hex(fileKey) + "_" + blockIndex;
+    }
+}
@@ -0,0 +1,100 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2016 EPAM Systems
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package com.epam.catgenome.util.stream;
+
+import java.io.IOException;
+
+import org.apache.hadoop.fs.FSDataInputStream;
+import org.apache.hadoop.fs.FileStatus;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.Path;
+
+/**
+ * A {@link RangeSource} for a file in HDFS or any other Hadoop {@link FileSystem}. Ranges are read with
+ * positional reads, that don't move a position of an underlying stream.
+ */
+public class HdfsRangeSource implements RangeSource {
+
+    private final FileSystem fileSystem;
+    private final Path path;
+
+    private FileStatus status;
+    private FSDataInputStream stream;
+
+    /**
+     * @param fileSystem a file system of a file
+     * @param path a path to a file
+     */
+    public HdfsRangeSource(final FileSystem fileSystem, final Path path) {
+        this.fileSystem = fileSystem;
+        this.path = fileSystem.makeQualified(path);
+    }
+
+    @Override
+    public String getKey() {
+        return path.toString();
+    }
+
+    @Override
+    public String getValidator() throws IOException {
+        final FileStatus fileStatus = getStatus();
+        return fileStatus.getLen() + ":" + fileStatus.getModificationTime();
+    }
+
+    @Override
+    public long length() throws IOException {
+        return getStatus().getLen();
+    }
+
+    @Override
+    public synchronized void readFully(final long position, final byte[] buffer, final int offset,
+            final int length) throws IOException {
+        if (stream == null) {
+            stream = fileSystem.open(path);
+        }
+        stream.readFully(position, buffer, offset, length);
+    }
+
+    @Override
+    public String getSource() {
+        return path.toString();
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (stream != null) {
+            stream.close();
+            stream = null;
+        }
+    }
+
+    private synchronized FileStatus getStatus() throws IOException {
+        if (status == null) {
+            status = fileSystem.getFileStatus(path);
+        }
+        return status;
+    }
+}
@@ -0,0 +1,205 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2016 EPAM Systems
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package com.epam.catgenome.util.stream;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.apache.commons.io.IOUtils;
+import org.apache.commons.lang3.StringUtils;
+
+/**
+ * A {@link RangeSource} for a file on an HTTP server, including presigned S3 URLs. A file is probed with
+ * a {@code GET} request of a single byte instead of {@code HEAD}, as presigned URLs are valid only for
+ * the {@code GET} method. Servers, that don't support {@code Range} requests, are read from the beginning
+ * of a file.
+ */
+public class HttpRangeSource implements RangeSource {
+
+    private static final String RANGE_HEADER = "Range";
+    private static final String CONTENT_RANGE_HEADER = "Content-Range";
+    private static final String ETAG_HEADER = "ETag";
+    private static final String AMAZON_PARAM_PREFIX = "X-Amz-";
+    private static final Set<String> SIGNATURE_PARAMS = new HashSet<>(
+            Arrays.asList("AWSAccessKeyId", "Signature", "Expires", "x-amz-security-token"));
+
+    private final URL url;
+    private final String key;
+    private final int timeout;
+
+    private long length = -1;
+    private String etag;
+    private long lastModified;
+
+    /**
+     * @param url a URL of a file
+     * @param key a stable identity of a file, e.g. a URL without a signature
+     * @param timeout connection and read timeout in ms
+     */
+    public HttpRangeSource(final URL url, final String key, final int timeout) {
+        this.url = url;
+        this.key = key;
+        this.timeout = timeout;
+    }
+
+    /**
+     * Returns a URL without signature parameters of presigned S3 URLs, so that differently signed URLs of
+     * the same file have the same key
+     *
+     * @param url a URL
+     * @return a key of a file
+     */
+    public static String getStableKey(final URL url) {
+        final String query = url.getQuery();
+        final String base = url.getProtocol() + "://" + url.getAuthority() + url.getPath();
+        if (StringUtils.isBlank(query)) {
+            return base;
+        }
+        final String params = Arrays.stream(query.split("&"))
+                .filter(param -> !isSignatureParam(param.split("=", 2)[0]))
+                .collect(Collectors.joining("&"));
+        return params.isEmpty() ? base : base + '?' + params;
+    }
+
+    @Override
+    public String getKey() {
+        return key;
+    }
+
+    @Override
+    public String getValidator() throws IOException {
+        probe();
+        return StringUtils.isNotBlank(etag) ? etag : length + ":" + lastModified;
+    }
+
+    @Override
+    public long length() throws IOException {
+        probe();
+        return length;
+    }
+
+    @Override
+    public void readFully(final long position, final byte[] buffer, final int offset, final int length)
+            throws IOException {
+        probe();
+        final HttpURLConnection connection = openConnection(position, position + length - 1);
+        boolean reusable = false;
+        try {
+            final int code = connection.getResponseCode();
+            if (code != HttpURLConnection.HTTP_PARTIAL && code != HttpURLConnection.HTTP_OK) {
+                throw new IOException("Failed to read " + getSource() + ": HTTP " + code);
+            }
+            final String responseEtag = connection.getHeaderField(ETAG_HEADER);
+            if (StringUtils.isNotBlank(etag) && StringUtils.isNotBlank(responseEtag) && !etag.equals(responseEtag)) {
+                throw new IOException("File " + getSource() + " was modified while reading");
+            }
+            try (InputStream stream = connection.getInputStream()) {
+                if (code == HttpURLConnection.HTTP_OK) {
+                    IOUtils.skipFully(stream, position);
+                }
+                IOUtils.readFully(stream, buffer, offset, length);
+                // a fully read response leaves a connection in the keep-alive pool
+                reusable = code == HttpURLConnection.HTTP_PARTIAL && stream.read() < 0;
+            }
+        } finally {
+            if (!reusable) {
+                connection.disconnect();
+            }
+        }
+    }
+
+    @Override
+    public String getSource() {
+        return url.getProtocol() + "://" + url.getAuthority() + url.getPath();
+    }
+
+    @Override
+    public void close() {
+        // no op: connections are returned to the shared keep-alive pool after each request
+    }
+
+    private synchronized void probe() throws IOException {
+        if (length >= 0) {
+            return;
+        }
+        final HttpURLConnection connection = openConnection(0, 0);
+        boolean reusable = false;
+        try {
+            final int code = connection.getResponseCode();
+            if (code == HttpURLConnection.HTTP_PARTIAL) {
+                length = parseTotalLength(connection.getHeaderField(CONTENT_RANGE_HEADER));
+            } else if (code == HttpURLConnection.HTTP_OK) {
+                length = connection.getContentLengthLong();
+            } else {
+                throw new IOException("Failed to open " + getSource() + ": HTTP " + code);
+            }
+            if (length < 0) {
+                throw new IOException("Failed to get a length of " + getSource());
+            }
+            etag = connection.getHeaderField(ETAG_HEADER);
+            lastModified = connection.getLastModified();
+            if (code == HttpURLConnection.HTTP_PARTIAL) {
+                try (InputStream stream = connection.getInputStream()) {
+                    IOUtils.toByteArray(stream);
+                }
+                reusable = true;
+            }
+        } finally {
+            if (!reusable) {
+                connection.disconnect();
+            }
+        }
+    }
+
+    private static boolean isSignatureParam(final String name) {
+        return name.startsWith(AMAZON_PARAM_PREFIX) || SIGNATURE_PARAMS.contains(name);
+    }
+
+    private HttpURLConnection openConnection(final long start, final long end) throws IOException {
+        final HttpURLConnection connection = (HttpURLConnection) url.openConnection();
+        connection.setConnectTimeout(timeout);
+        connection.setReadTimeout(timeout);
+        connection.setRequestProperty(RANGE_HEADER, "bytes=" + start + "-" + end);
+        return connection;
+    }
+
+    /**
+     * Parses a total length from a {@code Content-Range} header: {@code bytes 0-0/12345}
+     */
+    private long parseTotalLength(final String contentRange) throws IOException {
+        final int separator = contentRange != null ? contentRange.lastIndexOf('/') : -1;
+        if (separator < 0 || "*".equals(contentRange.substring(separator + 1).trim())) {
+            throw new IOException("Unexpected Content-Range of " + getSource() + ": " + contentRange);
+        }
+        return Long.parseLong(contentRange.substring(separator + 1).trim());
+    }
+}
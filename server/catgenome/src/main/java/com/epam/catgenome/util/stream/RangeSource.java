@@ -0,0 +1,70 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2016 EPAM Systems
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package com.epam.catgenome.util.stream;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * A remote file, that supports reading of byte ranges at arbitrary positions, e.g. a file on an HTTP server,
+ * that supports {@code Range} requests, or a file in HDFS.
+ */
+public interface RangeSource extends Closeable {
+
+    /**
+     * @return a stable identity of a file, that doesn't change between requests, e.g. a URL without
+     * a signature or an HDFS URI
+     */
+    String getKey();
+
+    /**
+     * @return a value, that changes when a file is modified: an ETag or a length with a modification time
+     * @throws IOException if a file is unavailable
+     */
+    String getValidator() throws IOException;
+
+    /**
+     * @return a length of a file in bytes
+     * @throws IOException if a file is unavailable
+     */
+    long length() throws IOException;
+
+    /**
+     * Reads exactly {@code length} bytes, starting from {@code position}
+     *
+     * @param position a position in a file to read from
+     * @param buffer a buffer to read to
+     * @param offset an offset in a buffer
+     * @param length a number of bytes to read
+     * @throws IOException if a file is unavailable or is shorter than requested
+     */
+    void readFully(long position, byte[] buffer, int offset, int length) throws IOException;
+
+    /**
+     * @return a location of a file for messages
+     */
+    String getSource();
+}
@@ -0,0 +1 @@
+ALTER TABLE CATGENOME.REGISTRATION_JOB ADD COLUMN BATCH BOOLEAN NOT NULL DEFAULT FALSE;
@@ -0,0 +1 @@
+CREATE INDEX bookmark_created_by_name_idx ON CATGENOME.BOOKMARK(CREATED_BY, BOOKMARK_NAME varchar_pattern_ops);
@@ -0,0 +1,18 @@
+CREATE SEQUENCE catgenome.S_REGISTRATION_JOB START WITH 1 INCREMENT BY 1;
+
+CREATE TABLE IF NOT EXISTS CATGENOME.REGISTRATION_JOB (
+  JOB_ID                  BIGINT         NOT NULL,
+  FORMAT                  BIGINT         NOT NULL,
+  STATUS                  INTEGER        NOT NULL,
+  PROGRESS                DOUBLE PRECISION,
+  REQUEST                 TEXT           NOT NULL,
+  RESULT_ID               BIGINT,
+  ERROR_MESSAGE           TEXT,
+  CREATED_BY              BIGINT         NOT NULL,
+  CREATED_DATE            TIMESTAMP      NOT NULL,
+  STARTED_DATE            TIMESTAMP,
+  FINISHED_DATE           TIMESTAMP,
+  CONSTRAINT registration_job_id_pkey PRIMARY KEY (JOB_ID)
+);
+
+CREATE INDEX registration_job_status_idx ON CATGENOME.REGISTRATION_JOB(STATUS);
@@ -25,8 +25,10 @@
 package com.epam.catgenome.controller;
 
 import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -52,6 +54,7 @@ import org.springframework.test.context.ContextConfiguration;
 import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
 import org.springframework.test.context.web.WebAppConfiguration;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.ResultActions;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 
@@ -123,9 +126,13 @@ public class ExternalDBControllerTest extends AbstractControllerTest {
         ).thenReturn(fetchRes);
 
         // act
-        ResultActions actions = mvc
+        MvcResult asyncResult = mvc
                 .perform(get(String.format(URL_FETCH_ENSEMBL_DATA, "rs7412"))
                         .contentType(EXPECTED_CONTENT_TYPE))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        ResultActions actions = mvc
+                .perform(asyncDispatch(asyncResult))
                 .andExpect(status().isOk())
                 .andExpect(content().contentType(EXPECTED_CONTENT_TYPE))
                 .andExpect(jsonPath(JPATH_PAYLOAD).exists())
@@ -157,9 +164,13 @@ public class ExternalDBControllerTest extends AbstractControllerTest {
         ).thenReturn(fetchRes);
 
         // act
-        ResultActions actions = mvc
+        MvcResult asyncResult = mvc
                 .perform(get(String.format(URL_FETCH_UNIPROT_DATA, "ENSG00000106683"))
                         .contentType(EXPECTED_CONTENT_TYPE))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        ResultActions actions = mvc
+                .perform(asyncDispatch(asyncResult))
                 .andExpect(status().isOk())
                 .andExpect(content().contentType(EXPECTED_CONTENT_TYPE))
                 .andExpect(jsonPath(JPATH_PAYLOAD).exists())
@@ -32,6 +32,7 @@ import java.util.List;
 import java.util.Map;
 
 import org.junit.Assert;
+import org.apache.commons.lang3.tuple.Pair;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
@@ -98,6 +99,7 @@ public class BookmarkDaoTest extends AbstractDaoTest {
     private static final String TEST_FILE_NAME = "testFile";
     private static final String TEST_NAME = "test";
     private static final int TEST_SEARCH_LIMIT = 100;
+    private static final int TEST_MATCHING_COUNT = 3;
 
     @Before
     public void setup() throws Exception {
@@ -318,8 +320,8 @@ public class BookmarkDaoTest extends AbstractDaoTest {
 
         bookmarkDao.saveBookmark(bookmark);
 
-        List<Bookmark> bookmarks = bookmarkDao.searchBookmarks(TEST_NAME, AuthUtils.getCurrentUserId(),
-                                                               TEST_SEARCH_LIMIT);
+        List<Bookmark> bookmarks = bookmarkDao.searchBookmarksWithCount(TEST_NAME, AuthUtils.getCurrentUserId(),
+                                                                        TEST_SEARCH_LIMIT).getLeft();
         Assert.assertFalse(bookmarks.isEmpty());
         Assert.assertEquals(bookmark.getId(), bookmarks.get(0).getId());
         Assert.assertEquals(bookmark.getName(), bookmarks.get(0).getName());
@@ -328,4 +330,39 @@ public class BookmarkDaoTest extends AbstractDaoTest {
         Assert.assertEquals(bookmark.getCreatedBy(), bookmarks.get(0).getCreatedBy());
         Assert.assertEquals(bookmark.getCreatedDate(), bookmarks.get(0).getCreatedDate());
     }
+
+    @Test
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void testSearchWithCount() {
+        for (int i = 0; i < TEST_MATCHING_COUNT; i++) {
+            saveBookmark(TEST_NAME + i);
+        }
+        saveBookmark("other" + TEST_NAME);
+
+        Pair<List<Bookmark>, Integer> result = bookmarkDao.searchBookmarksWithCount(TEST_NAME,
+                AuthUtils.getCurrentUserId(), TEST_MATCHING_COUNT - 1);
+        Assert.assertEquals(TEST_MATCHING_COUNT - 1, result.getLeft().size());
+        Assert.assertTrue(result.getLeft().stream().allMatch(b -> b.getName().startsWith(TEST_NAME)));
+        Assert.assertEquals(TEST_MATCHING_COUNT, result.getRight().intValue());
+
+        result = bookmarkDao.searchBookmarksWithCount(TEST_NAME, AuthUtils.getCurrentUserId(), 0);
+        Assert.assertTrue(result.getLeft().isEmpty());
+        Assert.assertEquals(TEST_MATCHING_COUNT, result.getRight().intValue());
+
+        result = bookmarkDao.searchBookmarksWithCount("missing", AuthUtils.getCurrentUserId(), TEST_SEARCH_LIMIT);
+        Assert.assertTrue(result.getLeft().isEmpty());
+        Assert.assertEquals(0, result.getRight().intValue());
+    }
+
+    private Bookmark saveBookmark(String name) {
+        Bookmark bookmark = new Bookmark();
+        bookmark.setName(name);
+        bookmark.setEndIndex(BOOKMARK_END_INDEX);
+        bookmark.setStartIndex(0);
+        bookmark.setChromosome(chromosome);
+        bookmark.setCreatedDate(new Date());
+        bookmark.setCreatedBy(AuthUtils.getCurrentUserId());
+        bookmarkDao.saveBookmark(bookmark);
+        return bookmark;
+    }
 }
@@ -27,6 +27,7 @@ package com.epam.catgenome.dao;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
 
 import java.util.List;
 
@@ -98,5 +99,25 @@ public class BucketDaoTest extends AbstractDaoTest {
 
         assertFalse(bucketList.isEmpty());
     }
-}
 
+    @Test
+    @Transactional(propagation = Propagation.REQUIRES_NEW, rollbackFor = Exception.class)
+    public void testUpdateDeleteBucket() {
+        Bucket bucket = new Bucket();
+        bucket.setBucketName(BUCKET_NAME);
+        bucket.setAccessKeyId(ACCESS_KEY);
+        bucket.setSecretAccessKey(SECRET_KEY);
+        bucketDao.createBucket(bucket);
+
+        bucket.setBucketName(BUCKET_NAME + "_updated");
+        bucket.setSecretAccessKey(SECRET_KEY + "_updated");
+        bucketDao.updateBucket(bucket);
+
+        final Bucket loadedBucket = bucketDao.loadBucketById(bucket.getId());
+        assertEquals(bucket.getBucketName(), loadedBucket.getBucketName());
+        assertEquals(bucket.getSecretAccessKey(), loadedBucket.getSecretAccessKey());
+
+        bucketDao.deleteBucket(bucket.getId());
+        assertNull(bucketDao.loadBucketById(bucket.getId()));
+    }
+}
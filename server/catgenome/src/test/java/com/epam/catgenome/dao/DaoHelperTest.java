@@ -29,13 +29,16 @@ import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertTrue;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.stream.Collectors;
 import java.util.stream.LongStream;
 
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.SingleColumnRowMapper;
 import org.springframework.test.context.ContextConfiguration;
 import org.springframework.test.context.junit4.AbstractTransactionalJUnit4SpringContextTests;
 import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
@@ -61,6 +64,12 @@ public class DaoHelperTest extends AbstractTransactionalJUnit4SpringContextTests
 
     private static final String JUNIT_SEQUENCE_NAME = "catgenome.s_junit";
 
+    private static final String RANGE_BY_IDS_QUERY = "SELECT x FROM SYSTEM_RANGE(1, 100) WHERE x IN (:IDS)";
+
+    private static final int MAX_IN_LIST_SIZE = 1000;
+
+    private static final int TEST_IN_LIST_SIZE = 4;
+
     @Autowired
     private DaoHelper daoHelper;
 
@@ -99,4 +108,21 @@ public class DaoHelperTest extends AbstractTransactionalJUnit4SpringContextTests
         assertEquals("Unexpected number of retrieved IDs.", TEMP_LIST_CAPACITY.intValue(), createdIds.size());
     }
 
+    @Test
+    public void testQueryByIds() {
+        final List<Long> ids = Arrays.asList(1L, 2L, 3L, 3L, 5L, 8L, 13L, 21L, 34L, 55L, 89L, 144L);
+        final List<Long> expected = ids.stream().filter(id -> id <= 100).distinct().collect(Collectors.toList());
+        daoHelper.setMaxInListSize(TEST_IN_LIST_SIZE);
+        try {
+            final List<Long> loaded = daoHelper.queryByIds(RANGE_BY_IDS_QUERY, "IDS", ids, null,
+                    new SingleColumnRowMapper<>(Long.class));
+            loaded.sort(Long::compare);
+            assertEquals("Unexpected rows loaded by chunked IDs.", expected, loaded);
+        } finally {
+            daoHelper.setMaxInListSize(MAX_IN_LIST_SIZE);
+        }
+        assertTrue(daoHelper.queryByIds(RANGE_BY_IDS_QUERY, "IDS", new ArrayList<Long>(), null,
+                new SingleColumnRowMapper<>(Long.class)).isEmpty());
+    }
+
 }
@@ -24,8 +24,12 @@
 
 package com.epam.catgenome.dao;
 
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Date;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 import org.junit.Assert;
 import org.junit.Test;
@@ -38,7 +42,11 @@ import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import com.epam.catgenome.dao.project.ProjectDao;
+import com.epam.catgenome.entity.BiologicalDataItem;
+import com.epam.catgenome.entity.BiologicalDataItemFormat;
+import com.epam.catgenome.entity.BiologicalDataItemResourceType;
 import com.epam.catgenome.entity.project.Project;
+import com.epam.catgenome.entity.project.ProjectItem;
 import com.epam.catgenome.util.AuthUtils;
 
 /**
@@ -53,9 +61,19 @@ import com.epam.catgenome.util.AuthUtils;
 @ContextConfiguration({"classpath:applicationContext-test.xml"})
 public class ProjectDaoTest extends AbstractTransactionalJUnit4SpringContextTests {
 
+    private static final int MAX_IN_LIST_SIZE = 1000;
+    private static final int TEST_IN_LIST_SIZE = 2;
+    private static final int NESTED_PROJECTS_COUNT = 5;
+
     @Autowired
     private ProjectDao projectDao;
 
+    @Autowired
+    private BiologicalDataItemDao biologicalDataItemDao;
+
+    @Autowired
+    private DaoHelper daoHelper;
+
     @Test
     @Transactional(propagation = Propagation.REQUIRES_NEW, rollbackFor = Exception.class)
     public void testSaveLoadProject() {
@@ -139,4 +157,59 @@ public class ProjectDaoTest extends AbstractTransactionalJUnit4SpringContextTest
         List<Project> topLevel = projectDao.loadTopLevelProjectsOrderByLastOpened(AuthUtils.getCurrentUserId());
         Assert.assertEquals(1, topLevel.size());
     }
+
+    @Test
+    @Transactional(propagation = Propagation.REQUIRES_NEW, rollbackFor = Exception.class)
+    public void testLoadProjectTreeByIds() {
+        Project parent = createProject("testParent", null);
+        BiologicalDataItem item = createItem("testItem");
+        List<Long> nestedIds = new ArrayList<>();
+        for (int i = 0; i < NESTED_PROJECTS_COUNT; i++) {
+            Project nested = createProject("testNested" + i, parent.getId());
+            projectDao.addProjectItem(nested.getId(), item.getId());
+            nestedIds.add(nested.getId());
+        }
+
+        // force the ID lists to be split into several chunks
+        daoHelper.setMaxInListSize(TEST_IN_LIST_SIZE);
+        try {
+            Map<Long, List<Project>> nestedMap = projectDao.loadNestedProjects(
+                    Collections.singletonList(parent.getId()));
+            Assert.assertEquals(NESTED_PROJECTS_COUNT, nestedMap.get(parent.getId()).size());
+
+            Map<Long, Set<ProjectItem>> itemsMap = projectDao.loadProjectItemsByProjectIds(nestedIds);
+            Assert.assertEquals(NESTED_PROJECTS_COUNT, itemsMap.size());
+            itemsMap.values().forEach(items -> {
+                Assert.assertEquals(1, items.size());
+                Assert.assertEquals(item.getName(), items.iterator().next().getBioDataItem().getName());
+            });
+
+            Map<String, String> namesMap = projectDao.loadProjectNamesByBioDataItemIds(
+                    Collections.singletonList(item.getId()));
+            Assert.assertTrue(namesMap.containsKey(item.getName()));
+        } finally {
+            daoHelper.setMaxInListSize(MAX_IN_LIST_SIZE);
+        }
+    }
+
+    private Project createProject(String name, Long parentId) {
+        Project project = new Project();
+        project.setName(name);
+        project.setCreatedBy(AuthUtils.getCurrentUserId());
+        project.setCreatedDate(new Date());
+        projectDao.saveProject(project, parentId);
+        return project;
+    }
+
+    private BiologicalDataItem createItem(String name) {
+        BiologicalDataItem item = new BiologicalDataItem();
+        item.setName(name);
+        item.setPath(name);
+        item.setCreatedBy(AuthUtils.getCurrentUserId());
+        item.setFormat(BiologicalDataItemFormat.BED);
+        item.setType(BiologicalDataItemResourceType.FILE);
+        item.setCreatedDate(new Date());
+        biologicalDataItemDao.createBiologicalDataItem(item);
+        return item;
+    }
 }
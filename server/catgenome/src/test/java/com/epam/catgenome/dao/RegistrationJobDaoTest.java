@@ -0,0 +1,104 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2016 EPAM Systems
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package com.epam.catgenome.dao;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Date;
+import java.util.List;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.epam.catgenome.dao.registration.RegistrationJobDao;
+import com.epam.catgenome.entity.BiologicalDataItemFormat;
+import com.epam.catgenome.entity.registration.RegistrationJob;
+import com.epam.catgenome.entity.registration.RegistrationJobStatus;
+import com.epam.catgenome.util.AuthUtils;
+
+@RunWith(SpringJUnit4ClassRunner.class)
+@ContextConfiguration({"classpath:applicationContext-test.xml"})
+public class RegistrationJobDaoTest extends AbstractDaoTest {
+
+    @Autowired
+    private RegistrationJobDao registrationJobDao;
+
+    private static final String REQUEST = "{\"path\":\"/data/file.vcf\",\"referenceId\":1}";
+    private static final double PROGRESS = 0.5;
+    private static final long RESULT_ID = 7L;
+
+    @Test
+    @Transactional(propagation = Propagation.REQUIRES_NEW, rollbackFor = Exception.class)
+    public void testCreateUpdateLoadJob() {
+        RegistrationJob job = new RegistrationJob();
+        job.setFormat(BiologicalDataItemFormat.VCF);
+        job.setStatus(RegistrationJobStatus.QUEUED);
+        job.setProgress(0.0);
+        job.setRequest(REQUEST);
+        job.setCreatedBy(AuthUtils.getCurrentUserId());
+        job.setCreatedDate(new Date());
+        registrationJobDao.createRegistrationJob(job);
+        assertNotNull(job.getId());
+
+        RegistrationJob loaded = registrationJobDao.loadRegistrationJob(job.getId());
+        assertEquals(BiologicalDataItemFormat.VCF, loaded.getFormat());
+        assertEquals(RegistrationJobStatus.QUEUED, loaded.getStatus());
+        assertEquals(REQUEST, loaded.getRequest());
+        assertNull(loaded.getResultId());
+        assertNull(loaded.getStartedDate());
+        assertTrue(containsJob(registrationJobDao.loadRegistrationJobs(RegistrationJobStatus.QUEUED), job));
+
+        job.setStatus(RegistrationJobStatus.SUCCEEDED);
+        job.setProgress(PROGRESS);
+        job.setResultId(RESULT_ID);
+        job.setStartedDate(new Date());
+        job.setFinishedDate(new Date());
+        registrationJobDao.updateRegistrationJob(job);
+
+        loaded = registrationJobDao.loadRegistrationJob(job.getId());
+        assertEquals(RegistrationJobStatus.SUCCEEDED, loaded.getStatus());
+        assertEquals(PROGRESS, loaded.getProgress(), 0);
+        assertEquals(RESULT_ID, loaded.getResultId().longValue());
+        assertNotNull(loaded.getStartedDate());
+        assertNotNull(loaded.getFinishedDate());
+        assertTrue(containsJob(registrationJobDao.loadRegistrationJobs(RegistrationJobStatus.SUCCEEDED), job));
+        assertTrue(!containsJob(registrationJobDao.loadRegistrationJobs(RegistrationJobStatus.QUEUED), job));
+
+        assertNull(registrationJobDao.loadRegistrationJob(job.getId() + 1));
+    }
+
+    private static boolean containsJob(final List<RegistrationJob> jobs, final RegistrationJob job) {
+        return jobs.stream().anyMatch(j -> j.getId().equals(job.getId()));
+    }
+}
@@ -32,6 +32,7 @@ import static org.junit.Assert.assertTrue;
 
 import java.io.File;
 import java.io.IOException;
+import java.util.List;
 
 import org.apache.commons.io.FileUtils;
 import org.junit.After;
@@ -106,6 +107,28 @@ public class CytobandManagerTest extends AbstractJUnitTest {
         assertNotNull(String.format("No cytobands are found for %s chromosome.", chromosome.getName()), track);
     }
 
+    @Test
+    @Transactional(propagation = Propagation.REQUIRES_NEW, rollbackFor = Exception.class)
+    public void testLoadCytobandsFromBinaryFile() throws Exception {
+        final Reference reference = createGenome();
+        cytobandManager.saveCytobands(reference.getId(), getTemplate(HP_CYTOBANDS.getPath()));
+        assertTrue(fileManager.makeCytobandsBinaryFile(reference.getId()).exists());
+
+        // bands served from the binary file should match the ones saved in the text file of a chromosome
+        final Chromosome chromosome = reference.getChromosomes().get(0);
+        final List<Cytoband> expected = CytobandReader.getInstance(fileManager.makeCytobandsFile(chromosome))
+            .getRecord(chromosome.getName()).getBands();
+        final List<Cytoband> actual = cytobandManager.loadCytobands(chromosome.getId()).getBlocks();
+        assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals(expected.get(i).getStartIndex(), actual.get(i).getStartIndex());
+            assertEquals(expected.get(i).getEndIndex(), actual.get(i).getEndIndex());
+            assertEquals(expected.get(i).getName(), actual.get(i).getName());
+            assertEquals(expected.get(i).getGiemsaStain(), actual.get(i).getGiemsaStain());
+            assertEquals(chromosome.getName(), actual.get(i).getChromosome());
+        }
+    }
+
     @Test
     public void testGZIPCatCytobandParsing() throws IOException {
         // parses cat cytobands, skipping validation
@@ -0,0 +1,170 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2016 EPAM Systems
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.epam.catgenome.manager;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentMap;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.epam.catgenome.entity.BiologicalDataItem;
+import com.epam.catgenome.entity.bed.BedFile;
+import com.epam.catgenome.manager.bed.parser.NggbBedCodec;
+import com.epam.catgenome.manager.bed.parser.NggbBedFeature;
+import com.epam.catgenome.util.IndexUtils;
+import htsjdk.samtools.util.CloseableIterator;
+import htsjdk.tribble.AbstractFeatureReader;
+import htsjdk.tribble.index.tabix.TabixFormat;
+import htsjdk.tribble.readers.LineIterator;
+
+/**
+ * Checks, that features loaded through tile and index caches are the same as features read from a file directly.
+ * Application context is required for codecs' messages
+ */
+@RunWith(SpringJUnit4ClassRunner.class)
+@ContextConfiguration({"classpath:applicationContext-test.xml"})
+public class FeatureReaderManagerTest {
+
+    private static final String BED_PATH = "templates/genes_sorted.bed";
+    private static final String CHROMOSOME_NAME = "chrA1";
+    private static final int TILE_SIZE = 10000;
+    private static final int QUERY_START = 30000;
+    private static final int QUERY_END = 200000;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private FeatureReaderManager featureReaderManager;
+    private ConcurrentMapCacheManager cacheManager;
+    private BedFile bedFile;
+
+    @Before
+    public void setUp() throws IOException {
+        cacheManager = new ConcurrentMapCacheManager(FeatureReaderManager.FEATURE_INDEX_CACHE,
+                FeatureReaderManager.FEATURE_TILE_CACHE);
+        featureReaderManager = new FeatureReaderManager();
+        ReflectionTestUtils.setField(featureReaderManager, "cacheManager", cacheManager);
+        ReflectionTestUtils.setField(featureReaderManager, "tileSize", TILE_SIZE);
+
+        File file = new ClassPathResource(BED_PATH).getFile();
+        File indexFile = folder.newFile("genes_sorted.bed.tbi");
+        IndexUtils.createTabixIndex(file, new NggbBedCodec(), TabixFormat.BED).write(indexFile);
+
+        BiologicalDataItem index = new BiologicalDataItem();
+        index.setPath(indexFile.getAbsolutePath());
+        bedFile = new BedFile();
+        bedFile.setPath(file.getAbsolutePath());
+        bedFile.setIndex(index);
+    }
+
+    @Test
+    public void testLoadFeaturesFromTiles() throws IOException {
+        List<NggbBedFeature> expected = queryDirectly(QUERY_START, QUERY_END);
+        Assert.assertFalse(expected.isEmpty());
+
+        List<NggbBedFeature> features = loadFeatures(CHROMOSOME_NAME, QUERY_START, QUERY_END);
+        assertSameFeatures(expected, features);
+        Assert.assertFalse(getNativeCache(FeatureReaderManager.FEATURE_INDEX_CACHE).isEmpty());
+        int tilesCount = getNativeCache(FeatureReaderManager.FEATURE_TILE_CACHE).size();
+        Assert.assertTrue(tilesCount > 1);
+
+        // second request is served from cached tiles
+        assertSameFeatures(expected, loadFeatures(CHROMOSOME_NAME, QUERY_START, QUERY_END));
+        Assert.assertEquals(tilesCount, getNativeCache(FeatureReaderManager.FEATURE_TILE_CACHE).size());
+
+        // a narrower request inside cached tiles
+        assertSameFeatures(queryDirectly(QUERY_START * 2, QUERY_END / 2),
+                loadFeatures(CHROMOSOME_NAME, QUERY_START * 2, QUERY_END / 2));
+    }
+
+    @Test
+    public void testLoadFeaturesWithChangedChromosomeName() throws IOException {
+        List<NggbBedFeature> expected = queryDirectly(QUERY_START, QUERY_END);
+        assertSameFeatures(expected, loadFeatures("A1", QUERY_START, QUERY_END));
+    }
+
+    @Test
+    public void testDenseTilesAreNotCached() throws IOException {
+        ReflectionTestUtils.setField(featureReaderManager, "maxTileFeatures", 1);
+        List<NggbBedFeature> expected = queryDirectly(QUERY_START, QUERY_END);
+        assertSameFeatures(expected, loadFeatures(CHROMOSOME_NAME, QUERY_START, QUERY_END));
+        for (Object tile : getNativeCache(FeatureReaderManager.FEATURE_TILE_CACHE).values()) {
+            Assert.assertTrue(((List) tile).size() <= 1);
+        }
+    }
+
+    @Test
+    public void testLoadFeaturesWithoutCache() throws IOException {
+        ReflectionTestUtils.setField(featureReaderManager, "cacheManager", null);
+        List<NggbBedFeature> expected = queryDirectly(QUERY_START, QUERY_END);
+        assertSameFeatures(expected, loadFeatures(CHROMOSOME_NAME, QUERY_START, QUERY_END));
+    }
+
+    private List<NggbBedFeature> loadFeatures(String chromosomeName, int start, int end) throws IOException {
+        return featureReaderManager.loadFeatures(bedFile, chromosomeName, start, end, this::makeReader);
+    }
+
+    private AbstractFeatureReader<NggbBedFeature, LineIterator> makeReader() {
+        return featureReaderManager.getFeatureReader(bedFile.getPath(), bedFile.getIndex().getPath(),
+                new NggbBedCodec());
+    }
+
+    private List<NggbBedFeature> queryDirectly(int start, int end) throws IOException {
+        List<NggbBedFeature> features = new ArrayList<>();
+        try (AbstractFeatureReader<NggbBedFeature, LineIterator> reader = AbstractFeatureReader.getFeatureReader(
+                bedFile.getPath(), bedFile.getIndex().getPath(), new NggbBedCodec(), true);
+             CloseableIterator<NggbBedFeature> iterator = reader.query(CHROMOSOME_NAME, start, end)) {
+            iterator.forEachRemaining(features::add);
+        }
+        return features;
+    }
+
+    private void assertSameFeatures(List<NggbBedFeature> expected, List<NggbBedFeature> actual) {
+        Assert.assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); i++) {
+            Assert.assertEquals(expected.get(i).getStart(), actual.get(i).getStart());
+            Assert.assertEquals(expected.get(i).getEnd(), actual.get(i).getEnd());
+            Assert.assertEquals(expected.get(i).getName(), actual.get(i).getName());
+        }
+    }
+
+    private ConcurrentMap<Object, Object> getNativeCache(String name) {
+        return ((ConcurrentMapCache) cacheManager.getCache(name)).getNativeCache();
+    }
+}
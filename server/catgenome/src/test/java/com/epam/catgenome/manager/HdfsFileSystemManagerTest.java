@@ -0,0 +1,55 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2016 EPAM Systems
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package com.epam.catgenome.manager;
+
+import java.io.IOException;
+import java.net.URI;
+
+import org.apache.hadoop.fs.FileSystem;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class HdfsFileSystemManagerTest {
+
+    private final HdfsFileSystemManager fileSystemManager = new HdfsFileSystemManager();
+
+    @After
+    public void tearDown() {
+        fileSystemManager.destroy();
+    }
+
+    @Test
+    public void testFileSystemIsShared() throws IOException {
+        FileSystem fileSystem = fileSystemManager.getFileSystem(URI.create("file:///tmp/first.bam"));
+        Assert.assertSame(fileSystem, fileSystemManager.getFileSystem(URI.create("file:///data/second.bam")));
+        // a registry owns its instances, they aren't shared with the Hadoop's global cache
+        Assert.assertNotSame(fileSystem, FileSystem.get(URI.create("file:///"), fileSystem.getConf()));
+
+        fileSystemManager.close(URI.create("file:///tmp/first.bam"));
+        Assert.assertNotSame(fileSystem, fileSystemManager.getFileSystem(URI.create("file:///tmp/first.bam")));
+    }
+}
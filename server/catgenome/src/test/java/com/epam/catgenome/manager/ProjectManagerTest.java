@@ -29,6 +29,7 @@ import java.io.IOException;
 import java.security.NoSuchAlgorithmException;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.Date;
 import java.util.List;
 import java.util.Optional;
 
@@ -69,6 +70,7 @@ import com.epam.catgenome.helper.EntityHelper;
 import com.epam.catgenome.manager.bed.BedManager;
 import com.epam.catgenome.manager.gene.GffManager;
 import com.epam.catgenome.manager.maf.MafManager;
+import com.epam.catgenome.manager.project.LastOpenedDateRecorder;
 import com.epam.catgenome.manager.project.ProjectManager;
 import com.epam.catgenome.manager.reference.BookmarkManager;
 import com.epam.catgenome.manager.reference.ReferenceGenomeManager;
@@ -90,6 +92,9 @@ public class ProjectManagerTest extends AbstractManagerTest {
     @Autowired
     private ProjectManager projectManager;
 
+    @Autowired
+    private LastOpenedDateRecorder lastOpenedDateRecorder;
+
     @Autowired
     private ReferenceGenomeManager referenceGenomeManager;
 
@@ -338,6 +343,37 @@ public class ProjectManagerTest extends AbstractManagerTest {
         Assert.assertTrue(loadedProject.getItems().get(1).getHidden());
     }
 
+    @Test
+    @Transactional(propagation = Propagation.REQUIRES_NEW, rollbackFor = Exception.class)
+    public void testAddRemoveItemsBatch()
+        throws IOException, InterruptedException, NoSuchAlgorithmException, VcfReadingException {
+        Project project = new Project();
+        project.setName(TEST_PROJECT_NAME);
+        project.setItems(Collections.singletonList(
+                new ProjectItem(new BiologicalDataItem(testReference.getBioDataItemId()))));
+        projectManager.saveProject(project);
+
+        VcfFile vcfFile1 = addVcfFile(TEST_VCF_FILE_NAME1, TEST_VCF_FILE_PATH);
+        VcfFile vcfFile2 = addVcfFile(TEST_VCF_FILE_NAME2, TEST_VCF_FILE_PATH);
+
+        // duplicates and items, that are already in a project, are skipped
+        Project loadedProject = projectManager.addProjectItems(project.getId(), Arrays.asList(
+                vcfFile1.getBioDataItemId(), vcfFile2.getBioDataItemId(), vcfFile1.getBioDataItemId()));
+        Assert.assertEquals(3, loadedProject.getItems().size());
+        Assert.assertEquals(TEST_VCF_FILE_NAME1, loadedProject.getItems().get(1).getBioDataItem().getName());
+        Assert.assertEquals(TEST_VCF_FILE_NAME2, loadedProject.getItems().get(2).getBioDataItem().getName());
+
+        loadedProject = projectManager.addProjectItems(project.getId(),
+                Collections.singletonList(vcfFile2.getBioDataItemId()));
+        Assert.assertEquals(3, loadedProject.getItems().size());
+
+        loadedProject = projectManager.removeProjectItems(project.getId(), Arrays.asList(
+                vcfFile1.getBioDataItemId(), vcfFile2.getBioDataItemId()));
+        Assert.assertEquals(1, loadedProject.getItems().size());
+        Assert.assertEquals(BiologicalDataItemFormat.REFERENCE,
+                loadedProject.getItems().get(0).getBioDataItem().getFormat());
+    }
+
     @Test
     @Transactional(propagation = Propagation.REQUIRES_NEW, rollbackFor = Exception.class)
     public void testMoveProjectToParent()
@@ -451,6 +487,40 @@ public class ProjectManagerTest extends AbstractManagerTest {
         List<Project> childProjects = projectManager.loadProjectTree(child1.getId(), null);
         Assert.assertEquals(1, childProjects.size());
         Assert.assertEquals(1, childProjects.get(0).getNestedProjects().size());
+
+        // samples are set for files in the whole subtree
+        addVcfFileToProject(child11.getId(), "testVcf", TEST_VCF_FILE_PATH);
+        long child1Id = child1.getId();
+        List<Project> subtree = projectManager.loadProjectTree(parent.getId(), null);
+        Project loadedChild11 = subtree.get(0).getNestedProjects().stream()
+                .filter(p -> p.getId() == child1Id)
+                .findFirst().get().getNestedProjects().get(0);
+        VcfFile loadedVcf = (VcfFile) loadedChild11.getItems().stream()
+                .filter(i -> i.getBioDataItem().getFormat() == BiologicalDataItemFormat.VCF)
+                .findFirst().get().getBioDataItem();
+        Assert.assertFalse(CollectionUtils.isEmpty(loadedVcf.getSamples()));
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.REQUIRES_NEW, rollbackFor = Exception.class)
+    public void testRecordLastOpenedDate() {
+        lastOpenedDateRecorder.flush();
+
+        Project project = new Project();
+        project.setName("testProject");
+        project.setItems(Collections.singletonList(
+                new ProjectItem(new BiologicalDataItem(testReference.getBioDataItemId()))));
+        project = projectManager.saveProject(project);
+        Date openedDate = new Date();
+
+        projectManager.loadProjectAndUpdateLastOpenedDate(project.getId());
+        projectManager.loadProjectAndUpdateLastOpenedDate(project.getName());
+        Assert.assertEquals(1, lastOpenedDateRecorder.getPendingCount());
+
+        Assert.assertEquals(1, lastOpenedDateRecorder.flush());
+        Assert.assertEquals(0, lastOpenedDateRecorder.getPendingCount());
+        Project loadedProject = projectManager.loadProjectAndUpdateLastOpenedDate(project.getId());
+        Assert.assertFalse(loadedProject.getLastOpenedDate().before(openedDate));
     }
 
     @Test
@@ -0,0 +1,190 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2016 EPAM Systems
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package com.epam.catgenome.manager;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.file.Files;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.epam.catgenome.entity.BiologicalDataItem;
+import com.epam.catgenome.entity.BiologicalDataItemResourceType;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * Tests {@link RemoteIndexManager} against a local HTTP server, that supports {@code Range} requests
+ */
+public class RemoteIndexManagerTest {
+
+    private static final String TEST_INDEX = "templates/Felis_catus.tbi";
+    private static final String INDEX_NAME = "/Felis_catus.vcf.gz.tbi";
+    private static final long MAX_CACHE_SIZE = 10L * 1024 * 1024;
+    private static final long LONG_INTERVAL = 60000;
+    private static final int TIMEOUT = 10000;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private final AtomicInteger requestCount = new AtomicInteger();
+    private HttpServer server;
+    private String location;
+    private File cacheDir;
+    private volatile byte[] content;
+    private volatile String etag = "\"v1\"";
+
+    @Before
+    public void setUp() throws IOException {
+        content = Files.readAllBytes(new ClassPathResource(TEST_INDEX).getFile().toPath());
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/", this::handle);
+        server.start();
+        location = "http://localhost:" + server.getAddress().getPort() + INDEX_NAME + "?X-Amz-Signature=abc";
+        cacheDir = folder.newFolder("index");
+    }
+
+    @After
+    public void tearDown() {
+        server.stop(0);
+    }
+
+    @Test
+    public void testIndexIsDownloadedOnce() throws IOException {
+        RemoteIndexManager indexManager = createManager(LONG_INTERVAL);
+        String path = indexManager.getIndexPath(createIndex(location));
+        File localIndex = new File(path);
+        Assert.assertEquals(cacheDir, localIndex.getParentFile());
+        Assert.assertTrue(path.endsWith(".tbi"));
+        Assert.assertArrayEquals(content, Files.readAllBytes(localIndex.toPath()));
+        Assert.assertEquals(content.length, indexManager.getTotalSize());
+
+        int requests = requestCount.get();
+        // a differently signed URL of the same file is served from the cache without requests
+        Assert.assertEquals(path, indexManager.getIndexPath(createIndex(location.replace("abc", "def"))));
+        Assert.assertEquals(requests, requestCount.get());
+
+        // local copies are restored by a new instance, e.g. after a restart
+        RemoteIndexManager restarted = createManager(LONG_INTERVAL);
+        Assert.assertEquals(content.length, restarted.getTotalSize());
+        Assert.assertEquals(path, restarted.getIndexPath(createIndex(location)));
+        Assert.assertEquals(requests + 1, requestCount.get());
+    }
+
+    @Test
+    public void testModifiedIndexIsDownloadedAgain() throws IOException {
+        RemoteIndexManager indexManager = createManager(0);
+        File first = indexManager.getLocalIndex(createIndex(location));
+        Assert.assertNotNull(first);
+
+        // a remote file is validated, but not downloaded again
+        int requests = requestCount.get();
+        Assert.assertEquals(first, indexManager.getLocalIndex(createIndex(location)));
+        Assert.assertEquals(requests + 1, requestCount.get());
+
+        content = new byte[] {1, 2, 3};
+        etag = "\"v2\"";
+        File second = indexManager.getLocalIndex(createIndex(location));
+        Assert.assertNotEquals(first, second);
+        Assert.assertArrayEquals(content, Files.readAllBytes(second.toPath()));
+        Assert.assertFalse(first.exists());
+        Assert.assertEquals(content.length, indexManager.getTotalSize());
+    }
+
+    @Test
+    public void testExpiredValidationsAreNotKept() throws IOException {
+        RemoteIndexManager indexManager = createManager(0);
+        for (int i = 0; i < 3; i++) {
+            Assert.assertNotNull(indexManager.getLocalIndex(createIndex(location.replace(INDEX_NAME, "/" + i
+                    + INDEX_NAME))));
+        }
+        Map<?, ?> validated = (Map<?, ?>) ReflectionTestUtils.getField(indexManager, "validated");
+        Assert.assertEquals(1, validated.size());
+    }
+
+    @Test
+    public void testLocalAndUnavailableIndexesAreNotCached() throws IOException {
+        RemoteIndexManager indexManager = createManager(LONG_INTERVAL);
+        BiologicalDataItem localIndex = createIndex("/data/file.bam.bai");
+        localIndex.setType(BiologicalDataItemResourceType.FILE);
+        Assert.assertEquals(localIndex.getPath(), indexManager.getIndexPath(localIndex));
+
+        server.stop(0);
+        Assert.assertNull(indexManager.getLocalIndex(createIndex(location)));
+        Assert.assertEquals(location, indexManager.getIndexPath(createIndex(location)));
+        Assert.assertEquals(0, indexManager.getTotalSize());
+    }
+
+    private RemoteIndexManager createManager(final long validationInterval) {
+        RemoteStreamManager streamManager = new RemoteStreamManager();
+        ReflectionTestUtils.setField(streamManager, "timeout", TIMEOUT);
+
+        RemoteIndexManager indexManager = new RemoteIndexManager();
+        ReflectionTestUtils.setField(indexManager, "remoteStreamManager", streamManager);
+        ReflectionTestUtils.setField(indexManager, "enabled", true);
+        ReflectionTestUtils.setField(indexManager, "cachePath", cacheDir.getAbsolutePath());
+        ReflectionTestUtils.setField(indexManager, "maxSize", MAX_CACHE_SIZE);
+        ReflectionTestUtils.setField(indexManager, "validationInterval", validationInterval);
+        indexManager.init();
+        return indexManager;
+    }
+
+    private static BiologicalDataItem createIndex(final String path) {
+        BiologicalDataItem index = new BiologicalDataItem();
+        index.setPath(path);
+        return index;
+    }
+
+    private void handle(final HttpExchange exchange) throws IOException {
+        requestCount.incrementAndGet();
+        byte[] data = content;
+        String range = exchange.getRequestHeaders().getFirst("Range");
+        int start = 0;
+        int end = data.length - 1;
+        if (range != null) {
+            String[] bounds = range.substring("bytes=".length()).split("-");
+            start = Integer.parseInt(bounds[0]);
+            end = Math.min(end, Integer.parseInt(bounds[1]));
+            exchange.getResponseHeaders().add("Content-Range", "bytes " + start + "-" + end + "/" + data.length);
+        }
+        exchange.getResponseHeaders().add("ETag", etag);
+        exchange.sendResponseHeaders(range != null ? 206 : 200, end - start + 1);
+        try (OutputStream stream = exchange.getResponseBody()) {
+            stream.write(data, start, end - start + 1);
+        }
+    }
+}
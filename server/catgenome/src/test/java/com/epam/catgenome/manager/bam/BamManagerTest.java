@@ -333,6 +333,19 @@ public class BamManagerTest extends AbstractManagerTest {
         Assert.assertTrue(!emitterMock.getMessage().isEmpty());
     }
 
+    @Test
+    @Transactional(propagation = Propagation.REQUIRES_NEW, rollbackFor = Exception.class)
+    public void testAbandonedRequestIsNotProcessed() throws IOException {
+        BamFile bamFile = setUpTestFile();
+        Track<Read> fullTrackQ = getBaseReadTrack(bamFile);
+
+        ResponseEmitterMock emitterMock = new ResponseEmitterMock(true);
+        bamManager.sendBamTrackToEmitter(fullTrackQ, getBaseBamQueryOption(), emitterMock);
+
+        // neither reads nor an error are sent to a client, that has gone
+        Assert.assertTrue(emitterMock.isEmpty());
+    }
+
     @NotNull
     private Track<Read> getBaseReadTrack(BamFile bamFile) {
         Track<Read> fullTrackQ = new Track<>();
@@ -42,6 +42,28 @@ class ResponseEmitterMock extends ResponseBodyEmitter {
     @SuppressWarnings("PMD.AvoidStringBufferField")
     private final StringBuilder buffer = new StringBuilder();
 
+    private final boolean aborted;
+
+    ResponseEmitterMock() {
+        this(false);
+    }
+
+    /**
+     * @param aborted if true, the emitter behaves as a request, that is already abandoned by a client:
+     *                a completion callback is called at once
+     */
+    ResponseEmitterMock(boolean aborted) {
+        this.aborted = aborted;
+    }
+
+    @Override
+    public synchronized void onCompletion(Runnable callback) {
+        super.onCompletion(callback);
+        if (aborted) {
+            callback.run();
+        }
+    }
+
     @Override
     public synchronized void send(Object object, MediaType mediaType) throws IOException {
         if (mediaType != MediaType.TEXT_PLAIN || !(object instanceof String)) {
@@ -52,6 +74,10 @@ class ResponseEmitterMock extends ResponseBodyEmitter {
         buffer.append(data);
     }
 
+    public boolean isEmpty() {
+        return buffer.length() == 0;
+    }
+
     public BamTrack<Read> getBamTrack() throws IOException {
         JsonNode resultJson = MAPPER.readTree(buffer.toString());
         JsonNode trackJson = resultJson.findValue("payload");
@@ -0,0 +1,112 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2016 EPAM Systems
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package com.epam.catgenome.manager.bucket;
+
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.net.URL;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.amazonaws.services.s3.AmazonS3;
+import com.epam.catgenome.common.AbstractManagerTest;
+import com.epam.catgenome.entity.bucket.Bucket;
+
+@RunWith(SpringJUnit4ClassRunner.class)
+@ContextConfiguration({"classpath:applicationContext-test.xml"})
+public class S3ClientManagerTest extends AbstractManagerTest {
+
+    @Autowired
+    private BucketManager bucketManager;
+
+    @Autowired
+    private S3ClientManager s3ClientManager;
+
+    private static final String BUCKET_NAME = "bucket1";
+    private static final String ACCESS_KEY = "access";
+    private static final String SECRET_KEY = "secret";
+    private static final String FILE_PATH = "data/test.bam";
+
+    @Test
+    @Transactional(propagation = Propagation.REQUIRES_NEW, rollbackFor = Exception.class)
+    public void testClientIsShared() {
+        Bucket bucket = saveBucket(BUCKET_NAME, SECRET_KEY);
+        Bucket sameCredentials = saveBucket(BUCKET_NAME + "2", SECRET_KEY);
+        Bucket otherCredentials = saveBucket(BUCKET_NAME + "3", SECRET_KEY + "3");
+
+        AmazonS3 client = s3ClientManager.getClient(bucket.getId());
+        assertSame(client, s3ClientManager.getClient(bucket.getId()));
+        assertSame(client, s3ClientManager.getClient(sameCredentials.getId()));
+        assertNotSame(client, s3ClientManager.getClient(otherCredentials.getId()));
+
+        URL url = s3ClientManager.generatePresignedUrl(bucket.getId(), FILE_PATH);
+        assertTrue(url.toString().contains(BUCKET_NAME));
+        assertTrue(url.getPath().endsWith(FILE_PATH));
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.REQUIRES_NEW, rollbackFor = Exception.class)
+    public void testClientIsReleasedOnUpdate() {
+        Bucket bucket = saveBucket(BUCKET_NAME, SECRET_KEY);
+        AmazonS3 client = s3ClientManager.getClient(bucket.getId());
+
+        bucket.setBucketName(BUCKET_NAME + "-updated");
+        bucket.setSecretAccessKey(SECRET_KEY + "-updated");
+        bucketManager.updateBucket(bucket);
+
+        assertNotSame(client, s3ClientManager.getClient(bucket.getId()));
+        assertTrue(s3ClientManager.generatePresignedUrl(bucket.getId(), FILE_PATH).toString()
+                .contains(BUCKET_NAME + "-updated"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    @Transactional(propagation = Propagation.REQUIRES_NEW, rollbackFor = Exception.class)
+    public void testClientIsReleasedOnDelete() {
+        Bucket bucket = saveBucket(BUCKET_NAME, SECRET_KEY);
+        s3ClientManager.getClient(bucket.getId());
+
+        bucketManager.deleteBucket(bucket.getId());
+        assertNull(bucketManager.loadBucket(bucket.getId()));
+        s3ClientManager.getClient(bucket.getId());
+    }
+
+    private Bucket saveBucket(final String name, final String secretKey) {
+        Bucket bucket = new Bucket();
+        bucket.setBucketName(name);
+        bucket.setAccessKeyId(ACCESS_KEY);
+        bucket.setSecretAccessKey(secretKey);
+        return bucketManager.saveBucket(bucket);
+    }
+}
@@ -0,0 +1,288 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2016 EPAM Systems
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.epam.catgenome.manager.externaldb;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.http.message.BasicHeader;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.context.support.StaticMessageSource;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.epam.catgenome.component.MessageHelper;
+import com.epam.catgenome.exception.ExternalDbUnavailableException;
+import com.epam.catgenome.exception.TaskRejectedException;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * Tests {@link ExternalDbHttpClient} against a local HTTP server
+ */
+public class ExternalDbHttpClientTest {
+
+    private static final int MAX_CONNECTIONS_PER_HOST = 2;
+    private static final int MAX_ATTEMPTS = 3;
+    private static final long BASE_DELAY = 10;
+    private static final long MAX_DELAY = 100;
+    private static final int PARALLEL_REQUESTS = 8;
+    private static final long SLOW_RESPONSE_TIME = 50;
+    private static final long THROTTLE_DELAY = 1000;
+    private static final int HTTP_OK = 200;
+    private static final int HTTP_TOO_MANY_REQUESTS = 429;
+    private static final int HTTP_UNAVAILABLE = 503;
+    private static final String OK_RESPONSE = "ok";
+
+    private HttpServer server;
+    private ExecutorService serverExecutor;
+    private ExternalDbHttpClient httpClient;
+    private String location;
+
+    private final AtomicInteger requestCount = new AtomicInteger();
+    private final AtomicInteger activeRequests = new AtomicInteger();
+    private final AtomicInteger maxActiveRequests = new AtomicInteger();
+    private final Set<Integer> clientPorts = ConcurrentHashMap.newKeySet();
+    private final CountDownLatch unblock = new CountDownLatch(1);
+
+    @Before
+    public void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        serverExecutor = Executors.newCachedThreadPool();
+        server.setExecutor(serverExecutor);
+        server.createContext("/ok", exchange -> respond(exchange, HTTP_OK, OK_RESPONSE));
+        server.createContext("/slow", exchange -> {
+            int active = activeRequests.incrementAndGet();
+            maxActiveRequests.accumulateAndGet(active, Math::max);
+            try {
+                Thread.sleep(SLOW_RESPONSE_TIME);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            activeRequests.decrementAndGet();
+            respond(exchange, HTTP_OK, OK_RESPONSE);
+        });
+        server.createContext("/flaky", exchange -> {
+            if (requestCount.get() < MAX_ATTEMPTS - 1) {
+                respond(exchange, HTTP_UNAVAILABLE, "");
+            } else {
+                respond(exchange, HTTP_OK, OK_RESPONSE);
+            }
+        });
+        server.createContext("/throttled", exchange -> {
+            exchange.getResponseHeaders().add("Retry-After", "1");
+            respond(exchange, HTTP_TOO_MANY_REQUESTS, "");
+        });
+        server.createContext("/missing", exchange -> respond(exchange, 404, ""));
+        server.createContext("/blocked", exchange -> {
+            try {
+                unblock.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            respond(exchange, HTTP_OK, OK_RESPONSE);
+        });
+        server.start();
+        location = "http://localhost:" + server.getAddress().getPort();
+        httpClient = createHttpClient();
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        unblock.countDown();
+        httpClient.destroy();
+        server.stop(0);
+        serverExecutor.shutdownNow();
+    }
+
+    static ExternalDbHttpClient createHttpClient() {
+        ExternalDbHttpClient httpClient = new ExternalDbHttpClient();
+        ReflectionTestUtils.setField(httpClient, "maxConnections", 10);
+        ReflectionTestUtils.setField(httpClient, "maxConnectionsPerHost", MAX_CONNECTIONS_PER_HOST);
+        ReflectionTestUtils.setField(httpClient, "connectTimeout", 1000);
+        ReflectionTestUtils.setField(httpClient, "socketTimeout", 5000);
+        ReflectionTestUtils.setField(httpClient, "keepAlive", 60L);
+        ReflectionTestUtils.setField(httpClient, "threads", 4);
+        ReflectionTestUtils.setField(httpClient, "queueSize", 100);
+        ReflectionTestUtils.setField(httpClient, "maxAttempts", MAX_ATTEMPTS);
+        ReflectionTestUtils.setField(httpClient, "baseDelay", BASE_DELAY);
+        ReflectionTestUtils.setField(httpClient, "maxDelay", MAX_DELAY);
+        ReflectionTestUtils.setField(httpClient, "requestTimeout", 10000L);
+        httpClient.init();
+        return httpClient;
+    }
+
+    @Test
+    public void testConnectionsAreReused() throws ExternalDbUnavailableException {
+        for (int i = 0; i < PARALLEL_REQUESTS; i++) {
+            Assert.assertEquals(OK_RESPONSE, httpClient.await(httpClient.get(location + "/ok")));
+        }
+        Assert.assertEquals(1, clientPorts.size());
+    }
+
+    @Test
+    public void testConcurrentRequestsToHostAreLimited() throws ExternalDbUnavailableException {
+        List<CompletableFuture<String>> responses = new ArrayList<>();
+        for (int i = 0; i < PARALLEL_REQUESTS; i++) {
+            responses.add(httpClient.get(location + "/slow"));
+        }
+        for (CompletableFuture<String> response : responses) {
+            Assert.assertEquals(OK_RESPONSE, httpClient.await(response));
+        }
+        Assert.assertTrue(maxActiveRequests.get() <= MAX_CONNECTIONS_PER_HOST);
+    }
+
+    @Test
+    public void testUnavailableServiceIsRetried() throws ExternalDbUnavailableException {
+        Assert.assertEquals(OK_RESPONSE, httpClient.await(httpClient.get(location + "/flaky")));
+        Assert.assertEquals(MAX_ATTEMPTS, requestCount.get());
+    }
+
+    @Test(expected = ExternalDbUnavailableException.class)
+    public void testClientErrorIsNotRetried() throws ExternalDbUnavailableException {
+        try {
+            httpClient.await(httpClient.get(location + "/missing"));
+        } finally {
+            Assert.assertEquals(1, requestCount.get());
+        }
+    }
+
+    @Test
+    public void testThrottledRequestDoesNotBlockOtherRequests() throws ExternalDbUnavailableException, IOException {
+        httpClient.destroy();
+        ReflectionTestUtils.setField(httpClient, "threads", 1);
+        httpClient.init();
+
+        CompletableFuture<String> throttled = httpClient.get(location + "/throttled");
+        while (requestCount.get() == 0) {
+            Thread.yield();
+        }
+        // the only worker thread is free while a throttled request waits for a retry
+        Assert.assertEquals(OK_RESPONSE, httpClient.await(httpClient.get(location + "/ok")));
+        Assert.assertFalse(throttled.isDone());
+
+        try {
+            httpClient.await(throttled);
+            Assert.fail();
+        } catch (ExternalDbUnavailableException e) {
+            // all attempts of a throttled request and a single request to an available endpoint
+            Assert.assertEquals(MAX_ATTEMPTS + 1, requestCount.get());
+        }
+    }
+
+    @Test
+    public void testRetryDelay() {
+        for (int attempt = 1; attempt <= MAX_ATTEMPTS + 2; attempt++) {
+            long backoff = Math.min(MAX_DELAY, BASE_DELAY << (attempt - 1));
+            long delay = httpClient.getRetryDelay(attempt, null);
+            Assert.assertTrue(delay >= backoff / 2 && delay <= backoff);
+        }
+        Assert.assertEquals(THROTTLE_DELAY, httpClient.getRetryDelay(1, THROTTLE_DELAY));
+        Assert.assertEquals(THROTTLE_DELAY,
+                ExternalDbHttpClient.getRetryAfter(new BasicHeader("Retry-After", "1")).longValue());
+        Assert.assertNull(ExternalDbHttpClient.getRetryAfter(null));
+    }
+
+    @Test
+    public void testLookupsAreJoined() throws ExternalDbUnavailableException {
+        Assert.assertEquals(OK_RESPONSE, ExternalDbHttpClient.join(httpClient.submit(() -> OK_RESPONSE)));
+        try {
+            ExternalDbHttpClient.join(ExternalDbHttpClient.completed(() -> {
+                throw new ExternalDbUnavailableException(OK_RESPONSE);
+            }));
+            Assert.fail();
+        } catch (ExternalDbUnavailableException e) {
+            Assert.assertEquals(OK_RESPONSE, e.getMessage());
+        }
+    }
+
+    @Test
+    public void testTimedOutRequestIsNotCancelled() throws IOException {
+        httpClient.destroy();
+        ReflectionTestUtils.setField(httpClient, "requestTimeout", SLOW_RESPONSE_TIME);
+        httpClient.init();
+
+        CompletableFuture<String> blocked = httpClient.get(location + "/blocked");
+        try {
+            httpClient.await(blocked);
+            Assert.fail();
+        } catch (ExternalDbUnavailableException e) {
+            // a request goes on in background, so a repeated client request gets a cached response
+            Assert.assertFalse(blocked.isDone());
+        }
+        unblock.countDown();
+        Assert.assertEquals(OK_RESPONSE, blocked.join());
+    }
+
+    @Test
+    public void testHandlersAreRejectedWhenPoolIsFull() throws IOException {
+        httpClient.destroy();
+        ReflectionTestUtils.setField(httpClient, "threads", 1);
+        ReflectionTestUtils.setField(httpClient, "queueSize", 1);
+        httpClient.init();
+
+        Object messageHelper = ReflectionTestUtils.getField(MessageHelper.class, "instance");
+        new MessageHelper(new StaticMessageSource());
+        CompletableFuture<String> running = httpClient.handle(() -> httpClient.await(
+                httpClient.get(location + "/blocked")));
+        CompletableFuture<String> queued = httpClient.handle(() -> OK_RESPONSE);
+        try {
+            httpClient.handle(() -> OK_RESPONSE).join();
+            Assert.fail();
+        } catch (CompletionException e) {
+            Assert.assertTrue(e.getCause() instanceof TaskRejectedException);
+        } finally {
+            ReflectionTestUtils.setField(MessageHelper.class, "instance", messageHelper);
+        }
+
+        unblock.countDown();
+        Assert.assertEquals(OK_RESPONSE, running.join());
+        Assert.assertEquals(OK_RESPONSE, queued.join());
+    }
+
+    private void respond(final HttpExchange exchange, final int status, final String body) throws IOException {
+        requestCount.incrementAndGet();
+        clientPorts.add(exchange.getRemoteAddress().getPort());
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.sendResponseHeaders(status, bytes.length == 0 ? -1 : bytes.length);
+        try (OutputStream stream = exchange.getResponseBody()) {
+            stream.write(bytes);
+        }
+    }
+}
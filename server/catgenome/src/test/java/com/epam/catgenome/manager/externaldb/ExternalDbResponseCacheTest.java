@@ -0,0 +1,180 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2016 EPAM Systems
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.epam.catgenome.manager.externaldb;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.epam.catgenome.exception.ExternalDbUnavailableException;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * Tests {@link ExternalDbResponseCache} with {@link HttpDataManager} against a local HTTP server, that returns
+ * a query string of a request as a response.
+ */
+public class ExternalDbResponseCacheTest {
+
+    private static final long TTL = 3600;
+    private static final String RESPONSE_PREFIX = "response:";
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private HttpServer server;
+    private ExternalDbHttpClient httpClient;
+    private final AtomicInteger requestCount = new AtomicInteger();
+    private String location;
+
+    @Before
+    public void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/", exchange -> {
+            requestCount.incrementAndGet();
+            byte[] body = (RESPONSE_PREFIX + exchange.getRequestURI().getQuery()).getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream stream = exchange.getResponseBody()) {
+                stream.write(body);
+            }
+        });
+        server.start();
+        location = "http://localhost:" + server.getAddress().getPort() + "/data?";
+        httpClient = ExternalDbHttpClientTest.createHttpClient();
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        httpClient.destroy();
+        server.stop(0);
+    }
+
+    @Test
+    public void testRepeatedLookupIsServedFromCache() throws ExternalDbUnavailableException {
+        HttpDataManager httpDataManager = createHttpDataManager(createCache(TTL, Long.MAX_VALUE));
+
+        String response = fetch(httpDataManager, "id", "1", "db", "gene");
+        Assert.assertEquals(RESPONSE_PREFIX + "id=1&db=gene", response);
+        Assert.assertEquals(1, requestCount.get());
+
+        // the same parameters in a different order
+        Assert.assertEquals(response, fetch(httpDataManager, "db", "gene", "id", "1"));
+        Assert.assertEquals(1, requestCount.get());
+
+        fetch(httpDataManager, "id", "2", "db", "gene");
+        Assert.assertEquals(2, requestCount.get());
+    }
+
+    @Test
+    public void testCacheIsPersistent() throws ExternalDbUnavailableException {
+        fetch(createHttpDataManager(createCache(TTL, Long.MAX_VALUE)), "id", "1");
+        Assert.assertEquals(1, requestCount.get());
+
+        // a new instance restores cached responses from disk
+        ExternalDbResponseCache restored = createCache(TTL, Long.MAX_VALUE);
+        Assert.assertTrue(restored.getTotalSize() > 0);
+        Assert.assertEquals(RESPONSE_PREFIX + "id=1", fetch(createHttpDataManager(restored), "id", "1"));
+        Assert.assertEquals(1, requestCount.get());
+    }
+
+    @Test
+    public void testExpiredResponseIsReloaded() throws ExternalDbUnavailableException {
+        ExternalDbResponseCache cache = createCache(TTL, Long.MAX_VALUE);
+        HttpDataManager httpDataManager = createHttpDataManager(cache);
+        fetch(httpDataManager, "id", "1");
+
+        ReflectionTestUtils.setField(cache, "defaultTtl", -1L);
+        fetch(httpDataManager, "id", "1");
+        Assert.assertEquals(2, requestCount.get());
+        Assert.assertEquals(0, cache.getTotalSize());
+    }
+
+    @Test
+    public void testLeastRecentlyUsedResponsesAreEvicted() throws ExternalDbUnavailableException {
+        ExternalDbResponseCache first = createCache(TTL, Long.MAX_VALUE);
+        fetch(createHttpDataManager(first), "id", "1");
+        // room for two responses of the same size, the first one is restored from disk
+        long maxSize = first.getTotalSize() * 5 / 2;
+        ExternalDbResponseCache cache = createCache(TTL, maxSize);
+        HttpDataManager httpDataManager = createHttpDataManager(cache);
+        fetch(httpDataManager, "id", "2");
+        fetch(httpDataManager, "id", "1");
+        Assert.assertEquals(2, requestCount.get());
+
+        // the least recently used response is removed to fit the new one
+        fetch(httpDataManager, "id", "3");
+        Assert.assertTrue(cache.getTotalSize() <= maxSize);
+        fetch(httpDataManager, "id", "1");
+        Assert.assertEquals(3, requestCount.get());
+        fetch(httpDataManager, "id", "2");
+        Assert.assertEquals(4, requestCount.get());
+    }
+
+    @Test
+    public void testTtlBySource() {
+        ExternalDbResponseCache cache = createCache(TTL, Long.MAX_VALUE);
+        ReflectionTestUtils.setField(cache, "ncbiTtl", 1L);
+        ReflectionTestUtils.setField(cache, "uniprotTtl", 2L);
+        cache.init();
+        Assert.assertEquals(1L, cache.getTtl("https://eutils.ncbi.nlm.nih.gov/entrez/eutils/esummary.fcgi?id=1"));
+        Assert.assertEquals(2L, cache.getTtl("http://www.uniprot.org/uniprot/?query=1"));
+        Assert.assertEquals(TTL, cache.getTtl(location + "id=1"));
+    }
+
+    private ExternalDbResponseCache createCache(final long ttl, final long maxSize) {
+        ExternalDbResponseCache cache = new ExternalDbResponseCache();
+        ReflectionTestUtils.setField(cache, "enabled", true);
+        ReflectionTestUtils.setField(cache, "cachePath", folder.getRoot().getAbsolutePath());
+        ReflectionTestUtils.setField(cache, "maxSize", maxSize);
+        ReflectionTestUtils.setField(cache, "defaultTtl", ttl);
+        cache.init();
+        return cache;
+    }
+
+    private HttpDataManager createHttpDataManager(final ExternalDbResponseCache cache) {
+        HttpDataManager httpDataManager = new HttpDataManager();
+        ReflectionTestUtils.setField(httpDataManager, "httpClient", httpClient);
+        ReflectionTestUtils.setField(httpDataManager, "responseCache", cache);
+        return httpDataManager;
+    }
+
+    private String fetch(final HttpDataManager httpDataManager, final String... nameValues)
+            throws ExternalDbUnavailableException {
+        ParameterNameValue[] params = new ParameterNameValue[nameValues.length / 2];
+        for (int i = 0; i < params.length; i++) {
+            params[i] = new ParameterNameValue(nameValues[2 * i], nameValues[2 * i + 1]);
+        }
+        return httpDataManager.fetchData(location, params);
+    }
+}
@@ -0,0 +1,122 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2016 EPAM Systems
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.epam.catgenome.manager.externaldb;
+
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import javax.xml.bind.JAXBException;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.springframework.core.io.ClassPathResource;
+
+import com.epam.catgenome.manager.externaldb.bindings.dbsnp.ExchangeSet;
+import com.epam.catgenome.manager.externaldb.bindings.ecsbpdbmap.Dasalignment;
+import com.epam.catgenome.manager.externaldb.bindings.rcsbpbd.Dataset;
+import com.epam.catgenome.manager.externaldb.bindings.uniprot.Uniprot;
+
+public class JAXBUnmarshallerPoolTest {
+
+    private static final String BINDINGS_PACKAGE = "com.epam.catgenome.manager.externaldb.bindings.";
+    private static final String UNIPROT_PACKAGE = BINDINGS_PACKAGE + "uniprot";
+    private static final String RCSB_PACKAGE = BINDINGS_PACKAGE + "rcsbpbd";
+    private static final String PDB_MAP_PACKAGE = BINDINGS_PACKAGE + "ecsbpdbmap";
+    private static final String DBSNP_PACKAGE = BINDINGS_PACKAGE + "dbsnp";
+
+    private static final int THREADS = 4;
+    private static final int PARSES_PER_THREAD = 25;
+
+    @Test
+    public void testParseFixtures() throws IOException, JAXBException {
+        Assert.assertSame(JAXBUnmarshallerPool.forPackage(UNIPROT_PACKAGE),
+                JAXBUnmarshallerPool.forPackage(UNIPROT_PACKAGE));
+
+        Uniprot uniprot = JAXBUnmarshallerPool.forPackage(UNIPROT_PACKAGE)
+                .unmarshal(readFile("uniprot_id_ENST00000319363.xml"), Uniprot.class);
+        Assert.assertNotNull(uniprot);
+        Assert.assertFalse(uniprot.getEntry().isEmpty());
+
+        Dataset dataset = JAXBUnmarshallerPool.forPackage(RCSB_PACKAGE)
+                .unmarshal(readFile("pbd_id_2k8d.xml"), Dataset.class);
+        Assert.assertNotNull(dataset);
+        Assert.assertFalse(dataset.getRecord().isEmpty());
+
+        Dasalignment alignment = JAXBUnmarshallerPool.forPackage(PDB_MAP_PACKAGE)
+                .unmarshal(readFile("pbd_map_id_2k8d.xml"), Dasalignment.class);
+        Assert.assertNotNull(alignment);
+        Assert.assertFalse(alignment.getAlignment().isEmpty());
+
+        ExchangeSet exchangeSet = JAXBUnmarshallerPool.forPackage(DBSNP_PACKAGE)
+                .unmarshal(readFile("ncbi_fetch_snp_variations_on_region.xml"), ExchangeSet.class);
+        Assert.assertNotNull(exchangeSet);
+        Assert.assertFalse(exchangeSet.getRs().isEmpty());
+
+        // a root of another type is not returned
+        Assert.assertNull(JAXBUnmarshallerPool.forPackage(RCSB_PACKAGE)
+                .unmarshal(readFile("pbd_id_2k8d.xml"), Uniprot.class));
+    }
+
+    @Test
+    public void testConcurrentParsing() throws Exception {
+        String xml = readFile("uniprot_id_ENST00000319363.xml");
+        int expectedEntries = JAXBUnmarshallerPool.forPackage(UNIPROT_PACKAGE)
+                .unmarshal(xml, Uniprot.class).getEntry().size();
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            List<Callable<Boolean>> tasks = new ArrayList<>();
+            for (int i = 0; i < THREADS; i++) {
+                tasks.add(() -> {
+                    for (int j = 0; j < PARSES_PER_THREAD; j++) {
+                        Uniprot uniprot = JAXBUnmarshallerPool.forPackage(UNIPROT_PACKAGE)
+                                .unmarshal(xml, Uniprot.class);
+                        if (uniprot == null || uniprot.getEntry().size() != expectedEntries) {
+                            return false;
+                        }
+                    }
+                    return true;
+                });
+            }
+            for (Future<Boolean> result : executor.invokeAll(tasks)) {
+                Assert.assertTrue(result.get());
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    private String readFile(final String filename) throws IOException {
+        return new String(Files.readAllBytes(new ClassPathResource("externaldb/data/" + filename).getFile().toPath()),
+                Charset.defaultCharset());
+    }
+}
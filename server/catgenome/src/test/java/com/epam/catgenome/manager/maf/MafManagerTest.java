@@ -29,23 +29,36 @@ import java.io.IOException;
 import java.security.NoSuchAlgorithmException;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 
 import com.epam.catgenome.component.MessageHelper;
 import com.epam.catgenome.constant.MessagesConstants;
 import com.epam.catgenome.dao.BiologicalDataItemDao;
+import com.epam.catgenome.exception.TaskRejectedException;
+import com.epam.catgenome.manager.parallel.TaskExecutorService;
+import com.epam.catgenome.manager.parallel.TaskPriority;
 import htsjdk.tribble.TribbleException;
 import org.junit.Assert;
+import org.apache.commons.io.FileUtils;
 import org.junit.Before;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 import org.junit.runner.RunWith;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.ApplicationContext;
 import org.springframework.core.io.Resource;
+import org.springframework.mock.web.MockHttpServletRequest;
 import org.springframework.test.context.ContextConfiguration;
 import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+import org.springframework.test.util.AopTestUtils;
+import org.springframework.test.util.ReflectionTestUtils;
 import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
 
 import com.epam.catgenome.common.AbstractManagerTest;
 import com.epam.catgenome.controller.vo.registration.IndexedFileRegistrationRequest;
@@ -84,6 +97,9 @@ public class MafManagerTest extends AbstractManagerTest {
     @Autowired
     private ApplicationContext context;
 
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
     @Value("#{catgenome['files.base.directory.path']}")
     private String baseDirPath;
 
@@ -91,6 +107,9 @@ public class MafManagerTest extends AbstractManagerTest {
     private static final Double FULL_QUERY_SCALE_FACTOR = 1D;
     private static final int TEST_CHROMOSOME_SIZE = 248956422;
     private static final int CHROMOSOME_COUNT = 23;
+    private static final int UNSORTED_CHR1_RECORDS_COUNT = 46;
+    private static final int TASK_THREADS = 4;
+    private static final long TASK_TIMEOUT = 60;
     private long referenceId;
     private Reference testReference;
     private Chromosome testChromosome;
@@ -219,6 +238,102 @@ public class MafManagerTest extends AbstractManagerTest {
 
     }
 
+    @Test
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void testRegisterUnsortedDirectory() throws IOException {
+        File directory = temporaryFolder.newFolder("maf");
+        FileUtils.copyFileToDirectory(context.getResource("classpath:templates/invalid/unsorted.maf").getFile(),
+                directory);
+        FileUtils.copyFileToDirectory(context.getResource("classpath:templates/maf/" +
+                "TCGA.ACC.mutect.abbe72a5-cb39-48e4-8df5-5fd2349f2bb2.somatic.sorted.maf.gz").getFile(), directory);
+
+        IndexedFileRegistrationRequest request = new IndexedFileRegistrationRequest();
+        request.setPath(directory.getAbsolutePath());
+        request.setReferenceId(referenceId);
+        request.setName("Unsorted Big Maf");
+
+        MafFile mafFile = mafManager.registerMafFile(request);
+        Assert.assertNotNull(mafFile);
+
+        Track<MafRecord> track = new Track<>();
+        track.setScaleFactor(FULL_QUERY_SCALE_FACTOR);
+        track.setStartIndex(1);
+        track.setEndIndex(TEST_END_INDEX);
+        track.setChromosome(testChromosome);
+        track.setId(mafFile.getId());
+
+        track = mafManager.loadFeatures(track);
+        Assert.assertTrue(track.getBlocks().size() > UNSORTED_CHR1_RECORDS_COUNT);
+        for (int i = 1; i < track.getBlocks().size(); i++) {
+            Assert.assertTrue(track.getBlocks().get(i - 1).getStartIndex() <=
+                    track.getBlocks().get(i).getStartIndex());
+        }
+
+        mafManager.unregisterMafFile(mafFile.getId());
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void testRegisterDirectoryWhenTaskQueueIsFull() throws Exception {
+        TaskExecutorService taskExecutorService = new TaskExecutorService();
+        ReflectionTestUtils.setField(taskExecutorService, "keepAliveTime", 1);
+        ReflectionTestUtils.setField(taskExecutorService, "maxThreadCount", TASK_THREADS);
+        ReflectionTestUtils.setField(taskExecutorService, "schedulerThreadCount", 1);
+        ReflectionTestUtils.setField(taskExecutorService, "queueSize", 1);
+        ReflectionTestUtils.setField(taskExecutorService, "userQueueSize", 1);
+
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        // interactive requests occupy the only worker and the queue
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+        try {
+            taskExecutorService.submit(TaskPriority.TRACK, () -> {
+                started.countDown();
+                return release.await(TASK_TIMEOUT, TimeUnit.SECONDS);
+            });
+            Assert.assertTrue(started.await(TASK_TIMEOUT, TimeUnit.SECONDS));
+            taskExecutorService.submit(TaskPriority.TRACK, () -> true);
+            try {
+                taskExecutorService.submit(TaskPriority.TRACK, () -> true);
+                Assert.fail("Task should be rejected");
+            } catch (TaskRejectedException e) {
+                Assert.assertNotNull(e.getMessage());
+            }
+        } finally {
+            RequestContextHolder.resetRequestAttributes();
+        }
+
+        MafManager target = AopTestUtils.getTargetObject(mafManager);
+        Object sharedTaskExecutorService = ReflectionTestUtils.getField(target, "taskExecutorService");
+        ReflectionTestUtils.setField(target, "taskExecutorService", taskExecutorService);
+        try {
+            IndexedFileRegistrationRequest request = new IndexedFileRegistrationRequest();
+            request.setPath(context.getResource("classpath:templates/maf").getFile().getAbsolutePath());
+            request.setReferenceId(referenceId);
+            request.setName("Big Maf with full task queue");
+
+            // merging of files is background work, that isn't rejected
+            MafFile mafFile = mafManager.registerMafFile(request);
+            Assert.assertNotNull(mafFile);
+
+            Track<MafRecord> track = new Track<>();
+            track.setScaleFactor(FULL_QUERY_SCALE_FACTOR);
+            track.setStartIndex(1);
+            track.setEndIndex(TEST_END_INDEX);
+            track.setChromosome(testChromosome);
+            track.setId(mafFile.getId());
+
+            track = mafManager.loadFeatures(track);
+            Assert.assertFalse(track.getBlocks().isEmpty());
+
+            mafManager.unregisterMafFile(mafFile.getId());
+        } finally {
+            ReflectionTestUtils.setField(target, "taskExecutorService", sharedTaskExecutorService);
+            release.countDown();
+            taskExecutorService.shutdown();
+        }
+    }
+
     @Test
     @Transactional(propagation = Propagation.REQUIRES_NEW)
     public void testRegisterExtraChromosome() throws IOException, InterruptedException, NoSuchAlgorithmException {
@@ -0,0 +1,103 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2016 EPAM Systems
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package com.epam.catgenome.manager.metrics;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+
+import com.epam.catgenome.common.AbstractManagerTest;
+
+/**
+ * Tests measuring of track requests phases by {@link MetricsManager} and writing of metrics
+ */
+@RunWith(SpringJUnit4ClassRunner.class)
+@ContextConfiguration({"classpath:applicationContext-test.xml"})
+public class MetricsManagerTest extends AbstractManagerTest {
+
+    private static final String TRACK = "test";
+    private static final long OPEN_TIME = TimeUnit.MILLISECONDS.toNanos(3);
+    private static final long DECODE_TIME = TimeUnit.MILLISECONDS.toNanos(40);
+
+    @Autowired
+    private MetricsManager metricsManager;
+
+    @After
+    public void tearDown() {
+        RequestMetrics.bind(null);
+    }
+
+    @Test
+    public void testRequestPhasesAreMeasured() throws IOException {
+        RequestMetrics metrics = metricsManager.startRequest(TRACK);
+        assertSame(metrics, RequestMetrics.current());
+        metrics.add(TrackPhase.OPEN, OPEN_TIME);
+        metrics.add(TrackPhase.DECODE, DECODE_TIME);
+        RequestMetrics.record(TrackPhase.DECODE, System.nanoTime());
+        assertTrue(RequestMetrics.getCurrentTime(TrackPhase.OPEN, TrackPhase.DECODE) >= OPEN_TIME + DECODE_TIME);
+
+        // metrics are not recorded outside of a request
+        RequestMetrics.bind(null);
+        RequestMetrics.record(TrackPhase.QUERY, System.nanoTime());
+        assertEquals(0, metrics.getPhaseTime(TrackPhase.QUERY));
+        assertNull(RequestMetrics.current());
+
+        metricsManager.finishRequest(metrics);
+        assertEquals(1, metricsManager.getTimer(TRACK, "total").getCount());
+        Timer open = metricsManager.getTimer(TRACK, TrackPhase.OPEN.getKey());
+        assertEquals(1, open.getCount());
+        assertEquals(OPEN_TIME, open.getTotalTime());
+        assertEquals(OPEN_TIME, open.getMaxTime());
+        // 3 ms falls into 5 ms bucket
+        assertEquals(0, open.getCumulativeCount(0));
+        assertEquals(1, open.getCumulativeCount(1));
+        assertEquals(1, open.getCumulativeCount(Timer.BUCKET_BOUNDS.length));
+        assertTrue(metricsManager.getTimer(TRACK, TrackPhase.DECODE.getKey()).getTotalTime() >= DECODE_TIME);
+        assertEquals(0, metricsManager.getTimer(TRACK, TrackPhase.QUERY.getKey()).getCount());
+
+        StringWriter writer = new StringWriter();
+        metricsManager.writeMetrics(writer);
+        String text = writer.toString();
+        assertTrue(text.contains("ngb_track_request_seconds_bucket{track=\"test\",phase=\"open\",le=\"0.005\"} 1"));
+        assertTrue(text.contains("ngb_track_request_seconds_bucket{track=\"test\",phase=\"open\",le=\"+Inf\"} 1"));
+        assertTrue(text.contains("ngb_track_request_seconds_count{track=\"test\",phase=\"total\"} 1"));
+        assertTrue(text.contains("ngb_track_request_max_seconds{track=\"test\",phase=\"open\"} 0.003"));
+        assertTrue(text.contains("ngb_tasks_queued 0"));
+        assertTrue(text.contains("ngb_remote_index_cache_bytes"));
+    }
+}
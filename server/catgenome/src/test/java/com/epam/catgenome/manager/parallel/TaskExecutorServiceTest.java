@@ -0,0 +1,280 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2016 EPAM Systems
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.epam.catgenome.manager.parallel;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import com.epam.catgenome.common.AbstractManagerTest;
+import com.epam.catgenome.exception.TaskRejectedException;
+
+/**
+ * Tests scheduling of tasks by {@link TaskExecutorService}: priorities, fair queues of users,
+ * rejection of tasks, when the queues are full, and cancellation of queued tasks. Tasks are submitted
+ * within an HTTP request, unless a test resets it.
+ */
+@RunWith(SpringJUnit4ClassRunner.class)
+@ContextConfiguration({"classpath:applicationContext-test.xml"})
+public class TaskExecutorServiceTest extends AbstractManagerTest {
+
+    private static final int QUEUE_SIZE = 2;
+    private static final int RETRY_AFTER = 3;
+    private static final long TIMEOUT = 10;
+    private static final String USER1 = "user1";
+    private static final String USER2 = "user2";
+    private static final String PROXY_ADDRESS = "10.0.0.1";
+    private static final String CLIENT_ADDRESS = "192.168.0.1";
+
+    private TaskExecutorService taskExecutorService;
+
+    @Before
+    public void setUp() {
+        taskExecutorService = new TaskExecutorService();
+        ReflectionTestUtils.setField(taskExecutorService, "keepAliveTime", 1);
+        ReflectionTestUtils.setField(taskExecutorService, "schedulerThreadCount", 1);
+        ReflectionTestUtils.setField(taskExecutorService, "queueSize", QUEUE_SIZE);
+        ReflectionTestUtils.setField(taskExecutorService, "userQueueSize", QUEUE_SIZE);
+        ReflectionTestUtils.setField(taskExecutorService, "retryAfter", RETRY_AFTER);
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+    }
+
+    @After
+    public void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+        taskExecutorService.shutdown();
+    }
+
+    @Test
+    public void testFairTaskQueue() {
+        FairTaskQueue queue = new FairTaskQueue(5, 3);
+        Runnable histogram = () -> { };
+        Runnable track11 = () -> { };
+        Runnable track12 = () -> { };
+        Runnable track13 = () -> { };
+        Runnable track21 = () -> { };
+
+        assertTrue(queue.offer(USER1, TaskPriority.HISTOGRAM, histogram));
+        assertTrue(queue.offer(USER1, TaskPriority.TRACK, track11));
+        assertTrue(queue.offer(USER1, TaskPriority.TRACK, track12));
+        // the limit of a user's queue
+        assertFalse(queue.offer(USER1, TaskPriority.TRACK, track13));
+        assertTrue(queue.offer(USER2, TaskPriority.TRACK, track21));
+        assertEquals(4, queue.size());
+
+        // tracks go before histograms, users are served in turn
+        assertSame(track11, queue.poll());
+        assertSame(track21, queue.poll());
+        assertSame(track12, queue.poll());
+        assertSame(histogram, queue.poll());
+        assertNull(queue.poll());
+        assertEquals(0, queue.size());
+
+        assertTrue(queue.offer(USER1, TaskPriority.TRACK, track13));
+        assertTrue(queue.remove(USER1, TaskPriority.TRACK, track13));
+        assertFalse(queue.remove(USER1, TaskPriority.TRACK, track13));
+        assertNull(queue.poll());
+    }
+
+    @Test
+    public void testFairTaskQueueBatches() {
+        FairTaskQueue queue = new FairTaskQueue(2, 2);
+        Runnable track11 = () -> { };
+        Runnable track12 = () -> { };
+        Runnable track13 = () -> { };
+        Runnable track21 = () -> { };
+
+        // a batch takes a single place, even if it is larger than the queue
+        assertTrue(queue.offerAll(USER1, TaskPriority.TRACK, Arrays.asList(track11, track12, track13)));
+        assertTrue(queue.offer(USER2, TaskPriority.TRACK, track21));
+        assertEquals(4, queue.size());
+        // a batch is rejected as a whole
+        assertFalse(queue.offerAll(USER1, TaskPriority.TRACK, Arrays.asList(() -> { }, () -> { })));
+        assertEquals(4, queue.size());
+
+        // tasks of a batch are still served in turn with other users
+        assertSame(track11, queue.poll());
+        assertSame(track21, queue.poll());
+        assertTrue(queue.remove(USER1, TaskPriority.TRACK, track12));
+        // the place of a batch is released with its last task
+        assertTrue(queue.offer(USER2, TaskPriority.TRACK, track21));
+        assertFalse(queue.offer(USER2, TaskPriority.TRACK, track21));
+        assertSame(track13, queue.poll());
+        assertTrue(queue.offer(USER2, TaskPriority.TRACK, track21));
+        assertSame(track21, queue.poll());
+        assertSame(track21, queue.poll());
+        assertNull(queue.poll());
+        assertEquals(0, queue.size());
+    }
+
+    @Test
+    public void testInvokeAllIsAdmittedAsBatch() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Future<Boolean> running = taskExecutorService.submit(TaskPriority.TRACK, () -> {
+            started.countDown();
+            return release.await(TIMEOUT, TimeUnit.SECONDS);
+        });
+        assertTrue(started.await(TIMEOUT, TimeUnit.SECONDS));
+
+        List<Callable<Integer>> tasks = Arrays.asList(() -> 1, () -> 2, () -> 3);
+        ExecutorService caller = Executors.newSingleThreadExecutor();
+        try {
+            // more tasks than the queue size are admitted, since they take a single place
+            Future<List<Future<Integer>>> batch = caller.submit(() -> {
+                RequestContextHolder.setRequestAttributes(
+                        new ServletRequestAttributes(new MockHttpServletRequest()));
+                return taskExecutorService.invokeAll(TaskPriority.HISTOGRAM, tasks);
+            });
+            while (taskExecutorService.getQueuedTaskCount() < tasks.size()) {
+                Thread.sleep(10);
+            }
+            Future<Integer> single = taskExecutorService.submit(TaskPriority.TRACK, () -> 4);
+            // the queue is full now and a batch is rejected as a whole
+            try {
+                taskExecutorService.invokeAll(TaskPriority.HISTOGRAM, tasks);
+                fail("Tasks should be rejected");
+            } catch (TaskRejectedException e) {
+                assertEquals(RETRY_AFTER, e.getRetryAfter());
+            }
+            assertEquals(tasks.size() + 1, taskExecutorService.getQueuedTaskCount());
+
+            release.countDown();
+            assertTrue(running.get(TIMEOUT, TimeUnit.SECONDS));
+            assertEquals(4, single.get(TIMEOUT, TimeUnit.SECONDS).intValue());
+            List<Future<Integer>> results = batch.get(TIMEOUT, TimeUnit.SECONDS);
+            for (int i = 0; i < tasks.size(); i++) {
+                assertEquals(i + 1, results.get(i).get().intValue());
+            }
+            assertEquals(0, taskExecutorService.getQueuedTaskCount());
+        } finally {
+            release.countDown();
+            caller.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testOwnerIsTakenFromForwardedAddress() {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setRemoteAddr(PROXY_ADDRESS);
+        request.addHeader("X-Forwarded-For", CLIENT_ADDRESS + ", " + PROXY_ADDRESS);
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+
+        assertEquals(PROXY_ADDRESS, ReflectionTestUtils.invokeMethod(taskExecutorService, "getCurrentOwner"));
+        ReflectionTestUtils.setField(taskExecutorService, "ownerForwarded", true);
+        assertEquals(CLIENT_ADDRESS, ReflectionTestUtils.invokeMethod(taskExecutorService, "getCurrentOwner"));
+    }
+
+    @Test
+    public void testRejectAndCancelTasks() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        // the only worker is busy with this task
+        Future<Boolean> running = taskExecutorService.submit(TaskPriority.TRACK, () -> {
+            started.countDown();
+            return release.await(TIMEOUT, TimeUnit.SECONDS);
+        });
+        assertTrue(started.await(TIMEOUT, TimeUnit.SECONDS));
+
+        Future<Integer> first = taskExecutorService.submit(TaskPriority.TRACK, () -> 1);
+        Future<Integer> second = taskExecutorService.submit(TaskPriority.HISTOGRAM, () -> 2);
+        assertEquals(QUEUE_SIZE, taskExecutorService.getQueuedTaskCount());
+        try {
+            taskExecutorService.submit(TaskPriority.TRACK, () -> 3);
+            fail("Task should be rejected");
+        } catch (TaskRejectedException e) {
+            assertEquals(RETRY_AFTER, e.getRetryAfter());
+        }
+
+        // a cancelled task releases its place in the queue
+        assertTrue(first.cancel(true));
+        assertEquals(1, taskExecutorService.getQueuedTaskCount());
+        Future<Integer> third = taskExecutorService.submit(TaskPriority.TRACK, () -> 3);
+
+        release.countDown();
+        assertTrue(running.get(TIMEOUT, TimeUnit.SECONDS));
+        assertEquals(2, second.get(TIMEOUT, TimeUnit.SECONDS).intValue());
+        assertEquals(3, third.get(TIMEOUT, TimeUnit.SECONDS).intValue());
+        assertTrue(first.isCancelled());
+        assertEquals(0, taskExecutorService.getQueuedTaskCount());
+    }
+
+    @Test
+    public void testBackgroundTasksAreNotRejected() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Future<Boolean> running = taskExecutorService.submit(TaskPriority.TRACK, () -> {
+            started.countDown();
+            return release.await(TIMEOUT, TimeUnit.SECONDS);
+        });
+        assertTrue(started.await(TIMEOUT, TimeUnit.SECONDS));
+        Future<Integer> first = taskExecutorService.submit(TaskPriority.TRACK, () -> 1);
+        Future<Integer> second = taskExecutorService.submit(TaskPriority.TRACK, () -> 2);
+        assertEquals(QUEUE_SIZE, taskExecutorService.getQueuedTaskCount());
+
+        try {
+            List<Callable<Integer>> tasks = Arrays.asList(() -> 3, () -> 4);
+            // background tasks run in the submitting thread, when the queues are full
+            List<Future<Integer>> background = taskExecutorService.invokeAll(TaskPriority.BACKGROUND, tasks);
+            assertEquals(3, background.get(0).get().intValue());
+            assertEquals(4, background.get(1).get().intValue());
+
+            // so do tasks of any priority, submitted outside of an HTTP request
+            RequestContextHolder.resetRequestAttributes();
+            List<Future<Integer>> histogram = taskExecutorService.invokeAll(TaskPriority.HISTOGRAM, tasks);
+            assertEquals(3, histogram.get(0).get().intValue());
+            assertEquals(4, histogram.get(1).get().intValue());
+            assertEquals(QUEUE_SIZE, taskExecutorService.getQueuedTaskCount());
+        } finally {
+            release.countDown();
+        }
+        assertTrue(running.get(TIMEOUT, TimeUnit.SECONDS));
+        assertEquals(1, first.get(TIMEOUT, TimeUnit.SECONDS).intValue());
+        assertEquals(2, second.get(TIMEOUT, TimeUnit.SECONDS).intValue());
+    }
+}
@@ -24,20 +24,30 @@
 
 package com.epam.catgenome.manager.protein;
 
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
 
 import java.io.IOException;
 import java.security.NoSuchAlgorithmException;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
 
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
 import org.springframework.context.ApplicationContext;
 import org.springframework.core.io.Resource;
 import org.springframework.test.context.ContextConfiguration;
 import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+import org.springframework.test.util.ReflectionTestUtils;
 import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -49,7 +59,9 @@ import com.epam.catgenome.controller.vo.registration.ReferenceRegistrationReques
 import com.epam.catgenome.entity.gene.Gene;
 import com.epam.catgenome.entity.gene.GeneFile;
 import com.epam.catgenome.entity.protein.MrnaProteinSequenceVariants;
+import com.epam.catgenome.entity.protein.ProteinSequenceEntry;
 import com.epam.catgenome.entity.protein.ProteinSequenceInfo;
+import com.epam.catgenome.entity.reference.Chromosome;
 import com.epam.catgenome.entity.reference.Reference;
 import com.epam.catgenome.entity.track.Track;
 import com.epam.catgenome.entity.track.TrackType;
@@ -76,12 +88,24 @@ public class ProteinSequenceManagerIntegrationTest extends AbstractManagerTest {
     private static final int TRACK_END_INDEX = 50;
     private static final int TRACK_START_INDEX = 1;
     private static final double TRACK_SCALE_FACTOR = 23.94927536183396;
+    private static final int CACHE_TEST_START_1 = 1;
+    private static final int CACHE_TEST_END_1 = 30;
+    private static final int CACHE_TEST_START_2 = 5;
+    private static final int CACHE_TEST_END_2 = 22;
+    private static final Long CACHE_TEST_GENE_FILE_ID = 1L;
+    private static final Long CACHE_TEST_REFERENCE_ID = 2L;
+    private static final Long CACHE_TEST_CHROMOSOME_X_ID = 3L;
+    private static final Long CACHE_TEST_CHROMOSOME_Y_ID = 4L;
+    private static final String CACHE_TEST_TRANSCRIPT_ID = "ENST00000381192";
     @Autowired
     private GffManager gffManager;
 
     @Autowired
     private ProteinSequenceManager proteinSequenceManager;
 
+    @Autowired
+    private ProteinSequenceCacheManager proteinSequenceCacheManager;
+
     @Autowired
     private ReferenceManager referenceManager;
 
@@ -152,6 +176,78 @@ public class ProteinSequenceManagerIntegrationTest extends AbstractManagerTest {
         }*/
     }
 
+    @Test
+    @Transactional(propagation = Propagation.REQUIRES_NEW, rollbackFor = Exception.class)
+    public void testLoadProteinSequenceFromCache() throws IOException, InterruptedException, FeatureIndexException,
+                                                          NoSuchAlgorithmException, GeneReadingException {
+        Reference reference = prepareReference("classpath:templates/protein/reference.fa");
+        GeneFile geneFile = prepareGene(reference, "classpath:templates/protein/genes.gff");
+        Chromosome chromosome = reference.getChromosomes().get(0);
+
+        List<String> expected = Arrays.asList(
+                loadAminoAcids(geneFile, chromosome, reference, CACHE_TEST_START_1, CACHE_TEST_END_1),
+                loadAminoAcids(geneFile, chromosome, reference, CACHE_TEST_START_2, CACHE_TEST_END_2));
+        assertFalse(expected.get(0).isEmpty());
+
+        ReflectionTestUtils.setField(proteinSequenceCacheManager, "cacheManager",
+                new ConcurrentMapCacheManager(ProteinSequenceCacheManager.PROTEIN_TRANSCRIPT_CACHE));
+        try {
+            long hits = proteinSequenceCacheManager.getHitCount();
+            assertEquals(expected.get(0),
+                    loadAminoAcids(geneFile, chromosome, reference, CACHE_TEST_START_1, CACHE_TEST_END_1));
+            assertTrue(proteinSequenceCacheManager.getSize() > 0);
+            // a shifted window is assembled from the transcripts, cached by the first request
+            assertEquals(expected.get(1),
+                    loadAminoAcids(geneFile, chromosome, reference, CACHE_TEST_START_2, CACHE_TEST_END_2));
+            assertTrue(proteinSequenceCacheManager.getHitCount() > hits);
+
+            gffManager.unregisterGeneFile(geneFile.getId());
+            assertEquals(0, proteinSequenceCacheManager.getSize());
+        } finally {
+            ReflectionTestUtils.setField(proteinSequenceCacheManager, "cacheManager", null);
+        }
+    }
+
+    @Test
+    public void testCachedTranscriptsOfDifferentChromosomesAreNotShared() {
+        ReflectionTestUtils.setField(proteinSequenceCacheManager, "cacheManager",
+                new ConcurrentMapCacheManager(ProteinSequenceCacheManager.PROTEIN_TRANSCRIPT_CACHE));
+        try {
+            // a transcript of a pseudoautosomal region has the same ID on X and Y chromosomes
+            ProteinSequenceCacheManager.TranscriptKey keyX = new ProteinSequenceCacheManager.TranscriptKey(
+                    CACHE_TEST_GENE_FILE_ID, CACHE_TEST_TRANSCRIPT_ID, CACHE_TEST_REFERENCE_ID,
+                    CACHE_TEST_CHROMOSOME_X_ID, false);
+            ProteinSequenceCacheManager.TranscriptKey keyY = new ProteinSequenceCacheManager.TranscriptKey(
+                    CACHE_TEST_GENE_FILE_ID, CACHE_TEST_TRANSCRIPT_ID, CACHE_TEST_REFERENCE_ID,
+                    CACHE_TEST_CHROMOSOME_Y_ID, false);
+            List<ProteinSequenceEntry> aminoAcids = proteinSequenceCacheManager.put(keyX,
+                    Collections.singletonList(new ProteinSequenceEntry()));
+
+            assertEquals(aminoAcids, proteinSequenceCacheManager.get(keyX));
+            assertNull(proteinSequenceCacheManager.get(keyY));
+        } finally {
+            ReflectionTestUtils.setField(proteinSequenceCacheManager, "cacheManager", null);
+        }
+    }
+
+    private String loadAminoAcids(final GeneFile geneFile, final Chromosome chromosome, final Reference reference,
+                                  final int start, final int end) throws GeneReadingException {
+        Track<Gene> track = new Track<>();
+        track.setId(geneFile.getId());
+        track.setStartIndex(start);
+        track.setEndIndex(end);
+        track.setChromosome(chromosome);
+        track.setScaleFactor(1D);
+
+        Map<Gene, List<ProteinSequenceEntry>> aminoAcids = proteinSequenceManager
+                .loadProteinSequenceWithoutGrouping(gffManager.loadGenes(track, false), reference.getId(), false);
+        return aminoAcids.entrySet().stream()
+                .sorted(Comparator.comparing(e -> String.valueOf(e.getKey().getAttributes())))
+                .flatMap(e -> e.getValue().stream())
+                .map(e -> e.getText() + ":" + e.getTripleStartIndex() + "-" + e.getTripleEndIndex())
+                .collect(Collectors.joining(","));
+    }
+
     private GeneFile prepareGene(final Reference reference, final String fileName) throws IOException,
             FeatureIndexException, InterruptedException, NoSuchAlgorithmException {
         Resource resource;
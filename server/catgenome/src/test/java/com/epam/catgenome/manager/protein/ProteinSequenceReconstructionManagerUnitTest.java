@@ -25,6 +25,7 @@
 package com.epam.catgenome.manager.protein;
 
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
@@ -46,12 +47,15 @@ import org.springframework.test.context.ContextConfiguration;
 import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
 
 import com.epam.catgenome.entity.gene.Gene;
+import com.epam.catgenome.entity.protein.ProteinSequenceEntry;
 import com.epam.catgenome.entity.reference.Chromosome;
 import com.epam.catgenome.entity.reference.Sequence;
+import com.epam.catgenome.entity.track.Track;
 import com.epam.catgenome.entity.vcf.Variation;
 import com.epam.catgenome.helper.EntityHelper;
 import com.epam.catgenome.manager.gene.parser.GffFeature;
 import com.epam.catgenome.manager.reference.ReferenceManager;
+import com.epam.catgenome.util.ProteinSequenceUtils;
 
 /**
  * Created: 2/15/2016
@@ -71,6 +75,7 @@ public class ProteinSequenceReconstructionManagerUnitTest {
     private static final int END_INDEX_3 = 9;
     private static final int END_INDEX_4 = 23;
     private static final int START_INDEX_4 = 22;
+    private static final int TRACK_END_INDEX = 100;
     private static final List<Sequence> SEQUENCES_2_2 =
             Arrays.asList(new Sequence(8, 8, "T"), new Sequence(9, 9, "G"), new Sequence(10, 10, "G"),
                     new Sequence(11, 11, "A"), new Sequence(12, 12, "A"), new Sequence(13, 13, "A"),
@@ -202,4 +207,105 @@ public class ProteinSequenceReconstructionManagerUnitTest {
         String sequence1 = nucleotideSequences.get(0).stream().map(Sequence::getText).collect(Collectors.joining());
         Assert.assertEquals("ATGCTGA", sequence1);
     }
+
+    @Test
+    public void testGetAminoAcidVariants() {
+        Track<Gene> track = new Track<>();
+        track.setId(1L);
+        track.setStartIndex(1);
+        track.setEndIndex(TRACK_END_INDEX);
+
+        List<Gene> cdsList = Arrays.asList(CDS_1, CDS_3);
+        List<List<Sequence>> cds1Variants = Arrays.asList(SEQUENCES_1_1, replaceNucleotide(SEQUENCES_1_1, 1, "C"));
+        List<List<Sequence>> cds3Variants = Arrays.asList(SEQUENCES_1_3, replaceNucleotide(SEQUENCES_1_3, 4, "A"),
+                replaceNucleotide(SEQUENCES_1_3, 0, "T"));
+
+        List<List<ProteinSequenceEntry>> variants = psReconstructionManager.getAminoAcidVariants(track, cdsList,
+                Arrays.asList(cds1Variants, cds3Variants), Integer.MAX_VALUE);
+        Assert.assertEquals(cds1Variants.size() * cds3Variants.size(), variants.size());
+
+        // each variant should be equal to a separate translation of the same combination
+        int variantIndex = 0;
+        for (List<Sequence> cds1 : cds1Variants) {
+            for (List<Sequence> cds3 : cds3Variants) {
+                Map<Gene, List<ProteinSequenceEntry>> expected = psReconstructionManager.getAminoAcids(track,
+                        new ArrayList<>(cdsList), new ArrayList<>(Arrays.asList(cds1, cds3)),
+                        new ArrayList<>(Arrays.asList(CDS_1.getFrame(), CDS_3.getFrame())));
+                List<ProteinSequenceEntry> expectedEntries = new ArrayList<>(expected.get(CDS_1));
+                expectedEntries.addAll(expected.get(CDS_3));
+                Assert.assertEquals(toString(expectedEntries), toString(variants.get(variantIndex++)));
+            }
+        }
+
+        List<List<ProteinSequenceEntry>> limited = psReconstructionManager.getAminoAcidVariants(track, cdsList,
+                Arrays.asList(cds1Variants, cds3Variants), 2);
+        Assert.assertEquals(2, limited.size());
+        Assert.assertEquals(toString(variants.get(1)), toString(limited.get(1)));
+    }
+
+    private static List<Sequence> replaceNucleotide(final List<Sequence> sequences, final int index,
+                                                    final String text) {
+        List<Sequence> result = new ArrayList<>(sequences);
+        Sequence source = sequences.get(index);
+        result.set(index, new Sequence(source.getStartIndex(), source.getEndIndex(), text));
+        return result;
+    }
+
+    private static String toString(final List<ProteinSequenceEntry> entries) {
+        return entries.stream().map(e -> e.getText() + ":" + e.getTripleStartIndex() + "-" + e.getTripleEndIndex()
+                + ":" + e.getIndex()).collect(Collectors.joining(","));
+    }
+
+    @Test
+    public void testTranslateReferenceCds() throws IOException {
+        Chromosome chromosome = EntityHelper.createNewChromosome();
+        chromosome.setName("Test chromosome");
+        Track<Gene> track = new Track<>();
+        track.setId(1L);
+        track.setStartIndex(1);
+        track.setEndIndex(TRACK_END_INDEX);
+        Long referenceId = 1L;
+
+        String reference = "ATGGCCATTGTAATGGGCCGCTGAAAGGGTGCCCGATAGATGCAACGTTAGCCTAGGCATTCAGT";
+        Mockito.when(referenceManager.getSequenceString(1, reference.length(), referenceId, chromosome.getName()))
+                .thenReturn(reference);
+        Mockito.when(referenceManager.getSequenceByteArray(1, reference.length(), referenceId, chromosome.getName()))
+                .thenReturn(reference.getBytes(StandardCharsets.US_ASCII));
+
+        for (String strand : Arrays.asList("+", "-")) {
+            List<Gene> cdsList = Arrays.asList(createCds(1, 11, strand, 0), createCds(15, 26, strand, 1),
+                    createCds(30, 31, strand, 2), createCds(35, reference.length(), strand, 0));
+
+            List<List<Sequence>> nucleotides =
+                    psReconstructionManager.loadNucleotidesForReferenceCds(chromosome, referenceId, cdsList);
+            List<Gene> translationOrder = new ArrayList<>(cdsList);
+            Map<Gene, List<ProteinSequenceEntry>> expected = psReconstructionManager.getAminoAcids(track,
+                    translationOrder, nucleotides, cdsList.stream().map(Gene::getFrame).collect(Collectors.toList()));
+            List<ProteinSequenceEntry> expectedEntries = new ArrayList<>();
+            translationOrder.forEach(cds -> expectedEntries.addAll(expected.get(cds)));
+
+            List<ProteinSequenceEntry> actual =
+                    psReconstructionManager.translateReferenceCds(track, cdsList, referenceId, chromosome);
+            Assert.assertFalse(actual.isEmpty());
+            Assert.assertEquals(toString(expectedEntries), toString(actual));
+        }
+    }
+
+    @Test
+    public void testCodonToAminoAcid() {
+        Assert.assertEquals("M", ProteinSequenceUtils.tripletToAminoAcid("ATG"));
+        Assert.assertEquals("M", ProteinSequenceUtils.tripletToAminoAcid("aug"));
+        Assert.assertEquals("Stop", ProteinSequenceUtils.codonToAminoAcid(ProteinSequenceUtils.encodeCodon(
+                (byte) 'T', (byte) 'A', (byte) 'G')));
+        Assert.assertEquals(-1, ProteinSequenceUtils.encodeCodon((byte) 'A', (byte) 'N', (byte) 'G'));
+        Assert.assertEquals(ProteinSequenceUtils.encodeNucleotide((byte) 'T'),
+                ProteinSequenceUtils.encodeComplementNucleotide((byte) 'a'));
+        Assert.assertEquals(ProteinSequenceUtils.encodeNucleotide((byte) 'C'),
+                ProteinSequenceUtils.encodeComplementNucleotide((byte) 'G'));
+    }
+
+    private static Gene createCds(final int start, final int end, final String strand, final int frame) {
+        return new Gene(new GffFeature("2R\tFlyBase\tCDS\t" + start + "\t" + end + "\t3\t" + strand + "\t" + frame
+                + "\tgene_id \"FBgn0265045\"; transcript_id \"FBtr0336643\";"));
+    }
 }
@@ -0,0 +1,163 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2016 EPAM Systems
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package com.epam.catgenome.manager.reference;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import htsjdk.samtools.util.SequenceUtil;
+
+/**
+ * Tests {@link ReferenceBasesCache} with sequence loaders, that count their calls
+ */
+public class ReferenceBasesCacheTest {
+
+    private static final String SEQUENCE = "NACGTacgtNNACGT";
+    private static final String CHR_1 = "1:chr1";
+    private static final String CHR_2 = "1:chr2";
+    private static final int THREADS = 8;
+    private static final long TIMEOUT = 10;
+
+    private final AtomicInteger loadCount = new AtomicInteger();
+
+    @Test
+    public void testSequenceIsLoadedOnce() throws IOException {
+        ReferenceBasesCache cache = createCache(Long.MAX_VALUE);
+
+        byte[] bases = cache.get(null, CHR_1, this::load);
+        Assert.assertEquals(SEQUENCE.toUpperCase(), new String(bases, StandardCharsets.US_ASCII));
+        Assert.assertSame(bases, cache.get(null, CHR_1, this::load));
+        Assert.assertEquals(1, loadCount.get());
+        Assert.assertEquals(1, cache.getMissCount());
+        Assert.assertEquals(1, cache.getHitCount());
+        Assert.assertEquals(SEQUENCE.length(), cache.getTotalSize());
+    }
+
+    @Test
+    public void testSequenceIsSharedByMd5() throws IOException {
+        ReferenceBasesCache cache = createCache(Long.MAX_VALUE);
+        byte[] bases = cache.get(null, CHR_1, this::load);
+
+        String md5 = SequenceUtil.calculateMD5String(bases, 0, bases.length);
+        Assert.assertSame(bases, cache.get(md5.toUpperCase(), "2:chr1", this::load));
+        Assert.assertEquals(1, loadCount.get());
+
+        // an unknown checksum falls back to a sequence of a requested chromosome
+        byte[] other = cache.get("0", CHR_2, () -> load("ACGT"));
+        Assert.assertEquals("ACGT", new String(other, StandardCharsets.US_ASCII));
+        Assert.assertEquals(2, loadCount.get());
+    }
+
+    @Test
+    public void testLeastRecentlyUsedSequenceIsEvicted() throws IOException {
+        ReferenceBasesCache cache = createCache(SEQUENCE.length() * 2);
+        cache.get(null, CHR_1, () -> load(SEQUENCE + "A"));
+        cache.get(null, CHR_2, this::load);
+        Assert.assertEquals(SEQUENCE.length(), cache.getTotalSize());
+
+        cache.get(null, CHR_2, this::load);
+        Assert.assertEquals(2, loadCount.get());
+        cache.get(null, CHR_1, () -> load(SEQUENCE + "A"));
+        Assert.assertEquals(3, loadCount.get());
+    }
+
+    @Test
+    public void testMissingSequenceIsNotCached() throws IOException {
+        ReferenceBasesCache cache = createCache(Long.MAX_VALUE);
+        Assert.assertNull(cache.get(null, CHR_1, () -> null));
+        Assert.assertNotNull(cache.get(null, CHR_1, this::load));
+    }
+
+    @Test
+    public void testConcurrentRequestsWaitForSingleLoad() throws Exception {
+        ReferenceBasesCache cache = createCache(Long.MAX_VALUE);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            List<Future<byte[]>> results = new ArrayList<>();
+            for (int i = 0; i < THREADS; i++) {
+                results.add(executor.submit(() -> cache.get(null, CHR_1, () -> {
+                    started.countDown();
+                    await(release);
+                    return load();
+                })));
+            }
+            Assert.assertTrue(started.await(TIMEOUT, TimeUnit.SECONDS));
+            release.countDown();
+
+            byte[] bases = results.get(0).get(TIMEOUT, TimeUnit.SECONDS);
+            for (Future<byte[]> result : results) {
+                Assert.assertSame(bases, result.get(TIMEOUT, TimeUnit.SECONDS));
+            }
+            Assert.assertEquals(1, loadCount.get());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test(expected = IOException.class)
+    public void testLoadFailureIsPropagated() throws IOException {
+        createCache(Long.MAX_VALUE).get(null, CHR_1, () -> {
+            throw new IOException("failed");
+        });
+    }
+
+    private static void await(final CountDownLatch latch) throws IOException {
+        try {
+            Assert.assertTrue(latch.await(TIMEOUT, TimeUnit.SECONDS));
+        } catch (InterruptedException e) {
+            throw new IOException(e);
+        }
+    }
+
+    private byte[] load() {
+        return load(SEQUENCE);
+    }
+
+    private byte[] load(final String sequence) {
+        loadCount.incrementAndGet();
+        return sequence.getBytes(StandardCharsets.US_ASCII);
+    }
+
+    private ReferenceBasesCache createCache(final long maxSize) {
+        ReferenceBasesCache cache = new ReferenceBasesCache();
+        ReflectionTestUtils.setField(cache, "maxSize", maxSize);
+        return cache;
+    }
+}
@@ -6,15 +6,19 @@ import com.epam.catgenome.entity.gene.GeneFile;
 import com.epam.catgenome.entity.reference.Chromosome;
 import com.epam.catgenome.entity.reference.Reference;
 import com.epam.catgenome.helper.EntityHelper;
+import com.epam.catgenome.manager.MetadataCacheManager;
 import com.epam.catgenome.manager.gene.GffManager;
+import org.junit.After;
 import org.junit.Assert;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
 import org.springframework.context.ApplicationContext;
 import org.springframework.core.io.Resource;
 import org.springframework.test.context.ContextConfiguration;
 import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+import org.springframework.test.util.ReflectionTestUtils;
 import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -36,6 +40,14 @@ public class ReferenceGenomeManagerTest extends AbstractManagerTest {
     @Autowired
     private ApplicationContext context;
 
+    @Autowired
+    private MetadataCacheManager metadataCacheManager;
+
+    @After
+    public void tearDown() {
+        ReflectionTestUtils.setField(metadataCacheManager, "cacheManager", null);
+    }
+
     @Test
     @Transactional(propagation = Propagation.REQUIRES_NEW)
     public void testLoadAllReferenceGenomes() throws IOException {
@@ -66,4 +78,43 @@ public class ReferenceGenomeManagerTest extends AbstractManagerTest {
                 r.getGeneFile().getId() != null &&
                 r.getGeneFile().getName() != null).count());
     }
+
+    @Test
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void testLoadReferenceFromCache() throws IOException {
+        ReflectionTestUtils.setField(metadataCacheManager, "cacheManager", new ConcurrentMapCacheManager());
+
+        Chromosome testChromosome = EntityHelper.createNewChromosome();
+        testChromosome.setSize(TEST_CHROMOSOME_SIZE);
+        Reference testReference = EntityHelper.createNewReference(testChromosome,
+                referenceGenomeManager.createReferenceId());
+        referenceGenomeManager.register(testReference);
+        Long chromosomeId = testReference.getChromosomes().get(0).getId();
+
+        Reference loaded = referenceGenomeManager.loadReferenceGenome(testReference.getId());
+        Assert.assertNull(loaded.getGeneFile());
+        // returned records are copies, so modifications don't affect the cache
+        loaded.setName("modified");
+        long hits = metadataCacheManager.getHitCount();
+        Reference cached = referenceGenomeManager.loadReferenceGenome(testReference.getId());
+        Assert.assertEquals(hits + 1, metadataCacheManager.getHitCount());
+        Assert.assertEquals(testReference.getName(), cached.getName());
+        Assert.assertEquals(1, cached.getChromosomes().size());
+
+        Chromosome chromosome = referenceGenomeManager.loadChromosome(chromosomeId);
+        Assert.assertEquals(chromosome.getName(), referenceGenomeManager.loadChromosome(chromosomeId).getName());
+        Assert.assertEquals(hits + 2, metadataCacheManager.getHitCount());
+
+        // an update evicts a cached reference
+        Resource resource = context.getResource(CLASSPATH_TEMPLATES_GENES_SORTED);
+        FeatureIndexedFileRegistrationRequest request = new FeatureIndexedFileRegistrationRequest();
+        request.setReferenceId(testReference.getId());
+        request.setPath(resource.getFile().getAbsolutePath());
+        GeneFile testGeneFile = gffManager.registerGeneFile(request);
+        referenceGenomeManager.updateReferenceGeneFileId(testReference.getId(), testGeneFile.getId());
+
+        Reference updated = referenceGenomeManager.loadReferenceGenome(testReference.getId());
+        Assert.assertNotNull(updated.getGeneFile());
+        Assert.assertEquals(testGeneFile.getId(), updated.getGeneFile().getId());
+    }
 }
@@ -46,8 +46,10 @@ import com.epam.catgenome.controller.vo.registration.ReferenceRegistrationReques
 import com.epam.catgenome.entity.BiologicalDataItemResourceType;
 import com.epam.catgenome.entity.reference.Chromosome;
 import com.epam.catgenome.entity.reference.Reference;
+import com.epam.catgenome.manager.reference.ReferenceBasesCache;
 import com.epam.catgenome.manager.reference.ReferenceManager;
 
+import htsjdk.samtools.SAMSequenceRecord;
 import htsjdk.samtools.reference.ReferenceSequence;
 
 
@@ -61,6 +63,9 @@ public class ChromosomeReferenceSequenceTest extends AbstractJUnitTest {
     @Autowired
     ReferenceManager referenceManager;
 
+    @Autowired
+    ReferenceBasesCache referenceBasesCache;
+
     private Long referenceId;
     private List<Chromosome> chromosomes;
     private static final String REFERENCE_NAME = "hg38";
@@ -144,4 +149,19 @@ public class ChromosomeReferenceSequenceTest extends AbstractJUnitTest {
         Assert.assertEquals(EXPECTED_SEQUENCES.get(CHR_1).substring(INTERVAL_START - 1, INTERVAL_END),
                 sequence.getBaseString());
     }
+
+    @Test
+    @Transactional(propagation = Propagation.REQUIRED)
+    public void getCachedReferenceBases() throws Exception {
+        referenceBasesCache.clear();
+        CachingReferenceSource source = new CachingReferenceSource(new ChromosomeReferenceSequence(chromosomes,
+                referenceId, referenceManager), referenceId, referenceBasesCache);
+        byte[] bases = source.getReferenceBases(new SAMSequenceRecord(CHR_1, CHR_1_LEN), false);
+        Assert.assertEquals(EXPECTED_SEQUENCES.get(CHR_1).toUpperCase(), new String(bases));
+
+        CachingReferenceSource otherSource = new CachingReferenceSource(new ChromosomeReferenceSequence(
+                chromosomes, referenceId, referenceManager), referenceId, referenceBasesCache);
+        Assert.assertSame(bases, otherSource.getReferenceBases(new SAMSequenceRecord(CHR_1, CHR_1_LEN), false));
+        Assert.assertNull(otherSource.getReferenceBases(new SAMSequenceRecord("unknown", CHR_1_LEN), false));
+    }
 }
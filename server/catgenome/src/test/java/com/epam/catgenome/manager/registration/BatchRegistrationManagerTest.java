@@ -0,0 +1,260 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2016 EPAM Systems
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package com.epam.catgenome.manager.registration;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.stream.Collectors;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationContext;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.epam.catgenome.common.AbstractManagerTest;
+import com.epam.catgenome.controller.vo.registration.BatchFileRegistrationRequest;
+import com.epam.catgenome.controller.vo.registration.FileRegistrationResult;
+import com.epam.catgenome.entity.BiologicalDataItemFormat;
+import com.epam.catgenome.entity.reference.Chromosome;
+import com.epam.catgenome.entity.reference.Reference;
+import com.epam.catgenome.entity.registration.RegistrationJobStatus;
+import com.epam.catgenome.helper.EntityHelper;
+import com.epam.catgenome.manager.bed.BedManager;
+import com.epam.catgenome.manager.reference.ReferenceGenomeManager;
+import com.epam.catgenome.manager.vcf.VcfManager;
+
+/**
+ * Tests batch registration. Files are registered by jobs in worker threads and commit their changes, so
+ * registered files are removed after each test
+ */
+@RunWith(SpringJUnit4ClassRunner.class)
+@ContextConfiguration({"classpath:applicationContext-test.xml"})
+public class BatchRegistrationManagerTest extends AbstractManagerTest {
+
+    private static final String TEST_VCF = "classpath:templates/Felis_catus.vcf";
+    private static final String TEST_BED = "classpath:templates/genes_sorted.bed";
+    private static final int TEST_CHROMOSOME_SIZE = 239107476;
+    private static final long BATCH_TIMEOUT = 60000;
+    private static final long POLL_INTERVAL = 100;
+
+    @Autowired
+    private ApplicationContext context;
+
+    @Autowired
+    private BatchRegistrationManager batchRegistrationManager;
+
+    @Autowired
+    private ReferenceGenomeManager referenceGenomeManager;
+
+    @Autowired
+    private RegistrationExecutorService registrationExecutorService;
+
+    @Autowired
+    private VcfManager vcfManager;
+
+    @Autowired
+    private BedManager bedManager;
+
+    private Reference testReference;
+    private List<FileRegistrationResult> results;
+
+    @Before
+    public void setup() {
+        Chromosome testChromosome = EntityHelper.createNewChromosome();
+        testChromosome.setSize(TEST_CHROMOSOME_SIZE);
+        testReference = EntityHelper.createNewReference(testChromosome, referenceGenomeManager.createReferenceId());
+        referenceGenomeManager.register(testReference);
+    }
+
+    @After
+    public void cleanup() throws IOException {
+        if (results != null) {
+            for (FileRegistrationResult result : results) {
+                if (!result.isSucceeded()) {
+                    continue;
+                }
+                if (result.getFormat() == BiologicalDataItemFormat.VCF) {
+                    vcfManager.unregisterVcfFile(result.getItem().getId());
+                } else {
+                    bedManager.unregisterBedFile(result.getItem().getId());
+                }
+            }
+        }
+        referenceGenomeManager.unregister(testReference);
+    }
+
+    @Test
+    public void testRegisterFiles() throws IOException, InterruptedException {
+        BatchFileRegistrationRequest invalid = createRequest(BiologicalDataItemFormat.VCF, null);
+        invalid.setPath("/not/existing/file.vcf");
+        BatchFileRegistrationRequest noFormat = createRequest(null, TEST_BED);
+        noFormat.setName("noFormat");
+
+        List<FileRegistrationResult> queued = batchRegistrationManager.registerFiles(Arrays.asList(
+                createRequest(BiologicalDataItemFormat.VCF, TEST_VCF),
+                invalid,
+                createRequest(BiologicalDataItemFormat.BED, TEST_BED),
+                noFormat));
+
+        // a request returns at once with a job for each file, that is queued
+        assertEquals(4, queued.size());
+        assertQueued(queued.get(0));
+        assertQueued(queued.get(1));
+        assertQueued(queued.get(2));
+        assertFailed(queued.get(3));
+        assertNull(queued.get(3).getJob());
+
+        results = waitForBatch(queued.subList(0, 3).stream()
+                .map(result -> result.getJob().getId())
+                .collect(Collectors.toList()));
+
+        // results are returned in the order of requests, a failed file doesn't affect others
+        assertEquals(3, results.size());
+        assertSucceeded(results.get(0), BiologicalDataItemFormat.VCF);
+        assertFailed(results.get(1));
+        assertEquals(RegistrationJobStatus.FAILED, results.get(1).getJob().getStatus());
+        assertSucceeded(results.get(2), BiologicalDataItemFormat.BED);
+        assertEquals(invalid.getPath(), results.get(1).getPath());
+    }
+
+    @Test
+    public void testBatchTakesLimitedWorkers() throws IOException, InterruptedException {
+        ThreadPoolExecutor executor = (ThreadPoolExecutor) ReflectionTestUtils.getField(registrationExecutorService,
+                "executor");
+        int workers = executor.getMaximumPoolSize();
+        Object batchParallelism = ReflectionTestUtils.getField(registrationExecutorService, "batchParallelism");
+        ReflectionTestUtils.setField(registrationExecutorService, "batchParallelism", 1);
+        CountDownLatch started = new CountDownLatch(workers);
+        CountDownLatch release = new CountDownLatch(1);
+        // holds dispatched jobs, so that their states don't change until all jobs are queued
+        for (int i = 0; i < workers; i++) {
+            executor.execute(() -> {
+                started.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+        }
+        List<Long> jobIds = new ArrayList<>();
+        try {
+            started.await();
+            // a batch, larger than the number of workers, is queued as a whole
+            List<BatchFileRegistrationRequest> requests = new ArrayList<>();
+            for (int i = 0; i <= workers; i++) {
+                BatchFileRegistrationRequest request = createRequest(BiologicalDataItemFormat.BED, TEST_BED);
+                request.setName("batch" + i);
+                requests.add(request);
+            }
+            List<FileRegistrationResult> queued = batchRegistrationManager.registerFiles(requests);
+            queued.forEach(this::assertQueued);
+            queued.forEach(result -> jobIds.add(result.getJob().getId()));
+            // a single file isn't delayed by a batch
+            jobIds.add(registrationExecutorService.registerBed(
+                    createRequest(BiologicalDataItemFormat.BED, TEST_BED)).getId());
+
+            List<RegistrationJobStatus> statuses = batchRegistrationManager.loadResults(jobIds).stream()
+                    .map(result -> result.getJob().getStatus())
+                    .collect(Collectors.toList());
+            assertEquals(RegistrationJobStatus.RUNNING, statuses.get(0));
+            for (int i = 1; i <= workers; i++) {
+                assertEquals(RegistrationJobStatus.QUEUED, statuses.get(i));
+            }
+            assertEquals(RegistrationJobStatus.RUNNING, statuses.get(workers + 1));
+        } finally {
+            release.countDown();
+            ReflectionTestUtils.setField(registrationExecutorService, "batchParallelism", batchParallelism);
+            if (!jobIds.isEmpty()) {
+                results = waitForBatch(jobIds);
+            }
+        }
+        results.forEach(result -> assertSucceeded(result, BiologicalDataItemFormat.BED));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testRegisterEmptyBatch() {
+        batchRegistrationManager.registerFiles(Arrays.asList());
+    }
+
+    private List<FileRegistrationResult> waitForBatch(List<Long> jobIds) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + BATCH_TIMEOUT;
+        List<FileRegistrationResult> loaded = batchRegistrationManager.loadResults(jobIds);
+        while (!loaded.stream().allMatch(result -> result.getJob().getStatus().isFinished())) {
+            assertTrue("Batch registration timed out", System.currentTimeMillis() < deadline);
+            Thread.sleep(POLL_INTERVAL);
+            loaded = batchRegistrationManager.loadResults(jobIds);
+        }
+        return loaded;
+    }
+
+    private void assertQueued(FileRegistrationResult result) {
+        assertFalse(result.getErrorMessage(), result.isFailed());
+        assertNotNull(result.getJob().getId());
+        assertEquals(result.getFormat(), result.getJob().getFormat());
+        assertNull(result.getItem());
+    }
+
+    private void assertSucceeded(FileRegistrationResult result, BiologicalDataItemFormat format) {
+        assertTrue(result.getErrorMessage(), result.isSucceeded());
+        assertEquals(format, result.getFormat());
+        assertEquals(format, result.getItem().getFormat());
+        assertNotNull(result.getItem().getId());
+        assertNull(result.getErrorMessage());
+    }
+
+    private void assertFailed(FileRegistrationResult result) {
+        assertFalse(result.isSucceeded());
+        assertNull(result.getItem());
+        assertNotNull(result.getErrorMessage());
+    }
+
+    private BatchFileRegistrationRequest createRequest(BiologicalDataItemFormat format, String resource)
+            throws IOException {
+        BatchFileRegistrationRequest request = new BatchFileRegistrationRequest();
+        request.setFormat(format);
+        request.setReferenceId(testReference.getId());
+        if (resource != null) {
+            request.setPath(context.getResource(resource).getFile().getAbsolutePath());
+        }
+        return request;
+    }
+}
@@ -0,0 +1,234 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2016 EPAM Systems
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package com.epam.catgenome.manager.registration;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadPoolExecutor;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationContext;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.epam.catgenome.common.AbstractManagerTest;
+import com.epam.catgenome.controller.vo.registration.FeatureIndexedFileRegistrationRequest;
+import com.epam.catgenome.entity.reference.Chromosome;
+import com.epam.catgenome.entity.reference.Reference;
+import com.epam.catgenome.entity.registration.RegistrationJob;
+import com.epam.catgenome.entity.registration.RegistrationJobStatus;
+import com.epam.catgenome.exception.RegistrationCancelledException;
+import com.epam.catgenome.helper.EntityHelper;
+import com.epam.catgenome.manager.reference.ReferenceGenomeManager;
+import com.epam.catgenome.manager.vcf.VcfFileManager;
+import com.epam.catgenome.manager.vcf.VcfManager;
+
+/**
+ * Tests asynchronous registration jobs. Jobs run in worker threads and commit their changes, so registered data
+ * is removed after each test
+ */
+@RunWith(SpringJUnit4ClassRunner.class)
+@ContextConfiguration({"classpath:applicationContext-test.xml"})
+public class RegistrationExecutorServiceTest extends AbstractManagerTest {
+
+    private static final String TEST_VCF = "classpath:templates/Felis_catus.vcf";
+    private static final int TEST_CHROMOSOME_SIZE = 239107476;
+    private static final long JOB_TIMEOUT = 60000;
+    private static final long POLL_INTERVAL = 100;
+    private static final double DELTA = 1e-9;
+
+    @Autowired
+    private ApplicationContext context;
+
+    @Autowired
+    private RegistrationExecutorService registrationExecutorService;
+
+    @Autowired
+    private ReferenceGenomeManager referenceGenomeManager;
+
+    @Autowired
+    private VcfManager vcfManager;
+
+    @Autowired
+    private VcfFileManager vcfFileManager;
+
+    private Reference testReference;
+    private final List<Long> registeredVcfIds = new ArrayList<>();
+
+    @Before
+    public void setup() {
+        Chromosome testChromosome = EntityHelper.createNewChromosome();
+        testChromosome.setSize(TEST_CHROMOSOME_SIZE);
+        testReference = EntityHelper.createNewReference(testChromosome, referenceGenomeManager.createReferenceId());
+        referenceGenomeManager.register(testReference);
+    }
+
+    @After
+    public void cleanup() throws IOException {
+        for (Long vcfId : registeredVcfIds) {
+            vcfManager.unregisterVcfFile(vcfId);
+        }
+        referenceGenomeManager.unregister(testReference);
+    }
+
+    @Test
+    public void testRegisterVcf() throws IOException, InterruptedException {
+        RegistrationJob job = registrationExecutorService.registerVcf(createVcfRequest());
+        assertNotNull(job.getId());
+
+        job = waitForJob(job.getId());
+        if (job.getResultId() != null) {
+            registeredVcfIds.add(job.getResultId());
+        }
+        assertEquals(job.getErrorMessage(), RegistrationJobStatus.SUCCEEDED, job.getStatus());
+        assertEquals(1.0, job.getProgress(), DELTA);
+        assertNotNull(job.getStartedDate());
+        assertNotNull(job.getFinishedDate());
+        assertNotNull(vcfFileManager.loadVcfFile(job.getResultId()));
+    }
+
+    @Test
+    public void testFailedRegistration() throws InterruptedException {
+        FeatureIndexedFileRegistrationRequest request = new FeatureIndexedFileRegistrationRequest();
+        request.setReferenceId(testReference.getId());
+        request.setPath("/not/existing/file.vcf");
+
+        RegistrationJob job = waitForJob(registrationExecutorService.registerVcf(request).getId());
+        assertEquals(RegistrationJobStatus.FAILED, job.getStatus());
+        assertNotNull(job.getErrorMessage());
+        assertNull(job.getResultId());
+    }
+
+    @Test
+    public void testCancelQueuedJob() throws IOException, InterruptedException {
+        ThreadPoolExecutor executor = (ThreadPoolExecutor) ReflectionTestUtils.getField(registrationExecutorService,
+                "executor");
+        CountDownLatch started = new CountDownLatch(executor.getMaximumPoolSize());
+        CountDownLatch release = new CountDownLatch(1);
+        // occupies all workers, so that a registration job stays in a queue
+        for (int i = 0; i < executor.getMaximumPoolSize(); i++) {
+            executor.execute(() -> {
+                started.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+        }
+        List<Long> dispatchedIds = new ArrayList<>();
+        try {
+            started.await();
+            // each worker gets a job, that can't start yet, the next job waits in the table
+            for (int i = 0; i < executor.getMaximumPoolSize(); i++) {
+                dispatchedIds.add(registrationExecutorService.registerVcf(createVcfRequest()).getId());
+            }
+            RegistrationJob job = registrationExecutorService.registerVcf(createVcfRequest());
+            assertEquals(RegistrationJobStatus.QUEUED, registrationExecutorService.loadJob(job.getId()).getStatus());
+
+            job = registrationExecutorService.cancelJob(job.getId());
+            assertEquals(RegistrationJobStatus.CANCELLED, job.getStatus());
+            assertNotNull(job.getFinishedDate());
+
+            // a job, that is taken by a worker, but not started, is cancelled at once as well
+            job = registrationExecutorService.cancelJob(dispatchedIds.remove(0));
+            assertEquals(RegistrationJobStatus.CANCELLED, job.getStatus());
+        } finally {
+            release.countDown();
+            for (Long jobId : dispatchedIds) {
+                RegistrationJob job = waitForJob(jobId);
+                if (job.getResultId() != null) {
+                    registeredVcfIds.add(job.getResultId());
+                }
+            }
+        }
+        assertEquals(dispatchedIds.size(), vcfFileManager.loadVcfFilesByReferenceId(testReference.getId()).size());
+    }
+
+    @Test
+    public void testProgressAndCancellation() {
+        RegistrationProgress progress = new RegistrationProgress(Arrays.asList(
+                EntityHelper.createNewChromosome("chr1", 1000), EntityHelper.createNewChromosome("chr2", 3000)));
+        // reports outside of a job are ignored
+        RegistrationProgress.update("1", 500);
+        assertEquals(0, progress.getProgress(), DELTA);
+
+        progress.bind();
+        try {
+            RegistrationProgress.update("1", 500);
+            assertEquals(0.125, progress.getProgress(), DELTA);
+            RegistrationProgress.update("chr2", 1000);
+            assertEquals(0.5, progress.getProgress(), DELTA);
+            RegistrationProgress.update(3, 4);
+            assertEquals(0.75, progress.getProgress(), DELTA);
+            // progress doesn't move back
+            RegistrationProgress.update(1, 4);
+            assertEquals(0.75, progress.getProgress(), DELTA);
+
+            progress.cancel();
+            try {
+                RegistrationProgress.update("chr2", 2000);
+                fail("Cancelled registration should stop");
+            } catch (RegistrationCancelledException e) {
+                assertNotNull(e.getMessage());
+            }
+        } finally {
+            RegistrationProgress.unbind();
+        }
+    }
+
+    private FeatureIndexedFileRegistrationRequest createVcfRequest() throws IOException {
+        FeatureIndexedFileRegistrationRequest request = new FeatureIndexedFileRegistrationRequest();
+        request.setReferenceId(testReference.getId());
+        request.setPath(context.getResource(TEST_VCF).getFile().getAbsolutePath());
+        return request;
+    }
+
+    private RegistrationJob waitForJob(final Long jobId) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + JOB_TIMEOUT;
+        RegistrationJob job = registrationExecutorService.loadJob(jobId);
+        while (!job.getStatus().isFinished() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(POLL_INTERVAL);
+            job = registrationExecutorService.loadJob(jobId);
+        }
+        assertTrue("Registration job didn't finish in time", job.getStatus().isFinished());
+        return job;
+    }
+}
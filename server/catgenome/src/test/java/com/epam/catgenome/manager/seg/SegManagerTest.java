@@ -28,6 +28,7 @@ import java.io.File;
 import java.io.IOException;
 import java.security.NoSuchAlgorithmException;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 
 import htsjdk.tribble.TribbleException;
@@ -86,6 +87,7 @@ public class SegManagerTest extends AbstractManagerTest {
 
     private static final int TEST_END_INDEX = 247812431;
     private static final Double FULL_QUERY_SCALE_FACTOR = 1D;
+    private static final Double SUMMARY_SCALE_FACTOR = 1D / 100000;
     private static final int TEST_CHROMOSOME_SIZE = 247812500;
     private long referenceId;
     private Reference testReference;
@@ -129,6 +131,32 @@ public class SegManagerTest extends AbstractManagerTest {
         Assert.assertNotNull(segFile);
     }
 
+    @Test
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void testLoadSummary() throws IOException, InterruptedException, NoSuchAlgorithmException {
+        SegFile segFile = testRegisterSeg("classpath:templates/test_seg.seg");
+
+        SampledTrack<SegRecord> sampledTrack = new SampledTrack<>();
+        sampledTrack.setScaleFactor(SUMMARY_SCALE_FACTOR);
+        sampledTrack.setStartIndex(1);
+        sampledTrack.setEndIndex(TEST_END_INDEX);
+        sampledTrack.setChromosome(testChromosome);
+        sampledTrack.setId(segFile.getId());
+
+        sampledTrack = segManager.loadFeatures(sampledTrack);
+        Assert.assertFalse(sampledTrack.getTracks().isEmpty());
+        String sample = sampledTrack.getTracks().keySet().iterator().next();
+        List<SegRecord> records = sampledTrack.getTracks().get(sample);
+        Assert.assertFalse(records.isEmpty());
+        for (int i = 1; i < records.size(); i++) {
+            Assert.assertTrue(records.get(i - 1).getEndIndex() < records.get(i).getStartIndex());
+        }
+
+        sampledTrack = segManager.loadFeatures(sampledTrack, Collections.singletonList(sample));
+        Assert.assertEquals(Collections.singleton(sample), sampledTrack.getTracks().keySet());
+        Assert.assertEquals(records.size(), sampledTrack.getTracks().get(sample).size());
+    }
+
     @Test
     @Ignore
     @Transactional(propagation = Propagation.REQUIRES_NEW)
@@ -32,9 +32,13 @@ import htsjdk.tribble.AbstractFeatureReader;
 import htsjdk.tribble.CloseableTribbleIterator;
 import htsjdk.tribble.Feature;
 import htsjdk.tribble.FeatureCodec;
+import htsjdk.tribble.Tribble;
 import htsjdk.tribble.bed.BEDCodec;
+import com.epam.catgenome.util.sort.BedSorter;
 import htsjdk.variant.vcf.VCFCodec;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 import org.junit.runner.RunWith;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.test.context.ContextConfiguration;
@@ -42,8 +46,11 @@ import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
 
 import java.io.File;
 import java.io.IOException;
+import java.io.PrintWriter;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 import static com.epam.catgenome.util.IndexUtils.checkSorted;
 import static org.junit.Assert.*;
@@ -58,6 +65,10 @@ public class SortTest extends AbstractJUnitTest {
     private static final int UNSORTED_BED_EXPECTED_LINES = 9;
     private static final int GENE_SORTED_BED_EXPECTED_LINES = 141;
     private static final int BIG_BED_EXPECTED_LINES = 8178;
+    private static final int BROKEN_BED_LINES = 50000;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
 
     @Autowired
     private ToolsManager toolsManager;
@@ -77,6 +88,54 @@ public class SortTest extends AbstractJUnitTest {
         testSort(getTemplate("big.bed.gz"), new BEDCodec(), BIG_BED_EXPECTED_LINES, 1);
     }
 
+    @Test
+    public void testSortBedCompressedIndexed() throws Exception {
+        File sorted = sort(getTemplate("big.bed.gz"), 1);
+        File index = Tribble.tabixIndexFile(sorted);
+        index.deleteOnExit();
+        assertTrue(index.exists());
+        assertEquals(BIG_BED_EXPECTED_LINES, countIndexedFeatures(sorted, index, new BEDCodec(), "chrA1"));
+    }
+
+    @Test
+    public void testSortBedIndexed() throws Exception {
+        File sorted = sort(getTemplate("invalid/unsorted.bed"), MAX_MEMORY);
+        File index = Tribble.indexFile(sorted);
+        index.deleteOnExit();
+        assertTrue(index.exists());
+        assertEquals(UNSORTED_BED_EXPECTED_LINES, countIndexedFeatures(sorted, index, new BEDCodec(), "A1"));
+    }
+
+    @Test
+    public void testFailedSortCleansUp() throws Exception {
+        File input = folder.newFile("broken.bed");
+        try (PrintWriter writer = new PrintWriter(input)) {
+            for (int i = BROKEN_BED_LINES; i > 0; i--) {
+                writer.println("chrA1\t" + i + "\t" + (i + 1));
+            }
+            writer.println("chrA1");
+        }
+        File output = new File(folder.getRoot(), "broken.sorted.bed");
+        File tmpDir = folder.newFolder("tmp");
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            BedSorter sorter = new BedSorter(input, output, tmpDir);
+            sorter.setThreadCount(2);
+            sorter.setExecutor(executor);
+            try {
+                sorter.run(1);
+                fail("Sorting of a broken file should fail");
+            } catch (ArrayIndexOutOfBoundsException e) {
+                // expected
+            }
+            assertFalse(executor.isShutdown());
+        } finally {
+            executor.shutdownNow();
+        }
+        assertFalse(Tribble.indexFile(output).exists());
+        assertEquals(0, tmpDir.list().length);
+    }
+
     @Test
     public void testSortVCF() throws Exception {
         testSort(getTemplate("invalid/unsorted.vcf"), new VCFCodec());
@@ -113,6 +172,16 @@ public class SortTest extends AbstractJUnitTest {
     public void testSort(File infile, final FeatureCodec codec, final int expectedLines, final int maxMemory)
             throws IOException {
 
+        File ofile = sort(infile, maxMemory);
+
+        int outLines = checkFileSorted(ofile, codec);
+
+        if(expectedLines != 0){
+            assertEquals(expectedLines, outLines);
+        }
+    }
+
+    private File sort(File infile, final int maxMemory) {
         File ofile = new File(
                 infile + (NgbFileUtils.isGzCompressed(infile.getName()) ? ".sorted.gz" : ".sorted")
         );
@@ -124,12 +193,21 @@ public class SortTest extends AbstractJUnitTest {
         request.setMaxMemory(maxMemory);
 
         toolsManager.sortFeatureFile(request);
+        return ofile;
+    }
 
-        int outLines = checkFileSorted(ofile, codec);
-
-        if(expectedLines != 0){
-            assertEquals(expectedLines, outLines);
+    private static <F extends Feature, S> int countIndexedFeatures(File file, File index,
+            final FeatureCodec<F, S> codec, String chromosome) throws IOException {
+        int count = 0;
+        try (AbstractFeatureReader<F, S> reader = AbstractFeatureReader.getFeatureReader(file.getAbsolutePath(),
+                index.getAbsolutePath(), codec, true)) {
+            CloseableTribbleIterator<F> iterator = reader.query(chromosome, 1, Integer.MAX_VALUE - 1);
+            while (iterator.hasNext()) {
+                iterator.next();
+                count++;
+            }
         }
+        return count;
     }
 
     public static  <F extends Feature, S> int checkFileSorted(File ofile, final FeatureCodec<F, S> codec)
@@ -0,0 +1,103 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2016 EPAM Systems
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package com.epam.catgenome.util;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Tests size accounting, eviction, atomic writing and restoring of entries by {@link BoundedDiskCache}
+ */
+public class BoundedDiskCacheTest {
+
+    private static final int ENTRY_SIZE = 100;
+    private static final int DIR_PREFIX_LENGTH = 2;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void testLeastRecentlyUsedEntriesAreEvicted() throws IOException {
+        BoundedDiskCache cache = new BoundedDiskCache(folder.getRoot(), ENTRY_SIZE * 2, DIR_PREFIX_LENGTH);
+        File first = put(cache, "aa1");
+        put(cache, "bb2");
+        Assert.assertEquals(ENTRY_SIZE * 2, cache.getTotalSize());
+
+        // the first entry becomes the most recently used one
+        Assert.assertEquals(first, cache.get("aa1"));
+        put(cache, "cc3");
+        Assert.assertEquals(ENTRY_SIZE * 2, cache.getTotalSize());
+        Assert.assertTrue(cache.contains("aa1"));
+        Assert.assertFalse(cache.contains("bb2"));
+        Assert.assertNull(cache.get("bb2"));
+        Assert.assertFalse(new File(new File(folder.getRoot(), "bb"), "bb2").exists());
+
+        cache.removeIf(name -> name.startsWith("c"));
+        Assert.assertEquals(ENTRY_SIZE, cache.getTotalSize());
+        Assert.assertTrue(first.exists());
+    }
+
+    @Test
+    public void testEntriesAreRestored() throws IOException {
+        BoundedDiskCache cache = new BoundedDiskCache(folder.getRoot(), Long.MAX_VALUE, 0);
+        File file = put(cache, "entry");
+        Assert.assertTrue(new File(folder.getRoot(), "left.tmp").createNewFile());
+
+        BoundedDiskCache restored = new BoundedDiskCache(folder.getRoot(), Long.MAX_VALUE, 0);
+        Assert.assertEquals(ENTRY_SIZE, restored.getTotalSize());
+        Assert.assertEquals(file, restored.get("entry"));
+        Assert.assertFalse(new File(folder.getRoot(), "left.tmp").exists());
+    }
+
+    @Test
+    public void testFailedWriteLeavesNoFiles() throws IOException {
+        BoundedDiskCache cache = new BoundedDiskCache(folder.getRoot(), Long.MAX_VALUE, 0);
+        try {
+            cache.put("entry", stream -> {
+                stream.write(new byte[ENTRY_SIZE]);
+                throw new IOException("Interrupted download");
+            });
+            Assert.fail("Writing should fail");
+        } catch (IOException e) {
+            Assert.assertEquals("Interrupted download", e.getMessage());
+        }
+        Assert.assertFalse(cache.contains("entry"));
+        Assert.assertEquals(0, cache.getTotalSize());
+        Assert.assertEquals(0, folder.getRoot().list().length);
+    }
+
+    private static File put(BoundedDiskCache cache, String name) throws IOException {
+        File file = cache.put(name, stream -> stream.write(new byte[ENTRY_SIZE]));
+        Assert.assertEquals(ENTRY_SIZE, Files.size(file.toPath()));
+        return file;
+    }
+}
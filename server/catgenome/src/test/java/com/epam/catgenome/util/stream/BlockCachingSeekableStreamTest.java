@@ -0,0 +1,289 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2016 EPAM Systems
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package com.epam.catgenome.util.stream;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URL;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.Path;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import htsjdk.samtools.SAMRecordIterator;
+import htsjdk.samtools.SamInputResource;
+import htsjdk.samtools.SamReader;
+import htsjdk.samtools.SamReaderFactory;
+import htsjdk.samtools.ValidationStringency;
+import htsjdk.samtools.seekablestream.SeekableStream;
+
+/**
+ * Tests {@link BlockCachingSeekableStream} against a local HTTP server, that supports {@code Range} requests,
+ * and a local Hadoop file system.
+ */
+public class BlockCachingSeekableStreamTest {
+
+    private static final int BLOCK_SIZE = 4096;
+    private static final int READ_AHEAD_BLOCKS = 4;
+    private static final int FILE_SIZE = 300 * 1024 + 17;
+    private static final int READ_SIZE = 1000;
+    private static final int RANDOM_READS = 200;
+    private static final int TIMEOUT = 10000;
+    private static final long MAX_CACHE_SIZE = 100L * 1024 * 1024;
+    private static final String TEST_BAM = "templates/agnX1.09-28.trim.dm606.realign.bam";
+    private static final String INDEX_EXTENSION = ".bai";
+    private static final String CHROMOSOME = "X";
+    private static final int QUERY_START = 12582200;
+    private static final int QUERY_END = 12589228;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private final Random random = new Random(42);
+    private final AtomicInteger requestCount = new AtomicInteger();
+    private final Set<Integer> clientPorts = ConcurrentHashMap.newKeySet();
+    private HttpServer server;
+    private String location;
+    private volatile byte[] content;
+    private volatile byte[] indexContent;
+    private volatile String etag = "\"v1\"";
+    private volatile boolean rangeSupported = true;
+
+    @Before
+    public void setUp() throws IOException {
+        content = randomBytes(FILE_SIZE);
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/", this::handle);
+        server.start();
+        location = "http://localhost:" + server.getAddress().getPort() + "/data.bam";
+    }
+
+    @After
+    public void tearDown() {
+        server.stop(0);
+    }
+
+    @Test
+    public void testRandomReadsMatchFile() throws IOException {
+        try (SeekableStream stream = openHttp(createCache())) {
+            Assert.assertEquals(FILE_SIZE, stream.length());
+            byte[] buffer = new byte[READ_SIZE];
+            for (int i = 0; i < RANDOM_READS; i++) {
+                int position = random.nextInt(FILE_SIZE);
+                stream.seek(position);
+                int read = stream.read(buffer, 0, READ_SIZE);
+                int expected = Math.min(READ_SIZE, FILE_SIZE - position);
+                Assert.assertEquals(expected, read);
+                Assert.assertArrayEquals(Arrays.copyOfRange(content, position, position + expected),
+                        Arrays.copyOf(buffer, read));
+                Assert.assertEquals(position + read, stream.position());
+            }
+            stream.seek(FILE_SIZE);
+            Assert.assertTrue(stream.eof());
+            Assert.assertEquals(-1, stream.read());
+        }
+    }
+
+    @Test
+    public void testSequentialReadsAreCoalesced() throws IOException {
+        byte[] data = readFully(openHttp(null));
+        Assert.assertArrayEquals(content, data);
+        int blockCount = (FILE_SIZE + BLOCK_SIZE - 1) / BLOCK_SIZE;
+        // one probe request and ranged reads of read ahead runs instead of a request per block
+        Assert.assertTrue(requestCount.get() <= 1 + blockCount / (READ_AHEAD_BLOCKS + 1) + 1);
+        // all requests reuse a single keep-alive connection
+        Assert.assertEquals(1, clientPorts.size());
+    }
+
+    @Test
+    public void testBlocksAreServedFromDiskCache() throws IOException {
+        DiskBlockCache cache = createCache();
+        Assert.assertArrayEquals(content, readFully(openHttp(cache)));
+        Assert.assertEquals(FILE_SIZE, cache.getTotalSize());
+
+        requestCount.set(0);
+        Assert.assertArrayEquals(content, readFully(openHttp(cache)));
+        Assert.assertEquals(1, requestCount.get());
+
+        // a restarted cache restores its blocks from disk
+        DiskBlockCache restored = new DiskBlockCache(cache.getCacheDir(), MAX_CACHE_SIZE);
+        requestCount.set(0);
+        Assert.assertArrayEquals(content, readFully(openHttp(restored)));
+        Assert.assertEquals(1, requestCount.get());
+    }
+
+    @Test
+    public void testPresignedUrlsShareCachedBlocks() throws IOException {
+        DiskBlockCache cache = createCache();
+        readFully(openHttp(cache, location + "?X-Amz-Signature=1&X-Amz-Expires=60"));
+        requestCount.set(0);
+        Assert.assertArrayEquals(content, readFully(openHttp(cache, location + "?X-Amz-Signature=2")));
+        Assert.assertEquals(1, requestCount.get());
+    }
+
+    @Test
+    public void testModifiedFileIsNotServedFromCache() throws IOException {
+        DiskBlockCache cache = createCache();
+        readFully(openHttp(cache));
+
+        content = randomBytes(FILE_SIZE);
+        etag = "\"v2\"";
+        Assert.assertArrayEquals(content, readFully(openHttp(cache)));
+    }
+
+    @Test(expected = IOException.class)
+    public void testFileModifiedWhileReadingFails() throws IOException {
+        try (SeekableStream stream = openHttp(null)) {
+            etag = "\"v2\"";
+            stream.read(new byte[READ_SIZE], 0, READ_SIZE);
+        }
+    }
+
+    @Test
+    public void testServerWithoutRangeSupport() throws IOException {
+        rangeSupported = false;
+        try (SeekableStream stream = openHttp(createCache())) {
+            Assert.assertEquals(FILE_SIZE, stream.length());
+            int position = FILE_SIZE / 2;
+            stream.seek(position);
+            byte[] buffer = new byte[READ_SIZE];
+            Assert.assertEquals(READ_SIZE, stream.read(buffer, 0, READ_SIZE));
+            Assert.assertArrayEquals(Arrays.copyOfRange(content, position, position + READ_SIZE), buffer);
+        }
+    }
+
+    @Test
+    public void testHadoopFileSystem() throws IOException {
+        File file = folder.newFile("data.bin");
+        Files.write(file.toPath(), content);
+        FileSystem fileSystem = FileSystem.getLocal(new Configuration());
+        HdfsRangeSource source = new HdfsRangeSource(fileSystem, new Path(file.getAbsolutePath()));
+        Assert.assertEquals(FILE_SIZE + ":" + file.lastModified(), source.getValidator());
+
+        DiskBlockCache cache = createCache();
+        Assert.assertArrayEquals(content, readFully(new BlockCachingSeekableStream(source, cache, BLOCK_SIZE,
+                READ_AHEAD_BLOCKS)));
+        Assert.assertEquals(FILE_SIZE, cache.getTotalSize());
+    }
+
+    @Test
+    public void testBamQueryOverHttp() throws IOException {
+        File bam = new File(getClass().getClassLoader().getResource(TEST_BAM).getFile());
+        File index = new File(bam.getPath() + INDEX_EXTENSION);
+        content = Files.readAllBytes(bam.toPath());
+        int expected = countRecords(SamInputResource.of(bam).index(index));
+
+        indexContent = Files.readAllBytes(index.toPath());
+        DiskBlockCache cache = createCache();
+        Assert.assertTrue(expected > 0);
+        Assert.assertEquals(expected, countRecords(SamInputResource.of(openHttp(cache))
+                .index(openHttp(cache, location + INDEX_EXTENSION))));
+
+        // the second reader gets the index and the alignments from the cache
+        requestCount.set(0);
+        Assert.assertEquals(expected, countRecords(SamInputResource.of(openHttp(cache))
+                .index(openHttp(cache, location + INDEX_EXTENSION))));
+        Assert.assertEquals(2, requestCount.get());
+    }
+
+    private int countRecords(final SamInputResource resource) throws IOException {
+        int count = 0;
+        try (SamReader reader = SamReaderFactory.makeDefault().validationStringency(ValidationStringency.SILENT)
+                .open(resource);
+             SAMRecordIterator iterator = reader.queryOverlapping(CHROMOSOME, QUERY_START, QUERY_END)) {
+            while (iterator.hasNext()) {
+                iterator.next();
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private SeekableStream openHttp(final DiskBlockCache cache) throws IOException {
+        return openHttp(cache, location);
+    }
+
+    private SeekableStream openHttp(final DiskBlockCache cache, final String url) throws IOException {
+        URL fileUrl = new URL(url);
+        return new BlockCachingSeekableStream(new HttpRangeSource(fileUrl, HttpRangeSource.getStableKey(fileUrl),
+                TIMEOUT), cache, BLOCK_SIZE, READ_AHEAD_BLOCKS);
+    }
+
+    private DiskBlockCache createCache() throws IOException {
+        return new DiskBlockCache(folder.newFolder(), MAX_CACHE_SIZE);
+    }
+
+    private static byte[] readFully(final SeekableStream stream) throws IOException {
+        try (SeekableStream input = stream) {
+            byte[] data = new byte[(int) input.length()];
+            input.readFully(data);
+            return data;
+        }
+    }
+
+    private byte[] randomBytes(final int size) {
+        byte[] bytes = new byte[size];
+        random.nextBytes(bytes);
+        return bytes;
+    }
+
+    private void handle(final HttpExchange exchange) throws IOException {
+        requestCount.incrementAndGet();
+        clientPorts.add(exchange.getRemoteAddress().getPort());
+        byte[] data = exchange.getRequestURI().getPath().endsWith(INDEX_EXTENSION) ? indexContent : content;
+        String range = exchange.getRequestHeaders().getFirst("Range");
+        int start = 0;
+        int end = data.length - 1;
+        boolean partial = rangeSupported && range != null;
+        if (partial) {
+            String[] bounds = range.substring("bytes=".length()).split("-");
+            start = Integer.parseInt(bounds[0]);
+            end = Math.min(end, Integer.parseInt(bounds[1]));
+            exchange.getResponseHeaders().add("Content-Range", "bytes " + start + "-" + end + "/" + data.length);
+        }
+        exchange.getResponseHeaders().add("ETag", etag);
+        exchange.sendResponseHeaders(partial ? 206 : 200, end - start + 1);
+        try (OutputStream stream = exchange.getResponseBody()) {
+            stream.write(data, start, end - start + 1);
+        }
+    }
+}
@@ -0,0 +1,81 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2016 EPAM Systems
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.epam.ngb.cli.entity;
+
+/**
+ * {@code FileRegistrationResult} represents a result of registration of a single file from a batch,
+ * returned by NGB server: a registration job of a file, a registered file, when a job succeeds,
+ * or an error message
+ */
+public class FileRegistrationResult {
+    /**
+     * Path to a file, as it was sent for registration
+     */
+    private String path;
+    /**
+     * Registration job of a file, null if a file failed to queue for registration
+     */
+    private RegistrationJob job;
+    /**
+     * Registered file, null if registration failed
+     */
+    private BiologicalDataItem item;
+    /**
+     * Registration error message, if registration failed
+     */
+    private String errorMessage;
+
+    public String getPath() {
+        return path;
+    }
+
+    public void setPath(String path) {
+        this.path = path;
+    }
+
+    public RegistrationJob getJob() {
+        return job;
+    }
+
+    public void setJob(RegistrationJob job) {
+        this.job = job;
+    }
+
+    public BiologicalDataItem getItem() {
+        return item;
+    }
+
+    public void setItem(BiologicalDataItem item) {
+        this.item = item;
+    }
+
+    public String getErrorMessage() {
+        return errorMessage;
+    }
+
+    public void setErrorMessage(String errorMessage) {
+        this.errorMessage = errorMessage;
+    }
+}
@@ -42,6 +42,7 @@ public class RegistrationRequest implements RequestPayload {
     private Boolean doIndex;
     private Boolean noGCContent;
     private String prettyName;
+    private BiologicalDataItemFormat format;
 
     public String getPath() {
         return path;
@@ -138,4 +139,12 @@ public class RegistrationRequest implements RequestPayload {
     public void setPrettyName(String prettyName) {
         this.prettyName = prettyName;
     }
+
+    public BiologicalDataItemFormat getFormat() {
+        return format;
+    }
+
+    public void setFormat(BiologicalDataItemFormat format) {
+        this.format = format;
+    }
 }
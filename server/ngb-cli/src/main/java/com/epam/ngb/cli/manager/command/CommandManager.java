@@ -54,6 +54,7 @@ public class CommandManager {
     private static final String AUTHENTICATION_URL_PROPERTY = "authentication_url";
     private static final String SEARCH_URL_PROPERTY = "search_url";
     private static final String REGISTRATION_URL_PROPERTY = "register_url";
+    private static final String BATCH_REGISTRATION_URL_PROPERTY = "batch_register_url";
     private static final String PROJECT_URL_PROPERTY = "project_url";
     private static final String PROJECT_URL_BY_ID_PROPERTY = "project_load_url";
     private static final String FIND_FILE_URL_PROPERTY = "find_url";
@@ -139,6 +140,7 @@ public class CommandManager {
         parameters.setAuthenticationUrl(serverProperties.getProperty(AUTHENTICATION_URL_PROPERTY));
         parameters.setSearchUrl(serverProperties.getProperty(SEARCH_URL_PROPERTY));
         parameters.setRegistrationUrl(serverProperties.getProperty(REGISTRATION_URL_PROPERTY));
+        parameters.setBatchRegistrationUrl(serverProperties.getProperty(BATCH_REGISTRATION_URL_PROPERTY));
         parameters.setProjectLoadUrl(serverProperties.getProperty(PROJECT_URL_PROPERTY));
         parameters.setProjectLoadByIdUrl(serverProperties.getProperty(PROJECT_URL_BY_ID_PROPERTY));
         parameters.setFileFindUrl(serverProperties.getProperty(FIND_FILE_URL_PROPERTY));
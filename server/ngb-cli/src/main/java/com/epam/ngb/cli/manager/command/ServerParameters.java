@@ -35,6 +35,7 @@ public class ServerParameters {
     private String authPayload;
     private String searchUrl;
     private String registrationUrl;
+    private String batchRegistrationUrl;
     private String projectLoadUrl;
     private String projectTreeUrl;
     private String versionUrl;
@@ -83,6 +84,14 @@ public class ServerParameters {
         this.registrationUrl = registrationUrl;
     }
 
+    public String getBatchRegistrationUrl() {
+        return batchRegistrationUrl;
+    }
+
+    public void setBatchRegistrationUrl(String batchRegistrationUrl) {
+        this.batchRegistrationUrl = batchRegistrationUrl;
+    }
+
     public String getProjectLoadUrl() {
         return projectLoadUrl;
     }
@@ -32,6 +32,7 @@ import java.net.URI;
 import java.net.URISyntaxException;
 import java.util.Collections;
 import java.util.List;
+import java.util.stream.Collectors;
 
 import com.epam.ngb.cli.app.Utils;
 import com.epam.ngb.cli.entity.BiologicalDataItem;
@@ -94,6 +95,11 @@ public abstract class AbstractHTTPCommandHandler extends AbstractSimpleCommandHa
      */
     private static final String INDEX_DELIMITER = "\\?";
 
+    /**
+     * Request parameter, specifying IDs of files, that are removed from a dataset
+     */
+    private static final String BIOLOGICAL_ITEM_IDS_PARAMETER = "biologicalItemIds";
+
     /**
      * Parameters of a NGB server connection along with some URLs common to all HTTP command handlers
      */
@@ -497,7 +503,9 @@ public abstract class AbstractHTTPCommandHandler extends AbstractSimpleCommandHa
     }
 
     /**
-     * Performs a request to add or remove files from a dataset on NGB server
+     * Performs a request to add or remove files from a dataset on NGB server. All files are
+     * added or removed by a single request: IDs of added files are sent in a request body,
+     * IDs of removed files - as a request parameter
      * @param items to add or remove from a dataset
      * @param datasetId specifies dataset
      * @param printJson if true, result wil be printed in Json format
@@ -505,18 +513,29 @@ public abstract class AbstractHTTPCommandHandler extends AbstractSimpleCommandHa
      */
     protected void addOrDeleteItemsFromDataset(List<Long> items, Long datasetId,
             boolean printJson, boolean printTable) {
-        String result = null;
-        for (Long id : items) {
-            String url = String.format(getRequestUrl(), datasetId, id);
+        if (items.isEmpty()) {
+            return;
+        }
+        try {
+            String url = String.format(getRequestUrl(), datasetId);
             HttpRequestBase request = getRequest(url);
+            if (request instanceof HttpPut) {
+                ((HttpPut) request).setEntity(new StringEntity(getMapper().writeValueAsString(items)));
+            } else {
+                request.setURI(new URIBuilder(request.getURI())
+                        .addParameter(BIOLOGICAL_ITEM_IDS_PARAMETER, items.stream()
+                                .map(String::valueOf)
+                                .collect(Collectors.joining(",")))
+                        .build());
+            }
             setDefaultHeader(request);
             if (isSecure()) {
                 addAuthorizationToRequest(request);
             }
-            result = RequestManager.executeRequest(request);
-        }
-        if (result != null) {
+            String result = RequestManager.executeRequest(request);
             checkAndPrintDatasetResult(result, printJson, printTable);
+        } catch (UnsupportedEncodingException | JsonProcessingException | URISyntaxException e) {
+            throw new ApplicationException(e.getMessage(), e);
         }
     }
 
@@ -28,6 +28,7 @@ import static com.epam.ngb.cli.constants.MessageConstants.MINIMUM_COMMAND_ARGUME
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Objects;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -85,8 +86,9 @@ public class DatasetItemAddingHandler extends AbstractHTTPCommandHandler {
         }
 
         datasetId = parseProjectId(arguments.get(0));
-        Long referenceUniqueId = null;
-
+        // new files are registered by a single handler, their positions in a dataset are kept
+        List<String> newFiles = new ArrayList<>();
+        List<Integer> newFilePositions = new ArrayList<>();
         for (int i = 1; i < arguments.size(); i++) {
             String file = arguments.get(i);
             try {
@@ -96,18 +98,26 @@ public class DatasetItemAddingHandler extends AbstractHTTPCommandHandler {
             } catch (ApplicationException e) {
                 LOGGER.debug(e.getMessage(), e);
             }
+            newFiles.add(file);
+            newFilePositions.add(items.size());
+            items.add(null);
+        }
 
+        if (!newFiles.isEmpty()) {
             ApplicationOptions registerOptions = new ApplicationOptions();
             registerOptions.setDoIndex(options.isDoIndex());
 
-            referenceUniqueId = referenceUniqueId == null ? loadReferenceIdFromDataset(datasetId) : referenceUniqueId;
-            FileRegistrationHandler handler =
-                    new FileRegistrationHandler(file, referenceUniqueId, this, registerOptions);
+            FileRegistrationHandler handler = new FileRegistrationHandler(newFiles,
+                    loadReferenceIdFromDataset(datasetId), this, registerOptions);
             handler.setRequestUrl(handler.getServerParameters().getRegistrationUrl());
             handler.setRequestType("POST");
-
-            List<BiologicalDataItem> registeredFiles = handler.registerItems();
-            registeredFiles.forEach(f -> items.add(f.getBioDataItemId()));
+            List<BiologicalDataItem> registeredFiles = handler.registerFiles();
+            for (int i = 0; i < registeredFiles.size(); i++) {
+                if (registeredFiles.get(i) != null) {
+                    items.set(newFilePositions.get(i), registeredFiles.get(i).getBioDataItemId());
+                }
+            }
+            items.removeIf(Objects::isNull);
         }
 
         this.printTable = options.isPrintTable();
@@ -29,6 +29,7 @@ import static com.epam.ngb.cli.constants.MessageConstants.MINIMUM_COMMAND_ARGUME
 import java.net.URISyntaxException;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Objects;
 
 import org.apache.http.client.methods.HttpPost;
 import org.apache.http.client.utils.URIBuilder;
@@ -112,7 +113,9 @@ public class DatasetRegistrationHandler extends AbstractHTTPCommandHandler {
         printJson = options.isPrintJson();
         printTable = options.isPrintTable();
         items.add(new ProjectItem(referenceId, false));
-        Long referenceUniqueId = null;
+        // new files are registered by a single handler, their positions in a dataset are kept
+        List<String> newFiles = new ArrayList<>();
+        List<Integer> newFilePositions = new ArrayList<>();
         for (int i = 2; i < arguments.size(); i++) {
             String file = arguments.get(i);
             try {
@@ -122,19 +125,27 @@ public class DatasetRegistrationHandler extends AbstractHTTPCommandHandler {
             } catch (ApplicationException e) {
                 LOGGER.debug(e.getMessage(), e);
             }
+            newFiles.add(file);
+            newFilePositions.add(items.size());
+            items.add(null);
+        }
 
+        if (!newFiles.isEmpty()) {
             ApplicationOptions registerOptions = new ApplicationOptions();
             registerOptions.setDoIndex(options.isDoIndex());
 
-            referenceUniqueId = referenceUniqueId == null ? loadReferenceId(arguments.get(0)) : referenceUniqueId;
-            FileRegistrationHandler handler =
-                    new FileRegistrationHandler(file, referenceUniqueId, this, registerOptions);
+            FileRegistrationHandler handler = new FileRegistrationHandler(newFiles,
+                    loadReferenceId(arguments.get(0)), this, registerOptions);
             handler.setRequestUrl(handler.getServerParameters().getRegistrationUrl());
             handler.setRequestType("POST");
-            List<BiologicalDataItem> registeredFiles = handler.registerItems();
-            if (!registeredFiles.isEmpty()) {
-                registeredFiles.forEach(f -> items.add(new ProjectItem(f.getBioDataItemId(), false)));
+            List<BiologicalDataItem> registeredFiles = handler.registerFiles();
+            for (int i = 0; i < registeredFiles.size(); i++) {
+                if (registeredFiles.get(i) != null) {
+                    items.set(newFilePositions.get(i),
+                            new ProjectItem(registeredFiles.get(i).getBioDataItemId(), false));
+                }
             }
+            items.removeIf(Objects::isNull);
         }
     }
 
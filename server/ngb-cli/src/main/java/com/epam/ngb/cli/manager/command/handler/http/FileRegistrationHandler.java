@@ -28,14 +28,22 @@ import static com.epam.ngb.cli.constants.MessageConstants.ERROR_FILES_NOT_REGIST
 import static com.epam.ngb.cli.constants.MessageConstants.MINIMUM_COMMAND_ARGUMENTS;
 
 import java.io.IOException;
+import java.net.URI;
+import java.net.URISyntaxException;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.Objects;
 import java.util.stream.Collectors;
 
 import com.epam.ngb.cli.entity.*;
+import com.epam.ngb.cli.manager.request.RequestManager;
 import org.apache.commons.lang3.tuple.Pair;
+import org.apache.http.client.methods.HttpGet;
 import org.apache.http.client.methods.HttpPost;
 import org.apache.http.client.methods.HttpRequestBase;
+import org.apache.http.client.utils.URIBuilder;
+import org.apache.http.entity.StringEntity;
 
 import com.epam.ngb.cli.app.ApplicationOptions;
 import com.epam.ngb.cli.constants.MessageConstants;
@@ -49,7 +57,7 @@ import org.slf4j.LoggerFactory;
  * {@code {@link FileRegistrationHandler}} represents a tool handling "register_file" command and
  * sending request to NGB server for file registration. This command requires at least two arguments:
  * reference ID or name and path to a file. Registration of several files by
- * one command is also supported.
+ * one command is also supported, such files are sent to the server by batches.
  * Indexed files should be provided in one string argument containing path to file and path to index
  * delimited by a '?' symbol.
  * By default the command doesn't produce any output, but it can be turned on by setting {@code true}
@@ -91,6 +99,16 @@ public class FileRegistrationHandler extends AbstractHTTPCommandHandler {
      */
     private boolean doIndex;
 
+    /**
+     * Number of files, that are sent to the server by a single batch registration request
+     */
+    private static final int BATCH_SIZE = 100;
+
+    /**
+     * Interval in milliseconds between requests for results of a batch, that is registered by the server
+     */
+    private static final long BATCH_POLL_INTERVAL = 1000;
+
     private static final Logger LOGGER = LoggerFactory.getLogger(FileRegistrationHandler.class);
 
     /**
@@ -112,8 +130,23 @@ public class FileRegistrationHandler extends AbstractHTTPCommandHandler {
      */
     public FileRegistrationHandler(String path, Long referenceId,
             AbstractHTTPCommandHandler handler, ApplicationOptions options) {
+        this(Collections.singletonList(path), referenceId, handler, options);
+    }
+
+    /**
+     * Constructor for creating {@code FileRegistrationHandler} for several files from an outer
+     * {@code AbstractHTTPCommandHandler}, files are registered by batches
+     * @param paths to files for registration, if file with index is given, file and index
+     *             must be separated with '?' symbol
+     * @param referenceId ID of the reference to use for file registration
+     *                    (not BiologicalDataItemId!)
+     * @param handler an outer {@code AbstractHTTPCommandHandler} for providing configuration
+     * @param options {@code {@link ApplicationOptions}} with optional name and output options
+     */
+    public FileRegistrationHandler(List<String> paths, Long referenceId,
+            AbstractHTTPCommandHandler handler, ApplicationOptions options) {
         super(handler);
-        files.add(super.parseAndVerifyFilePath(path));
+        paths.forEach(path -> files.add(super.parseAndVerifyFilePath(path)));
         this.referenceId = referenceId;
         this.printJson = options.isPrintJson();
         this.printTable = options.isPrintTable();
@@ -171,39 +204,156 @@ public class FileRegistrationHandler extends AbstractHTTPCommandHandler {
     }
 
     protected List<BiologicalDataItem> registerItems() {
-        List<BiologicalDataItem> items = new ArrayList<>(files.size());
-        List<Pair<String, String>> failed = new ArrayList<>(files.size());
-        for (Pair<String, String> file : files) {
-            BiologicalDataItemFormat format = BiologicalDataItemFormat.getByFilePath(file.getLeft());
-            String url = String.format(getRequestUrl(), format.name().toLowerCase());
-            HttpRequestBase request = getRequest(url);
-            setDefaultHeader(request);
-            if (isSecure()) {
-                addAuthorizationToRequest(request);
+        return registerFiles().stream().filter(Objects::nonNull).collect(Collectors.toList());
+    }
+
+    /**
+     * Registers files on NGB server. Several files are sent by batches of {@code BATCH_SIZE} files,
+     * that are queued by the server as registration jobs and polled until all of them finish, a single
+     * file or all files, if the server
+     * configuration doesn't specify a batch registration URL, are registered one by one.
+     * @return registered files in the order of input files, null for files, that failed to register
+     */
+    protected List<BiologicalDataItem> registerFiles() {
+        String batchUrl = serverParameters.getBatchRegistrationUrl();
+        List<BiologicalDataItem> items;
+        if (files.size() == 1 || batchUrl == null) {
+            items = files.stream().map(this::registerFile).collect(Collectors.toList());
+        } else {
+            items = new ArrayList<>(files.size());
+            for (int i = 0; i < files.size(); i += BATCH_SIZE) {
+                items.addAll(registerBatch(files.subList(i, Math.min(i + BATCH_SIZE, files.size())), batchUrl));
+            }
+        }
+        List<String> failed = new ArrayList<>();
+        for (int i = 0; i < files.size(); i++) {
+            if (items.get(i) == null) {
+                failed.add(files.get(i).getLeft());
+            }
+        }
+        if (!failed.isEmpty()) {
+            LOGGER.error(MessageConstants.getMessage(ERROR_FILES_NOT_REGISTERED, String.join(",", failed)));
+        }
+        return items;
+    }
+
+    private BiologicalDataItem registerFile(Pair<String, String> file) {
+        BiologicalDataItemFormat format = BiologicalDataItemFormat.getByFilePath(file.getLeft());
+        String url = String.format(getRequestUrl(), format.name().toLowerCase());
+        HttpRequestBase request = getRequest(url);
+        setDefaultHeader(request);
+        if (isSecure()) {
+            addAuthorizationToRequest(request);
+        }
+
+        RegistrationRequest registration = createRegistrationRequest(file, format);
+
+        String result = getPostResult(registration, (HttpPost) request);
+        try {
+            ResponseResult<BiologicalDataItem> responseResult = getMapper().readValue(result,
+                    getMapper().getTypeFactory().constructParametrizedType(ResponseResult.class,
+                            ResponseResult.class, BiologicalDataItem.class));
+            if (ERROR_STATUS.equals(responseResult.getStatus())) {
+                LOGGER.error(responseResult.getMessage());
+                return null;
             }
+            return responseResult.getPayload();
+        } catch (IOException e) {
+            throw new ApplicationException(e.getMessage(), e);
+        }
+    }
+
+    private List<BiologicalDataItem> registerBatch(List<Pair<String, String>> batch, String batchUrl) {
+        HttpPost post = new HttpPost(serverParameters.getServerUrl() + batchUrl);
+        setDefaultHeader(post);
+        if (isSecure()) {
+            addAuthorizationToRequest(post);
+        }
 
+        List<RegistrationRequest> registrations = new ArrayList<>(batch.size());
+        for (Pair<String, String> file : batch) {
+            BiologicalDataItemFormat format = BiologicalDataItemFormat.getByFilePath(file.getLeft());
             RegistrationRequest registration = createRegistrationRequest(file, format);
+            registration.setFormat(format);
+            registrations.add(registration);
+        }
 
-            String result = getPostResult(registration, (HttpPost) request);
-            try {
-                ResponseResult<BiologicalDataItem> responseResult = getMapper().readValue(result,
-                        getMapper().getTypeFactory().constructParametrizedType(ResponseResult.class,
-                                ResponseResult.class, BiologicalDataItem.class));
-                if (ERROR_STATUS.equals(responseResult.getStatus())) {
-                    LOGGER.error(responseResult.getMessage());
-                    failed.add(file);
+        try {
+            post.setEntity(new StringEntity(getMapper().writeValueAsString(registrations)));
+            List<FileRegistrationResult> queued = readBatchResults(RequestManager.executeRequest(post));
+            if (queued == null) {
+                return Collections.nCopies(batch.size(), null);
+            }
+            List<BiologicalDataItem> items = new ArrayList<>(Collections.nCopies(batch.size(), null));
+            List<Integer> positions = new ArrayList<>(batch.size());
+            List<String> jobIds = new ArrayList<>(batch.size());
+            for (int i = 0; i < queued.size(); i++) {
+                FileRegistrationResult registrationResult = queued.get(i);
+                if (registrationResult.getJob() == null) {
+                    LOGGER.error(registrationResult.getPath() + ": " + registrationResult.getErrorMessage());
                 } else {
-                    items.add(responseResult.getPayload());
+                    positions.add(i);
+                    jobIds.add(String.valueOf(registrationResult.getJob().getId()));
+                }
+            }
+            if (jobIds.isEmpty()) {
+                return items;
+            }
+            List<FileRegistrationResult> results = waitForBatch(batchUrl, String.join(",", jobIds));
+            if (results == null) {
+                return items;
+            }
+            for (int i = 0; i < results.size(); i++) {
+                FileRegistrationResult registrationResult = results.get(i);
+                if (registrationResult.getItem() == null) {
+                    LOGGER.error(registrationResult.getPath() + ": " + registrationResult.getErrorMessage());
                 }
-            } catch (IOException e) {
+                items.set(positions.get(i), registrationResult.getItem());
+            }
+            return items;
+        } catch (IOException | URISyntaxException e) {
+            throw new ApplicationException(e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Polls results of registration jobs of a batch, until all jobs finish
+     * @return results of jobs in the order of IDs or null, if the server failed to return them
+     */
+    private List<FileRegistrationResult> waitForBatch(String batchUrl, String jobIds)
+            throws IOException, URISyntaxException {
+        URI uri = new URIBuilder(serverParameters.getServerUrl() + batchUrl)
+                .addParameter("jobIds", jobIds)
+                .build();
+        while (true) {
+            HttpGet get = new HttpGet(uri);
+            setDefaultHeader(get);
+            if (isSecure()) {
+                addAuthorizationToRequest(get);
+            }
+            List<FileRegistrationResult> results = readBatchResults(RequestManager.executeRequest(get));
+            if (results == null || results.stream().allMatch(result -> result.getJob().isFinished())) {
+                return results;
+            }
+            try {
+                Thread.sleep(BATCH_POLL_INTERVAL);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
                 throw new ApplicationException(e.getMessage(), e);
             }
         }
-        if (!failed.isEmpty()) {
-            LOGGER.error(MessageConstants.getMessage(ERROR_FILES_NOT_REGISTERED,
-                    failed.stream().map(Pair::getLeft).collect(Collectors.joining(","))));
+    }
+
+    private List<FileRegistrationResult> readBatchResults(String result) throws IOException {
+        ResponseResult<List<FileRegistrationResult>> responseResult = getMapper().readValue(result,
+                getMapper().getTypeFactory().constructParametrizedType(ResponseResult.class,
+                        ResponseResult.class, getMapper().getTypeFactory().constructParametrizedType(
+                                List.class, List.class, FileRegistrationResult.class)));
+        if (ERROR_STATUS.equals(responseResult.getStatus()) || responseResult.getPayload() == null) {
+            LOGGER.error(responseResult.getMessage());
+            return null;
         }
-        return items;
+        return responseResult.getPayload();
     }
 
     private RegistrationRequest createRegistrationRequest(Pair<String, String> file, BiologicalDataItemFormat format) {
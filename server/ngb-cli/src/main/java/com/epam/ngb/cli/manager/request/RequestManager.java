@@ -26,26 +26,42 @@ package com.epam.ngb.cli.manager.request;
 
 import java.io.IOException;
 
-import org.apache.http.HttpResponse;
+import org.apache.http.client.methods.CloseableHttpResponse;
 import org.apache.http.client.methods.HttpRequestBase;
 import org.apache.http.impl.client.CloseableHttpClient;
 import org.apache.http.impl.client.HttpClients;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
 import org.apache.http.util.EntityUtils;
 
 import com.epam.ngb.cli.exception.ApplicationException;
 
+/**
+ * {@code RequestManager} executes HTTP requests to NGB server by a single client with a pool of
+ * connections, so that a command, sending many requests, e.g. registration of a cohort of files,
+ * reuses open connections instead of connecting to the server for each request.
+ */
 public final class RequestManager {
 
+    private static final int MAX_CONNECTIONS = 20;
+
+    private static final CloseableHttpClient HTTP_CLIENT = createHttpClient();
+
     private RequestManager() {
         //no op
     }
 
     public static String executeRequest(HttpRequestBase request) {
-        try (CloseableHttpClient httpClient = HttpClients.createDefault()) {
-            HttpResponse response = httpClient.execute(request);
+        try (CloseableHttpResponse response = HTTP_CLIENT.execute(request)) {
             return EntityUtils.toString(response.getEntity(), "UTF-8");
         } catch (IOException e) {
             throw new ApplicationException("Failed to execute a request", e);
         }
     }
+
+    private static CloseableHttpClient createHttpClient() {
+        PoolingHttpClientConnectionManager connectionManager = new PoolingHttpClientConnectionManager();
+        connectionManager.setMaxTotal(MAX_CONNECTIONS);
+        connectionManager.setDefaultMaxPerRoute(MAX_CONNECTIONS);
+        return HttpClients.custom().setConnectionManager(connectionManager).build();
+    }
 }
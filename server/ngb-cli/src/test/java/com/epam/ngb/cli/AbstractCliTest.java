@@ -48,14 +48,15 @@ public abstract class AbstractCliTest {
     //REST URLS
     public static final String FILE_FIND_URL = "/catgenome/restapi/dataitem/find";
     public static final String REGISTRATION_URL = "/catgenome/restapi/%s/register";
+    public static final String BATCH_REGISTRATION_URL = "/catgenome/restapi/registration/batch";
     public static final String INDEXATION_URL = "/catgenome/restapi/%s/%d/index";
     public static final String SEARCH_URL = "/catgenome/restapi/dataitem/search";
     public static final String DATASET_REGISTRATION_URL = "/catgenome/restapi/project/save";
     public static final String DATASET_LOAD_BY_NAME_URL = "/catgenome/restapi/project/load";
     public static final String DATASET_LOAD_BY_ID_URL = "/catgenome/restapi/project/%d/load";
     public static final String DATASET_DELETE_URL = "/catgenome/restapi/project/%d";
-    public static final String DATASET_ADDING_URL = "/catgenome/restapi/project/%d/add/%d";
-    public static final String DATASET_REMOVE_URL = "/catgenome/restapi/project/%d/remove/%d";
+    public static final String DATASET_ADDING_URL = "/catgenome/restapi/project/%d/add";
+    public static final String DATASET_REMOVE_URL = "/catgenome/restapi/project/%d/remove";
     public static final String DATASET_LIST_URL = "/catgenome/restapi/project/loadMy";
     public static final String DATASET_TREE_URL = "/catgenome/restapi/project/tree";
     public static final String REFERENCE_LIST_URL = "/catgenome/restapi/reference/loadAll";
@@ -80,6 +81,7 @@ public abstract class AbstractCliTest {
     public static final String SERVER_URL_PROPERTY = "server_url";
     public static final String SEARCH_URL_PROPERTY = "search_url";
     public static final String REGISTRATION_URL_PROPERTY = "register_url";
+    public static final String BATCH_REGISTRATION_URL_PROPERTY = "batch_register_url";
     public static final String PROJECT_URL_PROPERTY = "project_url";
     public static final String PROJECT_URL_BY_ID_PROPERTY = "project_load_url";
     public static final String FILE_FIND_URL_PROPERTY = "find_url";
@@ -100,6 +102,7 @@ public abstract class AbstractCliTest {
         parameters.setAuthenticationUrl(serverProperties.getProperty(AUTHENTICATION_URL_PROPERTY));
         parameters.setSearchUrl(serverProperties.getProperty(SEARCH_URL_PROPERTY));
         parameters.setRegistrationUrl(serverProperties.getProperty(REGISTRATION_URL_PROPERTY));
+        parameters.setBatchRegistrationUrl(serverProperties.getProperty(BATCH_REGISTRATION_URL_PROPERTY));
         parameters.setProjectLoadUrl(serverProperties.getProperty(PROJECT_URL_PROPERTY));
         parameters.setProjectLoadByIdUrl(serverProperties.getProperty(PROJECT_URL_BY_ID_PROPERTY));
         parameters.setFileFindUrl(serverProperties.getProperty(FILE_FIND_URL_PROPERTY));
@@ -30,6 +30,7 @@ import com.fasterxml.jackson.core.JsonProcessingException;
 
 import java.text.ParseException;
 import java.text.SimpleDateFormat;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Date;
 import java.util.List;
@@ -66,6 +67,31 @@ public final class TestDataProvider {
         }
     }
 
+    public static String getBatchRegistrationPayloadJson(List<BiologicalDataItem> items, boolean finished) {
+        List<FileRegistrationResult> results = new ArrayList<>(items.size());
+        for (int i = 0; i < items.size(); i++) {
+            FileRegistrationResult result = new FileRegistrationResult();
+            result.setPath(items.get(i).getPath());
+            result.setJob(getRegistrationJob(getBatchJobId(i), finished ? "SUCCEEDED" : "QUEUED"));
+            if (finished) {
+                result.setItem(items.get(i));
+            }
+            results.add(result);
+        }
+        return getPayloadJson(results);
+    }
+
+    public static Long getBatchJobId(int index) {
+        return (long) index + 1;
+    }
+
+    public static RegistrationJob getRegistrationJob(Long id, String status) {
+        RegistrationJob job = new RegistrationJob();
+        job.setId(id);
+        job.setStatus(status);
+        return job;
+    }
+
     public static BiologicalDataItem getBioItem(Long id, Long bioItemId,
             BiologicalDataItemFormat format, String path, String name) {
         return getBioItem(id, bioItemId, format, path, name, null);
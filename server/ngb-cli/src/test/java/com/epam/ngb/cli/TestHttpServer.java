@@ -35,6 +35,7 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 import static net.jadler.Jadler.*;
 
@@ -152,6 +153,28 @@ public class TestHttpServer extends AbstractCliTest{
                 .withStatus(HTTP_STATUS_OK);
     }
 
+    /**
+     * Enables batch registration of files on the server: files are queued by a batch request
+     * and all their jobs are finished, when results of a batch are requested
+     */
+    public void addBatchFileRegistration(List<BiologicalDataItem> items) {
+        onRequest()
+                .havingMethodEqualTo(HTTP_POST)
+                .havingPathEqualTo(BATCH_REGISTRATION_URL)
+                .respond()
+                .withBody(TestDataProvider.getBatchRegistrationPayloadJson(items, false))
+                .withStatus(HTTP_STATUS_OK);
+        onRequest()
+                .havingMethodEqualTo(HTTP_GET)
+                .havingPathEqualTo(BATCH_REGISTRATION_URL)
+                .havingParameterEqualTo("jobIds", IntStream.range(0, items.size())
+                        .mapToObj(i -> String.valueOf(TestDataProvider.getBatchJobId(i)))
+                        .collect(Collectors.joining(",")))
+                .respond()
+                .withBody(TestDataProvider.getBatchRegistrationPayloadJson(items, true))
+                .withStatus(HTTP_STATUS_OK);
+    }
+
     /**
      * Enables dataset registration on the server
      */
@@ -265,7 +288,7 @@ public class TestHttpServer extends AbstractCliTest{
         newItems.add(newItem);
         onRequest()
                 .havingMethodEqualTo(HTTP_PUT)
-                .havingPathEqualTo(String.format(DATASET_ADDING_URL, datasetId, newItem.getBioDataItemId()))
+                .havingPathEqualTo(String.format(DATASET_ADDING_URL, datasetId))
                 .respond()
                 .withBody(TestDataProvider.getProjectPayloadJson(datasetId, datasetName, newItems))
                 .withStatus(HTTP_STATUS_OK);
@@ -277,7 +300,7 @@ public class TestHttpServer extends AbstractCliTest{
         newItems.remove(file);
         onRequest()
                 .havingMethodEqualTo(HTTP_DELETE)
-                .havingPathEqualTo(String.format(DATASET_REMOVE_URL, datasetId, file.getBioDataItemId()))
+                .havingPathEqualTo(String.format(DATASET_REMOVE_URL, datasetId))
                 .respond()
                 .withBody(TestDataProvider.getProjectPayloadJson(datasetId, datasetName, newItems))
                 .withStatus(HTTP_STATUS_OK);
@@ -30,6 +30,7 @@ import static org.junit.Assert.assertEquals;
 import java.util.Arrays;
 import java.util.Collections;
 
+import com.epam.ngb.cli.TestDataProvider;
 import com.epam.ngb.cli.TestHttpServer;
 import com.epam.ngb.cli.app.Utils;
 import org.junit.AfterClass;
@@ -113,6 +114,11 @@ public class FileRegistrationHandlerTest extends AbstractCliTest {
                 Utils.getNormalizeAndAbsolutePath(RELATIVE_PATH_TO_BAI), null, BAM_ID, BAM_BIO_ID,
                 BiologicalDataItemFormat.BAM);
 
+        //register several files by a batch
+        server.addBatchFileRegistration(Arrays.asList(
+                TestDataProvider.getBioItem(VCF_ID, VCF_BIO_ID, BiologicalDataItemFormat.VCF, PATH_TO_VCF, null),
+                TestDataProvider.getBioItem(BAM_ID, BAM_BIO_ID, BiologicalDataItemFormat.BAM, PATH_TO_BAM, null)));
+
         serverParameters = getDefaultServerOptions(server.getPort());
     }
 